@@ -0,0 +1,11 @@
+// JVM stand-ins for the Android framework classes that app sources compiled
+// into the JVM-only modules (:benchmark, :battlesim) call.
+
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
@@ -6,6 +6,7 @@ plugins {
     alias(libs.plugins.hilt)
     alias(libs.plugins.google.services)
     alias(libs.plugins.firebase.crashlytics)
+    alias(libs.plugins.baselineprofile)
 }
 
 // Load keystore properties
@@ -27,6 +28,14 @@ android {
         versionName = "1.1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Room exports the schema JSON to app/schemas when the app compiles;
+        // the prebuilt database task below reads the current version's file
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
     }
 
     signingConfigs {
@@ -65,6 +74,24 @@ android {
     buildFeatures {
         viewBinding = true
     }
+
+    // Engine tests run real code on the JVM; android.util.Log calls become no-ops there
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+
+    sourceSets {
+        // The simulated battle backend is shared with :battlesim and only
+        // compiled for unit tests, so it doesn't ship in the APK
+        getByName("test").java.srcDir("$rootDir/battlesim/src/loopback/java")
+    }
+}
+
+// Baseline and startup profiles come from :macrobenchmark's StartupProfileGenerator
+// (./gradlew :app:generateBaselineProfile); the startup profile also drives
+// R8's DEX layout so startup classes sit in the primary dex.
+baselineProfile {
+    dexLayoutOptimization = true
 }
 
 dependencies {
@@ -77,11 +104,16 @@ dependencies {
 
     // Room
     implementation(libs.room.runtime)
+    implementation(libs.room.paging)
     annotationProcessor(libs.room.compiler)
 
     // ViewModel & LiveData
     implementation(libs.lifecycle.viewmodel)
     implementation(libs.lifecycle.livedata)
+    implementation(libs.lifecycle.viewmodel.ktx)  // viewModelScope for cached paging
+
+    // Paging
+    implementation(libs.paging.runtime)
 
     // RecyclerView
     implementation(libs.recyclerview)
@@ -104,6 +136,10 @@ dependencies {
     // Janino (code execution)
     implementation(libs.janino)
 
+    // Installs the baseline profile on devices without Play profile delivery
+    implementation(libs.profileinstaller)
+    baselineProfile(project(":macrobenchmark"))
+
     // LeakCanary (debug only)
     debugImplementation(libs.leakcanary)
 
@@ -130,3 +166,71 @@ dependencies {
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
+
+// ═══ Prebuilt database ═══
+// The seed content is written into an SQLite file at build time and merged
+// into assets/databases, where DebugMasterDatabase opens it with
+// createFromAsset. Fresh installs then skip the on-device seed.
+
+val seedDbClasspath: Configuration by configurations.creating {
+    isCanBeConsumed = false
+    attributes {
+        attribute(Usage.USAGE_ATTRIBUTE, objects.named(Usage.JAVA_RUNTIME))
+    }
+}
+
+dependencies {
+    seedDbClasspath(project(":seeddb"))
+}
+
+// The version declared on DebugMasterDatabase's @Database annotation
+val databaseVersion: Int = file("src/main/java/com/example/debugappproject/data/local/DebugMasterDatabase.java")
+    .readText()
+    .let { Regex("""@Database\s*\([\s\S]*?\bversion\s*=\s*(\d+)""").find(it) }
+    ?.groupValues?.get(1)?.toInt()
+    ?: throw GradleException("Cannot find the version in DebugMasterDatabase's @Database annotation")
+
+abstract class GeneratePrebuiltDatabase : JavaExec() {
+    @get:InputFile
+    abstract val bugsJson: RegularFileProperty
+
+    // Written by Room's annotation processor during the variant's compile
+    @get:InputDirectory
+    abstract val schemaDir: DirectoryProperty
+
+    // Only this version's schema file is used, never "the newest one there"
+    @get:Input
+    abstract val schemaVersion: Property<Int>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    override fun exec() {
+        args(
+            bugsJson.get().asFile,
+            schemaDir.get().asFile,
+            schemaVersion.get(),
+            outputDir.get().file("databases/debug_master_database.db").asFile
+        )
+        super.exec()
+    }
+}
+
+androidComponents {
+    onVariants { variant ->
+        val variantName = variant.name.replaceFirstChar { it.uppercase() }
+        val generate = tasks.register<GeneratePrebuiltDatabase>("generate${variantName}PrebuiltDatabase") {
+            group = "build"
+            description = "Writes the seeded database asset for the ${variant.name} variant."
+            classpath = seedDbClasspath
+            mainClass.set("com.example.debugappproject.data.seeding.PrebuiltDatabaseGenerator")
+            bugsJson.set(layout.projectDirectory.file("src/main/assets/bugs.json"))
+            schemaDir.set(layout.projectDirectory.dir(
+                "schemas/com.example.debugappproject.data.local.DebugMasterDatabase"))
+            schemaVersion.set(databaseVersion)
+            outputDir.set(layout.buildDirectory.dir("generated/prebuiltDatabase/${variant.name}"))
+            dependsOn("compile${variantName}JavaWithJavac")
+        }
+        variant.sources.assets?.addGeneratedSourceDirectory(generate, GeneratePrebuiltDatabase::outputDir)
+    }
+}
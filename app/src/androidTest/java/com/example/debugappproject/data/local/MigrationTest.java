@@ -0,0 +1,166 @@
+package com.example.debugappproject.data.local;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.debugappproject.util.NormalizedCode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the migrations since version 13 and checks that each one keeps
+ * existing rows and adds what it should.
+ *
+ * The database only exports its schema from version 17 on, so there is no
+ * version 13 schema for MigrationTestHelper to build from. Instead the test
+ * starts from the tables these migrations touch, as MIGRATION_12_13 left
+ * them. Room checks the full version 17 schema when the app opens the
+ * migrated database.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String FIXED_CODE = "int x = 1;\n// fixed\nSystem.out.println(x);";
+
+    // bugs as rebuilt by MIGRATION_12_13
+    private static final String CREATE_BUGS_V13 = "CREATE TABLE bugs (" +
+            "id INTEGER PRIMARY KEY NOT NULL, title TEXT, language TEXT, difficulty TEXT, " +
+            "category TEXT, description TEXT, brokenCode TEXT, expectedOutput TEXT, " +
+            "actualOutput TEXT, explanation TEXT, fixedCode TEXT, " +
+            "isCompleted INTEGER NOT NULL DEFAULT 0, starterCode TEXT, userNotes TEXT, " +
+            "testsJson TEXT, hint TEXT, xpReward INTEGER NOT NULL DEFAULT 0)";
+    private static final String CREATE_HINTS_V13 = "CREATE TABLE hints (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, bugId INTEGER NOT NULL, " +
+            "level INTEGER NOT NULL, text TEXT)";
+
+    private SupportSQLiteOpenHelper openHelper;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        SupportSQLiteOpenHelper.Configuration configuration = SupportSQLiteOpenHelper.Configuration
+                .builder(InstrumentationRegistry.getInstrumentation().getTargetContext())
+                .name(null)  // In memory
+                .callback(new SupportSQLiteOpenHelper.Callback(13) {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase database) {
+                        database.execSQL(CREATE_BUGS_V13);
+                        database.execSQL(CREATE_HINTS_V13);
+                    }
+
+                    @Override
+                    public void onUpgrade(@NonNull SupportSQLiteDatabase database, int oldVersion, int newVersion) {
+                    }
+                })
+                .build();
+        openHelper = new FrameworkSQLiteOpenHelperFactory().create(configuration);
+        db = openHelper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        openHelper.close();
+    }
+
+    @Test
+    public void migrate13To14_backfillsFixedCodeForms() {
+        insertBug(1, "Off by one", FIXED_CODE);
+
+        migrate(DebugMasterDatabase.MIGRATION_13_14);
+
+        try (Cursor cursor = db.query("SELECT fixedCodeNormalized, fixedCodeCore, fixedCodeFingerprint "
+                + "FROM bugs WHERE id = 1")) {
+            NormalizedCode expected = NormalizedCode.of(FIXED_CODE);
+            assertTrue(cursor.moveToFirst());
+            assertEquals(expected.getNormalized(), cursor.getString(0));
+            assertEquals(expected.getCoreFix(), cursor.getString(1));
+            assertEquals(expected.getFingerprint(), cursor.getLong(2));
+        }
+    }
+
+    @Test
+    public void migrate14To15_indexesExistingBugs() {
+        migrate(DebugMasterDatabase.MIGRATION_13_14);
+        insertBug(1, "Null pointer in loop", FIXED_CODE);
+
+        migrate(DebugMasterDatabase.MIGRATION_14_15);
+
+        try (Cursor cursor = db.query("SELECT rowid FROM bugs_fts WHERE bugs_fts MATCH 'loop*'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate15To16_addsIndexes() {
+        migrate(DebugMasterDatabase.MIGRATION_13_14, DebugMasterDatabase.MIGRATION_14_15);
+
+        migrate(DebugMasterDatabase.MIGRATION_15_16);
+
+        Set<String> indexes = new HashSet<>();
+        try (Cursor cursor = db.query("SELECT name FROM sqlite_master WHERE type = 'index'")) {
+            while (cursor.moveToNext()) {
+                indexes.add(cursor.getString(0));
+            }
+        }
+        assertTrue(indexes.contains("index_bugs_difficulty_category"));
+        assertTrue(indexes.contains("index_bugs_category"));
+        assertTrue(indexes.contains("index_bugs_isCompleted"));
+        assertTrue(indexes.contains("index_hints_bugId_level"));
+    }
+
+    @Test
+    public void migrate16To17_addsEmptySeedManifest() {
+        migrate(DebugMasterDatabase.MIGRATION_13_14, DebugMasterDatabase.MIGRATION_14_15,
+                DebugMasterDatabase.MIGRATION_15_16);
+
+        migrate(DebugMasterDatabase.MIGRATION_16_17);
+
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM seed_manifest")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate13To17_keepsBugsAndProgress() {
+        insertBug(7, "Loop never ends", FIXED_CODE);
+        db.execSQL("UPDATE bugs SET isCompleted = 1 WHERE id = 7");
+
+        migrate(DebugMasterDatabase.MIGRATION_13_14, DebugMasterDatabase.MIGRATION_14_15,
+                DebugMasterDatabase.MIGRATION_15_16, DebugMasterDatabase.MIGRATION_16_17);
+
+        try (Cursor cursor = db.query("SELECT title, isCompleted FROM bugs WHERE id = 7")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Loop never ends", cursor.getString(0));
+            assertEquals(1, cursor.getInt(1));
+        }
+    }
+
+    private void migrate(Migration... migrations) {
+        for (Migration migration : migrations) {
+            migration.migrate(db);
+        }
+    }
+
+    private void insertBug(int id, String title, String fixedCode) {
+        db.execSQL("INSERT INTO bugs (id, title, language, difficulty, category, description, "
+                        + "fixedCode, isCompleted, xpReward) VALUES (?, ?, 'Java', 'Easy', 'Loops', ?, ?, 0, 10)",
+                new Object[]{id, title, "A bug about " + title, fixedCode});
+    }
+}
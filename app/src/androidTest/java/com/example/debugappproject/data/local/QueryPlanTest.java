@@ -0,0 +1,248 @@
+package com.example.debugappproject.data.local;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.paging.PagingSource;
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.CoroutineContext;
+import kotlin.coroutines.EmptyCoroutineContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs EXPLAIN QUERY PLAN on every DAO query and fails when one scans a
+ * whole table that grows with the bug catalog.
+ *
+ * Room's annotations aren't visible at runtime, so the test calls every DAO
+ * method that takes only scalar arguments (the @Query methods; @Insert and
+ * @Update take entities) and records the SQL Room runs through a
+ * QueryCallback. LiveData results are observed and PagingSources loaded so
+ * their queries run too.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    /**
+     * Tables that stay small no matter how many bugs exist: single-row
+     * progress tables and fixed seed data. Scans of these are fine.
+     */
+    private static final Set<String> SMALL_TABLES = new HashSet<>(Arrays.asList(
+            "user_progress",
+            "mental_profile",
+            "learning_paths",
+            "achievement_definitions",
+            "user_achievements"
+    ));
+
+    /**
+     * Methods that read or write every row on purpose.
+     */
+    private static final Set<String> FULL_SCAN_ALLOWED = new HashSet<>(Arrays.asList(
+            "BugDao.getAllBugs",
+            "BugDao.getAllBugsSync",
+            "BugDao.getAllBugSummaries",
+            "BugDao.pageBugSummaries",
+            "BugDao.resetAllBugs",
+            "BugDao.resetAllBugsToNotCompleted",
+            "BugDao.clearAllUserNotes"
+    ));
+
+    // "SCAN bugs" (SQLite 3.36+) or "SCAN TABLE bugs" (older), with no index
+    private static final Pattern TABLE_SCAN =
+            Pattern.compile("^SCAN (?:TABLE )?(\\w+)(?: AS \\w+)?$");
+
+    private static final long QUERY_TIMEOUT_MS = 5000;
+
+    private DebugMasterDatabase db;
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<Object>> statementArgs = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, DebugMasterDatabase.class)
+                .setQueryCallback((sql, args) -> {
+                    if (isDaoStatement(sql)) {
+                        statements.add(sql);
+                        statementArgs.add(new ArrayList<>(args));
+                    }
+                }, Runnable::run)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void daoQueries_doNotScanLargeTables() throws Exception {
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        for (Method daoGetter : DebugMasterDatabase.class.getDeclaredMethods()) {
+            if (daoGetter.getParameterTypes().length != 0
+                    || !daoGetter.getReturnType().getSimpleName().endsWith("Dao")) {
+                continue;
+            }
+            Object dao = daoGetter.invoke(db);
+            Class<?> daoType = daoGetter.getReturnType();
+
+            for (Method method : daoType.getMethods()) {
+                Object[] args = scalarArguments(method);
+                if (args == null) {
+                    continue;
+                }
+                String name = daoType.getSimpleName() + "." + method.getName();
+                List<String> plan = runAndExplain(name, dao, method, args);
+                checked++;
+
+                if (FULL_SCAN_ALLOWED.contains(name)) {
+                    continue;
+                }
+                for (String detail : plan) {
+                    Matcher scan = TABLE_SCAN.matcher(detail);
+                    if (scan.matches() && !SMALL_TABLES.contains(scan.group(1))) {
+                        failures.add(name + ": " + detail);
+                    }
+                }
+            }
+        }
+
+        assertTrue("no DAO queries found", checked > 0);
+        assertTrue("Full table scans:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+
+    /**
+     * Runs the method, waits for its SQL and returns the query plan lines of
+     * every statement it issued.
+     */
+    private List<String> runAndExplain(String name, Object dao, Method method, Object[] args)
+            throws Exception {
+        statements.clear();
+        statementArgs.clear();
+
+        Object result = method.invoke(dao, args);
+        if (result instanceof LiveData) {
+            observeOnce((LiveData<?>) result);
+        } else if (result instanceof PagingSource) {
+            loadFirstPage((PagingSource<?, ?>) result);
+        }
+
+        List<String> sqls;
+        List<List<Object>> sqlArgs;
+        synchronized (statements) {
+            sqls = new ArrayList<>(statements);
+            sqlArgs = new ArrayList<>(statementArgs);
+        }
+        assertFalse(name + " ran no query", sqls.isEmpty());
+
+        List<String> plan = new ArrayList<>();
+        for (int i = 0; i < sqls.size(); i++) {
+            try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sqls.get(i),
+                    sqlArgs.get(i).toArray())) {
+                int detail = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    plan.add(cursor.getString(detail));
+                }
+            }
+        }
+        return plan;
+    }
+
+    private void observeOnce(LiveData<?> liveData) throws InterruptedException {
+        Observer<Object> observer = value -> { };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.observeForever(observer));
+        try {
+            awaitStatement();
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.removeObserver(observer));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void loadFirstPage(PagingSource source) throws InterruptedException {
+        source.load(new PagingSource.LoadParams.Refresh<>(null, 20, false), new Continuation<Object>() {
+            @Override
+            public CoroutineContext getContext() {
+                return EmptyCoroutineContext.INSTANCE;
+            }
+
+            @Override
+            public void resumeWith(Object result) {
+            }
+        });
+        awaitStatement();
+    }
+
+    private void awaitStatement() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + QUERY_TIMEOUT_MS;
+        while (statements.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Sample arguments for a method that takes only strings and numbers,
+     * or null if it takes anything else.
+     */
+    private static Object[] scalarArguments(Method method) {
+        if (method.isDefault() || method.isSynthetic()) {
+            return null;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == String.class) {
+                args[i] = "Easy";
+            } else if (type == int.class) {
+                args[i] = 1;
+            } else if (type == long.class) {
+                args[i] = 1L;
+            } else if (type == boolean.class) {
+                args[i] = false;
+            } else {
+                return null;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * True for statements issued by DAO methods, false for transactions and
+     * Room's own bookkeeping (invalidation tracker, schema checks).
+     */
+    private static boolean isDaoStatement(String sql) {
+        String trimmed = sql.trim().toUpperCase();
+        boolean dml = trimmed.startsWith("SELECT") || trimmed.startsWith("UPDATE")
+                || trimmed.startsWith("DELETE") || trimmed.startsWith("INSERT")
+                || trimmed.startsWith("WITH");
+        return dml
+                && !trimmed.contains("ROOM_TABLE_MODIFICATION_LOG")
+                && !trimmed.contains("ROOM_MASTER_TABLE")
+                && !trimmed.contains("SQLITE_MASTER");
+    }
+}
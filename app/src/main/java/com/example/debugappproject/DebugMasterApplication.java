@@ -7,14 +7,14 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.example.debugappproject.data.repository.BugRepository;
-import com.example.debugappproject.data.seeding.DatabaseSeeder;
+import com.example.debugappproject.data.local.IoDispatcher;
+import com.example.debugappproject.data.seeding.SeedingCoordinator;
+import com.example.debugappproject.execution.EngineWarmUp;
 import com.example.debugappproject.util.AchievementManager;
 import com.example.debugappproject.util.SoundManager;
+import com.example.debugappproject.util.StartupTrace;
 import com.example.debugappproject.util.ThemeManager;
 
-import java.util.concurrent.Executors;
-
 import dagger.hilt.android.HiltAndroidApp;
 
 /**
@@ -23,8 +23,13 @@ import dagger.hilt.android.HiltAndroidApp;
  * Initializes:
  * - Theme (Dark/Light/System)
  * - Database seeding
+ * - Code execution engine warm-up
  * - Achievement tracking
  * - Daily login recording
+ *
+ * Each phase is a StartupTrace section ("DM:App.*"); content providers
+ * such as Firebase's run before onCreate and show up in the "Application
+ * created" time logged on entry.
  */
 @HiltAndroidApp
 public class DebugMasterApplication extends Application {
@@ -33,10 +38,15 @@ public class DebugMasterApplication extends Application {
 
     @Override
     public void onCreate() {
+        StartupTrace.mark("Application created");
+
+        // Hilt builds the singleton component and injects here
+        StartupTrace.begin("App.hilt");
         super.onCreate();
+        StartupTrace.end();
 
         // Apply saved theme preference FIRST (before any UI)
-        ThemeManager.getInstance(this).applyTheme();
+        StartupTrace.section("App.theme", () -> ThemeManager.getInstance(this).applyTheme());
 
         // Register activity lifecycle callbacks to manage resources
         registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
@@ -70,24 +80,35 @@ public class DebugMasterApplication extends Application {
             public void onActivityDestroyed(@NonNull Activity activity) {}
         });
 
-        // Initialize on background thread
-        Executors.newSingleThreadExecutor().execute(() -> {
-            try {
-                android.util.Log.i("DebugMasterApp", "Starting database seeding...");
-                BugRepository repository = new BugRepository(this);
-                DatabaseSeeder.seedDatabase(this, repository);
-                android.util.Log.i("DebugMasterApp", "Database seeding complete!");
-
-                // Record daily login for achievements
-                AchievementManager.getInstance(this).recordDailyLogin();
-
-                // Check for any newly earned achievements
-                AchievementManager.getInstance(this).checkAllAchievements();
-
-            } catch (Exception e) {
-                android.util.Log.e("DebugMasterApp", "Initialization failed", e);
-            }
+        // Compile a sample program in the background so the first mission's Run is fast
+        StartupTrace.section("App.engineWarmUp", () -> EngineWarmUp.start((durationMs, success) ->
+                android.util.Log.i("DebugMasterApp", "Code engine warm-up " +
+                        (success ? "ready" : "failed") + " after " + durationMs + "ms")));
+
+        // Start seeding; splash and onboarding await the same job. The
+        // achievement checks run on the seed thread once it has finished.
+        StartupTrace.begin("App.seedStart");
+        SeedingCoordinator.getInstance(this).start().thenRun(() -> StartupTrace.section("App.achievements", () -> {
+            // Record daily login for achievements
+            AchievementManager.getInstance(this).recordDailyLogin();
+
+            // Check for any newly earned achievements
+            AchievementManager.getInstance(this).checkAllAchievements();
+        })).exceptionally(e -> {
+            android.util.Log.e("DebugMasterApp", "Initialization failed", e);
+            return null;
         });
+        StartupTrace.end();
+        StartupTrace.mark("Application.onCreate done");
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Record DB pool backlog and latency when the app goes to the background
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            IoDispatcher.getInstance().logStats("trim level " + level);
+        }
     }
 
     @Override
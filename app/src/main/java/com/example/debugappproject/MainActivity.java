@@ -21,6 +21,7 @@ import androidx.navigation.ui.NavigationUI;
 
 import com.debugmaster.app.R;
 import com.debugmaster.app.databinding.ActivityMainBinding;
+import com.example.debugappproject.util.StartupTrace;
 import com.example.debugappproject.util.ThemeManager;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -47,17 +48,23 @@ public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTrace.mark("MainActivity.onCreate");
+
         // Apply theme before super.onCreate
-        ThemeManager.getInstance(this).applyTheme();
+        StartupTrace.section("Main.theme", () -> ThemeManager.getInstance(this).applyTheme());
         
+        StartupTrace.begin("Main.superOnCreate");
         super.onCreate(savedInstanceState);
+        StartupTrace.end();
         
-        binding = ActivityMainBinding.inflate(getLayoutInflater());
-        setContentView(binding.getRoot());
+        StartupTrace.section("Main.inflate", () -> {
+            binding = ActivityMainBinding.inflate(getLayoutInflater());
+            setContentView(binding.getRoot());
+        });
 
         // Setup offline banner
         offlineBanner = findViewById(R.id.offline_banner);
-        setupNetworkListener();
+        StartupTrace.section("Main.networkListener", this::setupNetworkListener);
 
         // Request notification permission for Android 13+ (required for push notifications)
         requestNotificationPermissionIfNeeded();
@@ -132,6 +139,7 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupNavigation() {
+        StartupTrace.begin("Main.navigation");
         try {
             // Get NavHostFragment
             NavHostFragment navHostFragment = (NavHostFragment) getSupportFragmentManager()
@@ -180,6 +188,8 @@ public class MainActivity extends AppCompatActivity {
             
         } catch (Exception e) {
             android.util.Log.e("MainActivity", "Setup error: " + e.getMessage(), e);
+        } finally {
+            StartupTrace.end();
         }
     }
 
@@ -8,6 +8,8 @@ import android.webkit.JavascriptInterface;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 
+import com.example.debugappproject.execution.CodeExecutionResult;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -34,6 +36,7 @@ import java.util.regex.Pattern;
  * Features:
  * - Sandboxed JavaScript execution via WebView
  * - Java code simulation (pattern matching)
+ * - Java test cases compiled once with Janino and graded in parallel
  * - Python code simulation (pattern matching)
  * - Timeout protection (5 second limit)
  * - Memory limits
@@ -49,6 +52,7 @@ public class CodeExecutionEngine {
     private static CodeExecutionEngine instance;
     private Context context;
     private ExecutorService executor;
+    private com.example.debugappproject.execution.CodeExecutionEngine compiledEngine;
     private Handler mainHandler;
     private WebView jsWebView;
     private volatile String jsResult;
@@ -82,6 +86,7 @@ public class CodeExecutionEngine {
     private CodeExecutionEngine(Context context) {
         this.context = context.getApplicationContext();
         this.executor = Executors.newSingleThreadExecutor();
+        this.compiledEngine = new com.example.debugappproject.execution.CodeExecutionEngine();
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
 
@@ -137,6 +142,7 @@ public class CodeExecutionEngine {
             try {
                 // Parse test cases
                 JSONArray tests = new JSONArray(testsJson);
+                List<TestCaseResult> testCases = new ArrayList<>();
                 
                 for (int i = 0; i < tests.length(); i++) {
                     JSONObject test = tests.getJSONObject(i);
@@ -144,30 +150,34 @@ public class CodeExecutionEngine {
                     testResult.name = test.optString("name", "Test " + (i + 1));
                     testResult.input = test.optString("input", "");
                     testResult.expectedOutput = test.getString("expected");
-                    
-                    // Execute with input
-                    String codeWithInput = injectInput(code, testResult.input, language);
-                    ExecutionResult execResult = new ExecutionResult();
-                    
-                    switch (language.toLowerCase()) {
-                        case "javascript":
-                        case "js":
-                            executeJavaScript(codeWithInput, execResult);
-                            break;
-                        case "python":
-                        case "py":
-                            simulatePython(codeWithInput, execResult);
-                            break;
-                        case "java":
-                        default:
-                            simulateJava(codeWithInput, execResult);
-                            break;
+                    testCases.add(testResult);
+                }
+                
+                if (isJava(language)) {
+                    // One compile, all inputs graded in parallel on real stdin
+                    runCompiledJavaTests(code, testCases, result);
+                } else {
+                    for (TestCaseResult testResult : testCases) {
+                        // Execute with input
+                        String codeWithInput = injectInput(code, testResult.input, language);
+                        ExecutionResult execResult = new ExecutionResult();
+                        
+                        switch (language.toLowerCase()) {
+                            case "javascript":
+                            case "js":
+                                executeJavaScript(codeWithInput, execResult);
+                                break;
+                            case "python":
+                            case "py":
+                                simulatePython(codeWithInput, execResult);
+                                break;
+                        }
+                        
+                        testResult.actualOutput = execResult.output != null ? execResult.output.trim() : "";
+                        testResult.passed = testResult.actualOutput.equals(testResult.expectedOutput.trim());
                     }
-                    
-                    testResult.actualOutput = execResult.output != null ? execResult.output.trim() : "";
-                    testResult.passed = testResult.actualOutput.equals(testResult.expectedOutput.trim());
-                    result.testResults.add(testResult);
                 }
+                result.testResults.addAll(testCases);
                 
                 // Determine overall success
                 result.success = result.testResults.stream().allMatch(t -> t.passed);
@@ -187,6 +197,42 @@ public class CodeExecutionEngine {
         });
     }
 
+    private boolean isJava(String language) {
+        switch (language.toLowerCase()) {
+            case "javascript":
+            case "js":
+            case "python":
+            case "py":
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Grades Java test cases against the real compiled program: compiled once,
+     * each input fed through System.in on its own worker.
+     */
+    private void runCompiledJavaTests(String code, List<TestCaseResult> testCases, ExecutionResult result) {
+        List<String> inputs = new ArrayList<>(testCases.size());
+        for (TestCaseResult testCase : testCases) {
+            inputs.add(testCase.input);
+        }
+        
+        List<CodeExecutionResult> runs = compiledEngine.executeTests(code, inputs);
+        
+        for (int i = 0; i < testCases.size(); i++) {
+            TestCaseResult testCase = testCases.get(i);
+            CodeExecutionResult run = runs.get(i);
+            testCase.actualOutput = run.getOutput() != null ? run.getOutput().trim() : "";
+            testCase.passed = run.isSuccess() &&
+                testCase.actualOutput.equals(testCase.expectedOutput.trim());
+            if (!run.isSuccess() && result.error == null) {
+                result.error = run.getFormattedErrorMessage();
+            }
+        }
+    }
+
     // ==================== JAVASCRIPT EXECUTION ====================
     
     private void executeJavaScript(String code, ExecutionResult result) {
@@ -583,6 +629,7 @@ public class CodeExecutionEngine {
      */
     public void shutdown() {
         executor.shutdown();
+        compiledEngine.shutdown();
         if (jsWebView != null) {
             mainHandler.post(() -> {
                 jsWebView.destroy();
@@ -5,9 +5,9 @@ import android.animation.PropertyValuesHolder;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import android.os.Bundle;
-import android.os.CountDownTimer;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -29,6 +29,7 @@ import com.debugmaster.app.R;
 import com.example.debugappproject.data.local.BugDao;
 import com.example.debugappproject.data.local.DebugMasterDatabase;
 import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.multiplayer.BattleClock;
 import com.example.debugappproject.util.SoundManager;
 import com.google.android.material.button.MaterialButton;
 
@@ -73,7 +74,7 @@ public class CoopFragment extends Fragment {
     private int teamScore = 0;
     private int streak = 0;
     private int bugsFixed = 0;
-    private CountDownTimer gameTimer;
+    private BattleClock gameClock;
     private String partnerName;
     
     // AI Partner messages
@@ -415,7 +416,7 @@ public class CoopFragment extends Fragment {
     }
     
     private void onCorrectSolution() {
-        if (gameTimer != null) gameTimer.cancel();
+        if (gameClock != null) gameClock.stop();
         
         streak++;
         bugsFixed++;
@@ -458,24 +459,25 @@ public class CoopFragment extends Fragment {
     }
     
     private void startTimer() {
-        if (gameTimer != null) gameTimer.cancel();
-        
-        gameTimer = new CountDownTimer(300000, 1000) { // 5 minutes
-            @Override
-            public void onTick(long ms) {
-                if (!isAdded()) { cancel(); return; }
-                int m = (int)(ms / 60000);
-                int s = (int)((ms % 60000) / 1000);
-                if (textTimer != null) textTimer.setText(String.format("⏱️ %d:%02d", m, s));
-            }
-            
-            @Override
-            public void onFinish() {
-                if (!isAdded()) return;
-                if (textTimer != null) textTimer.setText("⏱️ Time!");
-                showGameOver();
-            }
-        }.start();
+        if (gameClock == null) {
+            gameClock = new BattleClock(SystemClock::elapsedRealtime, new BattleClock.Listener() {
+                @Override
+                public void onTick(int secondsRemaining) {
+                    if (!isAdded()) { gameClock.stop(); return; }
+                    int m = secondsRemaining / 60;
+                    int s = secondsRemaining % 60;
+                    if (textTimer != null) textTimer.setText(String.format("⏱️ %d:%02d", m, s));
+                }
+                
+                @Override
+                public void onFinished() {
+                    if (!isAdded()) return;
+                    if (textTimer != null) textTimer.setText("⏱️ Time!");
+                    showGameOver();
+                }
+            });
+        }
+        gameClock.start(SystemClock.elapsedRealtime(), 300000); // 5 minutes
     }
     
     private void showGameOver() {
@@ -508,7 +510,7 @@ public class CoopFragment extends Fragment {
     }
     
     private void leaveRoom() {
-        if (gameTimer != null) { gameTimer.cancel(); gameTimer = null; }
+        if (gameClock != null) gameClock.stop();
         handler.removeCallbacksAndMessages(null);
         
         resetGame();
@@ -547,7 +549,7 @@ public class CoopFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         
-        if (gameTimer != null) { gameTimer.cancel(); gameTimer = null; }
+        if (gameClock != null) gameClock.stop();
         if (handler != null) handler.removeCallbacksAndMessages(null);
         if (executor != null && !executor.isShutdown()) executor.shutdown();
         
@@ -5,6 +5,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Upsert;
 
 import com.example.debugappproject.model.AchievementDefinition;
 import com.example.debugappproject.model.UserAchievement;
@@ -39,6 +40,17 @@ public interface AchievementDao {
     @Query("DELETE FROM achievement_definitions")
     void clearAllAchievementDefinitions();
 
+    /**
+     * Inserts new definitions and updates existing ones in place. Unlike
+     * REPLACE, this never deletes a definition, so unlocks (which cascade
+     * on delete) are kept.
+     */
+    @Upsert
+    void upsertAchievementDefinitions(List<AchievementDefinition> achievements);
+
+    @Query("DELETE FROM achievement_definitions WHERE id IN (:achievementIds)")
+    void deleteAchievementDefinitionsByIds(List<String> achievementIds);
+
     // User Achievement queries
     @Query("SELECT * FROM user_achievements")
     LiveData<List<UserAchievement>> getAllUnlockedAchievements();
@@ -1,13 +1,16 @@
 package com.example.debugappproject.data.local;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 
 import java.util.List;
 
@@ -18,6 +21,12 @@ import java.util.List;
 @Dao
 public interface BugDao {
 
+    /**
+     * Columns read into a {@link BugSummary}.
+     */
+    String SUMMARY_COLUMNS = "bugs.id, bugs.title, bugs.difficulty, bugs.category, " +
+            "bugs.language, bugs.isCompleted, bugs.xpReward";
+
     /**
      * Insert a list of bugs. Replace on conflict.
      */
@@ -42,6 +51,27 @@ public interface BugDao {
     @Update
     void update(Bug bug);
 
+    /**
+     * Insert new bugs and update existing ones in place. Unlike REPLACE, an
+     * existing row is never deleted, so its bug_in_path and lesson rows
+     * (which cascade on delete) are kept. All columns are written, so copy
+     * user state (isCompleted, userNotes) onto the bugs first.
+     */
+    @Upsert
+    void upsertAll(List<Bug> bugs);
+
+    /**
+     * Get bugs by ID synchronously.
+     */
+    @Query("SELECT * FROM bugs WHERE id IN (:bugIds)")
+    List<Bug> getBugsByIdsSync(List<Integer> bugIds);
+
+    /**
+     * Delete bugs by ID.
+     */
+    @Query("DELETE FROM bugs WHERE id IN (:bugIds)")
+    void deleteBugsByIds(List<Integer> bugIds);
+
     /**
      * Get all bugs as LiveData for reactive updates.
      */
@@ -132,6 +162,13 @@ public interface BugDao {
     @Query("UPDATE bugs SET isCompleted = 1 WHERE id = :bugId")
     void markBugAsCompleted(int bugId);
 
+    /**
+     * Mark a bug as completed unless it already is.
+     * Returns 1 if this call completed it, 0 otherwise.
+     */
+    @Query("UPDATE bugs SET isCompleted = 1 WHERE id = :bugId AND isCompleted = 0")
+    int markBugAsCompletedIfNew(int bugId);
+
     /**
      * Check if a bug is completed.
      */
@@ -167,4 +204,59 @@ public interface BugDao {
      */
     @Query("SELECT * FROM bugs ORDER BY id ASC")
     List<Bug> getAllBugsSync();
+
+    /**
+     * Full-text search over title, description, category, language, hint and
+     * explanation, paged as list summaries. Bugs whose title matches come
+     * first, then bugs with more matching words. Null difficulty/category
+     * means no filter.
+     *
+     * @param ftsQuery MATCH expression, see {@link FtsQuery#fromUserInput(String)}
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs JOIN bugs_fts ON bugs.id = bugs_fts.rowid " +
+           "WHERE bugs_fts MATCH :ftsQuery " +
+           "AND (:difficulty IS NULL OR bugs.difficulty = :difficulty) " +
+           "AND (:category IS NULL OR bugs.category = :category) " +
+           "ORDER BY bugs.id IN (SELECT rowid FROM bugs_fts WHERE title MATCH :ftsQuery) DESC, " +
+           "length(offsets(bugs_fts)) DESC, bugs.id ASC")
+    PagingSource<Integer, BugSummary> searchBugSummaries(String ftsQuery, String difficulty, String category);
+
+    /**
+     * Summaries of all bugs, paged in id order.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs ORDER BY id ASC")
+    PagingSource<Integer, BugSummary> pageBugSummaries();
+
+    /**
+     * Summaries of bugs with a difficulty, paged in id order.
+     * Kept separate from the category variants so each query can use an
+     * index; an "(:x IS NULL OR col = :x)" filter forces a full scan.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs WHERE difficulty = :difficulty ORDER BY id ASC")
+    PagingSource<Integer, BugSummary> pageBugSummariesByDifficulty(String difficulty);
+
+    /**
+     * Summaries of bugs in a category, paged in id order.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs WHERE category = :category ORDER BY id ASC")
+    PagingSource<Integer, BugSummary> pageBugSummariesByCategory(String category);
+
+    /**
+     * Summaries of bugs with a difficulty and category, paged in id order.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs " +
+           "WHERE difficulty = :difficulty AND category = :category ORDER BY id ASC")
+    PagingSource<Integer, BugSummary> pageBugSummariesByDifficultyAndCategory(String difficulty, String category);
+
+    /**
+     * Summaries of all bugs, for screens that count or group bugs.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs ORDER BY id ASC")
+    LiveData<List<BugSummary>> getAllBugSummaries();
+
+    /**
+     * Summaries of completed bugs.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM bugs WHERE isCompleted = 1 ORDER BY id ASC")
+    LiveData<List<BugSummary>> getCompletedBugSummaries();
 }
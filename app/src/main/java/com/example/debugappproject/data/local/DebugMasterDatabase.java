@@ -14,6 +14,7 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.example.debugappproject.model.AchievementDefinition;
 import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugFts;
 import com.example.debugappproject.model.BugInPath;
 import com.example.debugappproject.model.DailyChallenge;
 import com.example.debugappproject.model.Hint;
@@ -21,8 +22,10 @@ import com.example.debugappproject.model.LearningPath;
 import com.example.debugappproject.model.Lesson;
 import com.example.debugappproject.model.LessonQuestion;
 import com.example.debugappproject.model.MentalProfile;
+import com.example.debugappproject.model.SeedManifestEntry;
 import com.example.debugappproject.model.UserAchievement;
 import com.example.debugappproject.model.UserProgress;
+import com.example.debugappproject.util.NormalizedCode;
 
 /**
  * Room Database for DebugMaster app.
@@ -61,11 +64,28 @@ import com.example.debugappproject.model.UserProgress;
  *   - 6 specialty skills (nullHunter, loopMaster, etc.)
  *   - Elo rating and ranked tier system
  *   - Battle statistics
+ *
+ * Version 14 adds:
+ * - Bug: fixedCodeNormalized, fixedCodeCore, fixedCodeFingerprint - fixedCode
+ *   pre-normalized for CodeComparator so submissions don't re-normalize it
+ *
+ * Version 15 adds:
+ * - BugFts: FTS4 search index over bug text, kept in sync by triggers
+ *
+ * Version 16 adds:
+ * - Indexes on bugs (difficulty + category, category, isCompleted) for the
+ *   list filters and completion counts
+ * - Index on hints (bugId, level) for loading a bug's hints
+ *
+ * Version 17 adds:
+ * - SeedManifestEntry: content hashes of seeded records, so reseeding only
+ *   writes what changed
  */
 // NOTE: Bump DB version whenever entities/schema changes to avoid identity hash mismatch!
 @Database(
     entities = {
         Bug.class,
+        BugFts.class,
         Hint.class,
         UserProgress.class,
         LearningPath.class,
@@ -75,15 +95,24 @@ import com.example.debugappproject.model.UserProgress;
         AchievementDefinition.class,
         UserAchievement.class,
         MentalProfile.class,
-        DailyChallenge.class
+        DailyChallenge.class,
+        SeedManifestEntry.class
     },
-    version = 13,
-    exportSchema = false
+    version = 17,
+    // Exported to app/schemas on compile, where the prebuilt database build reads it
+    exportSchema = true
 )
 public abstract class DebugMasterDatabase extends RoomDatabase {
 
     private static volatile DebugMasterDatabase INSTANCE;
 
+    /**
+     * Seeded database written at build time by the seeddb module. Room
+     * copies it when no database exists yet, so fresh installs start with
+     * bugs, hints and learning paths already in place.
+     */
+    static final String PREBUILT_ASSET = "databases/debug_master_database.db";
+
     // DAOs
     public abstract BugDao bugDao();
     public abstract HintDao hintDao();
@@ -92,6 +121,7 @@ public abstract class DebugMasterDatabase extends RoomDatabase {
     public abstract LessonDao lessonDao();
     public abstract AchievementDao achievementDao();
     public abstract MentalProfileDao mentalProfileDao();
+    public abstract SeedManifestDao seedManifestDao();
 
     /**
      * Migration from version 2 to 3.
@@ -513,6 +543,120 @@ public abstract class DebugMasterDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * Migration from version 13 to 14.
+     * Adds the pre-normalized fixedCode columns and fills them for existing bugs,
+     * so installed users get them without a reseed (which would reset progress).
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE bugs ADD COLUMN fixedCodeNormalized TEXT");
+            database.execSQL("ALTER TABLE bugs ADD COLUMN fixedCodeCore TEXT");
+            database.execSQL("ALTER TABLE bugs ADD COLUMN fixedCodeFingerprint INTEGER NOT NULL DEFAULT 0");
+
+            Cursor cursor = database.query("SELECT id, fixedCode FROM bugs WHERE fixedCode IS NOT NULL");
+            try {
+                while (cursor.moveToNext()) {
+                    NormalizedCode fixed = NormalizedCode.of(cursor.getString(1));
+                    database.execSQL(
+                        "UPDATE bugs SET fixedCodeNormalized = ?, fixedCodeCore = ?, " +
+                        "fixedCodeFingerprint = ? WHERE id = ?",
+                        new Object[]{fixed.getNormalized(), fixed.getCoreFix(),
+                                fixed.getFingerprint(), cursor.getInt(0)}
+                    );
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+    };
+
+    /**
+     * Migration from version 14 to 15.
+     * Adds the bugs_fts full-text index and fills it from the existing bugs.
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // Must match the table Room generates for BugFts
+            database.execSQL(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS `bugs_fts` USING FTS4(" +
+                "`title` TEXT, `description` TEXT, `category` TEXT, " +
+                "`language` TEXT, `hint` TEXT, `explanation` TEXT)"
+            );
+            createBugSearchTriggers(database);
+            database.execSQL(
+                "INSERT INTO bugs_fts (rowid, title, description, category, language, hint, explanation) " +
+                "SELECT id, title, description, category, language, hint, explanation FROM bugs"
+            );
+        }
+    };
+
+    /**
+     * Migration from version 15 to 16.
+     * Adds the indexes declared on {@link Bug} and {@link Hint}. MIGRATION_12_13
+     * rebuilt bugs without any, so every filter and count was a full scan.
+     */
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // Names must match the ones Room generates for the @Index entries
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_bugs_difficulty_category` " +
+                    "ON `bugs` (`difficulty`, `category`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_bugs_category` ON `bugs` (`category`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_bugs_isCompleted` ON `bugs` (`isCompleted`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_hints_bugId_level` ON `hints` (`bugId`, `level`)");
+        }
+    };
+
+    /**
+     * Migration from version 16 to 17.
+     * Adds the empty seed manifest. The next seed run finds every record
+     * "new" and updates it in place, which fills the manifest.
+     */
+    static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `seed_manifest` (" +
+                    "`kind` TEXT NOT NULL, `recordKey` TEXT NOT NULL, `hash` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`kind`, `recordKey`))");
+        }
+    };
+
+    /**
+     * Creates the triggers that mirror bug text into bugs_fts.
+     *
+     * Room's contentEntity triggers rely on a BEFORE DELETE trigger, which
+     * SQLite skips when INSERT OR REPLACE (our BugDao inserts) removes a row.
+     * These triggers instead clear the bug's index row before every insert,
+     * so a replaced bug never leaves a stale or duplicate entry.
+     */
+    static void createBugSearchTriggers(SupportSQLiteDatabase database) {
+        String insertNewRow =
+            "INSERT INTO bugs_fts (rowid, title, description, category, language, hint, explanation) " +
+            "VALUES (NEW.id, NEW.title, NEW.description, NEW.category, NEW.language, NEW.hint, NEW.explanation); ";
+
+        database.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS bugs_fts_after_insert AFTER INSERT ON bugs BEGIN " +
+            "DELETE FROM bugs_fts WHERE rowid = NEW.id; " +
+            insertNewRow +
+            "END"
+        );
+        database.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS bugs_fts_after_update " +
+            "AFTER UPDATE OF id, title, description, category, language, hint, explanation ON bugs BEGIN " +
+            "DELETE FROM bugs_fts WHERE rowid = OLD.id; " +
+            insertNewRow +
+            "END"
+        );
+        database.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS bugs_fts_after_delete AFTER DELETE ON bugs BEGIN " +
+            "DELETE FROM bugs_fts WHERE rowid = OLD.id; " +
+            "END"
+        );
+    }
+
     /**
      * Column metadata holder for schema validation during migrations.
      * Named ColumnMetadata to avoid shadowing Room's @ColumnInfo annotation.
@@ -580,9 +724,22 @@ public abstract class DebugMasterDatabase extends RoomDatabase {
                             DebugMasterDatabase.class,
                             "debug_master_database"
                     )
+                    .createFromAsset(PREBUILT_ASSET)
                     .addMigrations(MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, 
                                    MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, 
-                                   MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13);
+                                   MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14,
+                                   MIGRATION_14_15, MIGRATION_15_16, MIGRATION_16_17)
+                    // LiveData, Paging and invalidation queries share the app's read pool
+                    .setQueryExecutor(IoDispatcher.getInstance().reads())
+                    .setTransactionExecutor(IoDispatcher.getInstance().writes())
+                    .addCallback(new Callback() {
+                        @Override
+                        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                            // Covers fresh installs and destructive migrations, where
+                            // Room creates bugs_fts but not our triggers
+                            createBugSearchTriggers(db);
+                        }
+                    });
                     
                     // Only use destructive fallback in debug builds
                     boolean isDebug = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
@@ -0,0 +1,53 @@
+package com.example.debugappproject.data.local;
+
+import java.util.Locale;
+
+/**
+ * Turns free text typed into a search box into an FTS4 MATCH expression.
+ *
+ * Every word becomes a prefix term and all terms must match, so typing
+ * "null loop" finds "NullPointerException in a loop". Punctuation that has a
+ * meaning in FTS syntax (quotes, '-', '*', ':', parentheses) splits words
+ * like any other separator, so user input can never produce a malformed query.
+ */
+public final class FtsQuery {
+
+    // More terms than this only slow the query down without narrowing it
+    private static final int MAX_TERMS = 8;
+
+    private FtsQuery() {
+    }
+
+    /**
+     * @return The MATCH expression, or null if the text has no searchable words
+     */
+    public static String fromUserInput(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder query = new StringBuilder();
+        int terms = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length && terms < MAX_TERMS) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                // Lowercase also keeps words like OR and NOT from being read as operators
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append(word).append('*');
+                terms++;
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
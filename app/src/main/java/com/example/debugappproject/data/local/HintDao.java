@@ -40,4 +40,10 @@ public interface HintDao {
      */
     @Query("SELECT * FROM hints WHERE bugId = :bugId AND level = :level LIMIT 1")
     Hint getHintByLevel(int bugId, int level);
+
+    /**
+     * Delete all hints of a bug (for reseeding its hints).
+     */
+    @Query("DELETE FROM hints WHERE bugId = :bugId")
+    void deleteHintsForBug(int bugId);
 }
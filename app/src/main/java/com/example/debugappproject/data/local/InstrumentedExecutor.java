@@ -0,0 +1,241 @@
+package com.example.debugappproject.data.local;
+
+import android.os.Looper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fixed-size thread pool with a bounded queue that records how long tasks
+ * wait and run.
+ *
+ * When the queue is full the submitting thread blocks until there is room,
+ * so writes are slowed down rather than dropped. Two submitters are exempt:
+ * - a pool thread submitting to its own full pool runs the task inline,
+ *   which can't deadlock
+ * - the main thread never blocks, since Room's LiveData and some UI code
+ *   submit from it and blocking would be an ANR. Its task is handed to a
+ *   helper thread that waits for room instead, so it is still queued in
+ *   order with the main thread's other overflowing tasks rather than dropped
+ *   or crashing the caller.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+    private final int queueCapacity;
+    private final BooleanSupplier isMainThread;
+    private ExecutorService mainThreadOverflow;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong saturated = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    /**
+     * @param name        pool name, used for thread names and stats
+     * @param threadSetup runs first on each new pool thread, e.g. to lower
+     *                    its priority; may be null
+     */
+    public InstrumentedExecutor(String name, int threads, int queueCapacity, Runnable threadSetup) {
+        this(name, threads, queueCapacity, threadSetup,
+                () -> Looper.getMainLooper().isCurrentThread());
+    }
+
+    InstrumentedExecutor(String name, int threads, int queueCapacity, Runnable threadSetup,
+                         BooleanSupplier isMainThread) {
+        super(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity));
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.isMainThread = isMainThread;
+        AtomicLong threadCount = new AtomicLong();
+        setThreadFactory(runnable -> {
+            Thread thread = new PoolThread(this, threadSetup, runnable,
+                    name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Idle threads exit after the keep-alive, so a quiet app holds no threads
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler(InstrumentedExecutor::onSaturated);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        submitted.incrementAndGet();
+        super.execute(new TimedTask(command, System.nanoTime()));
+        maxQueueDepth.accumulateAndGet(getQueue().size(), Math::max);
+    }
+
+    private static void onSaturated(Runnable task, ThreadPoolExecutor pool) {
+        InstrumentedExecutor executor = (InstrumentedExecutor) pool;
+        executor.saturated.incrementAndGet();
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException(executor.name + " is shut down");
+        }
+        if (Thread.currentThread() instanceof PoolThread
+                && ((PoolThread) Thread.currentThread()).owner == executor) {
+            task.run();
+            return;
+        }
+        if (executor.isMainThread.getAsBoolean()) {
+            executor.mainThreadOverflow().execute(() -> {
+                try {
+                    executor.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    // Only interrupted when the pool terminates
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return;
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(executor.name + " queue full", e);
+        }
+    }
+
+    /**
+     * Single thread that waits for queue room on the main thread's behalf.
+     * Created on the first main-thread submit to a full queue.
+     */
+    private synchronized ExecutorService mainThreadOverflow() {
+        if (mainThreadOverflow == null) {
+            mainThreadOverflow = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name + "-overflow");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return mainThreadOverflow;
+    }
+
+    @Override
+    protected synchronized void terminated() {
+        if (mainThreadOverflow != null) {
+            mainThreadOverflow.shutdownNow();
+        }
+        super.terminated();
+    }
+
+    /**
+     * Current counters. Wait time is from submission until a thread picks the
+     * task up; run time is how long the task itself took.
+     */
+    public Stats getStats() {
+        long done = finished.get();
+        return new Stats(name, getQueue().size(), queueCapacity, (int) maxQueueDepth.get(),
+                getActiveCount(), submitted.get(), done, saturated.get(),
+                done == 0 ? 0 : totalWaitNanos.get() / done, maxWaitNanos.get(),
+                done == 0 ? 0 : totalRunNanos.get() / done, maxRunNanos.get());
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAt;
+
+        TimedTask(Runnable task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            long wait = startedAt - enqueuedAt;
+            totalWaitNanos.addAndGet(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            try {
+                task.run();
+            } finally {
+                long run = System.nanoTime() - startedAt;
+                totalRunNanos.addAndGet(run);
+                maxRunNanos.accumulateAndGet(run, Math::max);
+                finished.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A pool thread, so a saturated pool can tell when it is submitting to itself.
+     */
+    private static final class PoolThread extends Thread {
+        final InstrumentedExecutor owner;
+        private final Runnable setup;
+
+        PoolThread(InstrumentedExecutor owner, Runnable setup, Runnable worker, String name) {
+            super(worker, name);
+            this.owner = owner;
+            this.setup = setup;
+        }
+
+        @Override
+        public void run() {
+            if (setup != null) {
+                setup.run();
+            }
+            super.run();
+        }
+    }
+
+    /**
+     * Snapshot of a pool's queue depth and task latency.
+     */
+    public static final class Stats {
+        public final String name;
+        public final int queueDepth;
+        public final int queueCapacity;
+        public final int maxQueueDepth;
+        public final int activeThreads;
+        public final long submitted;
+        public final long completed;
+        public final long saturated;
+        public final long avgWaitNanos;
+        public final long maxWaitNanos;
+        public final long avgRunNanos;
+        public final long maxRunNanos;
+
+        Stats(String name, int queueDepth, int queueCapacity, int maxQueueDepth, int activeThreads,
+              long submitted, long completed, long saturated,
+              long avgWaitNanos, long maxWaitNanos, long avgRunNanos, long maxRunNanos) {
+            this.name = name;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.maxQueueDepth = maxQueueDepth;
+            this.activeThreads = activeThreads;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.saturated = saturated;
+            this.avgWaitNanos = avgWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.avgRunNanos = avgRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": queue " + queueDepth + "/" + queueCapacity + " (max " + maxQueueDepth + ")"
+                    + ", active " + activeThreads
+                    + ", done " + completed + "/" + submitted
+                    + ", saturated " + saturated
+                    + ", wait avg " + TimeUnit.NANOSECONDS.toMillis(avgWaitNanos) + "ms"
+                    + " max " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms"
+                    + ", run avg " + TimeUnit.NANOSECONDS.toMillis(avgRunNanos) + "ms"
+                    + " max " + TimeUnit.NANOSECONDS.toMillis(maxRunNanos) + "ms";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.debugappproject.data.local;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║           DEBUGMASTER - I/O DISPATCHER                                       ║
+ * ║              App-wide database thread pools                                  ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * The only background pools for database work:
+ * - writes: one thread, since SQLite allows one writer at a time; writes
+ *   also run in submission order
+ * - reads: a few threads, also used by Room for LiveData and Paging queries
+ *
+ * Both queues are bounded (see {@link InstrumentedExecutor}) and record
+ * queue depth and task latency; {@link #logStats(String)} writes them to
+ * logcat. Pool threads run at background priority and exit when idle.
+ */
+public final class IoDispatcher {
+
+    private static final String TAG = "IoDispatcher";
+
+    private static final int READ_THREADS = 3;
+    private static final int READ_QUEUE_CAPACITY = 256;
+    private static final int WRITE_QUEUE_CAPACITY = 256;
+
+    private static volatile IoDispatcher instance;
+
+    private final InstrumentedExecutor reads;
+    private final InstrumentedExecutor writes;
+
+    private IoDispatcher() {
+        Runnable backgroundPriority = () ->
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        reads = new InstrumentedExecutor("db-read", READ_THREADS, READ_QUEUE_CAPACITY, backgroundPriority);
+        writes = new InstrumentedExecutor("db-write", 1, WRITE_QUEUE_CAPACITY, backgroundPriority);
+    }
+
+    public static IoDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (IoDispatcher.class) {
+                if (instance == null) {
+                    instance = new IoDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public ExecutorService reads() {
+        return reads;
+    }
+
+    public ExecutorService writes() {
+        return writes;
+    }
+
+    public InstrumentedExecutor.Stats getReadStats() {
+        return reads.getStats();
+    }
+
+    public InstrumentedExecutor.Stats getWriteStats() {
+        return writes.getStats();
+    }
+
+    /**
+     * Logs queue depth and latency of both pools.
+     */
+    public void logStats(String reason) {
+        Log.i(TAG, reason + " | " + reads.getStats());
+        Log.i(TAG, reason + " | " + writes.getStats());
+    }
+}
@@ -2,13 +2,16 @@ package com.example.debugappproject.data.local;
 
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
+import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
+import androidx.room.Upsert;
 
 import com.example.debugappproject.model.LearningPath;
 import com.example.debugappproject.model.BugInPath;
+import com.example.debugappproject.model.PathBugCounts;
 
 import java.util.List;
 
@@ -40,6 +43,16 @@ public interface LearningPathDao {
     @Query("DELETE FROM learning_paths")
     void clearAllPaths();
 
+    /**
+     * Inserts new paths and updates existing ones in place. Unlike REPLACE,
+     * this never deletes a path row, so its bug_in_path rows survive.
+     */
+    @Upsert
+    void upsertPaths(List<LearningPath> paths);
+
+    @Query("DELETE FROM learning_paths WHERE id IN (:pathIds)")
+    void deletePathsByIds(List<Integer> pathIds);
+
     // BugInPath queries
     @Query("SELECT bugId FROM bug_in_path WHERE pathId = :pathId ORDER BY orderInPath ASC")
     LiveData<List<Integer>> getBugIdsInPath(int pathId);
@@ -50,16 +63,19 @@ public interface LearningPathDao {
     @Query("SELECT * FROM bug_in_path WHERE pathId = :pathId ORDER BY orderInPath ASC")
     LiveData<List<BugInPath>> getBugsInPath(int pathId);
 
-    @Query("SELECT COUNT(*) FROM bug_in_path WHERE pathId = :pathId")
-    LiveData<Integer> getBugCountInPath(int pathId);
-    
     @Query("SELECT COUNT(*) FROM bug_in_path")
     int getBugInPathCountSync();
 
-    @Query("SELECT COUNT(DISTINCT b.id) FROM bugs b " +
-           "INNER JOIN bug_in_path bip ON b.id = bip.bugId " +
-           "WHERE bip.pathId = :pathId AND b.isCompleted = 1")
-    LiveData<Integer> getCompletedBugCountInPath(int pathId);
+    /**
+     * Bug totals and solved counts for every path in one grouped query.
+     * total counts the path's entries; completed counts distinct solved bugs.
+     * Paths without bugs have no row.
+     */
+    @Query("SELECT bip.pathId AS pathId, COUNT(*) AS total, " +
+           "COUNT(DISTINCT CASE WHEN b.isCompleted = 1 THEN b.id END) AS completed " +
+           "FROM bug_in_path bip LEFT JOIN bugs b ON b.id = bip.bugId " +
+           "GROUP BY bip.pathId")
+    LiveData<List<PathBugCounts>> getPathBugCounts();
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertBugInPath(BugInPath bugInPath);
@@ -69,4 +85,10 @@ public interface LearningPathDao {
 
     @Query("DELETE FROM bug_in_path")
     void clearAllBugInPath();
+
+    @Upsert
+    void upsertBugInPaths(List<BugInPath> bugInPaths);
+
+    @Delete
+    void deleteBugInPaths(List<BugInPath> bugInPaths);
 }
@@ -0,0 +1,29 @@
+package com.example.debugappproject.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.debugappproject.model.SeedManifestEntry;
+
+import java.util.List;
+
+/**
+ * DAO for the seed manifest (hashes of the seeded records).
+ */
+@Dao
+public interface SeedManifestDao {
+
+    @Query("SELECT * FROM seed_manifest WHERE kind = :kind")
+    List<SeedManifestEntry> getEntries(String kind);
+
+    @Query("SELECT COUNT(*) FROM seed_manifest WHERE kind = :kind")
+    int getEntryCount(String kind);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<SeedManifestEntry> entries);
+
+    @Query("DELETE FROM seed_manifest WHERE kind = :kind AND recordKey IN (:recordKeys)")
+    void deleteEntries(String kind, List<String> recordKeys);
+}
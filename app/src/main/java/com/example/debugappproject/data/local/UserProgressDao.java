@@ -71,6 +71,18 @@ public interface UserProgressDao {
     @Query("UPDATE user_progress SET lastSolvedTimestamp = :timestamp WHERE id = 1")
     void updateLastSolvedTimestamp(long timestamp);
 
+    /**
+     * Apply one solve's counters, XP and gems in a single statement, so
+     * user_progress observers are invalidated once per solve.
+     * See BugRepository.markBugAsCompletedWithXP.
+     */
+    @Query("UPDATE user_progress SET totalSolved = totalSolved + 1, " +
+            "easySolved = easySolved + :easy, mediumSolved = mediumSolved + :medium, " +
+            "hardSolved = hardSolved + :hard, " +
+            "bugsSolvedWithoutHints = bugsSolvedWithoutHints + :withoutHints, " +
+            "xp = xp + :xp, gems = gems + :gems, lastSolvedTimestamp = :timestamp WHERE id = 1")
+    int applySolveReward(int easy, int medium, int hard, int withoutHints, int xp, int gems, long timestamp);
+
     /**
      * Update last opened timestamp.
      */
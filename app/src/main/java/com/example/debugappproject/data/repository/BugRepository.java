@@ -1,29 +1,49 @@
 package com.example.debugappproject.data.repository;
 
-import android.app.Application;
+import android.content.Context;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
 
 import com.example.debugappproject.data.local.AchievementDao;
 import com.example.debugappproject.data.local.BugDao;
 import com.example.debugappproject.data.local.DebugMasterDatabase;
+import com.example.debugappproject.data.local.FtsQuery;
 import com.example.debugappproject.data.local.HintDao;
+import com.example.debugappproject.data.local.IoDispatcher;
 import com.example.debugappproject.data.local.LearningPathDao;
 import com.example.debugappproject.data.local.LessonDao;
+import com.example.debugappproject.data.local.SeedManifestDao;
 import com.example.debugappproject.data.local.UserProgressDao;
+import com.example.debugappproject.di.RepositoryEntryPoint;
 import com.example.debugappproject.model.AchievementDefinition;
 import com.example.debugappproject.model.Bug;
 import com.example.debugappproject.model.BugInPath;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.model.Hint;
 import com.example.debugappproject.model.LearningPath;
 import com.example.debugappproject.model.Lesson;
 import com.example.debugappproject.model.LessonQuestion;
+import com.example.debugappproject.model.PathBugCounts;
+import com.example.debugappproject.model.SeedManifestEntry;
+import com.example.debugappproject.model.SolveReward;
 import com.example.debugappproject.model.UserAchievement;
 import com.example.debugappproject.model.UserProgress;
+import com.example.debugappproject.util.Constants;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import dagger.hilt.android.EntryPointAccessors;
 
 /**
  * Repository class that provides a clean API for data access.
@@ -31,31 +51,52 @@ import java.util.concurrent.Executors;
  */
 public class BugRepository {
 
+    // Rows per page for paged bug lists; Paging loads three pages up front
+    private static final int BUG_PAGE_SIZE = 20;
+
+    private final DebugMasterDatabase database;
     private final BugDao bugDao;
     private final HintDao hintDao;
     private final UserProgressDao userProgressDao;
     private final LearningPathDao learningPathDao;
     private final LessonDao lessonDao;
     private final AchievementDao achievementDao;
-    private final ExecutorService executorService;
+    private final SeedManifestDao seedManifestDao;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
 
     private final LiveData<List<Bug>> allBugs;
     private final LiveData<UserProgress> userProgress;
 
-    public BugRepository(Application application) {
-        DebugMasterDatabase database = DebugMasterDatabase.getInstance(application);
+    /**
+     * Created once by Hilt, see RepositoryModule. Code that Hilt doesn't
+     * construct gets the same instance from {@link #getInstance(Context)}.
+     */
+    public BugRepository(DebugMasterDatabase database, IoDispatcher dispatcher) {
+        this.database = database;
         bugDao = database.bugDao();
         hintDao = database.hintDao();
         userProgressDao = database.userProgressDao();
         learningPathDao = database.learningPathDao();
         lessonDao = database.lessonDao();
         achievementDao = database.achievementDao();
-        executorService = Executors.newFixedThreadPool(4); // Increased for better performance
+        seedManifestDao = database.seedManifestDao();
+        readExecutor = dispatcher.reads();
+        writeExecutor = dispatcher.writes();
 
         allBugs = bugDao.getAllBugs();
         userProgress = userProgressDao.getUserProgress();
     }
 
+    /**
+     * The app-wide repository, for AndroidViewModels, fragments and workers
+     * that aren't injected by Hilt.
+     */
+    public static BugRepository getInstance(Context context) {
+        return EntryPointAccessors.fromApplication(context.getApplicationContext(),
+                RepositoryEntryPoint.class).bugRepository();
+    }
+
     // Bug operations
     public LiveData<List<Bug>> getAllBugs() {
         return allBugs;
@@ -77,38 +118,58 @@ public class BugRepository {
         return bugDao.getBugsByDifficultyAndCategory(difficulty, category);
     }
 
+    /**
+     * Pages of bug summaries matching the search text and filters, using the
+     * full-text index. Constants.DIFFICULTY_ALL / CATEGORY_ALL (or null) mean
+     * no filter; text without searchable words returns every bug that passes
+     * the filters. Full rows are loaded separately, via getBugById.
+     */
+    public LiveData<PagingData<BugSummary>> searchBugSummaries(String text, String difficulty, String category) {
+        String difficultyFilter = Constants.DIFFICULTY_ALL.equals(difficulty) ? null : difficulty;
+        String categoryFilter = Constants.CATEGORY_ALL.equals(category) ? null : category;
+        String ftsQuery = FtsQuery.fromUserInput(text);
+        Pager<Integer, BugSummary> pager = new Pager<>(
+                new PagingConfig(BUG_PAGE_SIZE),
+                () -> ftsQuery == null
+                        ? pageBugSummaries(difficultyFilter, categoryFilter)
+                        : bugDao.searchBugSummaries(ftsQuery, difficultyFilter, categoryFilter));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    /**
+     * Picks the paged query for the active filters, so each one can use an
+     * index on the bugs table.
+     */
+    private PagingSource<Integer, BugSummary> pageBugSummaries(String difficulty, String category) {
+        if (difficulty != null && category != null) {
+            return bugDao.pageBugSummariesByDifficultyAndCategory(difficulty, category);
+        } else if (difficulty != null) {
+            return bugDao.pageBugSummariesByDifficulty(difficulty);
+        } else if (category != null) {
+            return bugDao.pageBugSummariesByCategory(category);
+        }
+        return bugDao.pageBugSummaries();
+    }
+
+    public LiveData<List<BugSummary>> getAllBugSummaries() {
+        return bugDao.getAllBugSummaries();
+    }
+
+    public LiveData<List<BugSummary>> getCompletedBugSummaries() {
+        return bugDao.getCompletedBugSummaries();
+    }
+
     public LiveData<List<Bug>> getCompletedBugs() {
         return bugDao.getCompletedBugs();
     }
 
     public void markBugAsCompleted(int bugId, String difficulty) {
-        executorService.execute(() -> {
-            bugDao.markBugAsCompleted(bugId);
-            userProgressDao.incrementTotalSolved();
-
-            // Increment difficulty-specific counter (case-insensitive)
-            String diffLower = difficulty != null ? difficulty.toLowerCase() : "easy";
-            switch (diffLower) {
-                case "easy":
-                    userProgressDao.incrementEasySolved();
-                    break;
-                case "medium":
-                    userProgressDao.incrementMediumSolved();
-                    break;
-                case "hard":
-                case "expert":
-                    userProgressDao.incrementHardSolved();
-                    break;
-            }
-
-            // Update last solved timestamp
-            userProgressDao.updateLastSolvedTimestamp(System.currentTimeMillis());
-        });
+        writeExecutor.execute(() -> applySolveSync(bugId, SolveReward.countOnly(difficulty)));
     }
 
     /**
      * Mark bug as completed with XP and gem rewards.
-     * Calculates XP based on difficulty and whether hints were used.
+     * Calculates XP based on difficulty and whether hints were used, see SolveReward.
      * XP values aligned with GameManager: Easy=10, Medium=25, Hard=50, Expert=100
      * Gem rewards: Easy=5, Medium=10, Hard=20, Expert=40
      *
@@ -117,51 +178,41 @@ public class BugRepository {
      * @param solvedWithoutHints Whether the bug was solved without using hints
      */
     public void markBugAsCompletedWithXP(int bugId, String difficulty, boolean solvedWithoutHints) {
-        executorService.execute(() -> {
-            bugDao.markBugAsCompleted(bugId);
-            userProgressDao.incrementTotalSolved();
-
-            // Calculate XP and gems based on difficulty
-            int xpReward = 10; // Default for easy
-            int gemReward = 5; // Default for easy
-            String diffLower = difficulty != null ? difficulty.toLowerCase() : "easy";
-
-            switch (diffLower) {
-                case "easy":
-                    userProgressDao.incrementEasySolved();
-                    xpReward = 10;
-                    gemReward = 5;
-                    break;
-                case "medium":
-                    userProgressDao.incrementMediumSolved();
-                    xpReward = 25;
-                    gemReward = 10;
-                    break;
-                case "hard":
-                    userProgressDao.incrementHardSolved();
-                    xpReward = 50;
-                    gemReward = 20;
-                    break;
-                case "expert":
-                    userProgressDao.incrementHardSolved(); // Count expert as hard for stats
-                    xpReward = 100;
-                    gemReward = 40;
-                    break;
-            }
+        markBugAsCompletedWithXP(bugId, difficulty, solvedWithoutHints, null);
+    }
 
-            // Bonus for solving without hints (2x XP, 1.5x gems)
-            if (solvedWithoutHints) {
-                xpReward *= 2;
-                gemReward = (int)(gemReward * 1.5);
-                userProgressDao.incrementBugsSolvedWithoutHints();
+    /**
+     * Same as {@link #markBugAsCompletedWithXP(int, String, boolean)}, then
+     * passes the new progress totals to onSaved on the write thread. onSaved
+     * is not called if the bug was already completed.
+     */
+    public void markBugAsCompletedWithXP(int bugId, String difficulty, boolean solvedWithoutHints,
+                                         Consumer<UserProgress> onSaved) {
+        writeExecutor.execute(() -> {
+            UserProgress progress = applySolveSync(bugId,
+                    SolveReward.withXp(difficulty, solvedWithoutHints));
+            if (progress != null && onSaved != null) {
+                onSaved.accept(progress);
             }
+        });
+    }
 
-            // Award XP and gems
-            userProgressDao.addXp(xpReward);
-            userProgressDao.addGems(gemReward);
-
-            // Update last solved timestamp
-            userProgressDao.updateLastSolvedTimestamp(System.currentTimeMillis());
+    /**
+     * Marks the bug completed and applies the reward in one transaction, so
+     * bugs and user_progress observers see one change. A bug that is already
+     * completed is not rewarded again.
+     *
+     * @return progress after the reward, or null if the bug was already completed
+     */
+    private UserProgress applySolveSync(int bugId, SolveReward reward) {
+        return database.runInTransaction(() -> {
+            if (bugDao.markBugAsCompletedIfNew(bugId) == 0) {
+                return null;
+            }
+            userProgressDao.applySolveReward(reward.getEasySolved(), reward.getMediumSolved(),
+                    reward.getHardSolved(), reward.getSolvedWithoutHints(),
+                    reward.getXp(), reward.getGems(), System.currentTimeMillis());
+            return userProgressDao.getUserProgressSync();
         });
     }
 
@@ -169,7 +220,7 @@ public class BugRepository {
      * Increment the global hints used counter.
      */
     public void incrementHintsUsed() {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             userProgressDao.incrementHintsUsed();
         });
     }
@@ -185,19 +236,19 @@ public class BugRepository {
     }
 
     public void updateLastOpenedTimestamp() {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             userProgressDao.updateLastOpenedTimestamp(System.currentTimeMillis());
         });
     }
 
     public void updateStreak(int streak) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             userProgressDao.updateStreak(streak);
         });
     }
 
     public void resetProgress() {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             bugDao.resetAllBugs();
             userProgressDao.resetProgress();
         });
@@ -207,7 +258,7 @@ public class BugRepository {
      * Add gems to user's balance.
      */
     public void addGems(int amount) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             userProgressDao.addGems(amount);
         });
     }
@@ -218,7 +269,7 @@ public class BugRepository {
      */
     public boolean spendGems(int amount) {
         try {
-            return executorService.submit(() -> {
+            return writeExecutor.submit(() -> {
                 int rowsUpdated = userProgressDao.spendGems(amount);
                 return rowsUpdated > 0;
             }).get();
@@ -232,7 +283,7 @@ public class BugRepository {
      */
     public int getGemsSync() {
         try {
-            return executorService.submit(() -> userProgressDao.getGemsSync()).get();
+            return readExecutor.submit(() -> userProgressDao.getGemsSync()).get();
         } catch (Exception e) {
             return 0;
         }
@@ -240,19 +291,19 @@ public class BugRepository {
 
     // Database seeding (called once)
     public void insertBugs(List<Bug> bugs) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             bugDao.insertAll(bugs);
         });
     }
 
     public void insertHints(List<Hint> hints) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             hintDao.insertAll(hints);
         });
     }
 
     public void insertInitialProgress() {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             UserProgress progress = userProgressDao.getUserProgressSync();
             if (progress == null) {
                 userProgressDao.insert(new UserProgress());
@@ -265,7 +316,7 @@ public class BugRepository {
      */
     public int getBugCountSync() {
         try {
-            return executorService.submit(() -> bugDao.getBugCount()).get();
+            return readExecutor.submit(() -> bugDao.getBugCount()).get();
         } catch (Exception e) {
             return 0;
         }
@@ -276,7 +327,7 @@ public class BugRepository {
      */
     public int getPathCountSync() {
         try {
-            return executorService.submit(() -> learningPathDao.getPathCountSync()).get();
+            return readExecutor.submit(() -> learningPathDao.getPathCountSync()).get();
         } catch (Exception e) {
             return 0;
         }
@@ -286,19 +337,85 @@ public class BugRepository {
     // These bypass the executor service to ensure completion before returning
 
     /**
-     * Insert bugs synchronously. MUST be called from background thread.
+     * Insert or update seeded bugs synchronously, keeping each existing bug's
+     * completion and notes. MUST be called from background thread.
      */
-    public void insertBugsSync(List<Bug> bugs) {
-        bugDao.insertAll(bugs);
+    public void upsertSeedBugsSync(List<Bug> bugs) {
+        if (bugs.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(bugs.size());
+        for (Bug bug : bugs) {
+            ids.add(bug.getId());
+        }
+        Map<Integer, Bug> existing = new HashMap<>();
+        for (Bug bug : bugDao.getBugsByIdsSync(ids)) {
+            existing.put(bug.getId(), bug);
+        }
+        for (Bug bug : bugs) {
+            Bug current = existing.get(bug.getId());
+            if (current != null) {
+                bug.setCompleted(current.isCompleted());
+                bug.setUserNotes(current.getUserNotes());
+            }
+        }
+        bugDao.upsertAll(bugs);
     }
 
     /**
-     * Insert hints synchronously. MUST be called from background thread.
+     * Delete bugs synchronously. MUST be called from background thread.
      */
-    public void insertHintsSync(List<Hint> hints) {
+    public void deleteBugsSync(List<Integer> bugIds) {
+        if (!bugIds.isEmpty()) {
+            bugDao.deleteBugsByIds(bugIds);
+        }
+    }
+
+    /**
+     * Replace all hints of a bug synchronously. MUST be called from background thread.
+     */
+    public void replaceHintsSync(int bugId, List<Hint> hints) {
+        hintDao.deleteHintsForBug(bugId);
         hintDao.insertAll(hints);
     }
 
+    /**
+     * Get the seed manifest entries of one record kind synchronously.
+     * MUST be called from background thread.
+     */
+    public List<SeedManifestEntry> getSeedManifestSync(String kind) {
+        return seedManifestDao.getEntries(kind);
+    }
+
+    /**
+     * Number of records of one kind the seed manifest says were seeded.
+     * MUST be called from background thread.
+     */
+    public int getSeedManifestCountSync(String kind) {
+        return seedManifestDao.getEntryCount(kind);
+    }
+
+    /**
+     * Store changed manifest entries and drop removed ones synchronously.
+     * MUST be called from background thread.
+     */
+    public void saveSeedManifestSync(String kind, List<SeedManifestEntry> changed, List<String> removedKeys) {
+        if (!changed.isEmpty()) {
+            seedManifestDao.upsertAll(changed);
+        }
+        if (!removedKeys.isEmpty()) {
+            seedManifestDao.deleteEntries(kind, removedKeys);
+        }
+    }
+
+    /**
+     * Run the body in a single database transaction. MUST be called from background thread.
+     * Checked exceptions from the body are rethrown wrapped in a RuntimeException.
+     */
+    public <V> V runInTransactionSync(Callable<V> body) {
+        return database.runInTransaction(body);
+    }
+
     /**
      * Insert initial progress synchronously. MUST be called from background thread.
      */
@@ -310,31 +427,64 @@ public class BugRepository {
     }
 
     /**
-     * Insert learning paths synchronously. MUST be called from background thread.
+     * Insert or update learning paths synchronously. MUST be called from background thread.
      */
-    public void insertLearningPathsSync(List<LearningPath> paths) {
-        learningPathDao.insertAllPaths(paths);
+    public void upsertLearningPathsSync(List<LearningPath> paths) {
+        if (!paths.isEmpty()) {
+            learningPathDao.upsertPaths(paths);
+        }
     }
 
     /**
-     * Insert bug-in-path mappings synchronously. MUST be called from background thread.
+     * Delete learning paths synchronously. MUST be called from background thread.
      */
-    public void insertBugInPathsSync(List<BugInPath> bugInPaths) {
-        learningPathDao.insertAllBugInPath(bugInPaths);
+    public void deleteLearningPathsSync(List<Integer> pathIds) {
+        if (!pathIds.isEmpty()) {
+            learningPathDao.deletePathsByIds(pathIds);
+        }
     }
 
     /**
-     * Insert achievements synchronously. MUST be called from background thread.
+     * Insert or update bug-in-path mappings synchronously. MUST be called from background thread.
      */
-    public void insertAchievementsSync(List<AchievementDefinition> achievements) {
-        achievementDao.insertAllAchievementDefinitions(achievements);
+    public void upsertBugInPathsSync(List<BugInPath> bugInPaths) {
+        if (!bugInPaths.isEmpty()) {
+            learningPathDao.upsertBugInPaths(bugInPaths);
+        }
+    }
+
+    /**
+     * Delete bug-in-path mappings synchronously. MUST be called from background thread.
+     */
+    public void deleteBugInPathsSync(List<BugInPath> bugInPaths) {
+        if (!bugInPaths.isEmpty()) {
+            learningPathDao.deleteBugInPaths(bugInPaths);
+        }
+    }
+
+    /**
+     * Insert or update achievement definitions synchronously. MUST be called from background thread.
+     */
+    public void upsertAchievementsSync(List<AchievementDefinition> achievements) {
+        if (!achievements.isEmpty()) {
+            achievementDao.upsertAchievementDefinitions(achievements);
+        }
+    }
+
+    /**
+     * Delete achievement definitions synchronously. MUST be called from background thread.
+     */
+    public void deleteAchievementsSync(List<String> achievementIds) {
+        if (!achievementIds.isEmpty()) {
+            achievementDao.deleteAchievementDefinitionsByIds(achievementIds);
+        }
     }
 
     /**
      * Update user notes for a bug.
      */
     public void updateBugNotes(int bugId, String notes) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             bugDao.updateBugNotes(bugId, notes);
         });
     }
@@ -352,22 +502,21 @@ public class BugRepository {
         return learningPathDao.getBugIdsInPath(pathId);
     }
 
-    public LiveData<Integer> getBugCountInPath(int pathId) {
-        return learningPathDao.getBugCountInPath(pathId);
-    }
-
-    public LiveData<Integer> getCompletedBugCountInPath(int pathId) {
-        return learningPathDao.getCompletedBugCountInPath(pathId);
+    /**
+     * Total and completed bug counts for all paths, from one grouped query.
+     */
+    public LiveData<List<PathBugCounts>> getPathBugCounts() {
+        return learningPathDao.getPathBugCounts();
     }
 
     public void insertLearningPaths(List<LearningPath> paths) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             learningPathDao.insertAllPaths(paths);
         });
     }
 
     public void insertBugInPaths(List<BugInPath> bugInPaths) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             learningPathDao.insertAllBugInPath(bugInPaths);
         });
     }
@@ -382,13 +531,13 @@ public class BugRepository {
     }
 
     public void insertLessons(List<Lesson> lessons) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             lessonDao.insertAllLessons(lessons);
         });
     }
 
     public void insertLessonQuestions(List<LessonQuestion> questions) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             lessonDao.insertAllQuestions(questions);
         });
     }
@@ -407,7 +556,7 @@ public class BugRepository {
     }
 
     public void insertAchievements(List<AchievementDefinition> achievements) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             achievementDao.insertAllAchievementDefinitions(achievements);
         });
     }
@@ -432,7 +581,17 @@ public class BugRepository {
         return lessonDao;
     }
 
-    public ExecutorService getExecutorService() {
-        return executorService;
+    /**
+     * Pool for background reads. Work that writes belongs on {@link #getWriteExecutor()}.
+     */
+    public ExecutorService getReadExecutor() {
+        return readExecutor;
+    }
+
+    /**
+     * Single-threaded pool for writes, which run in submission order.
+     */
+    public ExecutorService getWriteExecutor() {
+        return writeExecutor;
     }
 }
@@ -0,0 +1,101 @@
+package com.example.debugappproject.data.seeding;
+
+import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.Hint;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SeedJsonStreamer - Reads bugs.json one element at a time.
+ *
+ * Bugs and hints are deserialized straight from a {@link JsonReader} and
+ * handed out in fixed-size batches, so only one batch is held in memory
+ * instead of the whole file, a generic Map tree and a re-serialized copy.
+ *
+ * Expected layout: {"bugs": [...], "hints": [...]}, both arrays optional,
+ * unknown keys skipped.
+ */
+final class SeedJsonStreamer {
+
+    /**
+     * Receives each full batch, and the final partial one.
+     */
+    interface BatchHandler<T> {
+        void onBatch(List<T> batch);
+    }
+
+    private final Gson gson;
+    private final int batchSize;
+
+    private int bugCount;
+    private int hintCount;
+
+    SeedJsonStreamer(Gson gson, int batchSize) {
+        this.gson = gson;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Streams the document, calling the handlers as batches fill up.
+     * The reader is not closed.
+     */
+    void stream(Reader source, BatchHandler<Bug> bugHandler,
+                BatchHandler<Hint> hintHandler) throws IOException {
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("bugs")) {
+                bugCount += readArray(reader, Bug.class, bugHandler);
+            } else if (name.equals("hints")) {
+                hintCount += readArray(reader, Hint.class, hintHandler);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    int getBugCount() {
+        return bugCount;
+    }
+
+    int getHintCount() {
+        return hintCount;
+    }
+
+    private <T> int readArray(JsonReader reader, Class<T> type,
+                              BatchHandler<T> handler) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+
+        int count = 0;
+        List<T> batch = new ArrayList<>(batchSize);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T item = gson.fromJson(reader, type);
+            if (item == null) {
+                continue;
+            }
+            batch.add(item);
+            count++;
+            if (batch.size() == batchSize) {
+                handler.onBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        reader.endArray();
+        if (!batch.isEmpty()) {
+            handler.onBatch(batch);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.debugappproject.data.seeding;
+
+import com.example.debugappproject.model.SeedManifestEntry;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SeedManifestDiff - Compares one kind of seed record with the manifest.
+ *
+ * Each record from the seed sources is offered with its key and content
+ * hash; {@link #offer} says whether it is new or changed and must be
+ * written. Once all records were offered, {@link #getRemovedKeys()} lists
+ * the previously seeded records that are gone from the sources.
+ *
+ * The manifest changes to store are collected in {@link #getChangedEntries()}.
+ * With rewriteAll every offered record counts as changed, for when the
+ * stored content no longer matches the manifest.
+ */
+final class SeedManifestDiff {
+
+    /**
+     * Part of every record hash: increment to rewrite all seeded records,
+     * e.g. when NormalizedCode changes (v7: seed manifest).
+     */
+    static final int SEED_VERSION = 7;
+
+    private static final Gson GSON = new Gson();
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String kind;
+    private final Map<String, Long> unseen;
+    private final boolean rewriteAll;
+    private final List<SeedManifestEntry> changedEntries = new ArrayList<>();
+
+    SeedManifestDiff(String kind, List<SeedManifestEntry> previous, boolean rewriteAll) {
+        this.kind = kind;
+        this.rewriteAll = rewriteAll;
+        this.unseen = new HashMap<>();
+        for (SeedManifestEntry entry : previous) {
+            unseen.put(entry.getRecordKey(), entry.getHash());
+        }
+    }
+
+    /**
+     * Records a seed record. Returns true if it is new or its content
+     * changed since it was last seeded.
+     */
+    boolean offer(String key, long hash) {
+        Long previousHash = unseen.remove(key);
+        if (!rewriteAll && previousHash != null && previousHash == hash) {
+            return false;
+        }
+        changedEntries.add(new SeedManifestEntry(kind, key, hash));
+        return true;
+    }
+
+    String getKind() {
+        return kind;
+    }
+
+    List<SeedManifestEntry> getChangedEntries() {
+        return changedEntries;
+    }
+
+    /**
+     * Keys that were seeded before but were not offered this time.
+     */
+    List<String> getRemovedKeys() {
+        return new ArrayList<>(unseen.keySet());
+    }
+
+    /**
+     * Content hash of a seed record (or list of records) as parsed from the
+     * seed sources, before any derived fields are filled in.
+     */
+    static long hashRecord(Object record) {
+        return hash(SEED_VERSION, GSON.toJson(record));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of a record's serialized
+     * content, salted with the seed version so a version bump rewrites
+     * every record.
+     */
+    static long hash(int seedVersion, String content) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = (hash ^ seedVersion) * FNV_PRIME;
+        for (byte b : content.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
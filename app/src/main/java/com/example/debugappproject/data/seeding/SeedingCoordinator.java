@@ -0,0 +1,224 @@
+package com.example.debugappproject.data.seeding;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.debugappproject.data.repository.BugRepository;
+import com.example.debugappproject.util.StartupTrace;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║           DEBUGMASTER - SEEDING COORDINATOR                                  ║
+ * ║              One seed job per launch, shared by every caller                 ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Application, splash and onboarding all need the seeded content. Instead
+ * of each starting {@link DatabaseSeeder} on its own thread, they call
+ * {@link #start()} and get the same job:
+ * - {@link #start()} completes when the sync has finished
+ * - {@link #awaitContent()} completes as soon as bugs can be shown, which
+ *   for an installed or prebuilt database is before the sync
+ * - {@link #getProgress()} reports stage, phase, attempt and timings
+ *
+ * A failed sync is retried with backoff. If every attempt fails, both
+ * futures fail; the next {@link #start()} begins a new job.
+ *
+ * Usage:
+ * <pre>
+ *     SeedingCoordinator.getInstance(context).awaitContent()
+ *             .thenRun(() -> ...);
+ * </pre>
+ */
+public final class SeedingCoordinator {
+
+    private static final String TAG = "SeedingCoordinator";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long FIRST_RETRY_DELAY_MS = 500;
+
+    public enum Stage {
+        NOT_STARTED,
+        SYNCING,        // Sync running, no content to show yet
+        CONTENT_READY,  // Bugs can be shown, sync still running
+        COMPLETE,
+        FAILED
+    }
+
+    /**
+     * One progress event. Times are measured from the start of the job.
+     */
+    public static final class Progress {
+        public final Stage stage;
+        @Nullable
+        public final String phase;      // Last finished DatabaseSeeder phase
+        public final int attempt;
+        public final long elapsedMs;
+        public final long contentReadyMs;   // -1 until content is ready
+        @Nullable
+        public final Throwable error;
+
+        Progress(Stage stage, @Nullable String phase, int attempt, long elapsedMs,
+                 long contentReadyMs, @Nullable Throwable error) {
+            this.stage = stage;
+            this.phase = phase;
+            this.attempt = attempt;
+            this.elapsedMs = elapsedMs;
+            this.contentReadyMs = contentReadyMs;
+            this.error = error;
+        }
+
+        /**
+         * True once bugs can be shown, even if a later sync attempt failed.
+         */
+        public boolean isContentReady() {
+            return contentReadyMs >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return stage + (phase != null ? " after " + phase : "") + " (attempt " + attempt
+                    + ", " + elapsedMs + "ms, content ready at "
+                    + (contentReadyMs >= 0 ? contentReadyMs + "ms" : "-") + ")";
+        }
+    }
+
+    private static volatile SeedingCoordinator instance;
+
+    private final Context context;
+    private final MutableLiveData<Progress> progress =
+            new MutableLiveData<>(new Progress(Stage.NOT_STARTED, null, 0, 0, -1, null));
+
+    // Guarded by this
+    private Job job;
+
+    private SeedingCoordinator(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static SeedingCoordinator getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SeedingCoordinator.class) {
+                if (instance == null) {
+                    instance = new SeedingCoordinator(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the seed job unless one is running or has succeeded.
+     *
+     * @return Completes when the sync has finished, or fails after the last attempt
+     */
+    public CompletableFuture<Void> start() {
+        return startJob().done;
+    }
+
+    /**
+     * Starts the seed job if needed.
+     *
+     * @return Completes once bugs can be shown, or fails if the job failed without any
+     */
+    public CompletableFuture<Void> awaitContent() {
+        return startJob().contentReady;
+    }
+
+    /**
+     * Progress of the current job. Events are posted from the seed thread,
+     * so an observer may only see the latest of several quick ones; use
+     * the futures to wait for a stage.
+     */
+    public LiveData<Progress> getProgress() {
+        return progress;
+    }
+
+    private synchronized Job startJob() {
+        if (job == null || job.done.isCompletedExceptionally()) {
+            job = new Job();
+            Thread thread = new Thread(job::run, "db-seed");
+            thread.start();
+        }
+        return job;
+    }
+
+    /**
+     * One run of the seeder with retries.
+     */
+    private final class Job {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final CompletableFuture<Void> contentReady = new CompletableFuture<>();
+        private final long startMs = SystemClock.elapsedRealtime();
+        private volatile long contentReadyMs = -1;
+        private int attempt;
+
+        void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            BugRepository repository = BugRepository.getInstance(context);
+            long retryDelayMs = FIRST_RETRY_DELAY_MS;
+
+            for (attempt = 1; ; attempt++) {
+                try {
+                    // An installed or prebuilt database can be browsed while the sync runs
+                    if (!contentReady.isDone() && repository.getBugCountSync() > 0) {
+                        markContentReady();
+                    } else {
+                        publish(contentReady.isDone() ? Stage.CONTENT_READY : Stage.SYNCING, null, null);
+                    }
+
+                    StartupTrace.begin("Seed.sync");
+                    try {
+                        DatabaseSeeder.seedDatabase(context, repository, (phase, durationMs) ->
+                                publish(contentReady.isDone() ? Stage.CONTENT_READY : Stage.SYNCING, phase, null));
+                    } finally {
+                        StartupTrace.end();
+                    }
+
+                    markContentReady();
+                    Log.i(TAG, "Seeding complete: " + publish(Stage.COMPLETE, null, null));
+                    done.complete(null);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        Log.e(TAG, "Seeding failed after " + attempt + " attempts", e);
+                        publish(Stage.FAILED, null, e);
+                        contentReady.completeExceptionally(e);
+                        done.completeExceptionally(e);
+                        return;
+                    }
+                    Log.w(TAG, "Seeding attempt " + attempt + " failed, retrying in " + retryDelayMs + "ms", e);
+                    SystemClock.sleep(retryDelayMs);
+                    retryDelayMs *= 2;
+                }
+            }
+        }
+
+        private void markContentReady() {
+            if (contentReady.isDone()) {
+                return;
+            }
+            contentReadyMs = SystemClock.elapsedRealtime() - startMs;
+            StartupTrace.mark("Seed content ready (" + contentReadyMs + "ms into the job)");
+            publish(Stage.CONTENT_READY, null, null);
+            contentReady.complete(null);
+        }
+
+        private Progress publish(Stage stage, @Nullable String phase, @Nullable Throwable error) {
+            Progress event = new Progress(stage, phase, attempt,
+                    SystemClock.elapsedRealtime() - startMs, contentReadyMs, error);
+            progress.postValue(event);
+            if (phase != null) {
+                Log.d(TAG, "Phase " + phase + ": " + event);
+            }
+            return event;
+        }
+    }
+}
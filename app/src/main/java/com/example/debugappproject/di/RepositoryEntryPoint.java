@@ -0,0 +1,20 @@
+package com.example.debugappproject.di;
+
+import com.example.debugappproject.data.repository.BugRepository;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * RepositoryEntryPoint - Reaches the Hilt singletons from classes Hilt
+ * doesn't create (AndroidViewModels, plain fragments, background tasks).
+ *
+ * Use BugRepository.getInstance(context) rather than calling this directly.
+ */
+@EntryPoint
+@InstallIn(SingletonComponent.class)
+public interface RepositoryEntryPoint {
+
+    BugRepository bugRepository();
+}
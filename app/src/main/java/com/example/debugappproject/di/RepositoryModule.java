@@ -1,7 +1,7 @@
 package com.example.debugappproject.di;
 
-import android.app.Application;
-
+import com.example.debugappproject.data.local.DebugMasterDatabase;
+import com.example.debugappproject.data.local.IoDispatcher;
 import com.example.debugappproject.data.repository.BugRepository;
 
 import javax.inject.Singleton;
@@ -9,7 +9,6 @@ import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
-import dagger.hilt.android.qualifiers.ApplicationContext;
 import dagger.hilt.components.SingletonComponent;
 
 /**
@@ -35,12 +34,23 @@ public class RepositoryModule {
      * - Background thread management
      * - Cache management
      *
-     * @param application Application instance for database access
+     * @param database   Database singleton from DatabaseModule
+     * @param dispatcher App-wide database thread pools
      * @return Singleton BugRepository instance
      */
     @Provides
     @Singleton
-    public BugRepository provideBugRepository(Application application) {
-        return new BugRepository(application);
+    public BugRepository provideBugRepository(DebugMasterDatabase database, IoDispatcher dispatcher) {
+        return new BugRepository(database, dispatcher);
+    }
+
+    /**
+     * Provides the app-wide read and write pools for database work.
+     * Room uses the same pools, so there is one set of DB threads per process.
+     */
+    @Provides
+    @Singleton
+    public IoDispatcher provideIoDispatcher() {
+        return IoDispatcher.getInstance();
     }
 }
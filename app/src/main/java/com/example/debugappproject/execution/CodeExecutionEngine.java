@@ -2,17 +2,24 @@ package com.example.debugappproject.execution;
 
 import android.util.Log;
 
+import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.janino.SimpleCompiler;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,15 +28,19 @@ import java.util.regex.Pattern;
  *
  * Features:
  * - Compiles and executes Java code at runtime
- * - Captures System.out output
+ * - Captures System.out output per execution (capped, no global stream swapping)
  * - Handles compilation errors with line numbers
  * - Catches runtime exceptions
  * - Enforces execution timeout (5 seconds default)
- * - Thread-safe execution
+ * - Thread-safe execution (several runs can execute concurrently)
  * - Automatic code preparation (wraps in class if needed)
+ * - Compiled-class cache shared across engines (unchanged code skips Janino)
+ * - Parallel test-case runs from a single compile
  *
  * Security:
- * - Runs in isolated thread with timeout
+ * - Each run gets its own worker thread; on timeout the run is cancelled
+ *   and a worker stuck in user code is abandoned, never reused
+ * - Loop iteration and output byte budgets (see {@link ExecutionBudget})
  * - Cannot access Android system resources
  * - Limited to standard Java operations
  *
@@ -44,13 +55,35 @@ public class CodeExecutionEngine {
 
     private static final String TAG = "CodeExecutionEngine";
     private static final long DEFAULT_TIMEOUT_MS = 5000; // 5 seconds
+    private static final int EXECUTION_WORKER_COUNT = 2;
+    private static final int TEST_WORKER_COUNT =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int DEFAULT_MAX_OUTPUT_BYTES = 64 * 1024;
+    private static final long DEFAULT_MAX_LOOP_ITERATIONS = 10_000_000L;
+
+    // Shared so re-opening a bug screen still hits code compiled earlier in the session
+    private static final CompiledClassCache SHARED_CACHE = new CompiledClassCache();
 
     private final ExecutorService executorService;
+    private final Semaphore executionSlots = new Semaphore(EXECUTION_WORKER_COUNT);
+    private final CompiledClassCache classCache;
+    private final AtomicInteger abandonedWorkers = new AtomicInteger();
     private long timeoutMs = DEFAULT_TIMEOUT_MS;
+    private int maxOutputBytes = DEFAULT_MAX_OUTPUT_BYTES;
+    private long maxLoopIterations = DEFAULT_MAX_LOOP_ITERATIONS;
 
     public CodeExecutionEngine() {
-        // Single thread executor for sequential execution
-        this.executorService = Executors.newSingleThreadExecutor();
+        this(SHARED_CACHE);
+    }
+
+    public CodeExecutionEngine(CompiledClassCache classCache) {
+        // No queue: every run is handed straight to an idle worker or a new one,
+        // so a worker abandoned in a runaway loop never blocks later runs.
+        // Concurrency is bounded by executionSlots instead.
+        this.executorService = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreads("code-execution"));
+        this.classCache = classCache;
     }
 
     /**
@@ -61,6 +94,37 @@ public class CodeExecutionEngine {
         this.timeoutMs = Math.max(500, Math.min(10000, timeoutMs));
     }
 
+    /**
+     * Sets how much stdout is kept per run; anything beyond is dropped and
+     * the result is marked as truncated.
+     * @param maxOutputBytes Byte limit (1 KB - 1 MB)
+     */
+    public void setMaxOutputBytes(int maxOutputBytes) {
+        this.maxOutputBytes = Math.max(1024, Math.min(1024 * 1024, maxOutputBytes));
+    }
+
+    /**
+     * Sets how many loop iterations a single run may execute before it is stopped.
+     * @param maxLoopIterations Iteration limit (at least 1000)
+     */
+    public void setMaxLoopIterations(long maxLoopIterations) {
+        this.maxLoopIterations = Math.max(1000, maxLoopIterations);
+    }
+
+    /**
+     * Returns how many timed-out runs are still occupying a worker thread.
+     */
+    public int getAbandonedWorkerCount() {
+        return abandonedWorkers.get();
+    }
+
+    /**
+     * Returns the compiled-class cache used by this engine (for hit/miss metrics).
+     */
+    public CompiledClassCache getClassCache() {
+        return classCache;
+    }
+
     /**
      * Executes Java code and returns the result.
      *
@@ -73,6 +137,9 @@ public class CodeExecutionEngine {
         }
 
         long startTime = System.currentTimeMillis();
+        CodeExecutionTask task = null;
+        Future<CodeExecutionResult> future = null;
+        boolean holdsSlot = false;
 
         try {
             // Prepare code (wrap in class if needed)
@@ -80,10 +147,12 @@ public class CodeExecutionEngine {
 
             Log.d(TAG, "Executing code:\n" + preparedCode);
 
+            executionSlots.acquire();
+            holdsSlot = true;
+
             // Submit execution task with timeout
-            Future<CodeExecutionResult> future = executorService.submit(
-                    new CodeExecutionTask(preparedCode)
-            );
+            task = new CodeExecutionTask(preparedCode, classCache, maxOutputBytes, maxLoopIterations);
+            future = executorService.submit(task);
 
             // Wait for result with timeout
             CodeExecutionResult result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
@@ -92,19 +161,178 @@ public class CodeExecutionEngine {
             result.setExecutionTimeMs(executionTime);
 
             Log.d(TAG, "Execution result: " + result.getSummary());
+            Log.d(TAG, classCache.getSummary());
             return result;
 
         } catch (TimeoutException e) {
             Log.w(TAG, "Execution timed out after " + timeoutMs + "ms");
+            cancel(future, task);
             return CodeExecutionResult.timeoutError(timeoutMs);
 
+        } catch (InterruptedException e) {
+            cancel(future, task);
+            Thread.currentThread().interrupt();
+            return CodeExecutionResult.runtimeError("Execution interrupted", null);
+
         } catch (Exception e) {
             Log.e(TAG, "Execution failed", e);
             return CodeExecutionResult.runtimeError(
                     "Unexpected error: " + e.getMessage(),
                     null
             );
+
+        } finally {
+            // A cancelled run no longer holds its slot, even if its thread is still stuck.
+            // Also released when submit was rejected (e.g. after shutdown).
+            if (holdsSlot) {
+                executionSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Interrupts a run that took too long. Instrumented loops notice the
+     * interrupt at their next iteration; if the thread is still busy, it is
+     * counted as abandoned until it finishes.
+     */
+    private void cancel(Future<CodeExecutionResult> future, SandboxedRun task) {
+        if (future == null || task == null) {
+            return;
+        }
+        future.cancel(true);
+        if (task.abandon()) {
+            abandonedWorkers.incrementAndGet();
+            Log.w(TAG, "Abandoned worker still running user code (" + abandonedWorkers.get() + " total)");
+        }
+    }
+
+    /**
+     * Compiles the code once and runs it against each stdin input in parallel.
+     *
+     * Every run loads its own copy of the compiled class, reads its own stdin,
+     * captures its own stdout, and gets the full timeout from the moment it
+     * actually starts on a worker.
+     *
+     * @param userCode The Java code to execute (method body or full class)
+     * @param inputs   Text fed to System.in, one entry per test case
+     * @return One result per input, in the same order
+     */
+    public List<CodeExecutionResult> executeTests(String userCode, List<String> inputs) {
+        List<CodeExecutionResult> results = new ArrayList<>(inputs.size());
+        if (userCode == null || userCode.trim().isEmpty()) {
+            for (int i = 0; i < inputs.size(); i++) {
+                results.add(CodeExecutionResult.compilationError("Code is empty", -1));
+            }
+            return results;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        CompiledClassCache.Entry compiled;
+        try {
+            compiled = compile(prepareCode(userCode), classCache);
+        } catch (CompileException e) {
+            int lineNumber = extractLineNumber(e.getMessage());
+            String errorMessage = cleanErrorMessage(e.getMessage());
+            for (int i = 0; i < inputs.size(); i++) {
+                results.add(CodeExecutionResult.compilationError(errorMessage, lineNumber));
+            }
+            return results;
+        } catch (Exception e) {
+            Log.e(TAG, "Compilation failed", e);
+            for (int i = 0; i < inputs.size(); i++) {
+                results.add(CodeExecutionResult.runtimeError("Unexpected error: " + e.getMessage(), null));
+            }
+            return results;
+        }
+
+        // Fresh workers per batch: a thread stuck in an earlier batch can't slow this one
+        int workerCount = Math.max(1, Math.min(inputs.size(), TEST_WORKER_COUNT));
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, daemonThreads("code-test-runner"));
+        List<TestRunTask> tasks = new ArrayList<>(inputs.size());
+        List<Future<CodeExecutionResult>> futures = new ArrayList<>(inputs.size());
+        try {
+            for (String input : inputs) {
+                TestRunTask task = new TestRunTask(compiled, input, maxOutputBytes, maxLoopIterations);
+                tasks.add(task);
+                futures.add(workers.submit(task));
+            }
+
+            // Queued runs can't wait forever behind workers stuck in user code
+            int rounds = (inputs.size() + workerCount - 1) / workerCount;
+            long batchDeadline = startTime + timeoutMs * (rounds + 1);
+
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(awaitTestRun(futures.get(i), tasks.get(i), batchDeadline));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Log.d(TAG, String.format("Ran %d test inputs in %d ms",
+                inputs.size(), System.currentTimeMillis() - startTime));
+        return results;
+    }
+
+    /**
+     * Waits for one test run, timing it from when it started rather than when it was queued.
+     */
+    private CodeExecutionResult awaitTestRun(Future<CodeExecutionResult> future,
+                                             TestRunTask task, long batchDeadline) {
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                long startedAt = task.startedAtMs;
+                long waitMs = startedAt == 0
+                        ? batchDeadline - now
+                        : startedAt + timeoutMs - now;
+                if (waitMs <= 0) {
+                    cancel(future, task);
+                    return CodeExecutionResult.timeoutError(timeoutMs);
+                }
+                try {
+                    return future.get(Math.min(waitMs, timeoutMs), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ignored) {
+                    // Re-check: the run may only just have started
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(future, task);
+            Thread.currentThread().interrupt();
+            return CodeExecutionResult.runtimeError("Test run interrupted", null);
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Test run failed", e);
+            return CodeExecutionResult.runtimeError(
+                    "Unexpected error: " + e.getCause().getMessage(),
+                    null
+            );
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns compiled bytecode for prepared code, invoking Janino only on a cache miss.
+     * Loops are instrumented with {@link ExecutionBudget} checks before compiling.
+     */
+    private static CompiledClassCache.Entry compile(String preparedCode,
+                                                    CompiledClassCache classCache) throws Exception {
+        String key = CompiledClassCache.keyFor(preparedCode);
+        CompiledClassCache.Entry entry = classCache.get(key);
+        if (entry == null) {
+            SimpleCompiler compiler = new SimpleCompiler();
+            // Instrumented code calls ExecutionBudget, so it must resolve against the app's loader
+            compiler.setParentClassLoader(CodeExecutionEngine.class.getClassLoader());
+            compiler.cook(LoopInstrumenter.instrument(preparedCode));
+            entry = classCache.put(key, compiler.getBytecodes());
         }
+        return entry;
     }
 
     /**
@@ -181,130 +409,223 @@ public class CodeExecutionEngine {
     }
 
     /**
-     * Task that compiles and executes code in a separate thread.
+     * A single run of user code on a worker thread.
+     *
+     * Tracks whether the engine gave up on the run while it was still
+     * executing, so abandoned workers can be counted until they finish.
      */
-    private static class CodeExecutionTask implements Callable<CodeExecutionResult> {
+    private abstract class SandboxedRun implements Callable<CodeExecutionResult> {
 
-        private final String code;
+        private static final int RUNNING = 0;
+        private static final int FINISHED = 1;
+        private static final int ABANDONED = 2;
 
-        public CodeExecutionTask(String code) {
-            this.code = code;
-        }
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        volatile long startedAtMs;
 
         @Override
-        public CodeExecutionResult call() {
-            // Capture System.out
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PrintStream originalOut = System.out;
-            PrintStream captureOut = new PrintStream(outputStream);
-
+        public final CodeExecutionResult call() {
+            startedAtMs = System.currentTimeMillis();
             try {
-                // Compile the code
-                SimpleCompiler compiler = new SimpleCompiler();
-                compiler.cook(code);
-
-                // Get the compiled class
-                ClassLoader classLoader = compiler.getClassLoader();
-                Class<?> compiledClass = classLoader.loadClass("UserCode");
+                return run();
+            } finally {
+                if (!state.compareAndSet(RUNNING, FINISHED)) {
+                    abandonedWorkers.decrementAndGet();
+                }
+            }
+        }
 
-                // Find and invoke main method
-                Method mainMethod = compiledClass.getMethod("main", String[].class);
+        /**
+         * Marks the run as abandoned.
+         * @return true if the run was still executing
+         */
+        boolean abandon() {
+            return state.compareAndSet(RUNNING, ABANDONED);
+        }
 
-                // Redirect System.out
-                System.setOut(captureOut);
+        abstract CodeExecutionResult run();
+    }
 
-                // Execute main method
-                String[] args = new String[0];
-                mainMethod.invoke(null, (Object) args);
+    /**
+     * Task that compiles and executes code in a separate thread.
+     */
+    private class CodeExecutionTask extends SandboxedRun {
 
-                // Flush and get output
-                captureOut.flush();
-                String output = outputStream.toString();
+        private final String code;
+        private final CompiledClassCache classCache;
+        private final int maxOutputBytes;
+        private final long maxLoopIterations;
 
-                return CodeExecutionResult.success(output, 0);
+        CodeExecutionTask(String code, CompiledClassCache classCache,
+                          int maxOutputBytes, long maxLoopIterations) {
+            this.code = code;
+            this.classCache = classCache;
+            this.maxOutputBytes = maxOutputBytes;
+            this.maxLoopIterations = maxLoopIterations;
+        }
 
-            } catch (org.codehaus.commons.compiler.CompileException e) {
+        @Override
+        CodeExecutionResult run() {
+            Class<?> compiledClass;
+            try {
+                // Compile the code (or reuse bytecode from an identical earlier run)
+                compiledClass = compile(code, classCache).loadClass("UserCode");
+            } catch (CompileException e) {
                 // Compilation error - extract line number
                 int lineNumber = extractLineNumber(e.getMessage());
                 String errorMessage = cleanErrorMessage(e.getMessage());
 
                 return CodeExecutionResult.compilationError(errorMessage, lineNumber);
-
             } catch (Exception e) {
-                // Runtime error
-                String output = outputStream.toString();
-                String errorMessage = formatRuntimeError(e);
+                return CodeExecutionResult.runtimeError(formatRuntimeError(e), null);
+            }
 
-                return CodeExecutionResult.runtimeError(errorMessage, output);
+            return runMain(compiledClass, null, maxOutputBytes, maxLoopIterations, startedAtMs);
+        }
+    }
 
-            } finally {
-                // Restore System.out
-                System.setOut(originalOut);
+    /**
+     * Task that runs one test input against already-compiled code.
+     */
+    private class TestRunTask extends SandboxedRun {
+
+        private final CompiledClassCache.Entry compiled;
+        private final String input;
+        private final int maxOutputBytes;
+        private final long maxLoopIterations;
+
+        TestRunTask(CompiledClassCache.Entry compiled, String input,
+                    int maxOutputBytes, long maxLoopIterations) {
+            this.compiled = compiled;
+            this.input = input;
+            this.maxOutputBytes = maxOutputBytes;
+            this.maxLoopIterations = maxLoopIterations;
+        }
 
-                // Close streams
-                try {
-                    captureOut.close();
-                    outputStream.close();
-                } catch (Exception ignored) {
-                }
+        @Override
+        CodeExecutionResult run() {
+            Class<?> compiledClass;
+            try {
+                // Fresh class per run so static fields don't leak between test cases
+                compiledClass = compiled.loadClass("UserCode");
+            } catch (Exception e) {
+                return CodeExecutionResult.runtimeError(formatRuntimeError(e), null);
             }
+
+            return runMain(compiledClass, input, maxOutputBytes, maxLoopIterations, startedAtMs);
         }
+    }
 
-        /**
-         * Extracts line number from compiler error message.
-         */
-        private int extractLineNumber(String errorMessage) {
-            Pattern linePattern = Pattern.compile("Line (\\d+)");
-            Matcher matcher = linePattern.matcher(errorMessage);
-            if (matcher.find()) {
-                try {
-                    return Integer.parseInt(matcher.group(1));
-                } catch (NumberFormatException ignored) {
-                }
-            }
-            return -1;
+    /**
+     * Invokes UserCode.main on the current thread with its own stdio and budget.
+     */
+    private static CodeExecutionResult runMain(Class<?> compiledClass, String stdin,
+                                               int maxOutputBytes, long maxLoopIterations,
+                                               long startedAtMs) {
+        // Route this thread's stdio into its own buffers
+        StdioCapture.begin(stdin, maxOutputBytes);
+        ExecutionBudget.begin(maxLoopIterations);
+
+        Exception failure = null;
+        try {
+            Method mainMethod = compiledClass.getMethod("main", String[].class);
+            mainMethod.invoke(null, (Object) new String[0]);
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            ExecutionBudget.end();
         }
 
-        /**
-         * Cleans up compiler error message for user display.
-         */
-        private String cleanErrorMessage(String rawMessage) {
-            // Remove Janino-specific details
-            String cleaned = rawMessage.replaceAll("File '.*?', ", "");
-            cleaned = cleaned.replaceAll("org\\.codehaus\\.janino\\.", "");
+        StdioCapture.Captured captured = StdioCapture.end();
+        long elapsedMs = System.currentTimeMillis() - startedAtMs;
+
+        CodeExecutionResult result;
+        Throwable cause = failure != null && failure.getCause() != null ? failure.getCause() : failure;
+        if (failure == null) {
+            result = CodeExecutionResult.success(captured.output, elapsedMs);
+        } else if (cause instanceof ExecutionBudget.BudgetExceededError) {
+            result = budgetError((ExecutionBudget.BudgetExceededError) cause, captured.output, maxOutputBytes);
+            result.setExecutionTimeMs(elapsedMs);
+        } else {
+            result = CodeExecutionResult.runtimeError(formatRuntimeError(failure), captured.output);
+            result.setExecutionTimeMs(elapsedMs);
+        }
+        result.setOutputTruncated(captured.isTruncated());
+        return result;
+    }
 
-            // Make it more user-friendly
-            cleaned = cleaned.replace("Compilation unit '", "'");
+    private static CodeExecutionResult budgetError(ExecutionBudget.BudgetExceededError error,
+                                                   String output, int maxOutputBytes) {
+        switch (error.getKind()) {
+            case LOOP:
+                return CodeExecutionResult.resourceLimitError(
+                        error.getMessage() + ". Check for infinite loops or excessive computation.",
+                        output);
+            case OUTPUT:
+                return CodeExecutionResult.resourceLimitError(
+                        "Output limit of " + (maxOutputBytes / 1024) + " KB exceeded. " +
+                                "Check for print statements inside long-running loops.",
+                        output);
+            case CANCELLED:
+            default:
+                return CodeExecutionResult.runtimeError("Execution cancelled", output);
+        }
+    }
 
-            return cleaned;
+    /**
+     * Extracts line number from compiler error message.
+     */
+    private static int extractLineNumber(String errorMessage) {
+        Pattern linePattern = Pattern.compile("Line (\\d+)");
+        Matcher matcher = linePattern.matcher(errorMessage);
+        if (matcher.find()) {
+            try {
+                return Integer.parseInt(matcher.group(1));
+            } catch (NumberFormatException ignored) {
+            }
         }
+        return -1;
+    }
 
-        /**
-         * Formats runtime exception for user display.
-         */
-        private String formatRuntimeError(Exception e) {
-            Throwable cause = e.getCause() != null ? e.getCause() : e;
-
-            StringBuilder sb = new StringBuilder();
-            sb.append(cause.getClass().getSimpleName());
-            sb.append(": ");
-            sb.append(cause.getMessage() != null ? cause.getMessage() : "No message");
-
-            // Add relevant stack trace (first few frames)
-            StackTraceElement[] stackTrace = cause.getStackTrace();
-            if (stackTrace.length > 0) {
-                sb.append("\n\nStack trace:\n");
-                int framesToShow = Math.min(3, stackTrace.length);
-                for (int i = 0; i < framesToShow; i++) {
-                    StackTraceElement frame = stackTrace[i];
-                    if (frame.getClassName().contains("UserCode")) {
-                        sb.append("  at ").append(frame.toString()).append("\n");
-                    }
+    /**
+     * Cleans up compiler error message for user display.
+     */
+    private static String cleanErrorMessage(String rawMessage) {
+        // Remove Janino-specific details
+        String cleaned = rawMessage.replaceAll("File '.*?', ", "");
+        cleaned = cleaned.replaceAll("org\\.codehaus\\.janino\\.", "");
+
+        // Make it more user-friendly
+        cleaned = cleaned.replace("Compilation unit '", "'");
+
+        return cleaned;
+    }
+
+    /**
+     * Formats runtime exception for user display.
+     */
+    private static String formatRuntimeError(Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(cause.getClass().getSimpleName());
+        sb.append(": ");
+        sb.append(cause.getMessage() != null ? cause.getMessage() : "No message");
+
+        // Add relevant stack trace (first few frames)
+        StackTraceElement[] stackTrace = cause.getStackTrace();
+        if (stackTrace.length > 0) {
+            sb.append("\n\nStack trace:\n");
+            int framesToShow = Math.min(3, stackTrace.length);
+            for (int i = 0; i < framesToShow; i++) {
+                StackTraceElement frame = stackTrace[i];
+                if (frame.getClassName().contains("UserCode")) {
+                    sb.append("  at ").append(frame.toString()).append("\n");
                 }
             }
-
-            return sb.toString();
         }
+
+        return sb.toString();
     }
 
     /**
@@ -28,9 +28,10 @@ public class CodeExecutionResult {
     private boolean success;
     private String output;
     private String errorMessage;
-    private String errorType; // "COMPILATION_ERROR", "RUNTIME_ERROR", "TIMEOUT_ERROR"
+    private String errorType; // "COMPILATION_ERROR", "RUNTIME_ERROR", "TIMEOUT_ERROR", "RESOURCE_LIMIT_ERROR"
     private int errorLineNumber; // -1 if not applicable
     private long executionTimeMs;
+    private boolean outputTruncated; // true if output hit the engine's byte limit
     private List<String> compilerWarnings;
 
     public CodeExecutionResult() {
@@ -86,6 +87,18 @@ public class CodeExecutionResult {
         return result;
     }
 
+    /**
+     * Creates a resource limit error result (loop or output budget exceeded).
+     */
+    public static CodeExecutionResult resourceLimitError(String errorMessage, String output) {
+        CodeExecutionResult result = new CodeExecutionResult();
+        result.success = false;
+        result.errorMessage = errorMessage;
+        result.errorType = "RESOURCE_LIMIT_ERROR";
+        result.output = output != null ? output : "";
+        return result;
+    }
+
     // Getters and Setters
 
     public boolean isSuccess() {
@@ -136,6 +149,14 @@ public class CodeExecutionResult {
         this.executionTimeMs = executionTimeMs;
     }
 
+    public boolean isOutputTruncated() {
+        return outputTruncated;
+    }
+
+    public void setOutputTruncated(boolean outputTruncated) {
+        this.outputTruncated = outputTruncated;
+    }
+
     public List<String> getCompilerWarnings() {
         return compilerWarnings;
     }
@@ -174,6 +195,10 @@ public class CodeExecutionResult {
                 sb.append("⏱️ Timeout Error\n\n").append(errorMessage);
                 break;
 
+            case "RESOURCE_LIMIT_ERROR":
+                sb.append("⛔ Resource Limit Exceeded\n\n").append(errorMessage);
+                break;
+
             default:
                 sb.append("❌ Error\n\n").append(errorMessage);
         }
@@ -186,7 +211,7 @@ public class CodeExecutionResult {
      */
     public String getSummary() {
         if (success) {
-            return String.format("Success (%.2f ms) - Output length: %d chars",
+            return String.format("Success (%d ms) - Output length: %d chars",
                     executionTimeMs, output != null ? output.length() : 0);
         } else {
             return String.format("Failed (%s) - %s",
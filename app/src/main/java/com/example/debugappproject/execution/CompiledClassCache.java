@@ -0,0 +1,192 @@
+package com.example.debugappproject.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CompiledClassCache - Bounded LRU cache of Janino compilation output.
+ *
+ * Entries are keyed by a SHA-256 hash of the prepared (wrapped) source, so
+ * re-running unchanged code or re-validating the same fixedCode skips the
+ * compiler entirely.
+ *
+ * The cache stores bytecode rather than loaded classes: every lookup defines
+ * the classes in a fresh ClassLoader, so static fields in user code start
+ * from their initial values on each run instead of leaking between runs.
+ *
+ * Usage:
+ * <pre>
+ *     String key = CompiledClassCache.keyFor(preparedCode);
+ *     CompiledClassCache.Entry entry = cache.get(key);
+ *     if (entry == null) {
+ *         entry = cache.put(key, compiler.getBytecodes());
+ *     }
+ *     Class<?> userClass = entry.loadClass("UserCode");
+ * </pre>
+ */
+public class CompiledClassCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public CompiledClassCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public CompiledClassCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        // Access-ordered so iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > CompiledClassCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Computes the cache key for prepared source code.
+     */
+    public static String keyFor(String preparedCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(preparedCode.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every JVM and Android release
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached entry for the key, or null on a miss.
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores compiled bytecode under the key, evicting the least recently
+     * used entry if the cache is full.
+     *
+     * @param bytecodes Class name to class file bytes, as produced by the compiler
+     * @return The stored entry
+     */
+    public synchronized Entry put(String key, Map<String, byte[]> bytecodes) {
+        Entry entry = new Entry(bytecodes);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits (0.0 if no lookups yet).
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns a summary for logging.
+     */
+    public synchronized String getSummary() {
+        return String.format("Cache %d/%d entries - hits: %d, misses: %d, evictions: %d",
+                entries.size(), maxEntries, hitCount, missCount, evictionCount);
+    }
+
+    /**
+     * Compiled output of one prepared source.
+     */
+    public static class Entry {
+
+        private final Map<String, byte[]> bytecodes;
+
+        Entry(Map<String, byte[]> bytecodes) {
+            this.bytecodes = Collections.unmodifiableMap(new HashMap<>(bytecodes));
+        }
+
+        public Map<String, byte[]> getBytecodes() {
+            return bytecodes;
+        }
+
+        /**
+         * Loads a class from this entry in a fresh ClassLoader.
+         */
+        public Class<?> loadClass(String className) throws ClassNotFoundException {
+            return new BytecodeClassLoader(bytecodes, CompiledClassCache.class.getClassLoader())
+                    .loadClass(className);
+        }
+    }
+
+    /**
+     * Defines classes from in-memory bytecode, delegating everything else to the parent.
+     */
+    private static class BytecodeClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> bytecodes;
+
+        BytecodeClassLoader(Map<String, byte[]> bytecodes, ClassLoader parent) {
+            super(parent);
+            this.bytecodes = bytecodes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = bytecodes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
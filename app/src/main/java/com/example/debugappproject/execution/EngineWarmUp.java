@@ -0,0 +1,115 @@
+package com.example.debugappproject.execution;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * EngineWarmUp - Pays Janino's first-compile cost before the user's first Run.
+ *
+ * The first compile after launch is much slower than later ones: Janino's
+ * scanner, parser and code generator classes are loaded and the runtime
+ * hasn't optimized them yet. Warm-up loads those classes and compiles and
+ * runs a small representative program on a background-priority thread.
+ *
+ * Usage (once, from Application.onCreate()):
+ * <pre>
+ *     EngineWarmUp.start((durationMs, success) ->
+ *             Log.i(TAG, "Engine warm-up took " + durationMs + "ms"));
+ * </pre>
+ */
+public final class EngineWarmUp {
+
+    private static final String TAG = "EngineWarmUp";
+
+    // Classes every compile touches; loading them up front moves the class-loading cost here
+    private static final String[] JANINO_CLASSES = {
+            "org.codehaus.janino.Scanner",
+            "org.codehaus.janino.Parser",
+            "org.codehaus.janino.Java",
+            "org.codehaus.janino.UnitCompiler",
+            "org.codehaus.janino.CodeContext",
+            "org.codehaus.janino.IClassLoader",
+            "org.codehaus.janino.ClassLoaderIClassLoader",
+            "org.codehaus.janino.util.ClassFile",
+            "org.codehaus.janino.SimpleCompiler",
+            "org.codehaus.commons.compiler.CompileException",
+    };
+
+    // Loops, arrays, a library call and string building, like a typical mission
+    private static final String WARM_UP_SNIPPET =
+            "int[] values = {5, 3, 8, 1};\n" +
+            "java.util.Arrays.sort(values);\n" +
+            "StringBuilder sb = new StringBuilder();\n" +
+            "for (int i = 0; i < values.length; i++) {\n" +
+            "    sb.append(values[i]).append(' ');\n" +
+            "}\n" +
+            "System.out.println(sb.toString().trim());";
+
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+    private static volatile long lastDurationMs = -1;
+
+    /**
+     * Receives the warm-up timing, e.g. to forward it to analytics.
+     */
+    public interface Listener {
+        void onWarmUpFinished(long durationMs, boolean success);
+    }
+
+    private EngineWarmUp() {
+    }
+
+    /**
+     * Starts warm-up on a background-priority thread. Later calls do nothing.
+     *
+     * @param listener Called on the warm-up thread when done (may be null)
+     */
+    public static void start(Listener listener) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            long startTime = System.currentTimeMillis();
+
+            preloadCompilerClasses();
+
+            CodeExecutionEngine engine = new CodeExecutionEngine();
+            boolean success;
+            try {
+                success = engine.execute(WARM_UP_SNIPPET).isSuccess();
+            } finally {
+                engine.shutdown();
+            }
+
+            lastDurationMs = System.currentTimeMillis() - startTime;
+            Log.i(TAG, "Warm-up " + (success ? "finished" : "failed") + " in " + lastDurationMs + "ms");
+
+            if (listener != null) {
+                listener.onWarmUpFinished(lastDurationMs, success);
+            }
+        }, "engine-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns how long the last warm-up took, or -1 if it hasn't finished.
+     */
+    public static long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    private static void preloadCompilerClasses() {
+        ClassLoader loader = EngineWarmUp.class.getClassLoader();
+        for (String className : JANINO_CLASSES) {
+            try {
+                Class.forName(className, true, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                Log.w(TAG, "Could not preload " + className);
+            }
+        }
+    }
+}
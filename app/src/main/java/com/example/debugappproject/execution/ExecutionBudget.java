@@ -0,0 +1,98 @@
+package com.example.debugappproject.execution;
+
+/**
+ * ExecutionBudget - Per-run resource limits enforced from inside user code.
+ *
+ * {@link LoopInstrumenter} inserts a call to {@link #tick()} on every loop
+ * back-edge of the user's source before it is compiled. Each tick:
+ * - counts one loop iteration against the run's limit
+ * - stops the run if its output limit was hit
+ * - stops the run if the engine cancelled it (thread interrupted)
+ *
+ * Limits are signalled with {@link BudgetExceededError}, an Error rather than
+ * an Exception so a user's catch (Exception e) can't swallow it.
+ *
+ * Threads that never called {@link #begin(long)} are not limited.
+ */
+public final class ExecutionBudget {
+
+    private static final ThreadLocal<ExecutionBudget> CURRENT = new ThreadLocal<>();
+
+    private final long maxLoopIterations;
+    private long loopIterations;
+    private boolean outputExceeded;
+
+    private ExecutionBudget(long maxLoopIterations) {
+        this.maxLoopIterations = maxLoopIterations;
+    }
+
+    /**
+     * Starts a budget for the current thread.
+     */
+    static void begin(long maxLoopIterations) {
+        CURRENT.set(new ExecutionBudget(maxLoopIterations));
+    }
+
+    /**
+     * Ends the current thread's budget.
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Flags that the current thread's run printed more than its output limit.
+     * The run is stopped at its next loop back-edge rather than inside the
+     * print call, which would leave System.out's encoder in a broken state.
+     */
+    static void markOutputExceeded() {
+        ExecutionBudget budget = CURRENT.get();
+        if (budget != null) {
+            budget.outputExceeded = true;
+        }
+    }
+
+    /**
+     * Called by instrumented user code on every loop iteration.
+     */
+    public static void tick() {
+        ExecutionBudget budget = CURRENT.get();
+        if (budget == null) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new BudgetExceededError(BudgetExceededError.Kind.CANCELLED,
+                    "Execution cancelled");
+        }
+        if (budget.outputExceeded) {
+            throw new BudgetExceededError(BudgetExceededError.Kind.OUTPUT,
+                    "Output limit exceeded");
+        }
+        if (++budget.loopIterations > budget.maxLoopIterations) {
+            throw new BudgetExceededError(BudgetExceededError.Kind.LOOP,
+                    "Loop limit of " + budget.maxLoopIterations + " iterations exceeded");
+        }
+    }
+
+    /**
+     * Thrown into user code when a run goes over one of its limits.
+     */
+    public static final class BudgetExceededError extends Error {
+
+        private static final long serialVersionUID = 1L;
+
+        public enum Kind { LOOP, OUTPUT, CANCELLED }
+
+        private final Kind kind;
+
+        BudgetExceededError(Kind kind, String message) {
+            // No stack trace: it would only ever point into user code
+            super(message, null, false, false);
+            this.kind = kind;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.debugappproject.execution;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LoopInstrumenter - Adds {@link ExecutionBudget} checks to every loop in user source.
+ *
+ * Janino compiles source, so the back-edge hooks are added to the source
+ * before compilation rather than to the bytecode afterwards:
+ * - braced loop bodies get a tick as their first statement:
+ *   {@code while (x) { ...}} becomes {@code while (x) { ExecutionBudget.tick(); ...}}
+ * - unbraced bodies are wrapped in a block that ticks first:
+ *   {@code while (x) y();} becomes {@code while (x) { ExecutionBudget.tick(); y(); }}
+ * - the while that closes a do loop is left alone; the do body already ticks
+ *
+ * Loop conditions are never touched, so reachability analysis (e.g. a method
+ * ending in while (true) or for (;;)) is unchanged.
+ * No newlines are inserted, so compiler line numbers still match the user's code.
+ */
+final class LoopInstrumenter {
+
+    private static final String BUDGET = ExecutionBudget.class.getName();
+    private static final String TICK_STATEMENT = " " + BUDGET + ".tick();";
+    private static final String OPEN_BLOCK = "{" + TICK_STATEMENT + " ";
+    private static final String CLOSE_BLOCK = " }";
+
+    private LoopInstrumenter() {
+    }
+
+    /**
+     * Returns the source with a budget check on every loop back-edge.
+     */
+    static String instrument(String source) {
+        List<int[]> insertAt = new ArrayList<>(); // {position, index into texts}
+        List<String> texts = new ArrayList<>();
+        Set<Integer> doWhiles = new HashSet<>();
+
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            int skipped = skipLiteralOrComment(source, i);
+            if (skipped != i) {
+                i = skipped;
+                continue;
+            }
+
+            char c = source.charAt(i);
+            if (!Character.isJavaIdentifierStart(c)) {
+                i++;
+                continue;
+            }
+
+            int wordEnd = wordEnd(source, i);
+            String word = source.substring(i, wordEnd);
+
+            if (word.equals("do")) {
+                instrumentDo(source, wordEnd, insertAt, texts, doWhiles);
+            } else if (word.equals("for") || (word.equals("while") && !doWhiles.contains(i))) {
+                instrumentHeader(source, wordEnd, insertAt, texts);
+            }
+            i = wordEnd;
+        }
+
+        if (insertAt.isEmpty()) {
+            return source;
+        }
+
+        // Apply from the end so earlier positions stay valid
+        StringBuilder result = new StringBuilder(source);
+        for (int k = insertAt.size() - 1; k >= 0; k--) {
+            int[] insertion = insertAt.get(k);
+            result.insert(insertion[0], texts.get(insertion[1]));
+        }
+        return result.toString();
+    }
+
+    private static void instrumentDo(String source, int afterKeyword,
+                                     List<int[]> insertAt, List<String> texts, Set<Integer> doWhiles) {
+        int body = skipWhitespaceAndComments(source, afterKeyword);
+        int bodyEnd = instrumentBody(source, body, insertAt, texts);
+        if (bodyEnd < 0) {
+            return;
+        }
+        int terminator = skipWhitespaceAndComments(source, bodyEnd);
+        if (isWordAt(source, terminator, "while")) {
+            doWhiles.add(terminator);
+        }
+    }
+
+    private static void instrumentHeader(String source, int afterKeyword,
+                                         List<int[]> insertAt, List<String> texts) {
+        int open = skipWhitespaceAndComments(source, afterKeyword);
+        if (open >= source.length() || source.charAt(open) != '(') {
+            return;
+        }
+        int close = findClosingParen(source, open);
+        if (close < 0) {
+            return;
+        }
+        instrumentBody(source, skipWhitespaceAndComments(source, close + 1), insertAt, texts);
+    }
+
+    /**
+     * Adds a tick to the loop body starting at body.
+     * @return The index just past the body, or -1 if its end could not be found
+     */
+    private static int instrumentBody(String source, int body, List<int[]> insertAt, List<String> texts) {
+        if (body >= source.length()) {
+            return -1;
+        }
+        if (source.charAt(body) == '{') {
+            add(insertAt, texts, body + 1, TICK_STATEMENT);
+            int close = findClosingBrace(source, body);
+            return close < 0 ? -1 : close + 1;
+        }
+        int end = statementEnd(source, body);
+        if (end < 0) {
+            return -1;
+        }
+        add(insertAt, texts, body, OPEN_BLOCK);
+        add(insertAt, texts, end, CLOSE_BLOCK);
+        return end;
+    }
+
+    private static void add(List<int[]> insertAt, List<String> texts, int position, String text) {
+        // Keep positions sorted; insertions are discovered almost in order
+        int index = insertAt.size();
+        while (index > 0 && insertAt.get(index - 1)[0] > position) {
+            index--;
+        }
+        insertAt.add(index, new int[]{position, texts.size()});
+        texts.add(text);
+    }
+
+    /**
+     * Returns the index just past the statement starting at start, or -1 if
+     * it runs off the end of the source.
+     */
+    private static int statementEnd(String source, int start) {
+        int length = source.length();
+        if (start >= length) {
+            return -1;
+        }
+        if (source.charAt(start) == '{') {
+            return blockEnd(source, start);
+        }
+
+        if (Character.isJavaIdentifierStart(source.charAt(start))) {
+            int wordEnd = wordEnd(source, start);
+            String word = source.substring(start, wordEnd);
+            if (word.equals("if") || word.equals("for") || word.equals("while")) {
+                int open = skipWhitespaceAndComments(source, wordEnd);
+                int close = open < length && source.charAt(open) == '(' ? findClosingParen(source, open) : -1;
+                if (close < 0) {
+                    return -1;
+                }
+                int end = statementEnd(source, skipWhitespaceAndComments(source, close + 1));
+                if (end >= 0 && word.equals("if")) {
+                    int next = skipWhitespaceAndComments(source, end);
+                    if (isWordAt(source, next, "else")) {
+                        end = statementEnd(source, skipWhitespaceAndComments(source, next + 4));
+                    }
+                }
+                return end;
+            }
+            if (word.equals("do")) {
+                int end = statementEnd(source, skipWhitespaceAndComments(source, wordEnd));
+                if (end < 0) {
+                    return -1;
+                }
+                // The trailing "while (...);" ends like a simple statement
+                return statementEnd(source, skipWhitespaceAndComments(source, end));
+            }
+            if (word.equals("switch") || word.equals("synchronized")) {
+                // switch (x) { ... } and synchronized (x) { ... }
+                int open = skipWhitespaceAndComments(source, wordEnd);
+                int close = open < length && source.charAt(open) == '(' ? findClosingParen(source, open) : -1;
+                return close < 0 ? -1 : blockEnd(source, skipWhitespaceAndComments(source, close + 1));
+            }
+            if (word.equals("try")) {
+                return tryEnd(source, wordEnd);
+            }
+            int colon = skipWhitespaceAndComments(source, wordEnd);
+            if (colon < length && source.charAt(colon) == ':'
+                    && !source.startsWith("::", colon) && !isKeyword(word)) {
+                // Labeled statement: the label belongs to the statement after it
+                return statementEnd(source, skipWhitespaceAndComments(source, colon + 1));
+            }
+        }
+
+        // Simple statement: up to the next top-level semicolon
+        int depth = 0;
+        int i = start;
+        while (i < length) {
+            int skipped = skipLiteralOrComment(source, i);
+            if (skipped != i) {
+                i = skipped;
+                continue;
+            }
+            char c = source.charAt(i);
+            if (c == '(' || c == '{' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == '}' || c == ']') {
+                depth--;
+                if (depth < 0) {
+                    return -1;
+                }
+            } else if (c == ';' && depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the try statement whose keyword ends at
+     * afterKeyword: optional resources, the block, then any catch clauses
+     * and an optional finally.
+     */
+    private static int tryEnd(String source, int afterKeyword) {
+        int length = source.length();
+        int next = skipWhitespaceAndComments(source, afterKeyword);
+        if (next < length && source.charAt(next) == '(') {
+            int close = findClosingParen(source, next);
+            if (close < 0) {
+                return -1;
+            }
+            next = skipWhitespaceAndComments(source, close + 1);
+        }
+        int end = blockEnd(source, next);
+        while (end >= 0) {
+            next = skipWhitespaceAndComments(source, end);
+            if (isWordAt(source, next, "catch")) {
+                int open = skipWhitespaceAndComments(source, next + 5);
+                int close = open < length && source.charAt(open) == '(' ? findClosingParen(source, open) : -1;
+                end = close < 0 ? -1 : blockEnd(source, skipWhitespaceAndComments(source, close + 1));
+            } else if (isWordAt(source, next, "finally")) {
+                return blockEnd(source, skipWhitespaceAndComments(source, next + 7));
+            } else {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the block opening at start, or -1 if there
+     * is no block there.
+     */
+    private static int blockEnd(String source, int start) {
+        if (start >= source.length() || source.charAt(start) != '{') {
+            return -1;
+        }
+        int close = findClosingBrace(source, start);
+        return close < 0 ? -1 : close + 1;
+    }
+
+    private static boolean isKeyword(String word) {
+        // Words that may be followed by ':' at the start of a statement without being a label
+        return word.equals("case") || word.equals("default");
+    }
+
+    private static int wordEnd(String source, int start) {
+        int end = start + 1;
+        while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isWordAt(String source, int i, String word) {
+        return source.startsWith(word, i)
+                && (i + word.length() >= source.length()
+                || !Character.isJavaIdentifierPart(source.charAt(i + word.length())));
+    }
+
+    private static int findClosingBrace(String source, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < source.length()) {
+            int skipped = skipLiteralOrComment(source, i);
+            if (skipped != i) {
+                i = skipped;
+                continue;
+            }
+            char c = source.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int findClosingParen(String source, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < source.length()) {
+            int skipped = skipLiteralOrComment(source, i);
+            if (skipped != i) {
+                i = skipped;
+                continue;
+            }
+            char c = source.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespaceAndComments(String source, int i) {
+        while (i < source.length()) {
+            if (Character.isWhitespace(source.charAt(i))) {
+                i++;
+            } else if (source.startsWith("//", i) || source.startsWith("/*", i)) {
+                i = skipLiteralOrComment(source, i);
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * If a string/char literal or comment starts at i, returns the index just past it;
+     * otherwise returns i.
+     */
+    private static int skipLiteralOrComment(String source, int i) {
+        int length = source.length();
+        char c = source.charAt(i);
+        if (c == '/' && i + 1 < length) {
+            char next = source.charAt(i + 1);
+            if (next == '/') {
+                int end = source.indexOf('\n', i);
+                return end < 0 ? length : end;
+            }
+            if (next == '*') {
+                int end = source.indexOf("*/", i + 2);
+                return end < 0 ? length : end + 2;
+            }
+        }
+        if (c == '"' || c == '\'') {
+            int j = i + 1;
+            while (j < length) {
+                char d = source.charAt(j);
+                if (d == '\\') {
+                    j += 2;
+                    continue;
+                }
+                if (d == c || d == '\n') {
+                    return j + 1;
+                }
+                j++;
+            }
+            return length;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.debugappproject.execution;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * StdioCapture - Per-thread System.out / System.in for user code.
+ *
+ * Installs routing streams into System.out and System.in once. A thread that
+ * calls {@link #begin(String, int)} gets its own stdin and stdout buffer until it
+ * calls {@link #end()}; every other thread keeps talking to the original
+ * streams. This lets several user programs run at the same time without
+ * their output interleaving.
+ *
+ * Captured output is capped: bytes past the limit are counted but dropped, so
+ * a print loop can't grow the buffer without bound. Overflowing also flags
+ * the thread's {@link ExecutionBudget} so the run is stopped.
+ *
+ * Usage:
+ * <pre>
+ *     StdioCapture.begin("5\n", 64 * 1024);
+ *     try {
+ *         mainMethod.invoke(null, (Object) args);
+ *     } finally {
+ *         StdioCapture.Captured output = StdioCapture.end();
+ *     }
+ * </pre>
+ */
+final class StdioCapture {
+
+    private static final ThreadLocal<CappedBuffer> OUTPUT = new ThreadLocal<>();
+    private static final ThreadLocal<InputStream> INPUT = new ThreadLocal<>();
+
+    private static boolean installed;
+
+    private StdioCapture() {
+    }
+
+    /**
+     * Routes the current thread's stdio to fresh buffers.
+     *
+     * @param stdin          Text the user program reads from System.in (may be null)
+     * @param maxOutputBytes Bytes of stdout kept before the rest is dropped
+     */
+    static void begin(String stdin, int maxOutputBytes) {
+        install();
+        OUTPUT.set(new CappedBuffer(maxOutputBytes));
+        byte[] input = stdin != null ? stdin.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        INPUT.set(new ByteArrayInputStream(input));
+    }
+
+    /**
+     * Stops routing for the current thread.
+     *
+     * @return What the thread printed since {@link #begin(String, int)}
+     */
+    static Captured end() {
+        CappedBuffer buffer = OUTPUT.get();
+        OUTPUT.remove();
+        INPUT.remove();
+        if (buffer == null) {
+            return new Captured("", 0);
+        }
+        return new Captured(buffer.toUtf8String(), buffer.droppedBytes);
+    }
+
+    private static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        try {
+            System.setOut(new PrintStream(new RoutingOutputStream(System.out), true, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            System.setOut(new PrintStream(new RoutingOutputStream(System.out), true));
+        }
+        System.setIn(new RoutingInputStream(System.in));
+        installed = true;
+    }
+
+    /**
+     * Sends bytes to the current thread's buffer, or to the original stream
+     * when the thread is not capturing.
+     */
+    private static class RoutingOutputStream extends OutputStream {
+
+        private final OutputStream fallback;
+
+        RoutingOutputStream(OutputStream fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            CappedBuffer buffer = OUTPUT.get();
+            if (buffer != null) {
+                buffer.write(b);
+            } else {
+                fallback.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CappedBuffer buffer = OUTPUT.get();
+            if (buffer != null) {
+                buffer.write(b, off, len);
+            } else {
+                fallback.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (OUTPUT.get() == null) {
+                fallback.flush();
+            }
+        }
+    }
+
+    /**
+     * Output captured for one thread.
+     */
+    static class Captured {
+
+        final String output;
+        final long droppedBytes;
+
+        Captured(String output, long droppedBytes) {
+            this.output = output;
+            this.droppedBytes = droppedBytes;
+        }
+
+        boolean isTruncated() {
+            return droppedBytes > 0;
+        }
+    }
+
+    /**
+     * Byte buffer that grows up to a fixed limit and then only counts what it drops.
+     */
+    private static class CappedBuffer {
+
+        private final int maxBytes;
+        private byte[] bytes = new byte[256];
+        private int count;
+        long droppedBytes;
+
+        CappedBuffer(int maxBytes) {
+            this.maxBytes = Math.max(0, maxBytes);
+        }
+
+        void write(int b) {
+            if (count >= maxBytes) {
+                onOverflow(1);
+                return;
+            }
+            ensureCapacity(count + 1);
+            bytes[count++] = (byte) b;
+        }
+
+        void write(byte[] b, int off, int len) {
+            int accepted = Math.min(len, maxBytes - count);
+            if (accepted > 0) {
+                ensureCapacity(count + accepted);
+                System.arraycopy(b, off, bytes, count, accepted);
+                count += accepted;
+            }
+            if (accepted < len) {
+                onOverflow(len - Math.max(0, accepted));
+            }
+        }
+
+        private void onOverflow(int dropped) {
+            if (droppedBytes == 0) {
+                // Stop the run at its next loop back-edge
+                ExecutionBudget.markOutputExceeded();
+            }
+            droppedBytes += dropped;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > bytes.length) {
+                int grown = Math.min(maxBytes, Math.max(needed, bytes.length * 2));
+                bytes = Arrays.copyOf(bytes, grown);
+            }
+        }
+
+        String toUtf8String() {
+            return new String(bytes, 0, count, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads from the current thread's stdin, or from the original stream
+     * when the thread is not capturing.
+     */
+    private static class RoutingInputStream extends InputStream {
+
+        private final InputStream fallback;
+
+        RoutingInputStream(InputStream fallback) {
+            this.fallback = fallback;
+        }
+
+        private InputStream current() {
+            InputStream input = INPUT.get();
+            return input != null ? input : fallback;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return current().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return current().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return current().available();
+        }
+    }
+}
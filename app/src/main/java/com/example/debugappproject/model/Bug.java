@@ -3,6 +3,7 @@ package com.example.debugappproject.model;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import java.io.Serializable;
@@ -10,8 +11,18 @@ import java.io.Serializable;
 /**
  * Bug entity representing a debugging exercise.
  * Each bug contains broken code that students must debug.
+ *
+ * The difficulty/category index also serves difficulty-only filters; the
+ * separate category index serves category-only filters.
  */
-@Entity(tableName = "bugs")
+@Entity(
+    tableName = "bugs",
+    indices = {
+        @Index({"difficulty", "category"}),
+        @Index("category"),
+        @Index("isCompleted")
+    }
+)
 public class Bug implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -41,6 +52,12 @@ public class Bug implements Serializable {
     @ColumnInfo(defaultValue = "0")
     private int xpReward;             // XP reward for solving this bug
 
+    // Comparison forms of fixedCode, computed once at seed time (see NormalizedCode)
+    private String fixedCodeNormalized;
+    private String fixedCodeCore;
+    @ColumnInfo(defaultValue = "0")
+    private long fixedCodeFingerprint;
+
     // No-arg constructor for Room
     public Bug() {
         this.userNotes = "";
@@ -210,6 +227,30 @@ public class Bug implements Serializable {
         this.xpReward = xpReward;
     }
 
+    public String getFixedCodeNormalized() {
+        return fixedCodeNormalized;
+    }
+
+    public void setFixedCodeNormalized(String fixedCodeNormalized) {
+        this.fixedCodeNormalized = fixedCodeNormalized;
+    }
+
+    public String getFixedCodeCore() {
+        return fixedCodeCore;
+    }
+
+    public void setFixedCodeCore(String fixedCodeCore) {
+        this.fixedCodeCore = fixedCodeCore;
+    }
+
+    public long getFixedCodeFingerprint() {
+        return fixedCodeFingerprint;
+    }
+
+    public void setFixedCodeFingerprint(long fixedCodeFingerprint) {
+        this.fixedCodeFingerprint = fixedCodeFingerprint;
+    }
+
     /**
      * Gets the starting code for the user's fix attempt.
      * Returns starterCode if set, otherwise falls back to brokenCode.
@@ -0,0 +1,85 @@
+package com.example.debugappproject.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+/**
+ * Full-text search index over the searchable text of {@link Bug}.
+ * The rowid of each row is the id of the bug it indexes.
+ *
+ * Rows are kept in sync with the bugs table by triggers
+ * (see DebugMasterDatabase.createBugSearchTriggers), not written directly.
+ */
+@Fts4
+@Entity(tableName = "bugs_fts")
+public class BugFts {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;
+
+    private String title;
+    private String description;
+    private String category;
+    private String language;
+    private String hint;
+    private String explanation;
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(int rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getHint() {
+        return hint;
+    }
+
+    public void setHint(String hint) {
+        this.hint = hint;
+    }
+
+    public String getExplanation() {
+        return explanation;
+    }
+
+    public void setExplanation(String explanation) {
+        this.explanation = explanation;
+    }
+}
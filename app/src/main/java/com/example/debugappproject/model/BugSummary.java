@@ -0,0 +1,95 @@
+package com.example.debugappproject.model;
+
+import java.util.Objects;
+
+/**
+ * BugSummary - The columns of a bug that list screens display.
+ *
+ * Room query projection over the bugs table, not an entity. Lists page these
+ * instead of full {@link Bug} rows, so the code, explanation and test columns
+ * are only read when a bug's detail screen opens.
+ */
+public class BugSummary {
+    private int id;
+    private String title;
+    private String difficulty;
+    private String category;
+    private String language;
+    private boolean isCompleted;
+    private int xpReward;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public boolean isCompleted() {
+        return isCompleted;
+    }
+
+    public void setCompleted(boolean completed) {
+        isCompleted = completed;
+    }
+
+    public int getXpReward() {
+        return xpReward > 0 ? xpReward : 50; // Default 50 XP, as in Bug
+    }
+
+    public void setXpReward(int xpReward) {
+        this.xpReward = xpReward;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BugSummary)) return false;
+        BugSummary that = (BugSummary) o;
+        return id == that.id
+                && isCompleted == that.isCompleted
+                && xpReward == that.xpReward
+                && Objects.equals(title, that.title)
+                && Objects.equals(difficulty, that.difficulty)
+                && Objects.equals(category, that.category)
+                && Objects.equals(language, that.language);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, difficulty, category, language, isCompleted, xpReward);
+    }
+}
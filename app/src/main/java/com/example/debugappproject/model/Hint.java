@@ -1,13 +1,17 @@
 package com.example.debugappproject.model;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Hint entity representing progressive hints for debugging exercises.
  * Each bug can have multiple hints with increasing levels of specificity.
  */
-@Entity(tableName = "hints")
+@Entity(
+    tableName = "hints",
+    indices = {@Index({"bugId", "level"})}
+)
 public class Hint {
 
     @PrimaryKey(autoGenerate = true)
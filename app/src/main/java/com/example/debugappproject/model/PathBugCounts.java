@@ -0,0 +1,37 @@
+package com.example.debugappproject.model;
+
+/**
+ * PathBugCounts - How many bugs a learning path has and how many are solved.
+ *
+ * Room query projection, one row per path, read for all paths in a single
+ * grouped query (see LearningPathDao.getPathBugCounts).
+ */
+public class PathBugCounts {
+    private int pathId;
+    private int total;
+    private int completed;
+
+    public int getPathId() {
+        return pathId;
+    }
+
+    public void setPathId(int pathId) {
+        this.pathId = pathId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.debugappproject.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * One seeded record and the content hash it was last written with.
+ *
+ * DatabaseSeeder compares these hashes with the bundled seed data to find
+ * the records that are new, changed or removed, and writes only those.
+ * Records the user created (e.g. imported bugs) never get an entry, so
+ * seeding never deletes them.
+ */
+@Entity(tableName = "seed_manifest", primaryKeys = {"kind", "recordKey"})
+public class SeedManifestEntry {
+
+    public static final String KIND_BUG = "bug";
+    public static final String KIND_HINTS = "hints";          // All hints of one bug
+    public static final String KIND_PATH = "path";
+    public static final String KIND_BUG_IN_PATH = "bug_in_path";
+    public static final String KIND_ACHIEVEMENT = "achievement";
+
+    @NonNull
+    private String kind;
+    @NonNull
+    private String recordKey;   // Record id within its kind
+    private long hash;
+
+    public SeedManifestEntry(@NonNull String kind, @NonNull String recordKey, long hash) {
+        this.kind = kind;
+        this.recordKey = recordKey;
+        this.hash = hash;
+    }
+
+    /**
+     * Record key of a bug-to-path mapping ("bugId:pathId").
+     */
+    @NonNull
+    public static String keyOf(BugInPath mapping) {
+        return mapping.getBugId() + ":" + mapping.getPathId();
+    }
+
+    @NonNull
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(@NonNull String kind) {
+        this.kind = kind;
+    }
+
+    @NonNull
+    public String getRecordKey() {
+        return recordKey;
+    }
+
+    public void setRecordKey(@NonNull String recordKey) {
+        this.recordKey = recordKey;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public void setHash(long hash) {
+        this.hash = hash;
+    }
+}
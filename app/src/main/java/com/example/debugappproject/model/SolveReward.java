@@ -0,0 +1,110 @@
+package com.example.debugappproject.model;
+
+/**
+ * SolveReward - The change to UserProgress for solving one bug.
+ *
+ * Applied in one statement by UserProgressDao.applySolveReward, so a solve is a
+ * single write. XP values are aligned with GameManager:
+ * Easy=10, Medium=25, Hard=50, Expert=100; gems Easy=5, Medium=10, Hard=20,
+ * Expert=40. Solving without hints doubles XP and gives 1.5x gems.
+ */
+public class SolveReward {
+
+    private final int easySolved;
+    private final int mediumSolved;
+    private final int hardSolved;
+    private final int solvedWithoutHints;
+    private final int xp;
+    private final int gems;
+
+    private SolveReward(int easySolved, int mediumSolved, int hardSolved,
+                        int solvedWithoutHints, int xp, int gems) {
+        this.easySolved = easySolved;
+        this.mediumSolved = mediumSolved;
+        this.hardSolved = hardSolved;
+        this.solvedWithoutHints = solvedWithoutHints;
+        this.xp = xp;
+        this.gems = gems;
+    }
+
+    /**
+     * Counts the solve and awards XP and gems for the difficulty.
+     * Unknown difficulties get the Easy reward but no difficulty counter.
+     */
+    public static SolveReward withXp(String difficulty, boolean solvedWithoutHints) {
+        int xp = 10;
+        int gems = 5;
+        int easy = 0, medium = 0, hard = 0;
+        switch (normalize(difficulty)) {
+            case "easy":
+                easy = 1;
+                break;
+            case "medium":
+                medium = 1;
+                xp = 25;
+                gems = 10;
+                break;
+            case "hard":
+                hard = 1;
+                xp = 50;
+                gems = 20;
+                break;
+            case "expert":
+                hard = 1; // Count expert as hard for stats
+                xp = 100;
+                gems = 40;
+                break;
+        }
+
+        if (solvedWithoutHints) {
+            xp *= 2;
+            gems = (int) (gems * 1.5);
+        }
+        return new SolveReward(easy, medium, hard, solvedWithoutHints ? 1 : 0, xp, gems);
+    }
+
+    /**
+     * Counts the solve without any XP or gems (manual "Mark as Solved").
+     */
+    public static SolveReward countOnly(String difficulty) {
+        switch (normalize(difficulty)) {
+            case "easy":
+                return new SolveReward(1, 0, 0, 0, 0, 0);
+            case "medium":
+                return new SolveReward(0, 1, 0, 0, 0, 0);
+            case "hard":
+            case "expert":
+                return new SolveReward(0, 0, 1, 0, 0, 0);
+            default:
+                return new SolveReward(0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    private static String normalize(String difficulty) {
+        return difficulty != null ? difficulty.toLowerCase() : "easy";
+    }
+
+    public int getEasySolved() {
+        return easySolved;
+    }
+
+    public int getMediumSolved() {
+        return mediumSolved;
+    }
+
+    public int getHardSolved() {
+        return hardSolved;
+    }
+
+    public int getSolvedWithoutHints() {
+        return solvedWithoutHints;
+    }
+
+    public int getXp() {
+        return xp;
+    }
+
+    public int getGems() {
+        return gems;
+    }
+}
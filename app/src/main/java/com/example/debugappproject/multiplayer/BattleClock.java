@@ -0,0 +1,100 @@
+package com.example.debugappproject.multiplayer;
+
+import android.view.Choreographer;
+
+import java.util.function.LongSupplier;
+
+/**
+ * BattleClock - Counts a timed round down, with one UI callback per second.
+ *
+ * Remaining time is always worked out as startedAt + duration - now, never
+ * added up from ticks, so a late frame cannot make it drift and a corrected
+ * clock shows up on the next tick. Given the room's server startedAt and
+ * {@link FirebaseMultiplayerManager#getServerTime()}, both players reach
+ * zero at the same server time.
+ *
+ * Ticks come from a single Choreographer frame callback, posted to run on
+ * the first frame after each whole second, so the label changes in step
+ * with drawing and nothing runs in between.
+ *
+ * Main thread only.
+ */
+public final class BattleClock implements Choreographer.FrameCallback {
+
+    public interface Listener {
+        /**
+         * Whole seconds left, rounded up: the duration at the start, 0 at the end.
+         */
+        void onTick(int secondsRemaining);
+
+        void onFinished();
+    }
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final LongSupplier clock;
+    private final Listener listener;
+
+    private long endsAt;
+    private int lastSecond = -1;
+    private boolean running;
+
+    /**
+     * @param clock ms time that startedAt is given in
+     */
+    public BattleClock(LongSupplier clock, Listener listener) {
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts counting, or moves the start of a running count (e.g. to the
+     * server's startedAt once the room reports it).
+     */
+    public void start(long startedAt, long durationMs) {
+        endsAt = startedAt + durationMs;
+        lastSecond = -1;
+        running = true;
+        choreographer.removeFrameCallback(this);
+        choreographer.postFrameCallback(this);
+    }
+
+    public void stop() {
+        running = false;
+        choreographer.removeFrameCallback(this);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getRemainingMs() {
+        return Math.max(0, endsAt - clock.getAsLong());
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        long remaining = endsAt - clock.getAsLong();
+        if (remaining <= 0) {
+            running = false;
+            if (lastSecond != 0) {
+                lastSecond = 0;
+                listener.onTick(0);
+            }
+            listener.onFinished();
+            return;
+        }
+        int seconds = (int) ((remaining + 999) / 1000);
+        if (seconds != lastSecond) {
+            lastSecond = seconds;
+            listener.onTick(seconds);
+            if (!running) {
+                return;
+            }
+        }
+        // The display changes when remaining drops to (seconds - 1) whole seconds
+        choreographer.postFrameCallbackDelayed(this, remaining - (seconds - 1) * 1000L);
+    }
+}
@@ -8,8 +8,17 @@ import java.util.Map;
  * ║                    BATTLE ROOM MODEL                                         ║
  * ║         Represents a multiplayer battle room in Firebase                     ║
  * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Stored in three nodes so listeners only download what changes:
+ * - meta: who and what (IDs, names, bug, expiry); written at create and join
+ * - live: state, progress, correct flags and timestamps; listened to field by field
+ * - submissions: submitted code; written on submit, never listened to
  */
 public class BattleRoom {
+
+    public static final String NODE_META = "meta";
+    public static final String NODE_LIVE = "live";
+    public static final String NODE_SUBMISSIONS = "submissions";
     
     public enum RoomState {
         WAITING,      // Waiting for second player
@@ -61,9 +70,42 @@ public class BattleRoom {
         this.hostProgress = 0;
         this.guestProgress = 0;
     }
-    
-    // Convert to Firebase map
+
+    // Snapshot copy, e.g. for the in-memory loopback transport
+    public BattleRoom(BattleRoom other) {
+        this.roomId = other.roomId;
+        this.roomCode = other.roomCode;
+        this.hostId = other.hostId;
+        this.hostName = other.hostName;
+        this.guestId = other.guestId;
+        this.guestName = other.guestName;
+        this.state = other.state;
+        this.bugId = other.bugId;
+        this.createdAt = other.createdAt;
+        this.startedAt = other.startedAt;
+        this.expiresAt = other.expiresAt;
+        this.hostProgress = other.hostProgress;
+        this.guestProgress = other.guestProgress;
+        this.hostSubmission = other.hostSubmission;
+        this.guestSubmission = other.guestSubmission;
+        this.hostSubmitTime = other.hostSubmitTime;
+        this.guestSubmitTime = other.guestSubmitTime;
+        this.hostCorrect = other.hostCorrect;
+        this.guestCorrect = other.guestCorrect;
+        this.winnerId = other.winnerId;
+        this.winReason = other.winReason;
+    }
+
+    // Convert to Firebase map, one entry per node
     public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(NODE_META, toMetaMap());
+        map.put(NODE_LIVE, toLiveMap());
+        map.put(NODE_SUBMISSIONS, toSubmissionsMap());
+        return map;
+    }
+
+    public Map<String, Object> toMetaMap() {
         Map<String, Object> map = new HashMap<>();
         map.put("roomId", roomId);
         map.put("roomCode", roomCode);
@@ -71,15 +113,18 @@ public class BattleRoom {
         map.put("hostName", hostName);
         map.put("guestId", guestId);
         map.put("guestName", guestName);
-        map.put("state", state != null ? state.name() : RoomState.WAITING.name());
         map.put("bugId", bugId);
         map.put("createdAt", createdAt);
-        map.put("startedAt", startedAt);
         map.put("expiresAt", expiresAt);
+        return map;
+    }
+
+    public Map<String, Object> toLiveMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("state", state != null ? state.name() : RoomState.WAITING.name());
+        map.put("startedAt", startedAt);
         map.put("hostProgress", hostProgress);
         map.put("guestProgress", guestProgress);
-        map.put("hostSubmission", hostSubmission);
-        map.put("guestSubmission", guestSubmission);
         map.put("hostSubmitTime", hostSubmitTime);
         map.put("guestSubmitTime", guestSubmitTime);
         map.put("hostCorrect", hostCorrect);
@@ -88,6 +133,55 @@ public class BattleRoom {
         map.put("winReason", winReason);
         return map;
     }
+
+    public Map<String, Object> toSubmissionsMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("hostSubmission", hostSubmission);
+        map.put("guestSubmission", guestSubmission);
+        return map;
+    }
+
+    /**
+     * Applies one field of the meta node as delivered by Firebase (numbers
+     * as Long); null clears it. Unknown fields are ignored.
+     */
+    public void setMetaField(String key, Object value) {
+        switch (key) {
+            case "roomId": roomId = (String) value; break;
+            case "roomCode": roomCode = (String) value; break;
+            case "hostId": hostId = (String) value; break;
+            case "hostName": hostName = (String) value; break;
+            case "guestId": guestId = (String) value; break;
+            case "guestName": guestName = (String) value; break;
+            case "bugId": bugId = (int) asLong(value); break;
+            case "createdAt": createdAt = asLong(value); break;
+            case "expiresAt": expiresAt = asLong(value); break;
+            default: break;
+        }
+    }
+
+    /**
+     * Applies one field of the live node, as {@link #setMetaField}.
+     */
+    public void setLiveField(String key, Object value) {
+        switch (key) {
+            case "state": state = value != null ? RoomState.valueOf((String) value) : RoomState.WAITING; break;
+            case "startedAt": startedAt = asLong(value); break;
+            case "hostProgress": hostProgress = (int) asLong(value); break;
+            case "guestProgress": guestProgress = (int) asLong(value); break;
+            case "hostSubmitTime": hostSubmitTime = asLong(value); break;
+            case "guestSubmitTime": guestSubmitTime = asLong(value); break;
+            case "hostCorrect": hostCorrect = Boolean.TRUE.equals(value); break;
+            case "guestCorrect": guestCorrect = Boolean.TRUE.equals(value); break;
+            case "winnerId": winnerId = (String) value; break;
+            case "winReason": winReason = (String) value; break;
+            default: break;
+        }
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
     
     // Getters and setters
     public String getRoomId() { return roomId; }
@@ -0,0 +1,69 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+/**
+ * BattleRoomEvents - Turns successive room snapshots into opponent events.
+ *
+ * A room listener receives the whole room on every change. This keeps the
+ * last values one player has seen and reports only what changed: the
+ * opponent joining, their progress, their submissions and state changes.
+ * Shared by FirebaseMultiplayerManager and the battlesim harness, so the
+ * harness measures the events the app would show.
+ */
+final class BattleRoomEvents {
+
+    interface Listener {
+        void onOpponentJoined(BattleRoom room);
+        void onOpponentProgress(int progress);
+        void onOpponentSubmitted(long submitTime, boolean isCorrect);
+        void onStateChanged(BattleRoom room, @Nullable BattleRoom.RoomState previousState);
+    }
+
+    private final String myId;
+    private final Listener listener;
+
+    private String lastGuestId;
+    private int lastOpponentProgress = -1;
+    private BattleRoom.RoomState lastState;
+    private long lastOpponentSubmitTime;
+
+    BattleRoomEvents(String myId, Listener listener) {
+        this.myId = myId;
+        this.listener = listener;
+    }
+
+    void onRoomChanged(BattleRoom room) {
+        boolean isHost = myId.equals(room.getHostId());
+
+        // Check for opponent joining
+        String currentGuestId = room.getGuestId();
+        if (currentGuestId != null && !currentGuestId.isEmpty() &&
+            (lastGuestId == null || lastGuestId.isEmpty())) {
+            listener.onOpponentJoined(room);
+        }
+        lastGuestId = currentGuestId;
+
+        // Check for opponent progress
+        int opponentProgress = isHost ? room.getGuestProgress() : room.getHostProgress();
+        if (opponentProgress != lastOpponentProgress) {
+            lastOpponentProgress = opponentProgress;
+            listener.onOpponentProgress(opponentProgress);
+        }
+
+        // Check for opponent submission (with correctness!)
+        long opponentSubmitTime = isHost ? room.getGuestSubmitTime() : room.getHostSubmitTime();
+        if (opponentSubmitTime > lastOpponentSubmitTime) {
+            lastOpponentSubmitTime = opponentSubmitTime;
+            listener.onOpponentSubmitted(opponentSubmitTime,
+                    isHost ? room.isGuestCorrect() : room.isHostCorrect());
+        }
+
+        // Check for state changes
+        if (room.getState() != lastState) {
+            BattleRoom.RoomState previousState = lastState;
+            lastState = room.getState();
+            listener.onStateChanged(room, previousState);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * BattleTransport - Where battle rooms are stored and how a client talks to them.
+ *
+ * FirebaseMultiplayerManager keeps the session (current room, attempts,
+ * callbacks) and sends every room operation through a transport:
+ * - {@link FirebaseBattleTransport} uses the Realtime Database
+ * - LoopbackBattleTransport (battlesim/src/loopback) keeps rooms in memory
+ *   behind simulated latency, jitter and packet loss, for the battlesim
+ *   harness and unit tests; it is not part of the app
+ *
+ * One transport instance is one client. Results and room events arrive on
+ * the transport's callback thread (the main thread for Firebase). Times
+ * written by the transport (startedAt, submit times, queue timestamps) are
+ * server times.
+ */
+public interface BattleTransport {
+
+    interface Callback<T> {
+        void onSuccess(@Nullable T result);
+        void onError(String error);
+    }
+
+    interface RoomListener {
+        /**
+         * Called with the room after every change. Only the meta and live
+         * nodes are synced, so submissions are always null. room is null
+         * once the room was deleted.
+         */
+        void onRoomChanged(@Nullable BattleRoom room);
+        void onError(String error);
+    }
+
+    interface Subscription {
+        void cancel();
+    }
+
+    /**
+     * A player waiting in the matchmaking queue with their open room.
+     */
+    final class QueueEntry {
+        public final String userId;
+        public final String roomId;
+        public final int bugId;
+        public final int elo;
+        public final long timestamp;
+
+        public QueueEntry(String userId, String roomId, int bugId, int elo, long timestamp) {
+            this.userId = userId;
+            this.roomId = roomId;
+            this.bugId = bugId;
+            this.elo = elo;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * A new unique room ID, generated on the client.
+     */
+    @Nullable
+    String newRoomId();
+
+    /**
+     * Stores the room and its join code.
+     */
+    void createRoom(BattleRoom room, Callback<Void> callback);
+
+    /**
+     * Looks up the room ID for a join code; the result is null for an unknown code.
+     */
+    void findRoomId(String roomCode, Callback<String> callback);
+
+    /**
+     * Reads a room once; the result is null if it does not exist.
+     */
+    void fetchRoom(String roomId, Callback<BattleRoom> callback);
+
+    /**
+     * Takes the guest seat and moves the room to STARTING.
+     */
+    void joinRoom(String roomId, String guestId, String guestName, Callback<Void> callback);
+
+    /**
+     * Writes one side's progress: a single-field write, no read.
+     */
+    void updateProgress(String roomId, boolean isHost, int progress);
+
+    /**
+     * Stores the code and records the submission in one atomic update of
+     * the live node. A correct submission wins the room if nobody has won
+     * it yet.
+     */
+    void submitSolution(String roomId, String userId, boolean isHost, String code, boolean isCorrect,
+                        int attemptNumber, Callback<Void> callback);
+
+    void startBattle(String roomId);
+
+    void finishRoom(String roomId, String winnerId, String reason);
+
+    void deleteRoom(String roomId, @Nullable String roomCode);
+
+    Subscription listenToRoom(String roomId, RoomListener listener);
+
+    /**
+     * Updates received by this client's room listeners so far.
+     */
+    RoomEventStats getRoomEventStats();
+
+    /**
+     * The entries of one matchmaking bucket nearest to an Elo rating: up to
+     * limit rated at or above it and up to limit at or below it. Searchers
+     * of different ratings read different parts of the bucket, so they do
+     * not all go for the same few entries.
+     */
+    void findQueueEntries(String bucket, int nearElo, int limit, Callback<List<QueueEntry>> callback);
+
+    /**
+     * Puts the user's room in a bucket of the queue, stamped with the server time.
+     */
+    void enqueue(String bucket, String userId, String roomId, int bugId, int elo);
+
+    /**
+     * Puts an entry back in its bucket with its original timestamp, so it
+     * keeps its age in the queue.
+     */
+    void requeue(String bucket, QueueEntry entry);
+
+    /**
+     * Removes a queue entry atomically. The result is the removed entry, or
+     * null if it was already gone, so of several clients claiming the same
+     * entry exactly one gets it.
+     */
+    void claimQueueEntry(String bucket, String userId, Callback<QueueEntry> callback);
+
+    /**
+     * Has the server stamp its current time and returns it. The stamp is
+     * taken between the call and the callback, which is what
+     * {@link ServerClock} relies on to estimate the clock offset.
+     */
+    void readServerTime(Callback<Long> callback);
+
+    /**
+     * Deletes rooms (and their codes) that expired before the given time.
+     */
+    void deleteExpiredRooms(long now);
+}
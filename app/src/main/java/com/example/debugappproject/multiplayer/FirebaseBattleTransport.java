@@ -0,0 +1,518 @@
+package com.example.debugappproject.multiplayer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FirebaseBattleTransport - Battle rooms in the Firebase Realtime Database.
+ *
+ * Layout:
+ * - battle_rooms/{roomId}/meta, /live, /submissions: see {@link BattleRoom}
+ * - room_codes/{code}: roomId
+ * - matchmaking_queue/{bucket}/{userId}: roomId, bugId, elo, timestamp
+ * - clock_sync/{clientKey}: sample, time; scratch node for {@link #readServerTime}
+ *
+ * A room listener watches meta as a whole (it changes once, on join) and
+ * live child by child, so a progress tick delivers one number instead of
+ * the room with both players' code. Submissions are never listened to.
+ *
+ * Firebase delivers every callback on the main thread.
+ */
+public class FirebaseBattleTransport implements BattleTransport {
+
+    private static final String TAG = "FirebaseBattleTransport";
+    private static final String ROOMS_REF = "battle_rooms";
+    private static final String ROOM_CODES_REF = "room_codes";
+    private static final String MATCHMAKING_REF = "matchmaking_queue";
+    private static final String CLOCK_SYNC_REF = "clock_sync";
+
+    private final DatabaseReference roomsRef;
+    private final DatabaseReference roomCodesRef;
+    private final DatabaseReference matchmakingRef;
+    private final DatabaseReference clockRef;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final RoomEventStats roomEventStats = new RoomEventStats();
+    private int clockSamples;
+
+    public FirebaseBattleTransport(FirebaseDatabase database) {
+        roomsRef = database.getReference(ROOMS_REF);
+        roomCodesRef = database.getReference(ROOM_CODES_REF);
+        matchmakingRef = database.getReference(MATCHMAKING_REF);
+        clockRef = database.getReference(CLOCK_SYNC_REF).push();
+        clockRef.onDisconnect().removeValue();
+    }
+
+    @Nullable
+    @Override
+    public String newRoomId() {
+        return roomsRef.push().getKey();
+    }
+
+    @Override
+    public void createRoom(BattleRoom room, Callback<Void> callback) {
+        String roomId = room.getRoomId();
+        String roomCode = room.getRoomCode();
+        roomCodesRef.child(roomCode).setValue(roomId)
+            .addOnSuccessListener(aVoid -> {
+                Log.d(TAG, "Room code saved: " + roomCode + " -> " + roomId);
+
+                roomsRef.child(roomId).setValue(room.toMap())
+                    .addOnSuccessListener(aVoid2 -> callback.onSuccess(null))
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Failed to save room data", e);
+                        roomCodesRef.child(roomCode).removeValue();
+                        callback.onError(e.getMessage());
+                    });
+            })
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Failed to save room code", e);
+                callback.onError(e.getMessage());
+            });
+    }
+
+    @Override
+    public void findRoomId(String roomCode, Callback<String> callback) {
+        roomCodesRef.child(roomCode).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                callback.onSuccess(snapshot.exists() ? snapshot.getValue(String.class) : null);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Room code lookup cancelled", error.toException());
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void fetchRoom(String roomId, Callback<BattleRoom> callback) {
+        roomsRef.child(roomId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                callback.onSuccess(snapshot.exists() ? parseRoom(snapshot) : null);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Room lookup cancelled", error.toException());
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void joinRoom(String roomId, String guestId, String guestName, Callback<Void> callback) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(BattleRoom.NODE_META + "/guestId", guestId);
+        updates.put(BattleRoom.NODE_META + "/guestName", guestName);
+        updates.put(BattleRoom.NODE_LIVE + "/state", BattleRoom.RoomState.STARTING.name());
+        updates.put(BattleRoom.NODE_LIVE + "/startedAt", ServerValue.TIMESTAMP);  // Server timestamp for sync!
+
+        roomsRef.child(roomId).updateChildren(updates)
+            .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Failed to join room", e);
+                callback.onError(e.getMessage());
+            });
+    }
+
+    @Override
+    public void updateProgress(String roomId, boolean isHost, int progress) {
+        liveRef(roomId).child(isHost ? "hostProgress" : "guestProgress").setValue(progress);
+    }
+
+    @Override
+    public void submitSolution(String roomId, String userId, boolean isHost, String code, boolean isCorrect,
+                               int attemptNumber, Callback<Void> callback) {
+        // The code goes to the cold node; the transaction only touches live
+        roomsRef.child(roomId).child(BattleRoom.NODE_SUBMISSIONS)
+                .child(isHost ? "hostSubmission" : "guestSubmission").setValue(code);
+
+        liveRef(roomId).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData mutableData) {
+                String currentWinner = mutableData.child("winnerId").getValue(String.class);
+                String currentState = mutableData.child("state").getValue(String.class);
+
+                if (currentState == null) {
+                    // Nothing cached yet; Firebase retries with the server's data
+                    return Transaction.success(mutableData);
+                }
+
+                // Update submission data with attempt tracking
+                String side = isHost ? "host" : "guest";
+                mutableData.child(side + "SubmitTime").setValue(ServerValue.TIMESTAMP);
+                mutableData.child(side + "Progress").setValue(isCorrect ? 100 : 75);
+                mutableData.child(side + "Correct").setValue(isCorrect);
+                mutableData.child(side + "Attempts").setValue(attemptNumber);
+
+                // Only set winner if correct AND no winner yet AND game not finished
+                if (isCorrect &&
+                    (currentWinner == null || currentWinner.isEmpty()) &&
+                    !"FINISHED".equals(currentState)) {
+                    mutableData.child("winnerId").setValue(userId);
+                    mutableData.child("winReason").setValue("Fixed the bug first!");
+                    mutableData.child("state").setValue(BattleRoom.RoomState.FINISHED.name());
+                }
+
+                return Transaction.success(mutableData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) {
+                    Log.e(TAG, "Submit solution transaction failed", error.toException());
+                    callback.onError(error.getMessage());
+                } else {
+                    callback.onSuccess(null);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void startBattle(String roomId) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("state", BattleRoom.RoomState.IN_PROGRESS.name());
+        updates.put("startedAt", ServerValue.TIMESTAMP);  // Critical for timer sync!
+        liveRef(roomId).updateChildren(updates);
+    }
+
+    @Override
+    public void finishRoom(String roomId, String winnerId, String reason) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("winnerId", winnerId);
+        updates.put("winReason", reason);
+        updates.put("state", BattleRoom.RoomState.FINISHED.name());
+        liveRef(roomId).updateChildren(updates);
+    }
+
+    @Override
+    public void deleteRoom(String roomId, @Nullable String roomCode) {
+        if (roomCode != null && !roomCode.isEmpty()) {
+            roomCodesRef.child(roomCode).removeValue();
+        }
+        roomsRef.child(roomId).removeValue();
+    }
+
+    @Override
+    public Subscription listenToRoom(String roomId, RoomListener listener) {
+        return new RoomSubscription(roomId, listener);
+    }
+
+    @Override
+    public RoomEventStats getRoomEventStats() {
+        return roomEventStats;
+    }
+
+    @Override
+    public void findQueueEntries(String bucket, int nearElo, int limit, Callback<List<QueueEntry>> callback) {
+        DatabaseReference bucketRef = matchmakingRef.child(bucket);
+        // Two range reads, above and below; an entry at nearElo comes back in both
+        Map<String, QueueEntry> entries = new LinkedHashMap<>();
+        int[] pending = {2};
+        ValueEventListener collector = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    String roomId = child.child("roomId").getValue(String.class);
+                    if (child.getKey() != null && roomId != null) {
+                        Long bugId = child.child("bugId").getValue(Long.class);
+                        Long elo = child.child("elo").getValue(Long.class);
+                        Long timestamp = child.child("timestamp").getValue(Long.class);
+                        entries.put(child.getKey(), new QueueEntry(child.getKey(), roomId,
+                                bugId != null ? bugId.intValue() : 0,
+                                elo != null ? elo.intValue() : 0,
+                                timestamp != null ? timestamp : 0));
+                    }
+                }
+                if (--pending[0] == 0) {
+                    callback.onSuccess(new ArrayList<>(entries.values()));
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (pending[0] > 0) {
+                    pending[0] = 0;
+                    callback.onError(error.getMessage());
+                }
+            }
+        };
+        bucketRef.orderByChild("elo").startAt(nearElo).limitToFirst(limit)
+                .addListenerForSingleValueEvent(collector);
+        bucketRef.orderByChild("elo").endAt(nearElo).limitToLast(limit)
+                .addListenerForSingleValueEvent(collector);
+    }
+
+    @Override
+    public void enqueue(String bucket, String userId, String roomId, int bugId, int elo) {
+        writeQueueEntry(bucket, userId, roomId, ServerValue.TIMESTAMP, bugId, elo);
+    }
+
+    @Override
+    public void requeue(String bucket, QueueEntry entry) {
+        writeQueueEntry(bucket, entry.userId, entry.roomId, entry.timestamp, entry.bugId, entry.elo);
+    }
+
+    private void writeQueueEntry(String bucket, String userId, String roomId, Object timestamp,
+                                 int bugId, int elo) {
+        Map<String, Object> queueEntry = new HashMap<>();
+        queueEntry.put("roomId", roomId);
+        queueEntry.put("timestamp", timestamp);
+        queueEntry.put("bugId", bugId);
+        queueEntry.put("elo", elo);
+        DatabaseReference entryRef = matchmakingRef.child(bucket).child(userId);
+        // A client that drops off the network leaves no entry to claim
+        entryRef.onDisconnect().removeValue();
+        entryRef.setValue(queueEntry);
+    }
+
+    @Override
+    public void claimQueueEntry(String bucket, String userId, Callback<QueueEntry> callback) {
+        QueueEntry[] claimed = new QueueEntry[1];
+        matchmakingRef.child(bucket).child(userId).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData mutableData) {
+                claimed[0] = null;
+                String roomId = mutableData.child("roomId").getValue(String.class);
+                if (roomId == null) {
+                    // Gone, or not cached yet; in the latter case Firebase retries with the server's data
+                    return Transaction.success(mutableData);
+                }
+                Long bugId = mutableData.child("bugId").getValue(Long.class);
+                Long elo = mutableData.child("elo").getValue(Long.class);
+                Long timestamp = mutableData.child("timestamp").getValue(Long.class);
+                claimed[0] = new QueueEntry(userId, roomId,
+                        bugId != null ? bugId.intValue() : 0,
+                        elo != null ? elo.intValue() : 0,
+                        timestamp != null ? timestamp : 0);
+                mutableData.setValue(null);
+                return Transaction.success(mutableData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) {
+                    Log.e(TAG, "Queue claim failed", error.toException());
+                    callback.onError(error.getMessage());
+                } else {
+                    callback.onSuccess(committed ? claimed[0] : null);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void readServerTime(Callback<Long> callback) {
+        // The write and the read go out back to back on one connection and
+        // the server handles them in order, so the stamp falls in the middle
+        // of a single round trip. The sample number tells our stamp from an
+        // older one if the write was rejected.
+        int sample = ++clockSamples;
+        Map<String, Object> stamp = new HashMap<>();
+        stamp.put("sample", sample);
+        stamp.put("time", ServerValue.TIMESTAMP);
+        clockRef.setValue(stamp);
+        clockRef.get()
+            .addOnSuccessListener(snapshot -> {
+                Long number = snapshot.child("sample").getValue(Long.class);
+                Long time = snapshot.child("time").getValue(Long.class);
+                if (number == null || number != sample || time == null) {
+                    callback.onError("Server time stamp was not written");
+                } else {
+                    callback.onSuccess(time);
+                }
+            })
+            .addOnFailureListener(e -> callback.onError(e.getMessage()));
+    }
+
+    @Override
+    public void deleteExpiredRooms(long now) {
+        roomsRef.orderByChild(BattleRoom.NODE_META + "/expiresAt").endAt(now)
+            .addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        String roomCode = child.child(BattleRoom.NODE_META).child("roomCode").getValue(String.class);
+                        if (roomCode != null) {
+                            roomCodesRef.child(roomCode).removeValue();
+                        }
+                        child.getRef().removeValue();
+                    }
+                }
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {}
+            });
+    }
+
+    private DatabaseReference liveRef(String roomId) {
+        return roomsRef.child(roomId).child(BattleRoom.NODE_LIVE);
+    }
+
+    /**
+     * Parses a whole room read once, e.g. before joining.
+     */
+    @Nullable
+    private BattleRoom parseRoom(DataSnapshot snapshot) {
+        try {
+            BattleRoom room = new BattleRoom();
+            for (DataSnapshot field : snapshot.child(BattleRoom.NODE_META).getChildren()) {
+                room.setMetaField(field.getKey(), field.getValue());
+            }
+            room.setState(BattleRoom.RoomState.WAITING);
+            for (DataSnapshot field : snapshot.child(BattleRoom.NODE_LIVE).getChildren()) {
+                room.setLiveField(field.getKey(), field.getValue());
+            }
+            DataSnapshot submissions = snapshot.child(BattleRoom.NODE_SUBMISSIONS);
+            room.setHostSubmission(submissions.child("hostSubmission").getValue(String.class));
+            room.setGuestSubmission(submissions.child("guestSubmission").getValue(String.class));
+            return room;
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing room", e);
+            return null;
+        }
+    }
+
+    /**
+     * Keeps a copy of one room from a value listener on meta and a child
+     * listener on live. Firebase raises all child events of one write in a
+     * row on the main thread, so the room is passed on once, after them,
+     * and never with half of a transaction applied.
+     */
+    private final class RoomSubscription implements Subscription, ChildEventListener {
+        private final RoomListener listener;
+        private final DatabaseReference metaRef;
+        private final DatabaseReference liveRef;
+        private final ValueEventListener metaListener;
+        private final BattleRoom room = new BattleRoom();
+        private boolean metaLoaded;
+        private boolean deleted;
+        private boolean cancelled;
+        private boolean dispatchPosted;
+        private long pendingBytes;
+        private long pendingParseNanos;
+
+        RoomSubscription(String roomId, RoomListener listener) {
+            this.listener = listener;
+            this.metaRef = roomsRef.child(roomId).child(BattleRoom.NODE_META);
+            this.liveRef = liveRef(roomId);
+            room.setState(BattleRoom.RoomState.WAITING);
+
+            metaListener = new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    if (!snapshot.exists()) {
+                        deleted = true;
+                        if (!cancelled) listener.onRoomChanged(null);
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    Object value = snapshot.getValue();
+                    for (DataSnapshot field : snapshot.getChildren()) {
+                        room.setMetaField(field.getKey(), field.getValue());
+                    }
+                    metaLoaded = true;
+                    pendingParseNanos += System.nanoTime() - start;
+                    pendingBytes += RoomEventStats.sizeOf(value);
+                    scheduleDispatch();
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    RoomSubscription.this.onCancelled(error);
+                }
+            };
+            metaRef.addValueEventListener(metaListener);
+            liveRef.addChildEventListener(this);
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            applyLiveField(snapshot.getKey(), snapshot);
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            applyLiveField(snapshot.getKey(), snapshot);
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            applyLiveField(snapshot.getKey(), null);
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            Log.e(TAG, "Room listener cancelled", error.toException());
+            if (!cancelled) listener.onError(error.getMessage());
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            metaRef.removeEventListener(metaListener);
+            liveRef.removeEventListener(this);
+        }
+
+        private void applyLiveField(String key, @Nullable DataSnapshot snapshot) {
+            long start = System.nanoTime();
+            Object value = snapshot != null ? snapshot.getValue() : null;
+            try {
+                room.setLiveField(key, value);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Bad live field " + key + ": " + value, e);
+            }
+            pendingParseNanos += System.nanoTime() - start;
+            pendingBytes += RoomEventStats.sizeOf(key) + 1 + RoomEventStats.sizeOf(value);
+            scheduleDispatch();
+        }
+
+        private void scheduleDispatch() {
+            if (!dispatchPosted) {
+                dispatchPosted = true;
+                mainHandler.post(this::dispatch);
+            }
+        }
+
+        private void dispatch() {
+            dispatchPosted = false;
+            // Until meta is in, the room has no players to compare against
+            if (cancelled || deleted || !metaLoaded) {
+                return;
+            }
+            roomEventStats.record(pendingBytes, pendingParseNanos);
+            pendingBytes = 0;
+            pendingParseNanos = 0;
+            listener.onRoomChanged(new BattleRoom(room));
+        }
+    }
+}
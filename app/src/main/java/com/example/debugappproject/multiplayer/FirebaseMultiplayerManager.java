@@ -3,6 +3,7 @@ package com.example.debugappproject.multiplayer;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -14,14 +15,9 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.MutableData;
-import com.google.firebase.database.ServerValue;
-import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 
 import java.security.SecureRandom;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * ╔══════════════════════════════════════════════════════════════════════════════╗
@@ -34,32 +30,31 @@ import java.util.Map;
  * - Clear submission feedback (correct/wrong)
  * - Real-time opponent status updates
  * - Multiple submission attempts allowed
+ *
+ * Room storage goes through a {@link BattleTransport}; this class keeps
+ * the session, connection state and UI callbacks.
  */
 public class FirebaseMultiplayerManager {
 
     private static final String TAG = "FirebaseMultiplayer";
-    private static final String ROOMS_REF = "battle_rooms";
-    private static final String ROOM_CODES_REF = "room_codes";
-    private static final String MATCHMAKING_REF = "matchmaking_queue";
     private static final String SERVER_TIME_REF = ".info/serverTimeOffset";
     private static final String DATABASE_URL = "https://debugmaster-8ff5b-default-rtdb.firebaseio.com";
     public static final long BATTLE_DURATION_MS = 180 * 1000L; // 3 minutes
+    private static final int PROGRESS_WRITES_PER_SECOND = 4;
     
     private static FirebaseMultiplayerManager instance;
     
     private FirebaseDatabase database;
-    private DatabaseReference roomsRef;
-    private DatabaseReference roomCodesRef;
-    private DatabaseReference matchmakingRef;
+    private BattleTransport transport;
     private final Handler mainHandler;
     
-    // Server time offset for sync
-    private long serverTimeOffset = 0;
-    private boolean serverTimeSynced = false;
+    // Server time, sampled while in a room; seeded from Firebase's own offset
+    private ServerClock serverClock;
     
     // Current session
     private String currentRoomId;
-    private ValueEventListener roomListener;
+    private boolean isHostInRoom;     // Cached at create/join so progress writes need no read
+    private BattleTransport.Subscription roomSubscription;
     private MultiplayerCallback callback;
     
     // Stable user ID for this session
@@ -69,6 +64,13 @@ public class FirebaseMultiplayerManager {
     private int mySubmissionAttempts = 0;
     private long lastSubmissionTime = 0;
     
+    // Keystroke progress, coalesced to a few single-field writes per second
+    private final ProgressWriteThrottle progressThrottle;
+    
+    // Quick match: the current search, and totals over all searches
+    private MatchmakingService matchmaking;
+    private final MatchmakingStats matchmakingStats = new MatchmakingStats();
+    
     // Phase 3: Connection state tracking
     public enum ConnectionState {
         CONNECTED,
@@ -112,17 +114,22 @@ public class FirebaseMultiplayerManager {
     
     private FirebaseMultiplayerManager() {
         mainHandler = new Handler(Looper.getMainLooper());
+        progressThrottle = new ProgressWriteThrottle(PROGRESS_WRITES_PER_SECOND,
+                mainHandler::postDelayed, SystemClock::uptimeMillis, progress -> {
+                    if (currentRoomId != null) {
+                        transport.updateProgress(currentRoomId, isHostInRoom, progress);
+                    }
+                });
         initializeFirebase();
     }
     
     private void initializeFirebase() {
         try {
             database = FirebaseDatabase.getInstance(DATABASE_URL);
-            roomsRef = database.getReference(ROOMS_REF);
-            roomCodesRef = database.getReference(ROOM_CODES_REF);
-            matchmakingRef = database.getReference(MATCHMAKING_REF);
+            transport = new FirebaseBattleTransport(database);
+            serverClock = new ServerClock(transport, mainHandler::postDelayed, SystemClock::elapsedRealtime);
             
-            // Sync server time offset for accurate timer sync
+            // Seed the server clock until it has samples of its own
             syncServerTime();
             
             // Phase 3: Start connection monitoring
@@ -210,17 +217,17 @@ public class FirebaseMultiplayerManager {
     }
     
     /**
-     * Sync with Firebase server time for accurate battle timer
+     * Seed the server clock with Firebase's offset, estimated once on connect
      */
     private void syncServerTime() {
-        database.getReference(".info/serverTimeOffset").addValueEventListener(new ValueEventListener() {
+        database.getReference(SERVER_TIME_REF).addValueEventListener(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 Long offset = snapshot.getValue(Long.class);
                 if (offset != null) {
-                    serverTimeOffset = offset;
-                    serverTimeSynced = true;
-                    Log.d(TAG, "Server time offset synced: " + offset + "ms");
+                    // Firebase's offset is to the wall clock; the server clock runs on elapsedRealtime
+                    serverClock.seed(System.currentTimeMillis() + offset - SystemClock.elapsedRealtime());
+                    Log.d(TAG, "Server time offset seeded: " + offset + "ms");
                 }
             }
             
@@ -235,11 +242,11 @@ public class FirebaseMultiplayerManager {
      * Get estimated server time
      */
     public long getServerTime() {
-        return System.currentTimeMillis() + serverTimeOffset;
+        return serverClock != null ? serverClock.now() : System.currentTimeMillis();
     }
     
     public boolean isServerTimeSynced() {
-        return serverTimeSynced;
+        return serverClock != null && serverClock.isSynced();
     }
     
     public static synchronized FirebaseMultiplayerManager getInstance() {
@@ -304,7 +311,7 @@ public class FirebaseMultiplayerManager {
         lastSubmissionTime = 0;
         
         String roomCode = generateRoomCode();
-        String roomId = roomsRef.push().getKey();
+        String roomId = transport.newRoomId();
         
         if (roomId == null) {
             mainHandler.post(() -> callback.onError("Failed to generate room ID"));
@@ -318,27 +325,22 @@ public class FirebaseMultiplayerManager {
         
         BattleRoom room = new BattleRoom(roomId, roomCode, hostId, hostName, bugId);
         
-        roomCodesRef.child(roomCode).setValue(roomId)
-            .addOnSuccessListener(aVoid -> {
-                Log.d(TAG, "Room code saved: " + roomCode + " -> " + roomId);
-                
-                roomsRef.child(roomId).setValue(room.toMap())
-                    .addOnSuccessListener(aVoid2 -> {
-                        Log.d(TAG, "Room data saved successfully");
-                        currentRoomId = roomId;
-                        startListeningToRoom(roomId);
-                        mainHandler.post(() -> callback.onSuccess(room));
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to save room data", e);
-                        roomCodesRef.child(roomCode).removeValue();
-                        mainHandler.post(() -> callback.onError("Failed to create room: " + e.getMessage()));
-                    });
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to save room code", e);
-                mainHandler.post(() -> callback.onError("Failed to create room: " + e.getMessage()));
-            });
+        transport.createRoom(room, new BattleTransport.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                Log.d(TAG, "Room data saved successfully");
+                currentRoomId = roomId;
+                isHostInRoom = true;
+                progressThrottle.reset();
+                startListeningToRoom(roomId);
+                mainHandler.post(() -> callback.onSuccess(room));
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> callback.onError("Failed to create room: " + error));
+            }
+        });
     }
     
     public interface CreateRoomCallback {
@@ -377,25 +379,22 @@ public class FirebaseMultiplayerManager {
         
         Log.d(TAG, "Looking up room code: " + normalizedCode);
         
-        roomCodesRef.child(normalizedCode).addListenerForSingleValueEvent(new ValueEventListener() {
+        transport.findRoomId(normalizedCode, new BattleTransport.Callback<String>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                Log.d(TAG, "Room code lookup result - exists: " + snapshot.exists() + ", value: " + snapshot.getValue());
+            public void onSuccess(@Nullable String roomId) {
+                Log.d(TAG, "Room code lookup result: " + roomId);
                 
-                if (!snapshot.exists() || snapshot.getValue() == null) {
+                if (roomId == null) {
                     mainHandler.post(() -> callback.onError("Room code not found: " + normalizedCode));
                     return;
                 }
                 
-                String roomId = snapshot.getValue(String.class);
-                Log.d(TAG, "Found room ID: " + roomId);
                 joinRoomById(context, roomId, callback);
             }
             
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Room code lookup cancelled", error.toException());
-                mainHandler.post(() -> callback.onError("Database error: " + error.getMessage()));
+            public void onError(String error) {
+                mainHandler.post(() -> callback.onError("Database error: " + error));
             }
         });
     }
@@ -403,19 +402,11 @@ public class FirebaseMultiplayerManager {
     public void joinRoomById(Context context, String roomId, JoinRoomCallback callback) {
         Log.d(TAG, "Attempting to join room: " + roomId);
         
-        roomsRef.child(roomId).addListenerForSingleValueEvent(new ValueEventListener() {
+        transport.fetchRoom(roomId, new BattleTransport.Callback<BattleRoom>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                Log.d(TAG, "Room lookup result - exists: " + snapshot.exists());
-                
-                if (!snapshot.exists()) {
-                    mainHandler.post(() -> callback.onError("Room not found"));
-                    return;
-                }
-                
-                BattleRoom room = parseRoom(snapshot);
+            public void onSuccess(@Nullable BattleRoom room) {
                 if (room == null) {
-                    mainHandler.post(() -> callback.onError("Invalid room data"));
+                    mainHandler.post(() -> callback.onError("Room not found"));
                     return;
                 }
                 
@@ -441,16 +432,13 @@ public class FirebaseMultiplayerManager {
                 
                 Log.d(TAG, "Joining as guest: " + guestId + " (" + guestName + ")");
                 
-                Map<String, Object> updates = new HashMap<>();
-                updates.put("guestId", guestId);
-                updates.put("guestName", guestName);
-                updates.put("state", BattleRoom.RoomState.STARTING.name());
-                updates.put("startedAt", ServerValue.TIMESTAMP);  // Server timestamp for sync!
-                
-                roomsRef.child(roomId).updateChildren(updates)
-                    .addOnSuccessListener(aVoid -> {
+                transport.joinRoom(roomId, guestId, guestName, new BattleTransport.Callback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
                         Log.d(TAG, "Successfully joined room!");
                         currentRoomId = roomId;
+                        isHostInRoom = false;
+                        progressThrottle.reset();
                         
                         room.setGuestId(guestId);
                         room.setGuestName(guestName);
@@ -458,17 +446,18 @@ public class FirebaseMultiplayerManager {
                         
                         startListeningToRoom(roomId);
                         mainHandler.post(() -> callback.onSuccess(room));
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to join room", e);
-                        mainHandler.post(() -> callback.onError("Failed to join: " + e.getMessage()));
-                    });
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        mainHandler.post(() -> callback.onError("Failed to join: " + error));
+                    }
+                });
             }
             
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Room lookup cancelled", error.toException());
-                mainHandler.post(() -> callback.onError("Database error: " + error.getMessage()));
+            public void onError(String error) {
+                mainHandler.post(() -> callback.onError("Database error: " + error));
             }
         });
     }
@@ -482,59 +471,62 @@ public class FirebaseMultiplayerManager {
     //                         QUICK MATCHMAKING
     // ═══════════════════════════════════════════════════════════════════════════
     
-    public void startMatchmaking(Context context, int bugId) {
+    /**
+     * Finds an opponent near the given Elo (see {@link MatchmakingService}):
+     * joins a waiting player's room if one is in range, otherwise opens a
+     * room and waits in the queue while the search widens.
+     */
+    public void startMatchmaking(Context context, int bugId, int elo) {
         // Reset submission state for new game
         mySubmissionAttempts = 0;
         lastSubmissionTime = 0;
         
-        String myId = getCurrentUserId();
-        
-        matchmakingRef.orderByChild("timestamp").limitToFirst(1)
-            .addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        for (DataSnapshot child : snapshot.getChildren()) {
-                            String oderId = child.getKey();
-                            if (oderId != null && !oderId.equals(myId)) {
-                                String roomId = child.child("roomId").getValue(String.class);
-                                if (roomId != null) {
-                                    matchmakingRef.child(oderId).removeValue();
-                                    joinRoomById(context, roomId, new JoinRoomCallback() {
-                                        @Override
-                                        public void onSuccess(BattleRoom room) {
-                                            if (callback != null) callback.onMatchFound(room);
-                                        }
-                                        @Override
-                                        public void onError(String error) {
-                                            createAndQueueRoom(context, bugId);
-                                        }
-                                    });
-                                    return;
-                                }
-                            }
-                        }
-                    }
-                    createAndQueueRoom(context, bugId);
-                }
-                
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    createAndQueueRoom(context, bugId);
+        stopMatchmaking();
+        matchmaking = new MatchmakingService(transport, getCurrentUserId(), elo,
+                mainHandler::postDelayed, this::getServerTime, matchmakingStats,
+                new MatchmakingService.Listener() {
+            @Override
+            public void onOpponentFound(BattleTransport.QueueEntry opponent) {
+                Log.d(TAG, "Matched with " + opponent.userId + " (Elo " + opponent.elo + " vs " + elo + ")");
+                // A waiting player gives up their own, still empty room
+                if (currentRoomId != null) {
+                    leaveRoom();
                 }
-            });
+                joinRoomById(context, opponent.roomId, new JoinRoomCallback() {
+                    @Override
+                    public void onSuccess(BattleRoom room) {
+                        if (callback != null) callback.onMatchFound(room);
+                    }
+                    @Override
+                    public void onError(String error) {
+                        Log.w(TAG, "Claimed room not joinable, searching again: " + error);
+                        startMatchmaking(context, bugId, elo);
+                    }
+                });
+            }
+
+            @Override
+            public void onNoOpponent() {
+                createAndQueueRoom(context, bugId);
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onError("Matchmaking failed: " + error);
+                });
+            }
+        });
+        matchmaking.start();
     }
     
     private void createAndQueueRoom(Context context, int bugId) {
         createRoom(context, bugId, new CreateRoomCallback() {
             @Override
             public void onSuccess(BattleRoom room) {
-                Map<String, Object> queueEntry = new HashMap<>();
-                queueEntry.put("roomId", room.getRoomId());
-                queueEntry.put("timestamp", ServerValue.TIMESTAMP);
-                queueEntry.put("bugId", bugId);
-                
-                matchmakingRef.child(getCurrentUserId()).setValue(queueEntry);
+                if (matchmaking != null) {
+                    matchmaking.enqueue(room.getRoomId(), bugId);
+                }
                 
                 if (callback != null) callback.onRoomCreated(room);
             }
@@ -547,30 +539,34 @@ public class FirebaseMultiplayerManager {
     }
     
     public void cancelMatchmaking() {
-        matchmakingRef.child(getCurrentUserId()).removeValue();
+        stopMatchmaking();
         if (currentRoomId != null) {
             leaveRoom();
         }
     }
     
+    private void stopMatchmaking() {
+        if (matchmaking != null) {
+            matchmaking.cancel();
+            matchmaking = null;
+        }
+    }
+    
+    public MatchmakingStats getMatchmakingStats() {
+        return matchmakingStats;
+    }
+    
     // ═══════════════════════════════════════════════════════════════════════════
     //                         GAME STATE UPDATES
     // ═══════════════════════════════════════════════════════════════════════════
     
+    /**
+     * Called on every editor change; writes are coalesced, the latest value wins.
+     */
     public void updateProgress(int progress) {
         if (currentRoomId == null) return;
         
-        String myId = getCurrentUserId();
-        roomsRef.child(currentRoomId).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                String hostId = snapshot.child("hostId").getValue(String.class);
-                String field = myId.equals(hostId) ? "hostProgress" : "guestProgress";
-                roomsRef.child(currentRoomId).child(field).setValue(progress);
-            }
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {}
-        });
+        progressThrottle.offer(progress);
     }
     
     /**
@@ -588,98 +584,52 @@ public class FirebaseMultiplayerManager {
         lastSubmissionTime = getServerTime();
         final int attemptNumber = mySubmissionAttempts;
 
-        roomsRef.child(roomId).runTransaction(new Transaction.Handler() {
-            @NonNull
-            @Override
-            public Transaction.Result doTransaction(@NonNull MutableData mutableData) {
-                String hostId = mutableData.child("hostId").getValue(String.class);
-                String currentWinner = mutableData.child("winnerId").getValue(String.class);
-                String currentState = mutableData.child("state").getValue(String.class);
-
-                if (hostId == null) {
-                    return Transaction.success(mutableData);
-                }
-
-                boolean isHost = myId.equals(hostId);
-
-                // Update submission data with attempt tracking
-                if (isHost) {
-                    mutableData.child("hostSubmission").setValue(code);
-                    mutableData.child("hostSubmitTime").setValue(ServerValue.TIMESTAMP);
-                    mutableData.child("hostProgress").setValue(isCorrect ? 100 : 75);
-                    mutableData.child("hostCorrect").setValue(isCorrect);
-                    mutableData.child("hostAttempts").setValue(attemptNumber);
-                } else {
-                    mutableData.child("guestSubmission").setValue(code);
-                    mutableData.child("guestSubmitTime").setValue(ServerValue.TIMESTAMP);
-                    mutableData.child("guestProgress").setValue(isCorrect ? 100 : 75);
-                    mutableData.child("guestCorrect").setValue(isCorrect);
-                    mutableData.child("guestAttempts").setValue(attemptNumber);
-                }
-
-                // Only set winner if correct AND no winner yet AND game not finished
-                if (isCorrect &&
-                    (currentWinner == null || currentWinner.isEmpty()) &&
-                    !"FINISHED".equals(currentState)) {
-                    mutableData.child("winnerId").setValue(myId);
-                    mutableData.child("winReason").setValue("Fixed the bug first!");
-                    mutableData.child("state").setValue(BattleRoom.RoomState.FINISHED.name());
-                }
-
-                return Transaction.success(mutableData);
-            }
+        // Last typed progress goes out ahead of the submission
+        progressThrottle.flush();
 
+        transport.submitSolution(roomId, myId, isHostInRoom, code, isCorrect, attemptNumber, new BattleTransport.Callback<Void>() {
             @Override
-            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
-                if (error != null) {
-                    Log.e(TAG, "Submit solution transaction failed", error.toException());
-                    mainHandler.post(() -> {
-                        if (callback != null) {
-                            callback.onError("Failed to submit: " + error.getMessage());
-                            callback.onSubmissionResult(false, "Network error. Try again!", attemptNumber);
-                        }
-                    });
-                } else {
-                    Log.d(TAG, "Solution submitted successfully. Correct: " + isCorrect + ", Attempt: " + attemptNumber);
-                    
-                    // Provide immediate feedback
-                    mainHandler.post(() -> {
-                        if (callback != null) {
-                            String feedback;
-                            if (isCorrect) {
-                                feedback = "✅ Correct! Waiting for result...";
+            public void onSuccess(Void result) {
+                Log.d(TAG, "Solution submitted successfully. Correct: " + isCorrect + ", Attempt: " + attemptNumber);
+                
+                // Provide immediate feedback
+                mainHandler.post(() -> {
+                    if (callback != null) {
+                        String feedback;
+                        if (isCorrect) {
+                            feedback = "✅ Correct! Waiting for result...";
+                        } else {
+                            if (attemptNumber >= 3) {
+                                feedback = "❌ Incorrect (Attempt " + attemptNumber + "). Check the hint!";
                             } else {
-                                if (attemptNumber >= 3) {
-                                    feedback = "❌ Incorrect (Attempt " + attemptNumber + "). Check the hint!";
-                                } else {
-                                    feedback = "❌ Not quite right. Try again! (Attempt " + attemptNumber + ")";
-                                }
+                                feedback = "❌ Not quite right. Try again! (Attempt " + attemptNumber + ")";
                             }
-                            callback.onSubmissionResult(isCorrect, feedback, attemptNumber);
                         }
-                    });
-                }
+                        callback.onSubmissionResult(isCorrect, feedback, attemptNumber);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    if (callback != null) {
+                        callback.onError("Failed to submit: " + error);
+                        callback.onSubmissionResult(false, "Network error. Try again!", attemptNumber);
+                    }
+                });
             }
         });
     }
     
     public void startBattle() {
         if (currentRoomId == null) return;
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("state", BattleRoom.RoomState.IN_PROGRESS.name());
-        updates.put("startedAt", ServerValue.TIMESTAMP);  // Critical for timer sync!
-        roomsRef.child(currentRoomId).updateChildren(updates);
+        transport.startBattle(currentRoomId);
     }
     
     public void endGame(String winnerId, String reason) {
         if (currentRoomId == null) return;
-        
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("winnerId", winnerId);
-        updates.put("winReason", reason);
-        updates.put("state", BattleRoom.RoomState.FINISHED.name());
-        
-        roomsRef.child(currentRoomId).updateChildren(updates);
+        transport.finishRoom(currentRoomId, winnerId, reason);
     }
     
     // ═══════════════════════════════════════════════════════════════════════════
@@ -690,110 +640,92 @@ public class FirebaseMultiplayerManager {
         stopListeningToRoom();
         
         Log.d(TAG, "Starting to listen to room: " + roomId);
+        // Keep the clock sampled for the battle timer and submit times
+        serverClock.start();
         
-        roomListener = new ValueEventListener() {
-            private String lastGuestId = null;
-            private int lastOpponentProgress = -1;
-            private BattleRoom.RoomState lastState = null;
-            private Boolean lastOpponentCorrect = null;
-            private long lastOpponentSubmitTime = 0;
-            
+        BattleRoomEvents events = new BattleRoomEvents(getCurrentUserId(), new BattleRoomEvents.Listener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (!snapshot.exists()) {
-                    mainHandler.post(() -> {
-                        if (callback != null) callback.onError("Room was deleted");
-                    });
-                    return;
-                }
-                
-                BattleRoom room = parseRoom(snapshot);
-                if (room == null) return;
-                
-                String myId = getCurrentUserId();
-                boolean isHost = myId.equals(room.getHostId());
-                
-                // Check for opponent joining
-                String currentGuestId = room.getGuestId();
-                if (currentGuestId != null && !currentGuestId.isEmpty() && 
-                    (lastGuestId == null || lastGuestId.isEmpty())) {
-                    Log.d(TAG, "Opponent joined: " + room.getGuestName());
-                    mainHandler.post(() -> {
-                        if (callback != null) callback.onOpponentJoined(room);
-                    });
-                }
-                lastGuestId = currentGuestId;
-                
-                // Check for opponent progress
-                int opponentProgress = isHost ? room.getGuestProgress() : room.getHostProgress();
-                if (opponentProgress != lastOpponentProgress) {
-                    lastOpponentProgress = opponentProgress;
-                    mainHandler.post(() -> {
-                        if (callback != null) callback.onOpponentProgress(opponentProgress);
-                    });
-                }
-                
-                // Check for opponent submission (with correctness!)
-                long opponentSubmitTime = isHost ? room.getGuestSubmitTime() : room.getHostSubmitTime();
-                boolean opponentCorrect = isHost ? room.isGuestCorrect() : room.isHostCorrect();
-                
-                if (opponentSubmitTime > lastOpponentSubmitTime) {
-                    lastOpponentSubmitTime = opponentSubmitTime;
-                    mainHandler.post(() -> {
-                        if (callback != null) {
-                            callback.onOpponentSubmitted(opponentSubmitTime);
-                            callback.onOpponentSubmissionResult(opponentCorrect);
-                        }
-                    });
+            public void onOpponentJoined(BattleRoom room) {
+                Log.d(TAG, "Opponent joined: " + room.getGuestName());
+                if (matchmaking != null) {
+                    matchmaking.onJoinedByOpponent();
+                    Log.d(TAG, "Matchmaking totals: " + matchmakingStats);
                 }
-                
-                // Check for state changes
-                if (room.getState() != lastState) {
-                    BattleRoom.RoomState previousState = lastState;
-                    lastState = room.getState();
-                    
-                    mainHandler.post(() -> {
-                        if (callback != null) {
-                            callback.onGameStateChanged(room);
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onOpponentJoined(room);
+                });
+            }
 
-                            // Sync timer when battle starts - KEY FIX!
-                            if ((room.getState() == BattleRoom.RoomState.IN_PROGRESS || 
-                                 room.getState() == BattleRoom.RoomState.STARTING) &&
-                                previousState != BattleRoom.RoomState.IN_PROGRESS &&
-                                previousState != BattleRoom.RoomState.STARTING) {
-                                
-                                long startTime = room.getStartedAt();
-                                if (startTime > 0) {
-                                    Log.d(TAG, "Sending timer sync: startTime=" + startTime);
-                                    callback.onTimerSync(startTime, BATTLE_DURATION_MS);
-                                    callback.onBothPlayersReady(startTime);
-                                }
-                            }
+            @Override
+            public void onOpponentProgress(int progress) {
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onOpponentProgress(progress);
+                });
+            }
+
+            @Override
+            public void onOpponentSubmitted(long submitTime, boolean isCorrect) {
+                mainHandler.post(() -> {
+                    if (callback != null) {
+                        callback.onOpponentSubmitted(submitTime);
+                        callback.onOpponentSubmissionResult(isCorrect);
+                    }
+                });
+            }
+
+            @Override
+            public void onStateChanged(BattleRoom room, @Nullable BattleRoom.RoomState previousState) {
+                mainHandler.post(() -> {
+                    if (callback != null) {
+                        callback.onGameStateChanged(room);
 
-                            if (room.getState() == BattleRoom.RoomState.FINISHED) {
-                                callback.onGameEnded(room);
+                        // Sync timer when battle starts - KEY FIX!
+                        if ((room.getState() == BattleRoom.RoomState.IN_PROGRESS || 
+                             room.getState() == BattleRoom.RoomState.STARTING) &&
+                            previousState != BattleRoom.RoomState.IN_PROGRESS &&
+                            previousState != BattleRoom.RoomState.STARTING) {
+                            
+                            long startTime = room.getStartedAt();
+                            if (startTime > 0) {
+                                Log.d(TAG, "Sending timer sync: startTime=" + startTime);
+                                callback.onTimerSync(startTime, BATTLE_DURATION_MS);
+                                callback.onBothPlayersReady(startTime);
                             }
                         }
+
+                        if (room.getState() == BattleRoom.RoomState.FINISHED) {
+                            callback.onGameEnded(room);
+                        }
+                    }
+                });
+            }
+        });
+        
+        roomSubscription = transport.listenToRoom(roomId, new BattleTransport.RoomListener() {
+            @Override
+            public void onRoomChanged(@Nullable BattleRoom room) {
+                if (room == null) {
+                    mainHandler.post(() -> {
+                        if (callback != null) callback.onError("Room was deleted");
                     });
+                    return;
                 }
+                events.onRoomChanged(room);
             }
             
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Room listener cancelled", error.toException());
+            public void onError(String error) {
                 mainHandler.post(() -> {
-                    if (callback != null) callback.onError(error.getMessage());
+                    if (callback != null) callback.onError(error);
                 });
             }
-        };
-        
-        roomsRef.child(roomId).addValueEventListener(roomListener);
+        });
     }
     
     private void stopListeningToRoom() {
-        if (roomListener != null && currentRoomId != null) {
-            roomsRef.child(currentRoomId).removeEventListener(roomListener);
-            roomListener = null;
+        if (roomSubscription != null) {
+            roomSubscription.cancel();
+            roomSubscription = null;
         }
     }
     
@@ -805,71 +737,50 @@ public class FirebaseMultiplayerManager {
         if (currentRoomId == null) return;
 
         String myId = getCurrentUserId();
-        if (myId != null) {
-            matchmakingRef.child(myId).removeValue();
-        }
+        stopMatchmaking();
 
         final String roomIdToLeave = currentRoomId;
 
         stopListeningToRoom();
+        progressThrottle.reset();
         currentRoomId = null;
-        
+        serverClock.stop();
+        Log.d(TAG, "Room listener totals: " + transport.getRoomEventStats());
+        Log.d(TAG, "Server clock: offset " + serverClock.getOffsetMs()
+                + "ms, round trip " + serverClock.getRoundTripMs() + "ms");
+
         // Reset submission state
         mySubmissionAttempts = 0;
         lastSubmissionTime = 0;
 
-        roomsRef.child(roomIdToLeave).addListenerForSingleValueEvent(new ValueEventListener() {
+        transport.fetchRoom(roomIdToLeave, new BattleTransport.Callback<BattleRoom>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (!snapshot.exists()) return;
+            public void onSuccess(@Nullable BattleRoom room) {
+                if (room == null) return;
 
-                String hostId = snapshot.child("hostId").getValue(String.class);
-                String guestId = snapshot.child("guestId").getValue(String.class);
-                String roomCode = snapshot.child("roomCode").getValue(String.class);
-                String state = snapshot.child("state").getValue(String.class);
+                String hostId = room.getHostId();
+                String guestId = room.getGuestId();
 
                 if (hostId == null) return;
 
                 if (myId != null && myId.equals(hostId) && (guestId == null || guestId.isEmpty())) {
-                    if (roomCode != null && !roomCode.isEmpty()) {
-                        roomCodesRef.child(roomCode).removeValue();
-                    }
-                    roomsRef.child(roomIdToLeave).removeValue();
-                } else if (!"FINISHED".equals(state)) {
-                    Map<String, Object> updates = new HashMap<>();
+                    transport.deleteRoom(roomIdToLeave, room.getRoomCode());
+                } else if (room.getState() != BattleRoom.RoomState.FINISHED) {
                     String winnerId = (myId != null && myId.equals(hostId)) ? guestId : hostId;
                     if (winnerId != null) {
-                        updates.put("winnerId", winnerId);
-                        updates.put("winReason", "Opponent left the game");
-                        updates.put("state", BattleRoom.RoomState.FINISHED.name());
-                        roomsRef.child(roomIdToLeave).updateChildren(updates);
+                        transport.finishRoom(roomIdToLeave, winnerId, "Opponent left the game");
                     }
                 }
             }
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Error leaving room", error.toException());
+            public void onError(String error) {
+                Log.e(TAG, "Error leaving room: " + error);
             }
         });
     }
     
     public void cleanupExpiredRooms() {
-        long now = System.currentTimeMillis();
-        roomsRef.orderByChild("expiresAt").endAt(now)
-            .addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    for (DataSnapshot child : snapshot.getChildren()) {
-                        String roomCode = child.child("roomCode").getValue(String.class);
-                        if (roomCode != null) {
-                            roomCodesRef.child(roomCode).removeValue();
-                        }
-                        child.getRef().removeValue();
-                    }
-                }
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {}
-            });
+        transport.deleteExpiredRooms(System.currentTimeMillis());
     }
     
     // ═══════════════════════════════════════════════════════════════════════════
@@ -886,62 +797,6 @@ public class FirebaseMultiplayerManager {
         return code.toString();
     }
     
-    private BattleRoom parseRoom(DataSnapshot snapshot) {
-        try {
-            BattleRoom room = new BattleRoom();
-            room.setRoomId(snapshot.child("roomId").getValue(String.class));
-            room.setRoomCode(snapshot.child("roomCode").getValue(String.class));
-            room.setHostId(snapshot.child("hostId").getValue(String.class));
-            room.setHostName(snapshot.child("hostName").getValue(String.class));
-            room.setGuestId(snapshot.child("guestId").getValue(String.class));
-            room.setGuestName(snapshot.child("guestName").getValue(String.class));
-            
-            String stateStr = snapshot.child("state").getValue(String.class);
-            room.setState(stateStr != null ? BattleRoom.RoomState.valueOf(stateStr) : BattleRoom.RoomState.WAITING);
-            
-            Long bugId = snapshot.child("bugId").getValue(Long.class);
-            room.setBugId(bugId != null ? bugId.intValue() : 0);
-            
-            Long createdAt = snapshot.child("createdAt").getValue(Long.class);
-            room.setCreatedAt(createdAt != null ? createdAt : 0);
-            
-            Long startedAt = snapshot.child("startedAt").getValue(Long.class);
-            room.setStartedAt(startedAt != null ? startedAt : 0);
-            
-            Long expiresAt = snapshot.child("expiresAt").getValue(Long.class);
-            room.setExpiresAt(expiresAt != null ? expiresAt : 0);
-            
-            Long hostProgress = snapshot.child("hostProgress").getValue(Long.class);
-            room.setHostProgress(hostProgress != null ? hostProgress.intValue() : 0);
-            
-            Long guestProgress = snapshot.child("guestProgress").getValue(Long.class);
-            room.setGuestProgress(guestProgress != null ? guestProgress.intValue() : 0);
-            
-            room.setHostSubmission(snapshot.child("hostSubmission").getValue(String.class));
-            room.setGuestSubmission(snapshot.child("guestSubmission").getValue(String.class));
-            
-            Long hostSubmitTime = snapshot.child("hostSubmitTime").getValue(Long.class);
-            room.setHostSubmitTime(hostSubmitTime != null ? hostSubmitTime : 0);
-            
-            Long guestSubmitTime = snapshot.child("guestSubmitTime").getValue(Long.class);
-            room.setGuestSubmitTime(guestSubmitTime != null ? guestSubmitTime : 0);
-
-            Boolean hostCorrect = snapshot.child("hostCorrect").getValue(Boolean.class);
-            room.setHostCorrect(hostCorrect != null && hostCorrect);
-
-            Boolean guestCorrect = snapshot.child("guestCorrect").getValue(Boolean.class);
-            room.setGuestCorrect(guestCorrect != null && guestCorrect);
-
-            room.setWinnerId(snapshot.child("winnerId").getValue(String.class));
-            room.setWinReason(snapshot.child("winReason").getValue(String.class));
-            
-            return room;
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing room", e);
-            return null;
-        }
-    }
-    
     public String getCurrentRoomId() {
         return currentRoomId;
     }
@@ -0,0 +1,380 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import com.example.debugappproject.game.RankedBattleSystem;
+import com.example.debugappproject.game.RankedBattleSystem.RankTier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * MatchmakingService - Finds an opponent of similar Elo through the bucketed queue.
+ *
+ * The queue has one bucket per {@link RankTier}, so a search reads only
+ * the buckets its Elo window touches, and players in different tiers never
+ * contend for the same entries. The window comes from
+ * {@link RankedBattleSystem#getMatchmakingRange}: ±100 Elo, widening by 25
+ * for every 10 s of waiting.
+ *
+ * A search reads the entries nearest its Elo in those buckets, keeps the
+ * ones in range (by the wider of the two players' windows) and tries them
+ * closest Elo first. Taking an entry is a transactional claim: of two
+ * searchers after the same room exactly one gets it, and the other moves
+ * on to its next candidate, for up to {@link #MAX_CLAIMS_PER_SEARCH} tries.
+ *
+ * If nobody fits, the caller opens a room and {@link #enqueue}s it. While
+ * waiting, the search repeats with the wider window. A waiting player only
+ * claims entries older than its own, so two waiters never try to take each
+ * other, and it claims its own entry first, so nobody joins a room it is
+ * about to leave.
+ *
+ * Times are server times. Not thread safe: call it, and let the transport
+ * and scheduler call back, on one thread.
+ */
+final class MatchmakingService {
+
+    interface Listener {
+        /**
+         * A waiting player's entry was claimed: join their room.
+         */
+        void onOpponentFound(BattleTransport.QueueEntry opponent);
+
+        /**
+         * Nobody in range is waiting: open a room and call {@link #enqueue}.
+         */
+        void onNoOpponent();
+
+        void onError(String error);
+    }
+
+    interface Scheduler {
+        void schedule(Runnable action, long delayMs);
+    }
+
+    // Entries read per bucket on each side of our Elo
+    static final int CANDIDATES_PER_BUCKET = 10;
+    // Elo gaps this close are treated as equally good
+    static final int ELO_BAND = 25;
+    // After this many lost claims the read is stale; queue (or search again) instead
+    static final int MAX_CLAIMS_PER_SEARCH = 3;
+    static final long SEARCH_INTERVAL_MS = 5000;
+    // Rooms expire after 5 minutes; entries close to that are not worth joining
+    static final long MAX_ENTRY_AGE_MS = 4 * 60 * 1000L;
+    // How long to wait for the player who claimed our entry before queueing again
+    static final long CLAIMED_JOIN_TIMEOUT_MS = 15_000;
+
+    private enum State {
+        IDLE,
+        SEARCHING,      // First search, before having a room
+        OPENING_ROOM,   // Waiting for the caller to enqueue its new room
+        WAITING,        // Queued; searching again every SEARCH_INTERVAL_MS
+        CLAIMING,       // Claiming candidates (and, if queued, our own entry first)
+        CLAIMED,        // Someone claimed our entry; waiting for them to join
+        MATCHED,
+        CANCELLED
+    }
+
+    private final BattleTransport transport;
+    private final String userId;
+    private final int elo;
+    private final Scheduler scheduler;
+    private final LongSupplier serverClock;
+    private final MatchmakingStats stats;
+    private final Listener listener;
+
+    private State state = State.IDLE;
+    private int generation;         // Bumped when matched or cancelled so late callbacks do nothing
+    private long startedAt;
+    private String ownRoomId;
+    private int ownBugId;
+    private long ownQueuedAt;
+
+    MatchmakingService(BattleTransport transport, String userId, int elo, Scheduler scheduler,
+                       LongSupplier serverClock, MatchmakingStats stats, Listener listener) {
+        this.transport = transport;
+        this.userId = userId;
+        this.elo = elo;
+        this.scheduler = scheduler;
+        this.serverClock = serverClock;
+        this.stats = stats;
+        this.listener = listener;
+    }
+
+    void start() {
+        if (state != State.IDLE) {
+            return;
+        }
+        state = State.SEARCHING;
+        startedAt = serverClock.getAsLong();
+        search();
+    }
+
+    /**
+     * Queues the room opened after {@link Listener#onNoOpponent()}.
+     */
+    void enqueue(String roomId, int bugId) {
+        if (state != State.OPENING_ROOM) {
+            return;
+        }
+        ownRoomId = roomId;
+        ownBugId = bugId;
+        queueOwnEntry();
+        scheduleSearch();
+    }
+
+    /**
+     * The player who claimed our entry has joined our room.
+     */
+    void onJoinedByOpponent() {
+        if (state == State.WAITING || state == State.CLAIMING || state == State.CLAIMED) {
+            state = State.MATCHED;
+            generation++;
+            stats.recordTimeToMatch(serverClock.getAsLong() - startedAt);
+        }
+    }
+
+    /**
+     * Stops searching and takes our entry, if any, off the queue.
+     */
+    void cancel() {
+        boolean queued = state == State.WAITING;
+        state = State.CANCELLED;
+        generation++;
+        if (queued) {
+            transport.claimQueueEntry(bucketOf(elo), userId, new BattleTransport.Callback<BattleTransport.QueueEntry>() {
+                @Override
+                public void onSuccess(@Nullable BattleTransport.QueueEntry result) {
+                }
+
+                @Override
+                public void onError(String error) {
+                }
+            });
+        }
+    }
+
+    /**
+     * The queue bucket for an Elo rating.
+     */
+    static String bucketOf(int elo) {
+        return RankTier.fromElo(elo).name();
+    }
+
+    /**
+     * The buckets holding ratings from minElo to maxElo.
+     */
+    static List<String> bucketsBetween(int minElo, int maxElo) {
+        List<String> buckets = new ArrayList<>();
+        for (int tier = RankTier.fromElo(minElo).tier; tier <= RankTier.fromElo(maxElo).tier; tier++) {
+            buckets.add(RankTier.fromTier(tier).name());
+        }
+        return buckets;
+    }
+
+    private void search() {
+        stats.recordSearch();
+        long now = serverClock.getAsLong();
+        int[] range = RankedBattleSystem.getMatchmakingRange(elo, (int) ((now - startedAt) / 1000));
+        List<String> buckets = bucketsBetween(range[0], range[1]);
+        List<BattleTransport.QueueEntry> found = new ArrayList<>();
+        int[] pending = {buckets.size()};
+        int[] failed = {0};
+        int searchGeneration = generation;
+
+        for (String bucket : buckets) {
+            transport.findQueueEntries(bucket, elo, CANDIDATES_PER_BUCKET,
+                    new BattleTransport.Callback<List<BattleTransport.QueueEntry>>() {
+                @Override
+                public void onSuccess(@Nullable List<BattleTransport.QueueEntry> entries) {
+                    if (entries != null) {
+                        found.addAll(entries);
+                    }
+                    onBucketRead(null);
+                }
+
+                @Override
+                public void onError(String error) {
+                    failed[0]++;
+                    onBucketRead(error);
+                }
+
+                private void onBucketRead(@Nullable String error) {
+                    if (--pending[0] > 0 || searchGeneration != generation) {
+                        return;
+                    }
+                    if (failed[0] == buckets.size() && state == State.SEARCHING) {
+                        state = State.CANCELLED;
+                        listener.onError(error);
+                        return;
+                    }
+                    claimBest(candidates(found, now, range[1] - elo));
+                }
+            });
+        }
+    }
+
+    /**
+     * Entries we may claim, best match first.
+     */
+    private List<BattleTransport.QueueEntry> candidates(List<BattleTransport.QueueEntry> entries,
+                                                        long now, int window) {
+        List<BattleTransport.QueueEntry> candidates = new ArrayList<>();
+        for (BattleTransport.QueueEntry entry : entries) {
+            long age = now - entry.timestamp;
+            if (entry.userId.equals(userId) || age > MAX_ENTRY_AGE_MS) {
+                continue;
+            }
+            if (ownRoomId != null && !isOlderThanOwnEntry(entry)) {
+                continue;
+            }
+            int theirWindow = RankedBattleSystem.getMatchmakingRange(entry.elo, (int) (age / 1000))[1] - entry.elo;
+            if (Math.abs(entry.elo - elo) <= Math.max(window, theirWindow)) {
+                candidates.add(entry);
+            }
+        }
+        // Entries within the same band are equally good matches. Ordering them
+        // by a per-searcher hash instead of by age spreads simultaneous
+        // searchers over them rather than having all claim the oldest.
+        candidates.sort(Comparator.comparingInt((BattleTransport.QueueEntry entry) -> Math.abs(entry.elo - elo) / ELO_BAND)
+                .thenComparingInt(entry -> (userId + entry.userId).hashCode()));
+        return candidates;
+    }
+
+    private boolean isOlderThanOwnEntry(BattleTransport.QueueEntry entry) {
+        return entry.timestamp < ownQueuedAt
+                || (entry.timestamp == ownQueuedAt && entry.userId.compareTo(userId) < 0);
+    }
+
+    private void claimBest(List<BattleTransport.QueueEntry> candidates) {
+        if (candidates.isEmpty()) {
+            noneClaimed(false);
+            return;
+        }
+        boolean queued = ownRoomId != null;
+        state = State.CLAIMING;
+        if (!queued) {
+            claimNext(candidates, 0);
+            return;
+        }
+
+        int claimGeneration = generation;
+        transport.claimQueueEntry(bucketOf(elo), userId, new BattleTransport.Callback<BattleTransport.QueueEntry>() {
+            @Override
+            public void onSuccess(@Nullable BattleTransport.QueueEntry own) {
+                if (claimGeneration != generation) {
+                    return;
+                }
+                if (own == null) {
+                    // Somebody claimed us in the meantime and is on the way
+                    awaitClaimedJoin();
+                } else {
+                    // The server's stamp, which a re-queued entry keeps
+                    ownQueuedAt = own.timestamp;
+                    claimNext(candidates, 0);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                if (claimGeneration == generation) {
+                    noneClaimed(true);
+                }
+            }
+        });
+    }
+
+    private void claimNext(List<BattleTransport.QueueEntry> candidates, int index) {
+        if (index == Math.min(candidates.size(), MAX_CLAIMS_PER_SEARCH)) {
+            noneClaimed(true);
+            return;
+        }
+        BattleTransport.QueueEntry candidate = candidates.get(index);
+        int claimGeneration = generation;
+        transport.claimQueueEntry(bucketOf(candidate.elo), candidate.userId,
+                new BattleTransport.Callback<BattleTransport.QueueEntry>() {
+            @Override
+            public void onSuccess(@Nullable BattleTransport.QueueEntry claimed) {
+                if (claimGeneration != generation) {
+                    if (claimed != null) {
+                        // Cancelled while claiming: put the entry back
+                        transport.requeue(bucketOf(claimed.elo), claimed);
+                    }
+                    return;
+                }
+                if (claimed == null) {
+                    stats.recordClaimConflict();
+                    claimNext(candidates, index + 1);
+                    return;
+                }
+                state = State.MATCHED;
+                generation++;
+                stats.recordTimeToMatch(serverClock.getAsLong() - startedAt);
+                stats.recordEloDelta(Math.abs(claimed.elo - elo));
+                listener.onOpponentFound(claimed);
+            }
+
+            @Override
+            public void onError(String error) {
+                if (claimGeneration == generation) {
+                    claimNext(candidates, index + 1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Nobody could be claimed this round.
+     */
+    private void noneClaimed(boolean ownEntryRemoved) {
+        if (ownRoomId == null) {
+            state = State.OPENING_ROOM;
+            listener.onNoOpponent();
+            return;
+        }
+        if (ownEntryRemoved) {
+            requeueOwnEntry();
+        } else {
+            state = State.WAITING;
+        }
+        scheduleSearch();
+    }
+
+    private void awaitClaimedJoin() {
+        state = State.CLAIMED;
+        int claimedGeneration = generation;
+        scheduler.schedule(() -> {
+            if (claimedGeneration == generation && state == State.CLAIMED) {
+                // The claimer never showed up
+                requeueOwnEntry();
+                scheduleSearch();
+            }
+        }, CLAIMED_JOIN_TIMEOUT_MS);
+    }
+
+    private void queueOwnEntry() {
+        state = State.WAITING;
+        ownQueuedAt = serverClock.getAsLong();
+        transport.enqueue(bucketOf(elo), userId, ownRoomId, ownBugId, elo);
+    }
+
+    /**
+     * Puts our entry back as old as it was, so losing claims does not cost
+     * us our place among the waiters.
+     */
+    private void requeueOwnEntry() {
+        state = State.WAITING;
+        transport.requeue(bucketOf(elo), new BattleTransport.QueueEntry(userId, ownRoomId, ownBugId, elo, ownQueuedAt));
+    }
+
+    private void scheduleSearch() {
+        int searchGeneration = generation;
+        scheduler.schedule(() -> {
+            if (searchGeneration == generation && state == State.WAITING) {
+                search();
+            }
+        }, SEARCH_INTERVAL_MS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.debugappproject.multiplayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MatchmakingStats - How long players wait for a match and how close the match is.
+ *
+ * Time to match is recorded for both players: the one who claims a queue
+ * entry and the one whose entry was claimed. The Elo delta is recorded
+ * once per match, by the claiming side. A claim conflict is a claim that
+ * found the entry already taken by someone else.
+ */
+public final class MatchmakingStats {
+
+    private final List<Long> timeToMatchMs = new ArrayList<>();
+    private final List<Integer> eloDeltas = new ArrayList<>();
+    private long searches;
+    private long claimConflicts;
+
+    synchronized void recordSearch() {
+        searches++;
+    }
+
+    synchronized void recordClaimConflict() {
+        claimConflicts++;
+    }
+
+    synchronized void recordTimeToMatch(long ms) {
+        timeToMatchMs.add(ms);
+    }
+
+    synchronized void recordEloDelta(int delta) {
+        eloDeltas.add(delta);
+    }
+
+    /**
+     * Matches made, counted on the claiming side.
+     */
+    public synchronized int getMatches() {
+        return eloDeltas.size();
+    }
+
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    public synchronized long getClaimConflicts() {
+        return claimConflicts;
+    }
+
+    /**
+     * Nearest-rank percentile of the time to match, in ms; 0 without samples.
+     */
+    public synchronized long getTimeToMatchPercentile(double percent) {
+        return percentile(timeToMatchMs, percent);
+    }
+
+    /**
+     * Nearest-rank percentile of the Elo gap between matched players; 0 without samples.
+     */
+    public synchronized long getEloDeltaPercentile(double percent) {
+        return percentile(eloDeltas, percent);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "%d matches, %d searches, %d claim conflicts; time to match p50 %d ms, p90 %d ms; "
+                        + "Elo delta p50 %d, p90 %d",
+                getMatches(), searches, claimConflicts,
+                percentile(timeToMatchMs, 50), percentile(timeToMatchMs, 90),
+                percentile(eloDeltas, 50), percentile(eloDeltas, 90));
+    }
+
+    private static <T extends Number & Comparable<T>> long percentile(List<T> values, double percent) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<T> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)).longValue();
+    }
+}
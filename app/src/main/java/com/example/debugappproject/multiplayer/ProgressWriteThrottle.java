@@ -0,0 +1,112 @@
+package com.example.debugappproject.multiplayer;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * ProgressWriteThrottle - Coalesces a player's progress updates into at most
+ * N writes per second.
+ *
+ * The battle editor reports progress on every keystroke. The first update
+ * after a quiet period is written at once; updates inside the interval
+ * only replace the pending value (last value wins), which is written when
+ * the interval ends. A value equal to the last written one is not sent.
+ *
+ * Not thread safe: call it, and let it schedule, on one thread.
+ */
+final class ProgressWriteThrottle {
+
+    interface Scheduler {
+        void schedule(Runnable action, long delayMs);
+    }
+
+    private static final int NONE = -1;
+
+    private final long intervalMs;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final IntConsumer writer;
+
+    private int pending = NONE;
+    private int lastWritten = NONE;
+    private long lastWriteTime = Long.MIN_VALUE;
+    private boolean trailingWriteScheduled;
+    private int generation;     // Bumped by reset() so stale trailing writes do nothing
+    private int writes;
+    private int dropped;
+
+    ProgressWriteThrottle(int maxWritesPerSecond, Scheduler scheduler, LongSupplier clock, IntConsumer writer) {
+        this.intervalMs = 1000L / maxWritesPerSecond;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.writer = writer;
+    }
+
+    void offer(int progress) {
+        if (pending != NONE) {
+            dropped++;
+        }
+        pending = progress;
+
+        long sinceLastWrite = clock.getAsLong() - lastWriteTime;
+        if (lastWriteTime == Long.MIN_VALUE || sinceLastWrite >= intervalMs) {
+            writePending();
+        } else if (!trailingWriteScheduled) {
+            trailingWriteScheduled = true;
+            int scheduledGeneration = generation;
+            scheduler.schedule(() -> {
+                if (scheduledGeneration == generation) {
+                    trailingWriteScheduled = false;
+                    writePending();
+                }
+            }, intervalMs - sinceLastWrite);
+        }
+    }
+
+    /**
+     * Writes the pending value now, if there is one. Used before a
+     * submission, which overwrites the stored progress, so the next value
+     * is written even if it equals the last one.
+     */
+    void flush() {
+        writePending();
+        lastWritten = NONE;
+    }
+
+    /**
+     * Forgets all state, e.g. when leaving a room. A pending value is dropped.
+     */
+    void reset() {
+        generation++;
+        pending = NONE;
+        lastWritten = NONE;
+        lastWriteTime = Long.MIN_VALUE;
+        trailingWriteScheduled = false;
+    }
+
+    int getWriteCount() {
+        return writes;
+    }
+
+    /**
+     * Updates replaced by a newer one before they were written.
+     */
+    int getDroppedCount() {
+        return dropped;
+    }
+
+    private void writePending() {
+        if (pending == NONE) {
+            return;
+        }
+        int progress = pending;
+        pending = NONE;
+        if (progress == lastWritten) {
+            return;
+        }
+        lastWritten = progress;
+        lastWriteTime = clock.getAsLong();
+        writes++;
+        writer.accept(progress);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.debugappproject.multiplayer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RoomEventStats - Size and parse cost of the room updates one client receives.
+ *
+ * An update is what a room listener is called with: the fields that
+ * changed in one write. Payload sizes are the JSON size of the delivered
+ * values, which is close to what goes over the wire.
+ */
+public final class RoomEventStats {
+
+    private long updates;
+    private long payloadBytes;
+    private long maxPayloadBytes;
+    private long parseNanos;
+
+    synchronized void record(long bytes, long nanos) {
+        updates++;
+        payloadBytes += bytes;
+        maxPayloadBytes = Math.max(maxPayloadBytes, bytes);
+        parseNanos += nanos;
+    }
+
+    public synchronized long getUpdates() {
+        return updates;
+    }
+
+    public synchronized long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public synchronized long getMaxPayloadBytes() {
+        return maxPayloadBytes;
+    }
+
+    public synchronized long getParseNanos() {
+        return parseNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (updates == 0) {
+            return "no room updates";
+        }
+        return String.format(Locale.US, "%d room updates, %d B (avg %d B, max %d B), parse avg %.1f us",
+                updates, payloadBytes, payloadBytes / updates, maxPayloadBytes,
+                parseNanos / 1000.0 / updates);
+    }
+
+    /**
+     * Approximate JSON size of a Firebase value: maps, strings, numbers,
+     * booleans and null.
+     */
+    static long sizeOf(Object value) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8).length + 2;
+        }
+        if (value instanceof Map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += sizeOf(String.valueOf(entry.getKey())) + 1 + sizeOf(entry.getValue()) + 1;
+            }
+            return size;
+        }
+        return String.valueOf(value).length();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import java.util.function.LongSupplier;
+
+/**
+ * ServerClock - The server's time, estimated from repeated round trips.
+ *
+ * Each sample has the server stamp its time through the transport and
+ * brackets the call with the local clock. Assuming the way up and the way
+ * back take equally long, the offset is the stamp minus the midpoint of
+ * the round trip, and it is wrong by at most half the round trip. Of the
+ * last {@link #WINDOW} samples the one with the shortest round trip is
+ * used (the NTP clock filter): a sample delayed by a retransmit or a busy
+ * network never displaces a good one, and since old samples age out the
+ * estimate follows the local clock's drift.
+ *
+ * {@link #start()} takes a burst of samples back to back and then one
+ * every {@link #RESAMPLE_INTERVAL_MS} until {@link #stop()}. Before the
+ * first sample, a seeded offset is used if there is one.
+ *
+ * The local clock should be monotonic (SystemClock.elapsedRealtime on
+ * Android); the wall clock can be changed by the user or stepped by the
+ * network mid-battle. Not thread safe: call it, and let the transport and
+ * scheduler call back, on one thread.
+ */
+public final class ServerClock {
+
+    interface Scheduler {
+        void schedule(Runnable action, long delayMs);
+    }
+
+    // Samples the filter picks from
+    static final int WINDOW = 8;
+    // Samples taken back to back on start
+    static final int BURST_SAMPLES = 5;
+    static final long RESAMPLE_INTERVAL_MS = 15_000;
+
+    private final BattleTransport transport;
+    private final Scheduler scheduler;
+    private final LongSupplier localClock;
+
+    private final long[] offsets = new long[WINDOW];
+    private final long[] roundTrips = new long[WINDOW];
+    private int samples;            // Valid entries in the window
+    private int nextSlot;
+    private long offset;
+    private long roundTrip = -1;    // Of the sample in use; -1 without one
+    private boolean seeded;
+    private boolean running;
+    private int generation;         // Bumped on stop so a pending resample does nothing
+
+    ServerClock(BattleTransport transport, Scheduler scheduler, LongSupplier localClock) {
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.localClock = localClock;
+    }
+
+    /**
+     * Estimated server time, in ms since the epoch.
+     */
+    public long now() {
+        return localClock.getAsLong() + offset;
+    }
+
+    /**
+     * Whether {@link #now()} is based on a sample or a seed rather than the local clock alone.
+     */
+    public boolean isSynced() {
+        return samples > 0 || seeded;
+    }
+
+    /**
+     * Round trip of the sample in use; twice the worst-case error. -1 before the first sample.
+     */
+    public long getRoundTripMs() {
+        return roundTrip;
+    }
+
+    /**
+     * Server time minus local time.
+     */
+    public long getOffsetMs() {
+        return offset;
+    }
+
+    /**
+     * An offset to use until the first sample arrives.
+     */
+    void seed(long offset) {
+        if (samples == 0) {
+            this.offset = offset;
+            seeded = true;
+        }
+    }
+
+    void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sample(BURST_SAMPLES, generation);
+    }
+
+    void stop() {
+        running = false;
+        generation++;
+    }
+
+    /**
+     * Adds one round trip: sent and received on the local clock, stamped on the server.
+     */
+    void addSample(long sentAt, long serverTime, long receivedAt) {
+        long rtt = receivedAt - sentAt;
+        if (rtt < 0) {
+            return;
+        }
+        offsets[nextSlot] = serverTime - (sentAt + rtt / 2);
+        roundTrips[nextSlot] = rtt;
+        nextSlot = (nextSlot + 1) % WINDOW;
+        samples = Math.min(samples + 1, WINDOW);
+
+        int best = 0;
+        for (int i = 1; i < samples; i++) {
+            if (roundTrips[i] < roundTrips[best]) {
+                best = i;
+            }
+        }
+        offset = offsets[best];
+        roundTrip = roundTrips[best];
+    }
+
+    private void sample(int burstLeft, int sampleGeneration) {
+        long sentAt = localClock.getAsLong();
+        transport.readServerTime(new BattleTransport.Callback<Long>() {
+            @Override
+            public void onSuccess(@Nullable Long serverTime) {
+                if (serverTime != null) {
+                    addSample(sentAt, serverTime, localClock.getAsLong());
+                }
+                next(burstLeft - 1, sampleGeneration);
+            }
+
+            @Override
+            public void onError(String error) {
+                next(burstLeft - 1, sampleGeneration);
+            }
+        });
+    }
+
+    private void next(int burstLeft, int sampleGeneration) {
+        if (sampleGeneration != generation) {
+            return;
+        }
+        if (burstLeft > 0) {
+            sample(burstLeft, sampleGeneration);
+            return;
+        }
+        scheduler.schedule(() -> {
+            if (sampleGeneration == generation) {
+                sample(1, sampleGeneration);
+            }
+        }, RESAMPLE_INTERVAL_MS);
+    }
+}
@@ -60,7 +60,7 @@ public class FirebaseProgressSyncManager implements ProgressSyncManager {
             return;
         }
 
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             try {
                 // Get local data
                 UserProgress localProgress = repository.getUserProgressDao().getUserProgressSync();
@@ -107,7 +107,7 @@ public class FirebaseProgressSyncManager implements ProgressSyncManager {
             return;
         }
 
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             try {
                 // Get local data
                 UserProgress localProgress = repository.getUserProgressDao().getUserProgressSync();
@@ -13,6 +13,7 @@ import android.os.Bundle;
 import android.os.CountDownTimer;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
 import android.text.Editable;
@@ -41,13 +42,16 @@ import com.debugmaster.app.R;
 import com.example.debugappproject.billing.BillingManager;
 import com.example.debugappproject.data.local.BugDao;
 import com.example.debugappproject.data.local.DebugMasterDatabase;
+import com.example.debugappproject.data.local.MentalProfileDao;
 import com.debugmaster.app.databinding.FragmentBattleArenaBinding;
 import com.debugmaster.app.databinding.LayoutBattleGameBinding;
 import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.multiplayer.BattleClock;
 import com.example.debugappproject.multiplayer.BattleRoom;
 import com.example.debugappproject.multiplayer.FirebaseMultiplayerManager;
 import com.example.debugappproject.util.AnimationUtil;
 import com.example.debugappproject.util.CodeComparator;
+import com.example.debugappproject.util.NormalizedCode;
 import com.example.debugappproject.util.SoundManager;
 
 import com.google.gson.Gson;
@@ -93,6 +97,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
     private BillingManager billingManager;
     private SoundManager soundManager;
     private BugDao bugDao;
+    private MentalProfileDao mentalProfileDao;
     private ExecutorService executor;
     private Handler handler = new Handler(Looper.getMainLooper());
     private SharedPreferences prefs;
@@ -125,7 +130,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
     private CountDownTimer matchmakingTimer;
     
     private Bug currentBug;
-    private CountDownTimer battleTimer;
+    private BattleClock battleClock;
     private String opponentName;
     private int timeRemaining = BATTLE_DURATION_SECONDS;
     private int timeTaken = 0;
@@ -193,6 +198,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
         billingManager = BillingManager.getInstance(requireContext());
         soundManager = SoundManager.getInstance(requireContext());
         bugDao = DebugMasterDatabase.getInstance(requireContext()).bugDao();
+        mentalProfileDao = DebugMasterDatabase.getInstance(requireContext()).mentalProfileDao();
         executor = Executors.newSingleThreadExecutor();
         prefs = requireContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         vibrator = (Vibrator) requireContext().getSystemService(Context.VIBRATOR_SERVICE);
@@ -425,30 +431,13 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
 
         Log.d(TAG, "Timer sync received: serverStartTime=" + serverStartTime + ", duration=" + battleDurationMs);
 
-        // Calculate remaining time
-        long now = System.currentTimeMillis();
-        long elapsed = now - serverStartTime;
-        long remaining = battleDurationMs - elapsed;
+        // Elapsed on the server clock, so both players count down to the same moment
+        long elapsed = battleClockNow() - serverStartTime;
+        Log.d(TAG, "Timer sync: elapsed=" + elapsed + "ms, remaining=" + (battleDurationMs - elapsed) + "ms");
 
-        Log.d(TAG, "Timer sync: elapsed=" + elapsed + "ms, remaining=" + remaining + "ms");
-
-        if (remaining <= 0) {
-            if (!playerSubmitted && currentState == GameState.BATTLE) {
-                endBattle(false, "⏰ Time ran out!");
-            }
-            return;
-        }
-
-        // Restart timer with synced time
-        if (battleTimer != null) {
-            battleTimer.cancel();
-        }
-
-        timeRemaining = (int) (remaining / 1000);
-        timeTaken = (int) (elapsed / 1000);
+        // Re-anchor the running clock on the room's start; it finishes the battle if time is already up
         timerStarted = true;
-
-        startBattleTimerWithDuration(remaining);
+        startBattleClock(serverStartTime, battleDurationMs);
     }
     
     @Override
@@ -1447,9 +1436,10 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
                     int bugCount = bugDao.getBugCount();
                     Random random = new Random();
                     int bugId = random.nextInt(Math.max(1, bugCount)) + 1;
+                    int elo = mentalProfileDao.getEloRating();
 
                     handler.post(() -> {
-                        multiplayerManager.startMatchmaking(requireContext(), bugId);
+                        multiplayerManager.startMatchmaking(requireContext(), bugId, elo);
                         startMatchmakingTimeout();
                     });
                 } catch (Exception e) {
@@ -1714,7 +1704,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
         
         // ALWAYS start timer immediately - will sync later if multiplayer
         if (!timerStarted) {
-            startBattleTimerWithDuration(BATTLE_DURATION_SECONDS * 1000L);
+            startBattleClock(battleClockNow(), BATTLE_DURATION_SECONDS * 1000L);
             timerStarted = true;
         }
         
@@ -1788,9 +1778,8 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
     }
     
     private void updatePlayerProgress(String currentCode) {
-        String fixedCode = currentBug.getFixedCode();
         String normalizedUser = CodeComparator.normalizeCode(currentCode);
-        String normalizedFixed = CodeComparator.normalizeCode(fixedCode);
+        String normalizedFixed = NormalizedCode.forFixedCode(currentBug).getNormalized();
         
         double similarity = CodeComparator.calculateSimilarity(normalizedUser, normalizedFixed);
         int progress = (int) (similarity * 100);
@@ -1838,48 +1827,61 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
         checkMilestone(progress);
     }
     
-    private void startBattleTimerWithDuration(long durationMs) {
-        if (battleTimer != null) {
-            battleTimer.cancel();
+    /**
+     * Server time in a real match (the room's startedAt is a server time), uptime against the AI
+     */
+    private long battleClockNow() {
+        if (isRealMultiplayer && multiplayerManager != null) {
+            return multiplayerManager.getServerTime();
         }
-        
-        battleTimer = new CountDownTimer(durationMs, 1000) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                timeRemaining = (int) (millisUntilFinished / 1000);
-                timeTaken = BATTLE_DURATION_SECONDS - timeRemaining;
-                
-                int minutes = timeRemaining / 60;
-                int seconds = timeRemaining % 60;
+        return SystemClock.elapsedRealtime();
+    }
+    
+    private void startBattleClock(long startedAt, long durationMs) {
+        if (battleClock == null) {
+            battleClock = new BattleClock(this::battleClockNow, new BattleClock.Listener() {
+                @Override
+                public void onTick(int secondsRemaining) {
+                    onBattleClockTick(secondsRemaining);
+                }
                 
-                if (battleBinding != null) {
-                    battleBinding.textBattleTimer.setText(String.format("%d:%02d", minutes, seconds));
-                    
-                    // Phase 1: Use centralized urgency handler
-                    updateTimerUrgency(timeRemaining);
-                    
-                    // Sound and toast notifications at key thresholds
-                    if (timeRemaining == 60) {
-                        soundManager.playSound(SoundManager.Sound.NOTIFICATION);
-                        Toast.makeText(requireContext(), "⏱️ 1 minute remaining!", Toast.LENGTH_SHORT).show();
-                    } else if (timeRemaining == 30) {
-                        soundManager.playSound(SoundManager.Sound.WARNING);
-                        vibratePattern(new long[]{0, 100, 50, 100});
-                        Toast.makeText(requireContext(), "⚠️ 30 seconds left!", Toast.LENGTH_SHORT).show();
-                    } else if (timeRemaining <= 10 && !playerSubmitted) {
-                        soundManager.playSound(SoundManager.Sound.WARNING);
-                        showFloatingEmoji("⏰", battleBinding.getRoot());
+                @Override
+                public void onFinished() {
+                    if (currentState == GameState.BATTLE && !playerSubmitted) {
+                        endBattle(false, "⏰ Time ran out!");
                     }
                 }
-            }
+            });
+        }
+        battleClock.start(startedAt, durationMs);
+    }
+    
+    private void onBattleClockTick(int secondsRemaining) {
+        timeRemaining = secondsRemaining;
+        timeTaken = BATTLE_DURATION_SECONDS - timeRemaining;
+        
+        int minutes = timeRemaining / 60;
+        int seconds = timeRemaining % 60;
+        
+        if (battleBinding != null) {
+            battleBinding.textBattleTimer.setText(String.format("%d:%02d", minutes, seconds));
             
-            @Override
-            public void onFinish() {
-                if (currentState == GameState.BATTLE && !playerSubmitted) {
-                    endBattle(false, "⏰ Time ran out!");
-                }
+            // Phase 1: Use centralized urgency handler
+            updateTimerUrgency(timeRemaining);
+            
+            // Sound and toast notifications at key thresholds
+            if (timeRemaining == 60) {
+                soundManager.playSound(SoundManager.Sound.NOTIFICATION);
+                Toast.makeText(requireContext(), "⏱️ 1 minute remaining!", Toast.LENGTH_SHORT).show();
+            } else if (timeRemaining == 30) {
+                soundManager.playSound(SoundManager.Sound.WARNING);
+                vibratePattern(new long[]{0, 100, 50, 100});
+                Toast.makeText(requireContext(), "⚠️ 30 seconds left!", Toast.LENGTH_SHORT).show();
+            } else if (timeRemaining <= 10 && !playerSubmitted) {
+                soundManager.playSound(SoundManager.Sound.WARNING);
+                showFloatingEmoji("⏰", battleBinding.getRoot());
             }
-        }.start();
+        }
     }
     
     private void startOpponentSimulation() {
@@ -1960,7 +1962,11 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
             return;
         }
         
-        if (CodeComparator.normalizeCode(userCode).equals(CodeComparator.normalizeCode(currentBug.getBrokenCode()))) {
+        NormalizedCode user = NormalizedCode.of(userCode);
+        NormalizedCode fixed = NormalizedCode.forFixedCode(currentBug);
+        NormalizedCode broken = NormalizedCode.forReference(currentBug.getBrokenCode());
+        
+        if (user.sameNormalizedCode(broken)) {
             soundManager.playSound(SoundManager.Sound.ERROR);
             Toast.makeText(requireContext(), "⚠️ You need to fix the bug first!", Toast.LENGTH_SHORT).show();
             AnimationUtil.shakeView(battleBinding.editBattleCode);
@@ -1975,14 +1981,10 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
         battleBinding.textPlayerStatus.setText("⏳ Checking...");
         
         // Validate solution
-        String normalizedUser = CodeComparator.normalizeCode(userCode);
-        String normalizedFixed = CodeComparator.normalizeCode(currentBug.getFixedCode());
-        String normalizedBroken = CodeComparator.normalizeCode(currentBug.getBrokenCode());
-        
-        double similarityToFixed = CodeComparator.calculateSimilarity(normalizedUser, normalizedFixed);
-        double similarityToBroken = CodeComparator.calculateSimilarity(normalizedUser, normalizedBroken);
+        double similarityToFixed = CodeComparator.calculateSimilarity(user.getNormalized(), fixed.getNormalized());
+        double similarityToBroken = CodeComparator.calculateSimilarity(user.getNormalized(), broken.getNormalized());
         
-        boolean isCorrect = CodeComparator.codesMatch(userCode, currentBug.getFixedCode());
+        boolean isCorrect = CodeComparator.codesMatch(user, fixed);
         
         // Flexible matching
         if (!isCorrect && similarityToFixed >= 0.98 && similarityToFixed > similarityToBroken + 0.05) {
@@ -2065,7 +2067,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
         if (currentState == GameState.RESULT) return;
         currentState = GameState.RESULT;
         
-        if (battleTimer != null) battleTimer.cancel();
+        if (battleClock != null) battleClock.stop();
         if (opponentProgressAnimator != null) opponentProgressAnimator.cancel();
         handler.removeCallbacksAndMessages(null);
         
@@ -2295,7 +2297,7 @@ public class BattleArenaFragment extends Fragment implements FirebaseMultiplayer
     public void onDestroyView() {
         super.onDestroyView();
         handler.removeCallbacksAndMessages(null);
-        if (battleTimer != null) battleTimer.cancel();
+        if (battleClock != null) battleClock.stop();
         if (matchmakingTimer != null) matchmakingTimer.cancel();
         if (opponentProgressAnimator != null) opponentProgressAnimator.cancel();
         
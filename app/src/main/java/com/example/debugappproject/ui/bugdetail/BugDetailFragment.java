@@ -30,10 +30,12 @@ import com.example.debugappproject.ui.animation.ConfettiAnimationView;
 import com.example.debugappproject.ui.mentor.AIMentorBottomSheet;
 import com.example.debugappproject.ui.settings.SettingsFragment;
 import com.example.debugappproject.util.AIMentor;
+import com.example.debugappproject.util.AchievementManager;
 import com.example.debugappproject.util.AnimationUtil;
 import com.example.debugappproject.util.CelebrationManager;
 import com.example.debugappproject.util.CodeComparator;
 import com.example.debugappproject.util.EditorThemeManager;
+import com.example.debugappproject.util.NormalizedCode;
 import com.example.debugappproject.util.SoundManager;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.gson.Gson;
@@ -307,18 +309,20 @@ public class BugDetailFragment extends Fragment {
                 String userCode = binding.editUserCode.getText().toString();
                 
                 // Check if user modified the code at all
-                String originalBroken = currentBug.getBrokenCode().trim();
-                if (CodeComparator.normalizeCode(userCode).equals(CodeComparator.normalizeCode(originalBroken))) {
+                NormalizedCode user = NormalizedCode.of(userCode);
+                NormalizedCode originalBroken = NormalizedCode.forReference(currentBug.getBrokenCode());
+                if (user.sameNormalizedCode(originalBroken)) {
                     soundManager.playSound(SoundManager.Sound.ERROR);
                     Toast.makeText(requireContext(), R.string.error_fix_bug_first, Toast.LENGTH_SHORT).show();
                     return;
                 }
                 
                 // Check if the fix is correct
-                boolean isCorrect = CodeComparator.codesMatch(userCode, currentBug.getFixedCode());
+                NormalizedCode fixed = NormalizedCode.forFixedCode(currentBug);
+                boolean isCorrect = CodeComparator.codesMatch(user, fixed);
                 double similarity = CodeComparator.calculateSimilarity(
-                    CodeComparator.normalizeCode(userCode),
-                    CodeComparator.normalizeCode(currentBug.getFixedCode())
+                    user.getNormalized(),
+                    fixed.getNormalized()
                 );
 
                 if (!isCorrect && similarity < 0.90) {
@@ -544,8 +548,9 @@ public class BugDetailFragment extends Fragment {
         }
 
         // Check if user just submitted the original broken code
-        String originalBroken = currentBug.getBrokenCode().trim();
-        if (CodeComparator.normalizeCode(userCode).equals(CodeComparator.normalizeCode(originalBroken))) {
+        NormalizedCode user = NormalizedCode.of(userCode);
+        NormalizedCode originalBroken = NormalizedCode.forReference(currentBug.getBrokenCode());
+        if (user.sameNormalizedCode(originalBroken)) {
             soundManager.playSound(SoundManager.Sound.ERROR);
             Toast.makeText(requireContext(), R.string.error_fix_bug_first, Toast.LENGTH_SHORT).show();
             return;
@@ -558,9 +563,8 @@ public class BugDetailFragment extends Fragment {
 
         new Thread(() -> {
             // Calculate similarity for feedback
-            String normalizedUser = CodeComparator.normalizeCode(userCode);
-            String normalizedFixed = CodeComparator.normalizeCode(currentBug.getFixedCode());
-            double similarity = CodeComparator.calculateSimilarity(normalizedUser, normalizedFixed);
+            NormalizedCode fixed = NormalizedCode.forFixedCode(currentBug);
+            double similarity = CodeComparator.calculateSimilarity(user.getNormalized(), fixed.getNormalized());
             
             Log.d(TAG, "=== Validation ===");
             Log.d(TAG, "User code length: " + userCode.length());
@@ -568,7 +572,7 @@ public class BugDetailFragment extends Fragment {
             Log.d(TAG, "Similarity: " + (int)(similarity * 100) + "%");
             
             // Check if codes match (strict comparison)
-            boolean codeMatches = CodeComparator.codesMatch(userCode, currentBug.getFixedCode());
+            boolean codeMatches = CodeComparator.codesMatch(user, fixed);
             
             Log.d(TAG, "Code matches: " + codeMatches);
             
@@ -750,7 +754,10 @@ public class BugDetailFragment extends Fragment {
         displayTestResults();
 
         if (!currentBug.isCompleted()) {
-            viewModel.markBugAsCompletedWithXP(currentBug.getId(), currentBug.getDifficulty());
+            // Check achievements against the totals the completion write returns
+            AchievementManager achievements = AchievementManager.getInstance(requireContext());
+            viewModel.markBugAsCompletedWithXP(currentBug.getId(), currentBug.getDifficulty(),
+                    achievements::checkAchievements);
             currentBug.setCompleted(true);
 
             new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
@@ -844,6 +851,8 @@ public class BugDetailFragment extends Fragment {
             addErrorHint("💡 Check for array bounds, null values, and division by zero.");
         } else if ("TIMEOUT_ERROR".equals(result.getErrorType())) {
             addErrorHint("💡 Check for infinite loops or excessive recursion.");
+        } else if ("RESOURCE_LIMIT_ERROR".equals(result.getErrorType())) {
+            addErrorHint("💡 Check loop conditions and avoid printing inside long loops.");
         }
 
         AnimationUtil.shakeView(binding.cardTestResults);
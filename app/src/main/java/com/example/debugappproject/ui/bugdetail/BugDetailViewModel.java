@@ -9,8 +9,10 @@ import com.example.debugappproject.model.Bug;
 import com.example.debugappproject.model.Hint;
 import com.example.debugappproject.model.Lesson;
 import com.example.debugappproject.model.LessonQuestion;
+import com.example.debugappproject.model.UserProgress;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 
@@ -57,7 +59,7 @@ public class BugDetailViewModel extends ViewModel {
         hints = repository.getHintsForBug(bugId);
 
         // Load lesson and quiz questions in background
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             Lesson lessonData = repository.getLessonDao().getLessonForBugSync(bugId);
             lesson.postValue(lessonData);
 
@@ -148,8 +150,16 @@ public class BugDetailViewModel extends ViewModel {
      * - Bonus +5 XP if solved without hints
      */
     public void markBugAsCompletedWithXP(int bugId, String difficulty) {
+        markBugAsCompletedWithXP(bugId, difficulty, null);
+    }
+
+    /**
+     * Same as above; onSaved receives the new progress totals once the
+     * completion is written (on a background thread).
+     */
+    public void markBugAsCompletedWithXP(int bugId, String difficulty, Consumer<UserProgress> onSaved) {
         boolean solvedWithoutHints = (hintsUsedForCurrentBug == 0);
-        repository.markBugAsCompletedWithXP(bugId, difficulty, solvedWithoutHints);
+        repository.markBugAsCompletedWithXP(bugId, difficulty, solvedWithoutHints, onSaved);
     }
 
     /**
@@ -6,19 +6,19 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.debugmaster.app.R;
-import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.util.AnimationUtil;
 import com.google.android.material.chip.Chip;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * RecyclerView Adapter for displaying list of bugs.
+ * Paging adapter for displaying list of bugs.
+ *
+ * Binds {@link BugSummary} rows only; the detail screen loads the full bug.
  *
  * Features:
  * - Material 3 chip-based design for difficulty and category
@@ -26,16 +26,16 @@ import java.util.List;
  * - Checkmark indicator for completed bugs
  * - Card-based layout with ripple effects
  */
-public class BugAdapter extends RecyclerView.Adapter<BugAdapter.BugViewHolder> {
+public class BugAdapter extends PagingDataAdapter<BugSummary, BugAdapter.BugViewHolder> {
 
-    private List<Bug> bugs = new ArrayList<>();
     private OnBugClickListener clickListener;
 
     public interface OnBugClickListener {
-        void onBugClick(Bug bug);
+        void onBugClick(BugSummary bug);
     }
 
     public BugAdapter(OnBugClickListener listener) {
+        super(DIFF_CALLBACK);
         this.clickListener = listener;
     }
 
@@ -49,68 +49,29 @@ public class BugAdapter extends RecyclerView.Adapter<BugAdapter.BugViewHolder> {
 
     @Override
     public void onBindViewHolder(@NonNull BugViewHolder holder, int position) {
-        Bug bug = bugs.get(position);
-        holder.bind(bug, clickListener);
-    }
-
-    @Override
-    public int getItemCount() {
-        return bugs.size();
-    }
-
-    /**
-     * Updates the list using DiffUtil for smooth animations.
-     */
-    public void submitList(List<Bug> newBugs) {
-        List<Bug> newList = newBugs != null ? newBugs : new ArrayList<>();
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
-                new BugDiffCallback(this.bugs, newList)
-        );
-        this.bugs = new ArrayList<>(newList);
-        diffResult.dispatchUpdatesTo(this);
+        BugSummary bug = getItem(position);
+        if (bug != null) {
+            holder.bind(bug, clickListener);
+        }
     }
 
     /**
      * DiffUtil callback for efficient bug list updates.
      */
-    private static class BugDiffCallback extends DiffUtil.Callback {
-        private final List<Bug> oldList;
-        private final List<Bug> newList;
-
-        public BugDiffCallback(List<Bug> oldList, List<Bug> newList) {
-            this.oldList = oldList;
-            this.newList = newList;
-        }
-
-        @Override
-        public int getOldListSize() {
-            return oldList.size();
-        }
-
+    private static final DiffUtil.ItemCallback<BugSummary> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<BugSummary>() {
         @Override
-        public int getNewListSize() {
-            return newList.size();
-        }
-
-        @Override
-        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        public boolean areItemsTheSame(@NonNull BugSummary oldItem, @NonNull BugSummary newItem) {
             // Same bug if IDs match
-            return oldList.get(oldItemPosition).getId() ==
-                   newList.get(newItemPosition).getId();
+            return oldItem.getId() == newItem.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-            Bug oldBug = oldList.get(oldItemPosition);
-            Bug newBug = newList.get(newItemPosition);
-
-            // Compare all displayed properties
-            return oldBug.getTitle().equals(newBug.getTitle()) &&
-                   oldBug.getDifficulty().equals(newBug.getDifficulty()) &&
-                   oldBug.getCategory().equals(newBug.getCategory()) &&
-                   oldBug.isCompleted() == newBug.isCompleted();
+        public boolean areContentsTheSame(@NonNull BugSummary oldItem, @NonNull BugSummary newItem) {
+            // Every summary column is displayed or used on click
+            return oldItem.equals(newItem);
         }
-    }
+    };
 
     static class BugViewHolder extends RecyclerView.ViewHolder {
         private final TextView titleText;
@@ -130,7 +91,7 @@ public class BugAdapter extends RecyclerView.Adapter<BugAdapter.BugViewHolder> {
          * Binds bug data to the view holder.
          * Sets chip colors based on difficulty level.
          */
-        public void bind(Bug bug, OnBugClickListener listener) {
+        public void bind(BugSummary bug, OnBugClickListener listener) {
             titleText.setText(bug.getTitle());
 
             // Set difficulty chip
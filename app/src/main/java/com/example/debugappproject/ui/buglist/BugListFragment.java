@@ -14,15 +14,17 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.debugmaster.app.R;
 import com.debugmaster.app.databinding.FragmentBugListBinding;
-import com.example.debugappproject.model.Bug;
 import com.example.debugappproject.util.Constants;
 import com.example.debugappproject.util.SoundManager;
 import com.google.android.material.chip.Chip;
 
+import kotlin.Unit;
+
 /**
  * ╔══════════════════════════════════════════════════════════════════════════════╗
  * ║           DEBUGMASTER - BUG LIST FRAGMENT                                    ║
@@ -257,35 +259,44 @@ public class BugListFragment extends Fragment {
      * Sets up observers for filtered bugs list with animations.
      */
     private void setupObservers() {
-        viewModel.getFilteredBugs().observe(getViewLifecycleOwner(), bugs -> {
-            adapter.submitList(bugs);
-
-            // Show empty state if no bugs match filters
-            if (bugs == null || bugs.isEmpty()) {
-                binding.layoutEmptyState.setVisibility(View.VISIBLE);
-                binding.recyclerViewBugs.setVisibility(View.GONE);
-                
-                // Play notification sound for empty state
-                soundManager.playSound(SoundManager.Sound.NOTIFICATION);
-                
-                // Animate empty state
-                binding.layoutEmptyState.setAlpha(0f);
-                binding.layoutEmptyState.setScaleX(0.8f);
-                binding.layoutEmptyState.setScaleY(0.8f);
-                binding.layoutEmptyState.animate()
-                        .alpha(1f)
-                        .scaleX(1f)
-                        .scaleY(1f)
-                        .setDuration(300)
-                        .setInterpolator(new OvershootInterpolator())
-                        .start();
-            } else {
-                binding.layoutEmptyState.setVisibility(View.GONE);
-                binding.recyclerViewBugs.setVisibility(View.VISIBLE);
+        viewModel.getFilteredBugs().observe(getViewLifecycleOwner(), pagingData ->
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
+
+        // Show empty state once a load finishes with no bugs matching the filters
+        adapter.addLoadStateListener(loadStates -> {
+            if (binding != null && loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                showEmptyState(adapter.getItemCount() == 0);
             }
+            return Unit.INSTANCE;
         });
     }
 
+    private void showEmptyState(boolean empty) {
+        boolean wasEmpty = binding.layoutEmptyState.getVisibility() == View.VISIBLE;
+        if (empty && !wasEmpty) {
+            binding.layoutEmptyState.setVisibility(View.VISIBLE);
+            binding.recyclerViewBugs.setVisibility(View.GONE);
+
+            // Play notification sound for empty state
+            soundManager.playSound(SoundManager.Sound.NOTIFICATION);
+
+            // Animate empty state
+            binding.layoutEmptyState.setAlpha(0f);
+            binding.layoutEmptyState.setScaleX(0.8f);
+            binding.layoutEmptyState.setScaleY(0.8f);
+            binding.layoutEmptyState.animate()
+                    .alpha(1f)
+                    .scaleX(1f)
+                    .scaleY(1f)
+                    .setDuration(300)
+                    .setInterpolator(new OvershootInterpolator())
+                    .start();
+        } else if (!empty) {
+            binding.layoutEmptyState.setVisibility(View.GONE);
+            binding.recyclerViewBugs.setVisibility(View.VISIBLE);
+        }
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -1,19 +1,24 @@
 package com.example.debugappproject.ui.buglist;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.debugappproject.data.repository.BugRepository;
-import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.util.Constants;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
 /**
  * ViewModel for BugListFragment.
@@ -21,64 +26,52 @@ import java.util.List;
  */
 public class BugListViewModel extends AndroidViewModel {
 
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     private final BugRepository repository;
-    private final LiveData<List<Bug>> allBugs;
     private final MutableLiveData<String> selectedDifficulty;
     private final MutableLiveData<String> selectedCategory;
     private final MutableLiveData<String> searchQuery;
-    private final LiveData<List<Bug>> filteredBugs;
+    private final LiveData<PagingData<BugSummary>> filteredBugs;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable pendingSearch = this::applyPendingQuery;
+    private String pendingQuery = "";
 
     public BugListViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
-        allBugs = repository.getAllBugs();
+        repository = BugRepository.getInstance(application);
 
         // Initialize filters
         selectedDifficulty = new MutableLiveData<>(Constants.DIFFICULTY_ALL);
         selectedCategory = new MutableLiveData<>(Constants.CATEGORY_ALL);
         searchQuery = new MutableLiveData<>("");
 
-        // Create filtered bugs LiveData based on selected filters and search query
-        filteredBugs = Transformations.switchMap(selectedDifficulty, difficulty ->
-            Transformations.switchMap(selectedCategory, category ->
-                Transformations.switchMap(searchQuery, query ->
-                    Transformations.map(allBugs, bugs -> filterBugs(bugs, difficulty, category, query))
-                )
-            )
-        );
+        // One filter value per change of difficulty, category or (debounced) search text.
+        MediatorLiveData<BugFilter> filter = new MediatorLiveData<>();
+        filter.addSource(selectedDifficulty, value -> filter.setValue(currentFilter()));
+        filter.addSource(selectedCategory, value -> filter.setValue(currentFilter()));
+        filter.addSource(searchQuery, value -> filter.setValue(currentFilter()));
+
+        // Query the search index whenever the filter changes.
+        // switchMap drops the previous query's LiveData, so stale results are never delivered.
+        // Pages are cached once, on the final result, so a configuration change doesn't
+        // reload them and abandoned queries don't keep a cached Pager alive.
+        filteredBugs = PagingLiveData.cachedIn(
+            Transformations.switchMap(Transformations.distinctUntilChanged(filter), current ->
+                repository.searchBugSummaries(current.query, current.difficulty, current.category)),
+            ViewModelKt.getViewModelScope(this));
     }
 
-    /**
-     * Filter bugs based on difficulty, category, and search query.
-     * Searches in bug title and description (case-insensitive).
-     */
-    private List<Bug> filterBugs(List<Bug> bugs, String difficulty, String category, String query) {
-        if (bugs == null) {
-            return new ArrayList<>();
-        }
-
-        List<Bug> filtered = new ArrayList<>();
-        String lowerQuery = query != null ? query.toLowerCase().trim() : "";
-
-        for (Bug bug : bugs) {
-            boolean matchesDifficulty = difficulty.equals(Constants.DIFFICULTY_ALL) ||
-                                       bug.getDifficulty().equals(difficulty);
-            boolean matchesCategory = category.equals(Constants.CATEGORY_ALL) ||
-                                     bug.getCategory().equals(category);
-
-            // Search in title and description
-            boolean matchesSearch = lowerQuery.isEmpty() ||
-                                   bug.getTitle().toLowerCase().contains(lowerQuery) ||
-                                   bug.getDescription().toLowerCase().contains(lowerQuery);
-
-            if (matchesDifficulty && matchesCategory && matchesSearch) {
-                filtered.add(bug);
-            }
-        }
-        return filtered;
+    private BugFilter currentFilter() {
+        return new BugFilter(selectedDifficulty.getValue(), selectedCategory.getValue(),
+                searchQuery.getValue());
     }
 
-    public LiveData<List<Bug>> getFilteredBugs() {
+    /**
+     * Paged summaries of the bugs matching the current filters and search.
+     */
+    public LiveData<PagingData<BugSummary>> getFilteredBugs() {
         return filteredBugs;
     }
 
@@ -100,25 +93,61 @@ public class BugListViewModel extends AndroidViewModel {
 
     /**
      * Sets the search query for filtering bugs.
-     * Searches in title and description fields.
+     * Searches title, description, category, language, hint and explanation.
+     *
+     * Typing is debounced: the search runs once the text has been unchanged for
+     * SEARCH_DEBOUNCE_MS, and each new keystroke cancels the pending search.
+     * Clearing the text applies immediately.
      */
     public void setSearchQuery(String query) {
-        searchQuery.setValue(query);
+        mainHandler.removeCallbacks(pendingSearch);
+        pendingQuery = query != null ? query : "";
+        if (pendingQuery.trim().isEmpty()) {
+            pendingSearch.run();
+        } else {
+            mainHandler.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
+        }
     }
 
-    /**
-     * Get all bugs without filters.
-     */
-    public LiveData<List<Bug>> getBugs() {
-        return allBugs;
+    private void applyPendingQuery() {
+        if (!pendingQuery.equals(searchQuery.getValue())) {
+            searchQuery.setValue(pendingQuery);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        mainHandler.removeCallbacks(pendingSearch);
+        super.onCleared();
     }
 
     /**
-     * Trigger loading all bugs from repository.
-     * This is used by game modes that need to load bugs.
+     * Difficulty, category and search text applied together to the bug list.
      */
-    public void loadAllBugs() {
-        // The allBugs LiveData is already observing the repository
-        // This method exists for consistency with other ViewModels
+    private static final class BugFilter {
+        final String difficulty;
+        final String category;
+        final String query;
+
+        BugFilter(String difficulty, String category, String query) {
+            this.difficulty = difficulty;
+            this.category = category;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BugFilter)) return false;
+            BugFilter other = (BugFilter) o;
+            return Objects.equals(difficulty, other.difficulty)
+                    && Objects.equals(category, other.category)
+                    && Objects.equals(query, other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(difficulty, category, query);
+        }
     }
 }
@@ -122,7 +122,7 @@ public class BugOfTheDayFragment extends Fragment {
      * Checks if today's bug has been completed and updates button text.
      */
     private void checkIfCompleted(int bugId) {
-        viewModel.getRepository().getExecutorService().execute(() -> {
+        viewModel.getRepository().getReadExecutor().execute(() -> {
             boolean isCompleted = viewModel.getRepository().getBugDao().isBugCompleted(bugId);
 
             if (getActivity() != null) {
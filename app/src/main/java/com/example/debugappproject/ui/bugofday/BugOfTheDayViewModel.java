@@ -23,7 +23,7 @@ public class BugOfTheDayViewModel extends AndroidViewModel {
 
     public BugOfTheDayViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
         loadTodaysBug();
     }
 
@@ -31,7 +31,7 @@ public class BugOfTheDayViewModel extends AndroidViewModel {
      * Loads today's bug based on actual bug count in database.
      */
     private void loadTodaysBug() {
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             try {
                 // Get actual bug count from database
                 int totalBugs = repository.getBugDao().getBugCount();
@@ -29,13 +29,12 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
-import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 
 import com.debugmaster.app.R;
 import com.debugmaster.app.databinding.FragmentGameSessionBinding;
+import com.example.debugappproject.data.repository.BugRepository;
 import com.example.debugappproject.model.Bug;
-import com.example.debugappproject.ui.buglist.BugListViewModel;
 import com.example.debugappproject.util.CelebrationManager;
 import com.example.debugappproject.util.SoundManager;
 import com.example.debugappproject.ui.shop.ShopFragment;
@@ -119,7 +118,7 @@ public class GameSessionFragment extends Fragment {
     }
 
     private FragmentGameSessionBinding binding;
-    private BugListViewModel viewModel;
+    private BugRepository repository;
     private SoundManager soundManager;
     private CelebrationManager celebrationManager;
     private SharedPreferences prefs;
@@ -205,7 +204,7 @@ public class GameSessionFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        viewModel = new ViewModelProvider(this).get(BugListViewModel.class);
+        repository = BugRepository.getInstance(requireContext());
         soundManager = SoundManager.getInstance(requireContext());
         celebrationManager = new CelebrationManager(requireContext());
         prefs = requireContext().getSharedPreferences("game_session_prefs", Context.MODE_PRIVATE);
@@ -540,7 +539,7 @@ public class GameSessionFragment extends Fragment {
     }
 
     private void setupObservers() {
-        viewModel.getBugs().observe(getViewLifecycleOwner(), bugs -> {
+        repository.getAllBugs().observe(getViewLifecycleOwner(), bugs -> {
             if (bugs != null && !bugs.isEmpty()) {
                 List<Bug> shuffled = new ArrayList<>(bugs);
                 Collections.shuffle(shuffled, random);
@@ -572,7 +571,6 @@ public class GameSessionFragment extends Fragment {
     private void loadBugsForSession() {
         binding.layoutLoading.setVisibility(View.VISIBLE);
         binding.layoutGame.setVisibility(View.GONE);
-        viewModel.loadAllBugs();
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
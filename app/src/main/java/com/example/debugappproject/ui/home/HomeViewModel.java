@@ -6,9 +6,10 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 
 import com.example.debugappproject.data.repository.BugRepository;
-import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.model.UserProgress;
 
 import java.util.Calendar;
@@ -21,16 +22,19 @@ public class HomeViewModel extends AndroidViewModel {
 
     private final BugRepository repository;
     private final LiveData<UserProgress> userProgress;
-    private final LiveData<List<Bug>> allBugs;
-    private final MutableLiveData<Bug> dailyChallenge = new MutableLiveData<>();
+    private final LiveData<List<BugSummary>> allBugs;
+    private final MutableLiveData<BugSummary> dailyChallenge = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(true);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final Observer<List<BugSummary>> dailyChallengePicker = this::pickDailyChallenge;
 
     public HomeViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
         userProgress = repository.getUserProgress();
-        allBugs = repository.getAllBugs();
+        // The home screen shows only the title and opens the bug by id,
+        // so summaries are enough here
+        allBugs = repository.getAllBugSummaries();
 
         repository.updateLastOpenedTimestamp();
         loadDailyChallenge();
@@ -38,14 +42,23 @@ public class HomeViewModel extends AndroidViewModel {
 
     private void loadDailyChallenge() {
         isLoading.setValue(true);
-        allBugs.observeForever(bugs -> {
-            if (bugs != null && !bugs.isEmpty()) {
-                int dayOfYear = Calendar.getInstance().get(Calendar.DAY_OF_YEAR);
-                int bugIndex = dayOfYear % bugs.size();
-                dailyChallenge.postValue(bugs.get(bugIndex));
-            }
-            isLoading.postValue(false);
-        });
+        allBugs.removeObserver(dailyChallengePicker);
+        allBugs.observeForever(dailyChallengePicker);
+    }
+
+    private void pickDailyChallenge(List<BugSummary> bugs) {
+        if (bugs != null && !bugs.isEmpty()) {
+            int dayOfYear = Calendar.getInstance().get(Calendar.DAY_OF_YEAR);
+            int bugIndex = dayOfYear % bugs.size();
+            dailyChallenge.postValue(bugs.get(bugIndex));
+        }
+        isLoading.postValue(false);
+    }
+
+    @Override
+    protected void onCleared() {
+        allBugs.removeObserver(dailyChallengePicker);
+        super.onCleared();
     }
 
     public LiveData<Boolean> getIsLoading() {
@@ -65,11 +78,11 @@ public class HomeViewModel extends AndroidViewModel {
         return userProgress;
     }
 
-    public LiveData<Bug> getDailyChallenge() {
+    public LiveData<BugSummary> getDailyChallenge() {
         return dailyChallenge;
     }
 
-    public LiveData<List<Bug>> getAllBugs() {
+    public LiveData<List<BugSummary>> getAllBugs() {
         return allBugs;
     }
 }
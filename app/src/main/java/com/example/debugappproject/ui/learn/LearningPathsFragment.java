@@ -22,7 +22,6 @@ import com.debugmaster.app.databinding.FragmentLearningPathsBinding;
 import com.example.debugappproject.model.LearningPath;
 import com.example.debugappproject.util.SoundManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -285,7 +284,8 @@ public class LearningPathsFragment extends Fragment {
             return;
         }
 
-        viewModel.getAllPaths().observe(getViewLifecycleOwner(), paths -> {
+        // Paths arrive already joined with their bug counts from one grouped query
+        viewModel.getPathsWithProgress().observe(getViewLifecycleOwner(), paths -> {
             android.util.Log.d(TAG, "Paths received: " + (paths != null ? paths.size() : "null"));
 
             if (binding == null) return;
@@ -304,59 +304,14 @@ public class LearningPathsFragment extends Fragment {
                 if (binding.layoutEmpty != null) {
                     binding.layoutEmpty.setVisibility(View.GONE);
                 }
-                loadPathsWithProgress(paths);
+                if (adapter != null) {
+                    adapter.setPaths(paths);
+                }
+                updateTotalProgress(paths);
             }
         });
     }
 
-    private void loadPathsWithProgress(List<LearningPath> paths) {
-        if (paths == null || paths.isEmpty() || adapter == null) {
-            return;
-        }
-
-        // Create list with 0 progress initially
-        List<PathWithProgress> pathsWithProgress = new ArrayList<>();
-        for (LearningPath path : paths) {
-            pathsWithProgress.add(new PathWithProgress(path, 0, 0));
-        }
-
-        // Update adapter immediately
-        adapter.setPaths(pathsWithProgress);
-
-        // Load actual progress for each path
-        for (int i = 0; i < paths.size(); i++) {
-            final int index = i;
-            LearningPath path = paths.get(i);
-
-            try {
-                // Safety check: only observe if fragment is still attached
-                if (!isAdded() || getView() == null) return;
-
-                viewModel.getBugCountInPath(path.getId()).observe(getViewLifecycleOwner(), total -> {
-                    // Safety check: fragment might be destroyed between observer callbacks
-                    if (!isAdded() || binding == null || adapter == null) return;
-
-                    if (total != null && total > 0) {
-                        viewModel.getCompletedBugCountInPath(path.getId()).observe(getViewLifecycleOwner(), completed -> {
-                            // Safety check again for nested observer
-                            if (!isAdded() || binding == null || adapter == null) return;
-
-                            if (completed != null && index < pathsWithProgress.size()) {
-                                pathsWithProgress.set(index, new PathWithProgress(path, total, completed));
-                                adapter.notifyItemChanged(index);
-
-                                // Update total progress
-                                updateTotalProgress(pathsWithProgress);
-                            }
-                        });
-                    }
-                });
-            } catch (Exception e) {
-                android.util.Log.e(TAG, "Error loading progress for path " + path.getId(), e);
-            }
-        }
-    }
-
     private void updateTotalProgress(List<PathWithProgress> paths) {
         int totalBugs = 0;
         int completedBugs = 0;
@@ -532,27 +532,6 @@ public class LearningPathsFragmentV2 extends Fragment {
                 cardProBanner.setVisibility(View.GONE);
             }
         });
-
-        // Load path progress
-        viewModel.getAllPaths().observe(getViewLifecycleOwner(), paths -> {
-            if (paths != null) {
-                for (LearningPath path : paths) {
-                    loadPathProgress(path.getId());
-                }
-            }
-        });
-    }
-
-    private void loadPathProgress(int pathId) {
-        viewModel.getBugCountInPath(pathId).observe(getViewLifecycleOwner(), total -> {
-            if (total != null && total > 0) {
-                viewModel.getCompletedBugCountInPath(pathId).observe(getViewLifecycleOwner(), completed -> {
-                    if (completed != null) {
-                        viewModel.updatePathProgress(pathId, total, completed);
-                    }
-                });
-            }
-        });
     }
 
     private void updateHeaderStats(UserProgress progress) {
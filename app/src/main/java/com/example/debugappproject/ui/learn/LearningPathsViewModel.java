@@ -5,9 +5,11 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 
 import com.example.debugappproject.data.repository.BugRepository;
 import com.example.debugappproject.model.LearningPath;
+import com.example.debugappproject.model.PathBugCounts;
 
 import java.util.List;
 
@@ -19,28 +21,34 @@ public class LearningPathsViewModel extends AndroidViewModel {
 
     private final BugRepository repository;
     private final LiveData<List<LearningPath>> allPaths;
+    private final LiveData<List<PathBugCounts>> pathCounts;
+    private final MediatorLiveData<List<PathWithProgress>> pathsWithProgress = new MediatorLiveData<>();
 
     public LearningPathsViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
         allPaths = repository.getAllLearningPaths();
+        pathCounts = repository.getPathBugCounts();
+
+        pathsWithProgress.addSource(allPaths, paths -> joinProgress());
+        pathsWithProgress.addSource(pathCounts, counts -> joinProgress());
     }
 
-    public LiveData<List<LearningPath>> getAllPaths() {
-        return allPaths;
+    private void joinProgress() {
+        List<LearningPath> paths = allPaths.getValue();
+        if (paths != null) {
+            pathsWithProgress.setValue(PathWithProgress.join(paths, pathCounts.getValue()));
+        }
     }
 
-    /**
-     * Get total bug count in a path.
-     */
-    public LiveData<Integer> getBugCountInPath(int pathId) {
-        return repository.getBugCountInPath(pathId);
+    public LiveData<List<LearningPath>> getAllPaths() {
+        return allPaths;
     }
 
     /**
-     * Get completed bug count in a path.
+     * All paths with their bug counts, updated from one grouped count query.
      */
-    public LiveData<Integer> getCompletedBugCountInPath(int pathId) {
-        return repository.getCompletedBugCountInPath(pathId);
+    public LiveData<List<PathWithProgress>> getPathsWithProgress() {
+        return pathsWithProgress;
     }
 }
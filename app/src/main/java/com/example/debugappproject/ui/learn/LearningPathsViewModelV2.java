@@ -11,6 +11,7 @@ import androidx.lifecycle.MutableLiveData;
 import com.example.debugappproject.data.repository.BugRepository;
 import com.example.debugappproject.model.Bug;
 import com.example.debugappproject.model.LearningPath;
+import com.example.debugappproject.model.PathBugCounts;
 import com.example.debugappproject.model.UserProgress;
 import com.example.debugappproject.util.DailyBugHuntManager;
 
@@ -58,6 +59,7 @@ public class LearningPathsViewModelV2 extends AndroidViewModel {
     
     // Source data
     private final LiveData<List<LearningPath>> allPathsSource;
+    private final LiveData<List<PathBugCounts>> pathCountsSource;
     private final LiveData<UserProgress> userProgressSource;
     
     // Filtered data
@@ -81,16 +83,24 @@ public class LearningPathsViewModelV2 extends AndroidViewModel {
 
     public LearningPathsViewModelV2(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
         dailyBugHuntManager = new DailyBugHuntManager(application);
         
         allPathsSource = repository.getAllLearningPaths();
+        pathCountsSource = repository.getPathBugCounts();
         userProgressSource = repository.getUserProgress();
         
         // Set up filtered paths as mediator
+        // Paths and their bug counts come from two queries; rebuild when either changes
         filteredPaths.addSource(allPathsSource, paths -> {
             if (paths != null) {
-                loadPathsWithProgress(paths);
+                loadPathsWithProgress(paths, pathCountsSource.getValue());
+            }
+        });
+        filteredPaths.addSource(pathCountsSource, counts -> {
+            List<LearningPath> paths = allPathsSource.getValue();
+            if (paths != null) {
+                loadPathsWithProgress(paths, counts);
             }
         });
         
@@ -147,14 +157,6 @@ public class LearningPathsViewModelV2 extends AndroidViewModel {
         return allPathsSource;
     }
 
-    public LiveData<Integer> getBugCountInPath(int pathId) {
-        return repository.getBugCountInPath(pathId);
-    }
-
-    public LiveData<Integer> getCompletedBugCountInPath(int pathId) {
-        return repository.getCompletedBugCountInPath(pathId);
-    }
-
     // ═══════════════════════════════════════════════════════════════════════
     // FILTER ACTIONS
     // ═══════════════════════════════════════════════════════════════════════
@@ -186,21 +188,19 @@ public class LearningPathsViewModelV2 extends AndroidViewModel {
     // INTERNAL: Load paths with progress
     // ═══════════════════════════════════════════════════════════════════════
 
-    private void loadPathsWithProgress(List<LearningPath> paths) {
+    private void loadPathsWithProgress(List<LearningPath> paths, List<PathBugCounts> counts) {
         if (paths == null || paths.isEmpty()) {
             allPathsWithProgress = new ArrayList<>();
             applyFilters();
             return;
         }
 
-        // Create PathWithProgress for each path (with 0 progress initially)
-        List<PathWithProgress> result = new ArrayList<>();
+        // Counts for all paths come from one grouped query, joined in memory
+        List<PathWithProgress> result = PathWithProgress.join(paths, counts);
         Set<String> categories = new HashSet<>();
         categories.add(CATEGORY_ALL);
         
         for (LearningPath path : paths) {
-            result.add(new PathWithProgress(path, 0, 0));
-            
             // Collect categories
             String primaryCat = path.getPrimaryCategory();
             if (primaryCat != null && !primaryCat.isEmpty()) {
@@ -336,22 +336,6 @@ public class LearningPathsViewModelV2 extends AndroidViewModel {
         });
     }
 
-    // ═══════════════════════════════════════════════════════════════════════
-    // UPDATE PROGRESS
-    // ═══════════════════════════════════════════════════════════════════════
-
-    public void updatePathProgress(int pathId, int totalBugs, int completedBugs) {
-        for (int i = 0; i < allPathsWithProgress.size(); i++) {
-            PathWithProgress p = allPathsWithProgress.get(i);
-            if (p.getPath().getId() == pathId) {
-                allPathsWithProgress.set(i, new PathWithProgress(p.getPath(), totalBugs, completedBugs));
-                applyFilters();
-                findContinuePath();
-                break;
-            }
-        }
-    }
-
     // ═══════════════════════════════════════════════════════════════════════
     // STATISTICS
     // ═══════════════════════════════════════════════════════════════════════
@@ -25,7 +25,7 @@ public class PathDetailViewModel extends AndroidViewModel {
 
     public PathDetailViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
     }
 
     /**
@@ -46,7 +46,7 @@ public class PathDetailViewModel extends AndroidViewModel {
      * Loads a learning path and its bugs.
      */
     public void loadPath(int pathId) {
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             // Load the path
             LearningPath path = repository.getLearningPathDao().getPathByIdSync(pathId);
             currentPath.postValue(path);
@@ -1,6 +1,12 @@
 package com.example.debugappproject.ui.learn;
 
 import com.example.debugappproject.model.LearningPath;
+import com.example.debugappproject.model.PathBugCounts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Helper class combining LearningPath with progress data.
@@ -16,6 +22,28 @@ public class PathWithProgress {
         this.completedBugs = completedBugs;
     }
 
+    /**
+     * Pairs each path with its counts from LearningPathDao.getPathBugCounts.
+     * Paths without counts (no bugs, or counts not loaded yet) get 0/0.
+     */
+    public static List<PathWithProgress> join(List<LearningPath> paths, List<PathBugCounts> counts) {
+        Map<Integer, PathBugCounts> countsByPath = new HashMap<>();
+        if (counts != null) {
+            for (PathBugCounts c : counts) {
+                countsByPath.put(c.getPathId(), c);
+            }
+        }
+
+        List<PathWithProgress> result = new ArrayList<>(paths.size());
+        for (LearningPath path : paths) {
+            PathBugCounts c = countsByPath.get(path.getId());
+            result.add(c != null
+                    ? new PathWithProgress(path, c.getTotal(), c.getCompleted())
+                    : new PathWithProgress(path, 0, 0));
+        }
+        return result;
+    }
+
     public LearningPath getPath() {
         return path;
     }
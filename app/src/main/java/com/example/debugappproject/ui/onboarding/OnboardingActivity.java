@@ -5,6 +5,8 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
@@ -17,8 +19,7 @@ import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.debugappproject.MainActivity;
 import com.debugmaster.app.R;
-import com.example.debugappproject.data.repository.BugRepository;
-import com.example.debugappproject.data.seeding.DatabaseSeeder;
+import com.example.debugappproject.data.seeding.SeedingCoordinator;
 import com.debugmaster.app.databinding.ActivityOnboardingBinding;
 import com.google.android.material.button.MaterialButton;
 
@@ -38,11 +39,11 @@ public class OnboardingActivity extends AppCompatActivity {
     private static final String PREFS_NAME = "DebugMasterPrefs";
     private static final String KEY_HAS_SEEN_ONBOARDING = "has_seen_onboarding";
     private static final int NUM_PAGES = 4;
+    private static final long MAX_SEED_WAIT_MS = 10000;
 
     private ActivityOnboardingBinding binding;
     private OnboardingPagerAdapter adapter;
     private ImageView[] indicators;
-    private volatile boolean databaseSeeded = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,35 +52,13 @@ public class OnboardingActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
 
         // Seed database during onboarding to ensure it's ready when user enters main app
-        seedDatabaseInBackground();
+        SeedingCoordinator.getInstance(this).start();
 
         setupViewPager();
         setupIndicators();
         setupButtons();
     }
 
-    /**
-     * Seeds the database in background while user goes through onboarding.
-     * This ensures data is ready when they finish onboarding.
-     * The seeding is now fully synchronous, so it completes before returning.
-     */
-    private void seedDatabaseInBackground() {
-        new Thread(() -> {
-            try {
-                BugRepository repository = new BugRepository(getApplication());
-                // This call now blocks until all data is inserted
-                DatabaseSeeder.seedDatabase(this, repository);
-
-                // Mark as complete
-                databaseSeeded = true;
-            } catch (Exception e) {
-                e.printStackTrace();
-                // Even on error, mark as complete to allow app to continue
-                databaseSeeded = true;
-            }
-        }).start();
-    }
-
     /**
      * Sets up the ViewPager2 with onboarding screens.
      */
@@ -188,33 +167,23 @@ public class OnboardingActivity extends AppCompatActivity {
             .putBoolean(KEY_HAS_SEEN_ONBOARDING, true)
             .apply();
 
-        // Wait for database seeding to complete before launching MainActivity
-        new Thread(() -> {
-            try {
-                // Poll until database seeding is complete (with timeout of 10 seconds)
-                int maxWaitMs = 10000; // 10 seconds max
-                int waitedMs = 0;
-                while (!databaseSeeded && waitedMs < maxWaitMs) {
-                    Thread.sleep(100);
-                    waitedMs += 100;
-                }
-
-                // Launch MainActivity on main thread
-                runOnUiThread(() -> {
-                    Intent intent = new Intent(this, MainActivity.class);
-                    startActivity(intent);
-                    finish();
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // Launch anyway if there's an error
-                runOnUiThread(() -> {
-                    Intent intent = new Intent(this, MainActivity.class);
-                    startActivity(intent);
-                    finish();
-                });
+        // Launch MainActivity once bugs can be shown (at most 10 seconds);
+        // on error launch anyway to allow app to continue
+        Runnable launchMain = () -> {
+            if (isFinishing()) {
+                return;
+            }
+            Intent intent = new Intent(this, MainActivity.class);
+            startActivity(intent);
+            finish();
+        };
+        new Handler(Looper.getMainLooper()).postDelayed(launchMain, MAX_SEED_WAIT_MS);
+        SeedingCoordinator.getInstance(this).awaitContent().whenComplete((result, error) -> {
+            if (error != null) {
+                android.util.Log.e("OnboardingActivity", "Seeding failed, continuing", error);
             }
-        }).start();
+            runOnUiThread(launchMain);
+        });
     }
 
     /**
@@ -27,7 +27,7 @@ public class ProfileViewModel extends AndroidViewModel {
 
     public ProfileViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
     }
 
     /**
@@ -49,7 +49,7 @@ public class ProfileViewModel extends AndroidViewModel {
      * This runs on a background thread.
      */
     public void loadAchievements() {
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             List<AchievementDefinition> allAchievements =
                 repository.getAchievementDao().getAllAchievementDefinitionsSync();
             List<UserAchievement> unlockedAchievements =
@@ -111,7 +111,7 @@ public class ProfileViewModel extends AndroidViewModel {
      * Gets total number of bugs completed.
      */
     public void getTotalBugsCompleted(TotalBugsCallback callback) {
-        repository.getExecutorService().execute(() -> {
+        repository.getReadExecutor().execute(() -> {
             int total = repository.getBugDao().getCompletedBugsCount();
             callback.onResult(total);
         });
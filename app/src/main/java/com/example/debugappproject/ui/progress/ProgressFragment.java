@@ -14,7 +14,7 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.debugmaster.app.databinding.FragmentProgressBinding;
 import com.example.debugappproject.model.Achievement;
-import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.model.UserProgress;
 
 import java.util.List;
@@ -150,8 +150,8 @@ public class ProgressFragment extends Fragment {
      */
     private void computeAndDisplayAchievements() {
         UserProgress progress = viewModel.getUserProgress().getValue();
-        List<Bug> completedBugs = viewModel.getCompletedBugs().getValue();
-        List<Bug> allBugs = viewModel.getAllBugs().getValue();
+        List<BugSummary> completedBugs = viewModel.getCompletedBugs().getValue();
+        List<BugSummary> allBugs = viewModel.getAllBugs().getValue();
 
         if (progress == null || completedBugs == null || allBugs == null) {
             return;
@@ -8,7 +8,7 @@ import androidx.lifecycle.LiveData;
 
 import com.example.debugappproject.data.repository.BugRepository;
 import com.example.debugappproject.model.Achievement;
-import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugSummary;
 import com.example.debugappproject.model.UserProgress;
 
 import java.util.ArrayList;
@@ -22,26 +22,26 @@ public class ProgressViewModel extends AndroidViewModel {
 
     private final BugRepository repository;
     private final LiveData<UserProgress> userProgress;
-    private final LiveData<List<Bug>> completedBugs;
-    private final LiveData<List<Bug>> allBugs;
+    private final LiveData<List<BugSummary>> completedBugs;
+    private final LiveData<List<BugSummary>> allBugs;
 
     public ProgressViewModel(@NonNull Application application) {
         super(application);
-        repository = new BugRepository(application);
+        repository = BugRepository.getInstance(application);
         userProgress = repository.getUserProgress();
-        completedBugs = repository.getCompletedBugs();
-        allBugs = repository.getAllBugs();
+        completedBugs = repository.getCompletedBugSummaries();
+        allBugs = repository.getAllBugSummaries();
     }
 
     public LiveData<UserProgress> getUserProgress() {
         return userProgress;
     }
 
-    public LiveData<List<Bug>> getCompletedBugs() {
+    public LiveData<List<BugSummary>> getCompletedBugs() {
         return completedBugs;
     }
 
-    public LiveData<List<Bug>> getAllBugs() {
+    public LiveData<List<BugSummary>> getAllBugs() {
         return allBugs;
     }
 
@@ -76,7 +76,7 @@ public class ProgressViewModel extends AndroidViewModel {
      * @param allBugs List of all bugs for completion calculation
      * @return List of achievements with unlock status
      */
-    public List<Achievement> computeAchievements(UserProgress progress, List<Bug> completedBugs, List<Bug> allBugs) {
+    public List<Achievement> computeAchievements(UserProgress progress, List<BugSummary> completedBugs, List<BugSummary> allBugs) {
         List<Achievement> achievements = new ArrayList<>();
 
         if (progress == null || completedBugs == null || allBugs == null) {
@@ -112,7 +112,7 @@ public class ProgressViewModel extends AndroidViewModel {
         int stringBugs = 0;
         int conditionBugs = 0;
 
-        for (Bug bug : completedBugs) {
+        for (BugSummary bug : completedBugs) {
             String category = bug.getCategory().toLowerCase();
             if (category.contains("loop")) {
                 loopBugs++;
@@ -192,7 +192,7 @@ public class ProgressViewModel extends AndroidViewModel {
         int mediumTotal = 0;
         int hardTotal = 0;
 
-        for (Bug bug : allBugs) {
+        for (BugSummary bug : allBugs) {
             String difficulty = bug.getDifficulty();
             if (difficulty.equals("Easy")) {
                 easyTotal++;
@@ -36,13 +36,13 @@ import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
 import androidx.navigation.Navigation;
 
 import com.debugmaster.app.R;
-import com.example.debugappproject.data.repository.BugRepository;
-import com.example.debugappproject.data.seeding.DatabaseSeeder;
+import com.example.debugappproject.data.seeding.SeedingCoordinator;
 import com.debugmaster.app.databinding.FragmentSplashBinding;
 import com.example.debugappproject.ui.onboarding.OnboardingActivity;
 import com.example.debugappproject.util.AuthManager;
 import com.example.debugappproject.util.DailyRewardManager;
 import com.example.debugappproject.util.SoundManager;
+import com.example.debugappproject.util.StartupTrace;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -136,23 +136,29 @@ public class SplashFragment extends Fragment {
         mainHandler = new Handler(Looper.getMainLooper());
         animationHandler = new Handler(Looper.getMainLooper());
         
-        // Initialize managers
-        soundManager = SoundManager.getInstance(requireContext());
-        rewardManager = new DailyRewardManager(requireContext());
-        reduceMotion = rewardManager.shouldReduceMotion();
-
-        initializeLetterViews();
-        setupStartButton();
-        setupSkipFunctionality();
-        setupTouchParallax();
-        seedDatabase();
+        // Initialize managers (SoundManager loads its sound pool)
+        StartupTrace.section("Splash.managers", () -> {
+            soundManager = SoundManager.getInstance(requireContext());
+            rewardManager = new DailyRewardManager(requireContext());
+            reduceMotion = rewardManager.shouldReduceMotion();
+        });
+
+        StartupTrace.section("Splash.views", () -> {
+            initializeLetterViews();
+            setupStartButton();
+            setupSkipFunctionality();
+            setupTouchParallax();
+        });
+        StartupTrace.section("Splash.seedStart", this::seedDatabase);
         
         // If reduce motion is enabled, show static screen immediately
-        if (reduceMotion) {
-            showStaticWelcome();
-        } else {
-            startAnimationSequence();
-        }
+        StartupTrace.section("Splash.animations", () -> {
+            if (reduceMotion) {
+                showStaticWelcome();
+            } else {
+                startAnimationSequence();
+            }
+        });
     }
 
     /**
@@ -272,6 +278,7 @@ public class SplashFragment extends Fragment {
         binding.textTapHint.setAlpha(0.7f);
         binding.textTapHint.setText("[ TAP TO START ]");
         buttonReady = true;
+        reportInteractiveIfReady();
     }
 
     /**
@@ -396,32 +403,44 @@ public class SplashFragment extends Fragment {
     }
 
     /**
-     * Seeds the database on background thread
+     * Starts (or joins) the shared seed job and enables START once bugs can
+     * be shown. A fresh install opens the prebuilt database from assets, so
+     * that is usually right away, while the sync finishes in the background.
      */
     private void seedDatabase() {
-        new Thread(() -> {
-            try {
-                BugRepository repository = new BugRepository(requireActivity().getApplication());
-                DatabaseSeeder.seedDatabase(requireContext(), repository);
-                databaseSeeded = true;
-                
-                // Update UI on main thread if button is waiting
-                mainHandler.post(() -> {
-                    if (binding != null && buttonReady) {
-                        binding.textTapHint.setText("[ TAP TO START ]");
-                    }
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // Don't set databaseSeeded = true on error - prevents user from proceeding with broken DB
-                mainHandler.post(() -> {
-                    if (binding != null) {
-                        binding.textTapHint.setText("[ ERROR - RESTART APP ]");
-                        binding.textTapHint.setTextColor(0xFFFF5252);
-                    }
-                });
+        SeedingCoordinator coordinator = SeedingCoordinator.getInstance(requireContext());
+        coordinator.getProgress().observe(getViewLifecycleOwner(), progress -> {
+            if (progress.isContentReady()) {
+                if (!databaseSeeded) {
+                    markDatabaseSeeded();
+                }
+            } else if (progress.stage == SeedingCoordinator.Stage.FAILED && binding != null) {
+                // databaseSeeded stays false - prevents user from proceeding with broken DB
+                binding.textTapHint.setText("[ ERROR - RESTART APP ]");
+                binding.textTapHint.setTextColor(0xFFFF5252);
             }
-        }).start();
+        });
+        coordinator.start();
+    }
+
+    private void markDatabaseSeeded() {
+        databaseSeeded = true;
+
+        // Update the hint if the button is already waiting
+        if (binding != null && buttonReady) {
+            binding.textTapHint.setText("[ TAP TO START ]");
+        }
+        reportInteractiveIfReady();
+    }
+
+    /**
+     * START works once the button is shown and content is ready: that is
+     * the app's time to first interactive.
+     */
+    private void reportInteractiveIfReady() {
+        if (buttonReady && databaseSeeded && isAdded()) {
+            StartupTrace.reportInteractive(requireActivity());
+        }
     }
 
     /**
@@ -1654,6 +1673,7 @@ public class SplashFragment extends Fragment {
             // Start button pulse
             animationHandler.postDelayed(() -> {
                 buttonReady = true;
+                reportInteractiveIfReady();
                 startButtonPulse();
                 startGlowPulse();
                 startTapHintPulse();
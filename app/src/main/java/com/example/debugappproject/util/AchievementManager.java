@@ -101,88 +101,108 @@ public class AchievementManager {
             try {
                 UserProgress progress = userProgressDao.getUserProgressSync();
                 if (progress == null) return;
-                
-                int bugsSolved = progress.getTotalSolved();
-                int totalXp = progress.getTotalXp();
-                int streakDays = progress.getStreakDays();
-                int longestStreak = progress.getLongestStreakDays();
-                int hintsUsed = progress.getHintsUsed();
-                int bugsSolvedNoHints = progress.getBugsSolvedWithoutHints();
-                
-                // Battle stats
-                int battleWins = prefs.getInt("battle_wins", 0);
-                int battleStreak = prefs.getInt("battle_streak", 0);
-                int trophies = prefs.getInt("trophies", 0);
-                
-                // MILESTONE ACHIEVEMENTS - Bugs Solved
-                checkAndUnlock("first_fix", bugsSolved >= 1);
-                checkAndUnlock("bug_squasher_10", bugsSolved >= 10);
-                checkAndUnlock("bug_hunter_25", bugsSolved >= 25);
-                checkAndUnlock("bug_slayer_50", bugsSolved >= 50);
-                checkAndUnlock("bug_master_100", bugsSolved >= 100);
-                checkAndUnlock("bug_legend_250", bugsSolved >= 250);
-                checkAndUnlock("bug_god_500", bugsSolved >= 500);
-                checkAndUnlock("bug_immortal_1000", bugsSolved >= 1000);
-                
-                // MILESTONE ACHIEVEMENTS - XP
-                checkAndUnlock("xp_100", totalXp >= 100);
-                checkAndUnlock("xp_500", totalXp >= 500);
-                checkAndUnlock("xp_1000", totalXp >= 1000);
-                checkAndUnlock("xp_5000", totalXp >= 5000);
-                checkAndUnlock("xp_10000", totalXp >= 10000);
-                checkAndUnlock("xp_50000", totalXp >= 50000);
-                checkAndUnlock("xp_100000", totalXp >= 100000);
-                
-                // STREAK ACHIEVEMENTS
-                checkAndUnlock("streak_3", streakDays >= 3);
-                checkAndUnlock("streak_7", streakDays >= 7);
-                checkAndUnlock("streak_14", streakDays >= 14);
-                checkAndUnlock("streak_30", streakDays >= 30);
-                checkAndUnlock("streak_60", streakDays >= 60);
-                checkAndUnlock("streak_100", streakDays >= 100);
-                checkAndUnlock("streak_365", streakDays >= 365);
-                
-                // LONGEST STREAK
-                checkAndUnlock("longest_streak_30", longestStreak >= 30);
-                checkAndUnlock("longest_streak_100", longestStreak >= 100);
-                
-                // SKILL ACHIEVEMENTS - No Hints
-                checkAndUnlock("no_hint_1", bugsSolvedNoHints >= 1);
-                checkAndUnlock("no_hint_10", bugsSolvedNoHints >= 10);
-                checkAndUnlock("no_hint_50", bugsSolvedNoHints >= 50);
-                checkAndUnlock("no_hint_100", bugsSolvedNoHints >= 100);
-                
-                // BATTLE ACHIEVEMENTS
-                checkAndUnlock("first_battle_win", battleWins >= 1);
-                checkAndUnlock("battle_wins_10", battleWins >= 10);
-                checkAndUnlock("battle_wins_50", battleWins >= 50);
-                checkAndUnlock("battle_wins_100", battleWins >= 100);
-                checkAndUnlock("battle_wins_500", battleWins >= 500);
-                
-                // Battle Streaks
-                checkAndUnlock("battle_streak_3", battleStreak >= 3);
-                checkAndUnlock("battle_streak_5", battleStreak >= 5);
-                checkAndUnlock("battle_streak_10", battleStreak >= 10);
-                checkAndUnlock("battle_streak_20", battleStreak >= 20);
-                
-                // Trophy Achievements
-                checkAndUnlock("trophy_100", trophies >= 100);
-                checkAndUnlock("trophy_500", trophies >= 500);
-                checkAndUnlock("trophy_1000", trophies >= 1000);
-                checkAndUnlock("trophy_5000", trophies >= 5000);
-                
-                // TIME-BASED ACHIEVEMENTS
-                checkTimeBasedAchievements();
-                
-                // SPECIAL ACHIEVEMENTS
-                checkSpecialAchievements(progress);
-                
+                checkAchievementsSync(progress);
             } catch (Exception e) {
                 Log.e(TAG, "Error checking achievements", e);
             }
         });
     }
     
+    /**
+     * Check all achievements against progress totals the caller already has,
+     * e.g. the totals returned by a completion write, without re-reading them.
+     */
+    public void checkAchievements(UserProgress progress) {
+        if (!isDatabaseReady() || progress == null) {
+            return;
+        }
+        
+        executor.execute(() -> {
+            try {
+                checkAchievementsSync(progress);
+            } catch (Exception e) {
+                Log.e(TAG, "Error checking achievements", e);
+            }
+        });
+    }
+    
+    private void checkAchievementsSync(UserProgress progress) {
+        int bugsSolved = progress.getTotalSolved();
+        int totalXp = progress.getTotalXp();
+        int streakDays = progress.getStreakDays();
+        int longestStreak = progress.getLongestStreakDays();
+        int hintsUsed = progress.getHintsUsed();
+        int bugsSolvedNoHints = progress.getBugsSolvedWithoutHints();
+        
+        // Battle stats
+        int battleWins = prefs.getInt("battle_wins", 0);
+        int battleStreak = prefs.getInt("battle_streak", 0);
+        int trophies = prefs.getInt("trophies", 0);
+        
+        // MILESTONE ACHIEVEMENTS - Bugs Solved
+        checkAndUnlock("first_fix", bugsSolved >= 1);
+        checkAndUnlock("bug_squasher_10", bugsSolved >= 10);
+        checkAndUnlock("bug_hunter_25", bugsSolved >= 25);
+        checkAndUnlock("bug_slayer_50", bugsSolved >= 50);
+        checkAndUnlock("bug_master_100", bugsSolved >= 100);
+        checkAndUnlock("bug_legend_250", bugsSolved >= 250);
+        checkAndUnlock("bug_god_500", bugsSolved >= 500);
+        checkAndUnlock("bug_immortal_1000", bugsSolved >= 1000);
+        
+        // MILESTONE ACHIEVEMENTS - XP
+        checkAndUnlock("xp_100", totalXp >= 100);
+        checkAndUnlock("xp_500", totalXp >= 500);
+        checkAndUnlock("xp_1000", totalXp >= 1000);
+        checkAndUnlock("xp_5000", totalXp >= 5000);
+        checkAndUnlock("xp_10000", totalXp >= 10000);
+        checkAndUnlock("xp_50000", totalXp >= 50000);
+        checkAndUnlock("xp_100000", totalXp >= 100000);
+        
+        // STREAK ACHIEVEMENTS
+        checkAndUnlock("streak_3", streakDays >= 3);
+        checkAndUnlock("streak_7", streakDays >= 7);
+        checkAndUnlock("streak_14", streakDays >= 14);
+        checkAndUnlock("streak_30", streakDays >= 30);
+        checkAndUnlock("streak_60", streakDays >= 60);
+        checkAndUnlock("streak_100", streakDays >= 100);
+        checkAndUnlock("streak_365", streakDays >= 365);
+        
+        // LONGEST STREAK
+        checkAndUnlock("longest_streak_30", longestStreak >= 30);
+        checkAndUnlock("longest_streak_100", longestStreak >= 100);
+        
+        // SKILL ACHIEVEMENTS - No Hints
+        checkAndUnlock("no_hint_1", bugsSolvedNoHints >= 1);
+        checkAndUnlock("no_hint_10", bugsSolvedNoHints >= 10);
+        checkAndUnlock("no_hint_50", bugsSolvedNoHints >= 50);
+        checkAndUnlock("no_hint_100", bugsSolvedNoHints >= 100);
+        
+        // BATTLE ACHIEVEMENTS
+        checkAndUnlock("first_battle_win", battleWins >= 1);
+        checkAndUnlock("battle_wins_10", battleWins >= 10);
+        checkAndUnlock("battle_wins_50", battleWins >= 50);
+        checkAndUnlock("battle_wins_100", battleWins >= 100);
+        checkAndUnlock("battle_wins_500", battleWins >= 500);
+        
+        // Battle Streaks
+        checkAndUnlock("battle_streak_3", battleStreak >= 3);
+        checkAndUnlock("battle_streak_5", battleStreak >= 5);
+        checkAndUnlock("battle_streak_10", battleStreak >= 10);
+        checkAndUnlock("battle_streak_20", battleStreak >= 20);
+        
+        // Trophy Achievements
+        checkAndUnlock("trophy_100", trophies >= 100);
+        checkAndUnlock("trophy_500", trophies >= 500);
+        checkAndUnlock("trophy_1000", trophies >= 1000);
+        checkAndUnlock("trophy_5000", trophies >= 5000);
+        
+        // TIME-BASED ACHIEVEMENTS
+        checkTimeBasedAchievements();
+        
+        // SPECIAL ACHIEVEMENTS
+        checkSpecialAchievements(progress);
+    }
+    
     /**
      * Check and unlock a specific achievement if condition is met.
      */
@@ -205,12 +225,8 @@ public class AchievementManager {
             
             achievementDao.insertUserAchievement(newAchievement);
             
-            // Award XP
-            UserProgress progress = userProgressDao.getUserProgressSync();
-            if (progress != null) {
-                progress.setTotalXp(progress.getTotalXp() + definition.getXpReward());
-                userProgressDao.update(progress);
-            }
+            // Award XP in place, so a solve written meanwhile isn't overwritten
+            userProgressDao.addXp(definition.getXpReward());
             
             Log.d(TAG, "Achievement unlocked: " + definition.getName());
             
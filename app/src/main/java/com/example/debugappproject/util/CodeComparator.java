@@ -2,6 +2,8 @@ package com.example.debugappproject.util;
 
 import android.util.Log;
 
+import java.util.regex.Pattern;
+
 /**
  * ╔══════════════════════════════════════════════════════════════════════════════╗
  * ║           DEBUGMASTER - INTELLIGENT CODE COMPARATOR                          ║
@@ -27,6 +29,11 @@ public class CodeComparator {
     // Minimum similarity for key-fix based validation (95%)
     private static final double KEY_FIX_SIMILARITY_THRESHOLD = 0.95;
 
+    // Key-fix patterns, matched against lowercased whitespace-collapsed code
+    private static final Pattern STRING_LITERAL_BEFORE_EQ = Pattern.compile(".*\".*\"\\s*==.*");
+    private static final Pattern STRING_LITERAL_AFTER_EQ = Pattern.compile(".*==\\s*\".*\".*");
+    private static final Pattern UNSAFE_MEMBER_ACCESS = Pattern.compile(".*[^?]\\..*");
+
     /**
      * Normalizes code for comparison by:
      * - Trimming leading/trailing whitespace
@@ -34,41 +41,11 @@ public class CodeComparator {
      * - Collapsing multiple spaces to single space
      * - Removing comments (// and /* *\/)
      * - Normalizing line endings
+     *
+     * @see NormalizedCode
      */
     public static String normalizeCode(String code) {
-        if (code == null || code.isEmpty()) {
-            return "";
-        }
-
-        // Remove single-line comments (Java/JS/Kotlin style)
-        code = code.replaceAll("//.*?(\r?\n|$)", "\n");
-        
-        // Remove Python-style comments
-        code = code.replaceAll("#.*?(\r?\n|$)", "\n");
-
-        // Remove multi-line comments
-        code = code.replaceAll("/\\*.*?\\*/", "");
-
-        // Split into lines and process each
-        String[] lines = code.split("\\r?\\n");
-        StringBuilder normalized = new StringBuilder();
-
-        for (String line : lines) {
-            // Trim each line
-            String trimmed = line.trim();
-
-            // Skip blank lines
-            if (trimmed.isEmpty()) {
-                continue;
-            }
-
-            // Collapse multiple spaces to single space
-            trimmed = trimmed.replaceAll("\\s+", " ");
-
-            normalized.append(trimmed).append("\n");
-        }
-
-        return normalized.toString().trim().toLowerCase();
+        return NormalizedCode.normalize(code);
     }
 
     /**
@@ -76,24 +53,7 @@ public class CodeComparator {
      * This helps compare user's snippet-style code with full class code.
      */
     public static String extractCoreFix(String code) {
-        if (code == null || code.isEmpty()) {
-            return "";
-        }
-        
-        String normalized = normalizeCode(code);
-        
-        // Remove class wrapper if present
-        normalized = normalized.replaceAll("public class \\w+ \\{", "");
-        normalized = normalized.replaceAll("class \\w+ \\{", "");
-        
-        // Remove main method wrapper if present
-        normalized = normalized.replaceAll("public static void main\\(string\\[\\] args\\) \\{", "");
-        
-        // Remove closing braces at end
-        normalized = normalized.replaceAll("\\}\\s*$", "");
-        normalized = normalized.replaceAll("\\}\\s*\\}\\s*$", "");
-        
-        return normalized.trim();
+        return NormalizedCode.extractCoreFix(NormalizedCode.normalize(code));
     }
 
     /**
@@ -111,57 +71,59 @@ public class CodeComparator {
         if (userCode == null || fixedCode == null) {
             return false;
         }
-        
-        if (userCode.trim().isEmpty()) {
+        return codesMatch(NormalizedCode.of(userCode), NormalizedCode.forReference(fixedCode));
+    }
+
+    /**
+     * {@link #codesMatch(String, String)} for code that is already normalized,
+     * e.g. a fixedCode checked against every keystroke.
+     */
+    public static boolean codesMatch(NormalizedCode user, NormalizedCode fixed) {
+        if (user.getSource().trim().isEmpty()) {
             return false;
         }
         
-        String normalizedUser = normalizeCode(userCode);
-        String normalizedFixed = normalizeCode(fixedCode);
+        String normalizedUser = user.getNormalized();
+        String normalizedFixed = fixed.getNormalized();
         
         Log.d(TAG, "=== Code Comparison ===");
         Log.d(TAG, "User (normalized): " + normalizedUser.substring(0, Math.min(100, normalizedUser.length())));
         Log.d(TAG, "Fixed (normalized): " + normalizedFixed.substring(0, Math.min(100, normalizedFixed.length())));
         
         // Strategy 1: Exact normalized match
-        if (normalizedUser.equals(normalizedFixed)) {
+        if (user.sameNormalizedCode(fixed)) {
             Log.d(TAG, "✅ Exact match");
             return true;
         }
         
         // Strategy 2: Core fix extraction match
-        String coreUser = extractCoreFix(userCode);
-        String coreFixed = extractCoreFix(fixedCode);
+        String coreUser = user.getCoreFix();
+        String coreFixed = fixed.getCoreFix();
         
         if (!coreUser.isEmpty() && !coreFixed.isEmpty() && coreUser.equals(coreFixed)) {
             Log.d(TAG, "✅ Core fix exact match");
             return true;
         }
         
-        // Calculate similarity for further checks
-        double similarity = calculateSimilarity(normalizedUser, normalizedFixed);
-        double coreSimilarity = calculateSimilarity(coreUser, coreFixed);
-        
-        Log.d(TAG, "Similarity: " + (int)(similarity * 100) + "%, Core similarity: " + (int)(coreSimilarity * 100) + "%");
-        
         // Strategy 3: Key fix detected AND high similarity (95%+)
         // This prevents marking as correct when user has the pattern but other bugs
-        if (containsKeyFix(userCode, fixedCode)) {
-            if (coreSimilarity >= KEY_FIX_SIMILARITY_THRESHOLD) {
-                Log.d(TAG, "✅ Key fix + high similarity: " + (int)(coreSimilarity * 100) + "%");
+        if (containsKeyFix(user, fixed)) {
+            if (isSimilarAtLeast(coreUser, coreFixed, KEY_FIX_SIMILARITY_THRESHOLD)) {
+                Log.d(TAG, "✅ Key fix + high similarity");
                 return true;
             } else {
-                Log.d(TAG, "⚠️ Key fix found but similarity too low: " + (int)(coreSimilarity * 100) + "%");
+                Log.d(TAG, "⚠️ Key fix found but similarity too low");
             }
         }
         
         // Strategy 4: Very high similarity (98%+) - catches minor formatting differences
-        if (similarity >= STRICT_SIMILARITY_THRESHOLD || coreSimilarity >= STRICT_SIMILARITY_THRESHOLD) {
+        if (isSimilarAtLeast(normalizedUser, normalizedFixed, STRICT_SIMILARITY_THRESHOLD)
+                || isSimilarAtLeast(coreUser, coreFixed, STRICT_SIMILARITY_THRESHOLD)) {
             Log.d(TAG, "✅ Very high similarity match");
             return true;
         }
         
-        Log.d(TAG, "❌ No match. Best similarity: " + (int)(Math.max(similarity, coreSimilarity) * 100) + "%");
+        Log.d(TAG, "❌ No match");
         return false;
     }
 
@@ -169,9 +131,9 @@ public class CodeComparator {
      * Checks if user code contains the KEY FIX for the specific bug.
      * Returns true only if the specific fix pattern is present.
      */
-    private static boolean containsKeyFix(String userCode, String fixedCode) {
-        String userLower = userCode.toLowerCase().replaceAll("\\s+", " ");
-        String fixedLower = fixedCode.toLowerCase().replaceAll("\\s+", " ");
+    private static boolean containsKeyFix(NormalizedCode user, NormalizedCode fixed) {
+        String userLower = user.getKeyFixText();
+        String fixedLower = fixed.getKeyFixText();
         
         // === Bug #1: println vs printIn ===
         if (fixedLower.contains("println") && !fixedLower.contains("printin")) {
@@ -187,7 +149,8 @@ public class CodeComparator {
             // User must use .equals() and NOT use == for string comparison
             if (userLower.contains(".equals(")) {
                 // Check they don't still have == for strings
-                if (!userLower.matches(".*\".*\"\\s*==.*") && !userLower.matches(".*==\\s*\".*\".*")) {
+                if (!STRING_LITERAL_BEFORE_EQ.matcher(userLower).matches()
+                        && !STRING_LITERAL_AFTER_EQ.matcher(userLower).matches()) {
                     return true;
                 }
             }
@@ -269,7 +232,7 @@ public class CodeComparator {
         }
         
         // === Kotlin: safe call ?. ===
-        if (fixedLower.contains("?.") && !fixedLower.matches(".*[^?]\\..*")) {
+        if (fixedLower.contains("?.") && !UNSAFE_MEMBER_ACCESS.matcher(fixedLower).matches()) {
             if (userLower.contains("?.")) {
                 return true;
             }
@@ -304,52 +267,129 @@ public class CodeComparator {
             return 1.0;
         }
         
-        if (s1.isEmpty() && s2.isEmpty()) {
-            return 1.0;
-        }
-        
         if (s1.isEmpty() || s2.isEmpty()) {
             return 0.0;
         }
         
         int maxLen = Math.max(s1.length(), s2.length());
-        int distance = levenshteinDistance(s1, s2);
+        int distance = levenshteinDistance(s1, s2, maxLen);
         return 1.0 - ((double) distance / maxLen);
     }
 
     /**
-     * Calculates Levenshtein edit distance between two strings.
+     * Same as {@code calculateSimilarity(s1, s2) >= threshold}, but stops as
+     * soon as the threshold can no longer be reached. Only the diagonal band
+     * of edits the threshold allows is computed, so a 98% check on two
+     * 5,000-character strings fills ~200 cells per row instead of 5,000.
      */
-    private static int levenshteinDistance(String s1, String s2) {
+    public static boolean isSimilarAtLeast(String s1, String s2, double threshold) {
+        if (s1 == null || s2 == null) {
+            return 0.0 >= threshold;
+        }
+        
+        if (s1.equals(s2)) {
+            return 1.0 >= threshold;
+        }
+        
+        if (s1.isEmpty() || s2.isEmpty()) {
+            return 0.0 >= threshold;
+        }
+        
+        int maxLen = Math.max(s1.length(), s2.length());
+        int maxDistance = maxDistanceFor(threshold, maxLen);
+        if (maxDistance < 0) {
+            return false;
+        }
+        return levenshteinDistance(s1, s2, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * Largest edit distance d for which 1 - d / maxLen still reaches the
+     * threshold, or -1 if none does. Evaluated with the same double
+     * arithmetic as calculateSimilarity so both methods always agree.
+     */
+    private static int maxDistanceFor(double threshold, int maxLen) {
+        int d = (int) Math.max(-1, Math.min(maxLen, Math.floor((1.0 - threshold) * maxLen)));
+        while (d < maxLen && 1.0 - ((double) (d + 1) / maxLen) >= threshold) {
+            d++;
+        }
+        while (d >= 0 && !(1.0 - ((double) d / maxLen) >= threshold)) {
+            d--;
+        }
+        return d;
+    }
+
+    /**
+     * Levenshtein edit distance between two strings, bounded by maxDistance.
+     *
+     * Keeps two rows over the shorter string instead of the full matrix, and
+     * only fills cells within maxDistance of the diagonal (any path through
+     * the others already costs more). Returns maxDistance + 1 as soon as
+     * every cell in a row is over the bound, since row minimums never drop.
+     *
+     * @return The distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    private static int levenshteinDistance(String s1, String s2, int maxDistance) {
+        if (s1.length() < s2.length()) {
+            String swap = s1;
+            s1 = s2;
+            s2 = swap;
+        }
         int m = s1.length();
         int n = s2.length();
         
-        // Limit for performance
-        if (m > 500 || n > 500) {
-            // For very long strings, use simpler comparison
-            return Math.abs(m - n) + (s1.equals(s2) ? 0 : Math.max(m, n) / 2);
+        // Length difference alone needs that many inserts
+        if (m - n > maxDistance) {
+            return maxDistance + 1;
         }
         
-        int[][] dp = new int[m + 1][n + 1];
+        int over = maxDistance + 1;
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
         
-        for (int i = 0; i <= m; i++) {
-            dp[i][0] = i;
-        }
         for (int j = 0; j <= n; j++) {
-            dp[0][j] = j;
+            previous[j] = j <= maxDistance ? j : over;
         }
         
         for (int i = 1; i <= m; i++) {
-            for (int j = 1; j <= n; j++) {
-                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
-                dp[i][j] = Math.min(
-                    Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                    dp[i - 1][j - 1] + cost
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(n, i + maxDistance);
+            
+            current[0] = i <= maxDistance ? i : over;
+            // Cell left of the band is read by the first cell in it
+            current[from - 1] = from == 1 ? current[0] : over;
+            int rowMin = current[from - 1];
+            
+            char c = s1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == s2.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(
+                    Math.min(previous[j] + 1, current[j - 1] + 1),
+                    previous[j - 1] + cost
                 );
+                if (value > over) {
+                    value = over;
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            // Cell right of the band is read by the next row
+            if (to < n) {
+                current[to + 1] = over;
+            }
+            
+            if (rowMin > maxDistance) {
+                return over;
             }
+            
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
         
-        return dp[m][n];
+        return Math.min(previous[n], over);
     }
 
     /**
@@ -358,10 +398,10 @@ public class CodeComparator {
      */
     public static int findFirstDifference(String userCode, String fixedCode) {
         String normalizedUser = normalizeCode(userCode);
-        String normalizedFixed = normalizeCode(fixedCode);
+        String normalizedFixed = NormalizedCode.forReference(fixedCode).getNormalized();
 
-        String[] userLines = normalizedUser.split("\\n");
-        String[] fixedLines = normalizedFixed.split("\\n");
+        String[] userLines = normalizedUser.split("\n");
+        String[] fixedLines = normalizedFixed.split("\n");
 
         int maxLines = Math.max(userLines.length, fixedLines.length);
 
@@ -384,7 +424,7 @@ public class CodeComparator {
         int diffLine = findFirstDifference(userCode, fixedCode);
         double similarity = calculateSimilarity(
             extractCoreFix(userCode), 
-            extractCoreFix(fixedCode)
+            NormalizedCode.forReference(fixedCode).getCoreFix()
         );
         
         int similarityPercent = (int)(similarity * 100);
@@ -405,16 +445,15 @@ public class CodeComparator {
      * This is a stricter check that looks for the exact fix pattern.
      */
     public static boolean hasCorrectFix(String userCode, String fixedCode, String bugType) {
-        String userNorm = normalizeCode(userCode);
-        String fixedNorm = normalizeCode(fixedCode);
+        NormalizedCode user = NormalizedCode.of(userCode);
+        NormalizedCode fixed = NormalizedCode.forReference(fixedCode);
         
         // First check - must be very similar overall
-        double similarity = calculateSimilarity(userNorm, fixedNorm);
-        if (similarity < 0.85) {
+        if (!isSimilarAtLeast(user.getNormalized(), fixed.getNormalized(), 0.85)) {
             return false;
         }
         
         // Then check the specific fix is present
-        return containsKeyFix(userCode, fixedCode);
+        return containsKeyFix(user, fixed);
     }
 }
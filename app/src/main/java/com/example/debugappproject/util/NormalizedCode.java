@@ -0,0 +1,274 @@
+package com.example.debugappproject.util;
+
+import com.example.debugappproject.model.Bug;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║           DEBUGMASTER - NORMALIZED CODE                                      ║
+ * ║              One-pass comparison form of a code snippet                      ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Holds every form of a snippet that {@link CodeComparator} compares:
+ * - normalized: comments removed, lines trimmed, blank lines dropped,
+ *   whitespace runs collapsed to one space, lowercased
+ * - core fix: the normalized code without class/main wrappers
+ * - key-fix text: the raw code lowercased with whitespace collapsed
+ * - fingerprint: a 64-bit hash of the normalized form; equal normalized code
+ *   always has equal fingerprints
+ *
+ * The normalized form is built by a single scan over the characters instead
+ * of a chain of regex replacements. Reference code (a bug's fixedCode or
+ * brokenCode) never changes, so use {@link #forReference(String)} for it and
+ * it is only normalized once. A bug's fixedCode forms are also stored in the
+ * bugs table at seed time; {@link #forFixedCode(Bug)} reads them from there.
+ */
+public final class NormalizedCode {
+
+    private static final int REFERENCE_CACHE_SIZE = 64;
+
+    // Wrappers removed by the core-fix extraction
+    private static final Pattern PUBLIC_CLASS_HEADER = Pattern.compile("public class \\w+ \\{");
+    private static final Pattern CLASS_HEADER = Pattern.compile("class \\w+ \\{");
+    private static final Pattern MAIN_HEADER =
+            Pattern.compile("public static void main\\(string\\[\\] args\\) \\{");
+    private static final Pattern TRAILING_BRACE = Pattern.compile("\\}\\s*$");
+    private static final Pattern TRAILING_BRACES = Pattern.compile("\\}\\s*\\}\\s*$");
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final NormalizedCode EMPTY = new NormalizedCode("", "", "", fingerprint(""));
+
+    private static final Map<String, NormalizedCode> referenceCache =
+            new LinkedHashMap<String, NormalizedCode>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, NormalizedCode> eldest) {
+                    return size() > REFERENCE_CACHE_SIZE;
+                }
+            };
+
+    private final String source;
+    private final String normalized;
+    private final String coreFix;
+    private final long fingerprint;
+
+    // Only needed when a key-fix check runs, so built on first use
+    private volatile String keyFixText;
+
+    private NormalizedCode(String source, String normalized, String coreFix, long fingerprint) {
+        this.source = source;
+        this.normalized = normalized;
+        this.coreFix = coreFix;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Normalizes a snippet, e.g. the user's current editor contents.
+     */
+    public static NormalizedCode of(String code) {
+        if (code == null || code.isEmpty()) {
+            return EMPTY;
+        }
+        String normalized = normalize(code);
+        return new NormalizedCode(code, normalized, extractCoreFix(normalized), fingerprint(normalized));
+    }
+
+    /**
+     * Normalizes reference code, reusing the result for code seen recently.
+     */
+    public static NormalizedCode forReference(String code) {
+        if (code == null || code.isEmpty()) {
+            return EMPTY;
+        }
+        synchronized (referenceCache) {
+            NormalizedCode cached = referenceCache.get(code);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        NormalizedCode created = of(code);
+        synchronized (referenceCache) {
+            referenceCache.put(code, created);
+        }
+        return created;
+    }
+
+    /**
+     * Returns the bug's fixedCode forms, using the columns stored at seed time
+     * when present and normalizing (cached) otherwise, e.g. for imported bugs.
+     */
+    public static NormalizedCode forFixedCode(Bug bug) {
+        String fixedCode = bug.getFixedCode();
+        if (fixedCode == null || fixedCode.isEmpty()) {
+            return EMPTY;
+        }
+        if (bug.getFixedCodeNormalized() == null || bug.getFixedCodeCore() == null) {
+            return forReference(fixedCode);
+        }
+        return new NormalizedCode(fixedCode, bug.getFixedCodeNormalized(),
+                bug.getFixedCodeCore(), bug.getFixedCodeFingerprint());
+    }
+
+    /**
+     * Stores the comparison forms of the bug's fixedCode on the bug, so they
+     * are persisted with it. Called by the seeder before inserting bugs.
+     */
+    public static void storeFixedCodeForms(Bug bug) {
+        NormalizedCode fixed = of(bug.getFixedCode());
+        bug.setFixedCodeNormalized(fixed.normalized);
+        bug.setFixedCodeCore(fixed.coreFix);
+        bug.setFixedCodeFingerprint(fixed.fingerprint);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getNormalized() {
+        return normalized;
+    }
+
+    public String getCoreFix() {
+        return coreFix;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Whether both snippets normalize to the same code. Fingerprints are
+     * compared first, so differing code is rejected without a string compare.
+     */
+    public boolean sameNormalizedCode(NormalizedCode other) {
+        return fingerprint == other.fingerprint && normalized.equals(other.normalized);
+    }
+
+    /**
+     * The raw code lowercased with whitespace runs collapsed, for substring
+     * checks that need to see comments and string contents.
+     */
+    String getKeyFixText() {
+        String text = keyFixText;
+        if (text == null) {
+            text = collapseWhitespace(source);
+            keyFixText = text;
+        }
+        return text;
+    }
+
+    /**
+     * Single-pass normalizer.
+     *
+     * Comments ({@code //}, {@code #} and {@code /* *\/}) are dropped; a line
+     * comment keeps its newline. Leading/trailing whitespace on each line is
+     * dropped, inner whitespace runs become one space, blank lines are
+     * skipped, and letters are lowercased.
+     */
+    static String normalize(String code) {
+        if (code == null || code.isEmpty()) {
+            return "";
+        }
+
+        int length = code.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean lineHasContent = false;
+        boolean pendingSpace = false;
+
+        int i = 0;
+        while (i < length) {
+            char c = code.charAt(i);
+            char next = i + 1 < length ? code.charAt(i + 1) : '\0';
+
+            if ((c == '/' && next == '/') || c == '#') {
+                // Line comment: skip to the newline, which is handled below
+                while (i < length && code.charAt(i) != '\n' && code.charAt(i) != '\r') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                int end = code.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            }
+
+            if (c == '\n' || c == '\r') {
+                if (lineHasContent) {
+                    out.append('\n');
+                }
+                lineHasContent = false;
+                pendingSpace = false;
+            } else if (c <= ' ') {
+                pendingSpace = lineHasContent;
+            } else {
+                if (pendingSpace) {
+                    out.append(' ');
+                    pendingSpace = false;
+                }
+                out.append(Character.toLowerCase(c));
+                lineHasContent = true;
+            }
+            i++;
+        }
+
+        int end = out.length();
+        if (end > 0 && out.charAt(end - 1) == '\n') {
+            out.setLength(end - 1);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Strips the class and main method wrappers from normalized code.
+     */
+    static String extractCoreFix(String normalized) {
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        String core = PUBLIC_CLASS_HEADER.matcher(normalized).replaceAll("");
+        core = CLASS_HEADER.matcher(core).replaceAll("");
+        core = MAIN_HEADER.matcher(core).replaceAll("");
+        core = TRAILING_BRACE.matcher(core).replaceAll("");
+        core = TRAILING_BRACES.matcher(core).replaceAll("");
+        return core.trim();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the normalized code.
+     */
+    static long fingerprint(String normalized) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Lowercases the code and collapses every whitespace run to one space.
+     */
+    private static String collapseWhitespace(String code) {
+        StringBuilder out = new StringBuilder(code.length());
+        boolean inWhitespace = false;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B') {
+                if (!inWhitespace) {
+                    out.append(' ');
+                    inWhitespace = true;
+                }
+            } else {
+                out.append(Character.toLowerCase(c));
+                inWhitespace = false;
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.debugappproject.util;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║           DEBUGMASTER - STARTUP TRACE                                        ║
+ * ║              Named trace sections for every startup phase                    ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Sections show up as "DM:<name>" slices in Perfetto / system traces and in
+ * the macrobenchmark module's traces. Sections must end on the thread that
+ * began them. Milestones are also logged with the time since process start,
+ * so a plain logcat run gives the same numbers.
+ *
+ * Time to first interactive is the splash START button being usable; it is
+ * reported with {@link Activity#reportFullyDrawn()}, which the macrobenchmark
+ * StartupTimingMetric records as timeToFullDisplayMs.
+ *
+ * Usage:
+ * <pre>
+ *     StartupTrace.begin("App.theme");
+ *     try {
+ *         ThemeManager.getInstance(this).applyTheme();
+ *     } finally {
+ *         StartupTrace.end();
+ *     }
+ * </pre>
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "StartupTrace";
+    private static final String PREFIX = "DM:";
+
+    // Activity last reported interactive; warm starts create a new one
+    private static WeakReference<Activity> interactiveActivity = new WeakReference<>(null);
+
+    private StartupTrace() {
+    }
+
+    public static void begin(String section) {
+        Trace.beginSection(PREFIX + section);
+    }
+
+    public static void end() {
+        Trace.endSection();
+    }
+
+    /**
+     * Runs the body inside a trace section.
+     */
+    public static void section(String section, Runnable body) {
+        begin(section);
+        try {
+            body.run();
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Logs a milestone with the time since the process started.
+     */
+    public static void mark(String milestone) {
+        Log.i(TAG, milestone + " at +" + sinceProcessStartMs() + "ms");
+    }
+
+    /**
+     * Marks the app interactive: reports fully drawn for the activity and
+     * logs the time, once per activity instance. Main thread only.
+     */
+    public static void reportInteractive(Activity activity) {
+        if (interactiveActivity.get() == activity) {
+            return;
+        }
+        interactiveActivity = new WeakReference<>(activity);
+        mark("Interactive");
+        activity.reportFullyDrawn();
+    }
+
+    private static long sinceProcessStartMs() {
+        return SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.debugappproject.data.local;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for search-box text to FTS MATCH conversion.
+ */
+public class FtsQueryTest {
+
+    @Test
+    public void fromUserInput_wordsBecomePrefixTerms() {
+        assertEquals("null* poi*", FtsQuery.fromUserInput("  Null  Poi"));
+    }
+
+    @Test
+    public void fromUserInput_ftsSyntaxIsTreatedAsSeparators() {
+        assertEquals("off* by* one*", FtsQuery.fromUserInput("\"off-by\" -one*"));
+        assertEquals("title* loop*", FtsQuery.fromUserInput("title:loop"));
+    }
+
+    @Test
+    public void fromUserInput_operatorWordsAreLowercased() {
+        assertEquals("null* or* loop*", FtsQuery.fromUserInput("null OR loop"));
+    }
+
+    @Test
+    public void fromUserInput_noWords_returnsNull() {
+        assertNull(FtsQuery.fromUserInput(null));
+        assertNull(FtsQuery.fromUserInput(""));
+        assertNull(FtsQuery.fromUserInput(" ?! "));
+    }
+
+    @Test
+    public void fromUserInput_limitsTermCount() {
+        String query = FtsQuery.fromUserInput("a b c d e f g h i j");
+
+        assertEquals("a* b* c* d* e* f* g* h*", query);
+    }
+}
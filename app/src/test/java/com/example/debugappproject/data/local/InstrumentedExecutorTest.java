@@ -0,0 +1,154 @@
+package com.example.debugappproject.data.local;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the bounded, instrumented DB thread pool.
+ */
+public class InstrumentedExecutorTest {
+
+    private InstrumentedExecutor executor;
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stats_countCompletedTasks() throws Exception {
+        executor = new InstrumentedExecutor("test", 2, 8, null);
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> { });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        InstrumentedExecutor.Stats stats = executor.getStats();
+        assertEquals(5, stats.submitted);
+        assertEquals(5, stats.completed);
+        assertEquals(0, stats.saturated);
+        assertEquals(0, stats.queueDepth);
+    }
+
+    @Test
+    public void stats_recordQueueDepthAndWait() throws Exception {
+        executor = new InstrumentedExecutor("test", 1, 8, null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> { });
+        }
+        assertEquals(3, executor.getStats().queueDepth);
+
+        // Time the blocking task from when it is actually running
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        InstrumentedExecutor.Stats stats = executor.getStats();
+        assertEquals(3, stats.maxQueueDepth);
+        assertTrue(stats.maxWaitNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(stats.maxRunNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void fullQueue_blocksSubmitterInsteadOfDropping() throws Exception {
+        executor = new InstrumentedExecutor("test", 1, 1, null, () -> false);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+
+        executor.execute(() -> await(release));
+        executor.execute(ran::incrementAndGet);
+
+        Thread submitter = new Thread(() -> executor.execute(ran::incrementAndGet));
+        submitter.start();
+        submitter.join(200);
+        assertTrue("submitter should wait for room in the queue", submitter.isAlive());
+
+        release.countDown();
+        submitter.join(5000);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(2, ran.get());
+        assertEquals(1, executor.getStats().saturated);
+    }
+
+    @Test
+    public void fullQueue_mainThreadSubmitDoesNotBlock() throws Exception {
+        Thread[] mainThread = new Thread[1];
+        executor = new InstrumentedExecutor("test", 1, 1, null,
+                () -> Thread.currentThread() == mainThread[0]);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch bothRan = new CountDownLatch(2);
+
+        executor.execute(() -> await(release));
+        executor.execute(bothRan::countDown);
+
+        mainThread[0] = new Thread(() -> executor.execute(bothRan::countDown));
+        mainThread[0].start();
+        mainThread[0].join(1000);
+        assertFalse("main thread must not wait for room in the queue", mainThread[0].isAlive());
+
+        release.countDown();
+        assertTrue("overflowed task should still run", bothRan.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.getStats().saturated);
+    }
+
+    @Test
+    public void fullQueue_poolThreadRunsTaskInline() throws Exception {
+        executor = new InstrumentedExecutor("test", 1, 1, null);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ranOn = new AtomicInteger();
+
+        Future<?> outer = executor.submit(() -> {
+            // Fill the queue, then submit again from the pool's only thread
+            executor.execute(() -> await(release));
+            executor.execute(() -> ranOn.set(Thread.currentThread().getName().startsWith("test-") ? 1 : 2));
+        });
+        outer.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, ranOn.get());
+        release.countDown();
+    }
+
+    @Test
+    public void threadSetup_runsOnEachPoolThread() throws Exception {
+        AtomicInteger setups = new AtomicInteger();
+        executor = new InstrumentedExecutor("test", 2, 8, setups::incrementAndGet);
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        Future<?> a = executor.submit(() -> { bothRunning.countDown(); await(bothRunning); });
+        Future<?> b = executor.submit(() -> { bothRunning.countDown(); await(bothRunning); });
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, setups.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
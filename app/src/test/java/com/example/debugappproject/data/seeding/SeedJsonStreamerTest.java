@@ -0,0 +1,61 @@
+package com.example.debugappproject.data.seeding;
+
+import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.Hint;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for streaming bugs.json parsing.
+ */
+public class SeedJsonStreamerTest {
+
+    private static final String JSON = "{" +
+            "\"version\": {\"ignored\": [1, 2]}," +
+            "\"bugs\": [" +
+            "  {\"id\": 1, \"title\": \"A\", \"fixedCode\": \"int a = 1;\", \"isCompleted\": false}," +
+            "  {\"id\": 2, \"title\": \"B\", \"category\": \"Loops\"}," +
+            "  {\"id\": 3, \"title\": \"C\"}" +
+            "]," +
+            "\"hints\": [{\"id\": 7, \"bugId\": 1}]" +
+            "}";
+
+    @Test
+    public void stream_deliversBugsInFixedSizeBatches() throws Exception {
+        SeedJsonStreamer streamer = new SeedJsonStreamer(new Gson(), 2);
+        List<List<Bug>> batches = new ArrayList<>();
+        List<Hint> hints = new ArrayList<>();
+
+        streamer.stream(new StringReader(JSON), batch -> batches.add(new ArrayList<>(batch)), hints::addAll);
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(3, streamer.getBugCount());
+        assertEquals("int a = 1;", batches.get(0).get(0).getFixedCode());
+        assertEquals("Loops", batches.get(0).get(1).getCategory());
+        assertEquals(3, batches.get(1).get(0).getId());
+
+        assertEquals(1, streamer.getHintCount());
+        assertEquals(7, hints.get(0).getId());
+    }
+
+    @Test
+    public void stream_missingOrNullArrays_deliverNothing() throws Exception {
+        SeedJsonStreamer streamer = new SeedJsonStreamer(new Gson(), 10);
+        List<Bug> bugs = new ArrayList<>();
+
+        streamer.stream(new StringReader("{\"bugs\": null}"), bugs::addAll, batch -> fail("no hints"));
+
+        assertTrue(bugs.isEmpty());
+        assertEquals(0, streamer.getBugCount());
+        assertEquals(0, streamer.getHintCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.debugappproject.data.seeding;
+
+import com.example.debugappproject.model.SeedManifestEntry;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for comparing seed records with the seed manifest.
+ */
+public class SeedManifestDiffTest {
+
+    private static final String KIND = SeedManifestEntry.KIND_BUG;
+
+    @Test
+    public void offer_skipsUnchangedAndWritesNewOrChanged() {
+        SeedManifestDiff diff = new SeedManifestDiff(KIND, Arrays.asList(
+                new SeedManifestEntry(KIND, "1", 100L),
+                new SeedManifestEntry(KIND, "2", 200L)), false);
+
+        assertFalse(diff.offer("1", 100L));
+        assertTrue(diff.offer("2", 201L));
+        assertTrue(diff.offer("3", 300L));
+
+        List<SeedManifestEntry> changed = diff.getChangedEntries();
+        assertEquals(2, changed.size());
+        assertEquals("2", changed.get(0).getRecordKey());
+        assertEquals(201L, changed.get(0).getHash());
+        assertEquals("3", changed.get(1).getRecordKey());
+        assertEquals(KIND, changed.get(1).getKind());
+    }
+
+    @Test
+    public void removedKeys_areSeededKeysThatWereNotOffered() {
+        SeedManifestDiff diff = new SeedManifestDiff(KIND, Arrays.asList(
+                new SeedManifestEntry(KIND, "1", 100L),
+                new SeedManifestEntry(KIND, "2", 200L)), false);
+
+        diff.offer("1", 100L);
+
+        assertEquals(Collections.singletonList("2"), diff.getRemovedKeys());
+    }
+
+    @Test
+    public void emptyManifest_treatsEveryRecordAsNew() {
+        SeedManifestDiff diff = new SeedManifestDiff(KIND, Collections.emptyList(), false);
+
+        assertTrue(diff.offer("1", 100L));
+        assertTrue(diff.getRemovedKeys().isEmpty());
+    }
+
+    @Test
+    public void rewriteAll_writesUnchangedRecordsButStillFindsRemovals() {
+        SeedManifestDiff diff = new SeedManifestDiff(KIND, Arrays.asList(
+                new SeedManifestEntry(KIND, "1", 100L),
+                new SeedManifestEntry(KIND, "2", 200L)), true);
+
+        assertTrue(diff.offer("1", 100L));
+        assertEquals(Collections.singletonList("2"), diff.getRemovedKeys());
+    }
+
+    @Test
+    public void hash_isStableAndDependsOnContentAndSeedVersion() {
+        long hash = SeedManifestDiff.hash(7, "{\"id\":1,\"title\":\"Off by one\"}");
+
+        assertEquals(hash, SeedManifestDiff.hash(7, "{\"id\":1,\"title\":\"Off by one\"}"));
+        assertNotEquals(hash, SeedManifestDiff.hash(7, "{\"id\":1,\"title\":\"Off by two\"}"));
+        assertNotEquals(hash, SeedManifestDiff.hash(8, "{\"id\":1,\"title\":\"Off by one\"}"));
+    }
+}
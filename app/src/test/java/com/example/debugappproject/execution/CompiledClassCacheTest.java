@@ -0,0 +1,67 @@
+package com.example.debugappproject.execution;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CompiledClassCache keying, LRU eviction and hit/miss counters.
+ */
+public class CompiledClassCacheTest {
+
+    private static final Map<String, byte[]> NO_BYTECODE = Collections.emptyMap();
+
+    private CompiledClassCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new CompiledClassCache(2);
+    }
+
+    @Test
+    public void keyFor_sameSource_returnsSameKey() {
+        String source = "public class UserCode { }";
+        assertEquals(CompiledClassCache.keyFor(source), CompiledClassCache.keyFor(source));
+    }
+
+    @Test
+    public void keyFor_differentSource_returnsDifferentKey() {
+        assertNotEquals(CompiledClassCache.keyFor("class A {}"),
+                CompiledClassCache.keyFor("class B {}"));
+    }
+
+    @Test
+    public void get_afterPut_countsHit() {
+        cache.put("a", NO_BYTECODE);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void put_overCapacity_evictsLeastRecentlyUsed() {
+        cache.put("a", NO_BYTECODE);
+        cache.put("b", NO_BYTECODE);
+        cache.get("a"); // "b" is now least recently used
+        cache.put("c", NO_BYTECODE);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void loadClass_unknownName_throws() throws Exception {
+        cache.put("a", NO_BYTECODE).loadClass("UserCode");
+    }
+}
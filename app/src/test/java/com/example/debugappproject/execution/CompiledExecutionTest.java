@@ -0,0 +1,265 @@
+package com.example.debugappproject.execution;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CodeExecutionEngine that compile and run real user code
+ * with Janino on the JVM:
+ * - executeTests grading: order, per-case stdin, isolation, one compile
+ * - per-thread stdout capture when runs overlap
+ * - loop and output budgets, timeouts, and instrumented loops that must still compile
+ * - execution slots are returned even when a run is rejected
+ */
+public class CompiledExecutionTest {
+
+    private CodeExecutionEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new CodeExecutionEngine();
+        engine.setTimeout(2000); // 2 second timeout for tests
+    }
+
+    @After
+    public void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    // ========== Test Case Grading Tests ==========
+
+    @Test
+    public void testExecuteTests_ResultsInInputOrder() {
+        // Earlier inputs sleep longer, so they finish after later ones
+        String code = "int n = new java.util.Scanner(System.in).nextInt();\n" +
+                     "try { Thread.sleep((8 - n) * 20); } catch (InterruptedException e) { }\n" +
+                     "System.out.println(n * 10);";
+        List<String> inputs = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8");
+
+        List<CodeExecutionResult> results = engine.executeTests(code, inputs);
+
+        assertEquals(inputs.size(), results.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals("Result " + i + " should belong to input " + inputs.get(i),
+                    String.valueOf((i + 1) * 10), results.get(i).getOutput().trim());
+        }
+    }
+
+    @Test
+    public void testExecuteTests_EachInputOnItsOwnStdin() {
+        String code = "java.util.Scanner in = new java.util.Scanner(System.in);\n" +
+                     "StringBuilder all = new StringBuilder();\n" +
+                     "while (in.hasNextLine()) { all.append(in.nextLine()).append('|'); }\n" +
+                     "System.out.println(all);";
+        List<String> inputs = Arrays.asList("a\nb", "c", "", "d\ne\nf");
+
+        List<CodeExecutionResult> results = engine.executeTests(code, inputs);
+
+        assertEquals("a|b|", results.get(0).getOutput().trim());
+        assertEquals("c|", results.get(1).getOutput().trim());
+        assertEquals("", results.get(2).getOutput().trim());
+        assertEquals("d|e|f|", results.get(3).getOutput().trim());
+    }
+
+    @Test
+    public void testExecuteTests_FailuresStayInTheirOwnCase() {
+        String code = "String line = new java.util.Scanner(System.in).nextLine();\n" +
+                     "if (line.equals(\"throw\")) { throw new IllegalStateException(\"boom\"); }\n" +
+                     "if (line.equals(\"hang\")) { try { Thread.sleep(60000); } catch (InterruptedException e) { } }\n" +
+                     "System.out.println(\"ok:\" + line);";
+        List<String> inputs = Arrays.asList("first", "throw", "hang", "last");
+
+        List<CodeExecutionResult> results = engine.executeTests(code, inputs);
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("ok:first", results.get(0).getOutput().trim());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("RUNTIME_ERROR", results.get(1).getErrorType());
+        assertEquals("TIMEOUT_ERROR", results.get(2).getErrorType());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals("ok:last", results.get(3).getOutput().trim());
+    }
+
+    @Test
+    public void testExecuteTests_CompilesOnce() {
+        CompiledClassCache cache = new CompiledClassCache();
+        CodeExecutionEngine testEngine = new CodeExecutionEngine(cache);
+        try {
+            List<CodeExecutionResult> results = testEngine.executeTests(
+                    "System.out.println(new java.util.Scanner(System.in).nextLine());",
+                    Arrays.asList("x", "y", "z", "w"));
+
+            assertEquals(4, results.size());
+            assertEquals("One compile for the whole batch", 1, cache.getMissCount());
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.size());
+        } finally {
+            testEngine.shutdown();
+        }
+    }
+    // ========== Output Capture Tests ==========
+
+    @Test
+    public void testConcurrentRuns_OutputNotInterleaved() throws Exception {
+        String codeA = "for (int i = 0; i < 500; i++) { System.out.println(\"A\" + i); }";
+        String codeB = "for (int i = 0; i < 500; i++) { System.out.println(\"B\" + i); }";
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<CodeExecutionResult> futureA = callers.submit(() -> engine.execute(codeA));
+            Future<CodeExecutionResult> futureB = callers.submit(() -> engine.execute(codeB));
+            CodeExecutionResult resultA = futureA.get(10, TimeUnit.SECONDS);
+            CodeExecutionResult resultB = futureB.get(10, TimeUnit.SECONDS);
+
+            assertTrue(resultA.isSuccess());
+            assertTrue(resultB.isSuccess());
+            assertEquals("Run A should capture exactly its own output",
+                    expectedLines("A", 500), resultA.getOutput());
+            assertEquals("Run B should capture exactly its own output",
+                    expectedLines("B", 500), resultB.getOutput());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentRuns_CallerStdoutUntouched() throws Exception {
+        // The first run installs the routing stream; later runs must not swap System.out
+        engine.execute("System.out.println(\"warm\");");
+        PrintStream callerOut = System.out;
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<CodeExecutionResult> futureA = callers.submit(() -> engine.execute(
+                    "for (int i = 0; i < 500; i++) { System.out.println(\"A\" + i); }"));
+            Future<CodeExecutionResult> futureB = callers.submit(() -> engine.execute(
+                    "for (int i = 0; i < 500; i++) { System.out.println(\"B\" + i); }"));
+            for (int i = 0; i < 50; i++) {
+                System.out.println("caller-" + i);
+            }
+            CodeExecutionResult resultA = futureA.get(10, TimeUnit.SECONDS);
+            CodeExecutionResult resultB = futureB.get(10, TimeUnit.SECONDS);
+
+            assertSame("System.out should be the same stream after the runs", callerOut, System.out);
+            assertFalse("Caller output must not be captured", resultA.getOutput().contains("caller-"));
+            assertFalse("Caller output must not be captured", resultB.getOutput().contains("caller-"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static String expectedLines(String prefix, int count) {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            expected.append(prefix).append(i).append(System.lineSeparator());
+        }
+        return expected.toString();
+    }
+    // ========== Budget and Timeout Tests ==========
+
+    @Test
+    public void testInfiniteLoop_Timeout() {
+        String code = "while (true) {\n" +
+                     "    // Infinite loop\n" +
+                     "}";
+
+        CodeExecutionResult result = engine.execute(code);
+
+        assertFalse("Infinite loop should be stopped", result.isSuccess());
+        assertEquals("Should hit the loop budget",
+                "RESOURCE_LIMIT_ERROR", result.getErrorType());
+        assertTrue("Error message should mention the loop limit",
+                result.getErrorMessage().toLowerCase().contains("loop limit"));
+    }
+
+    @Test
+    public void testLongRunningLoop_Timeout() {
+        String code = "for (long i = 0; i < 999999999999L; i++) {\n" +
+                     "    // Very long loop\n" +
+                     "}";
+
+        CodeExecutionResult result = engine.execute(code);
+
+        assertFalse("Long running code should be stopped", result.isSuccess());
+        assertEquals("Should hit the loop budget",
+                "RESOURCE_LIMIT_ERROR", result.getErrorType());
+    }
+
+    @Test
+    public void testMethodEndingInDoWhileTrue_Success() {
+        String code = "public class UserCode {\n" +
+                     "    static int f(int x) { do { if (x > 3) return x; x++; } while (true); }\n" +
+                     "    static int g(int x) { for (;;) if (x++ > 3) return x; }\n" +
+                     "    public static void main(String[] args) {\n" +
+                     "        System.out.println(f(0) + \",\" + g(0));\n" +
+                     "    }\n" +
+                     "}";
+
+        CodeExecutionResult result = engine.execute(code);
+
+        assertTrue("Instrumented loops should still compile", result.isSuccess());
+        assertTrue(result.getOutput().contains("4,5"));
+    }
+
+    @Test
+    public void testSleepingCode_Timeout() {
+        String code = "try { Thread.sleep(60000); } catch (InterruptedException e) { }";
+
+        CodeExecutionResult result = engine.execute(code);
+
+        assertFalse("Blocked code should timeout", result.isSuccess());
+        assertEquals("Should be timeout error",
+                "TIMEOUT_ERROR", result.getErrorType());
+    }
+
+    @Test
+    public void testEngineUsableAfterTimeout_Success() {
+        engine.execute("while (true) { }");
+
+        CodeExecutionResult result = engine.execute("System.out.println(\"after\");");
+
+        assertTrue("Engine should keep working after a runaway run", result.isSuccess());
+        assertTrue(result.getOutput().contains("after"));
+    }
+
+    @Test
+    public void testPrintLoop_OutputLimit() {
+        String code = "while (true) {\n" +
+                     "    System.out.println(\"spam\");\n" +
+                     "}";
+
+        CodeExecutionResult result = engine.execute(code);
+
+        assertFalse("Print loop should be stopped", result.isSuccess());
+        assertEquals("Should hit the output budget",
+                "RESOURCE_LIMIT_ERROR", result.getErrorType());
+        assertTrue("Output should be marked truncated", result.isOutputTruncated());
+    }
+
+    // ========== Execution Slot Tests ==========
+
+    @Test(timeout = 10000)
+    public void testRejectedSubmit_ReleasesSlot() {
+        engine.shutdown();
+
+        // More rejected runs than there are slots; a leaked permit would block the last one
+        for (int i = 0; i < 5; i++) {
+            CodeExecutionResult result = engine.execute("System.out.println(1);");
+            assertFalse("A shut-down engine can't run code", result.isSuccess());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.debugappproject.execution;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for LoopInstrumenter: where ticks are inserted, and that the
+ * instrumented source still compiles with the same reachability as the original.
+ */
+public class LoopInstrumenterTest {
+
+    private static final String TICK = "com.example.debugappproject.execution.ExecutionBudget.tick();";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void instrument_bracedWhile_ticksFirstInBody() {
+        assertEquals("while (x) { " + TICK + " y(); }",
+                LoopInstrumenter.instrument("while (x) { y(); }"));
+    }
+
+    @Test
+    public void instrument_unbracedWhile_wrapsBodyInBlock() {
+        assertEquals("while (x) { " + TICK + " y(); }",
+                LoopInstrumenter.instrument("while (x) y();"));
+    }
+
+    @Test
+    public void instrument_unbracedForever_keepsConditionEmpty() {
+        assertEquals("for (;;) { " + TICK + " y(); }",
+                LoopInstrumenter.instrument("for (;;) y();"));
+    }
+
+    @Test
+    public void instrument_emptyWhileBody_stillTicks() {
+        assertEquals("while (!done) { " + TICK + " ; }",
+                LoopInstrumenter.instrument("while (!done) ;"));
+    }
+
+    @Test
+    public void instrument_bracedDo_leavesClosingWhileAlone() {
+        assertEquals("do { " + TICK + " x++; } while (true);",
+                LoopInstrumenter.instrument("do { x++; } while (true);"));
+    }
+
+    @Test
+    public void instrument_unbracedDo_wrapsBodyAndLeavesClosingWhileAlone() {
+        assertEquals("do { " + TICK + " x++; } while (x < 3);",
+                LoopInstrumenter.instrument("do x++; while (x < 3);"));
+    }
+
+    @Test
+    public void instrument_unbracedIfElseBody_wrapsWholeStatement() {
+        assertEquals("while (x) { " + TICK + " if (a) b(); else c(); }",
+                LoopInstrumenter.instrument("while (x) if (a) b(); else c();"));
+    }
+
+    @Test
+    public void instrument_unbracedTryFinallyBody_stopsAtEndOfTry() {
+        assertEquals("for (;i<3;) { " + TICK + " try{i++;}finally{} } print(i);",
+                LoopInstrumenter.instrument("for (;i<3;) try{i++;}finally{} print(i);"));
+    }
+
+    @Test
+    public void instrument_unbracedTryWithResourcesBody_includesCatchChain() {
+        String body = "try (R r = open()) { i++; } catch (A e) { } catch (B e) { } finally { }";
+        assertEquals("while (x) { " + TICK + " " + body + " } print(i);",
+                LoopInstrumenter.instrument("while (x) " + body + " print(i);"));
+    }
+
+    @Test
+    public void instrument_unbracedTryCatchBody_stopsAtLastCatch() {
+        assertEquals("while (x) { " + TICK + " try { i++; } catch (E e) { } } print(i);",
+                LoopInstrumenter.instrument("while (x) try { i++; } catch (E e) { } print(i);"));
+    }
+
+    @Test
+    public void instrument_unbracedSwitchBody_stopsAtEndOfSwitch() {
+        assertEquals("while (x) { " + TICK + " switch (i) { case 0: i++; break; default: i--; } } print(i);",
+                LoopInstrumenter.instrument("while (x) switch (i) { case 0: i++; break; default: i--; } print(i);"));
+    }
+
+    @Test
+    public void instrument_unbracedSynchronizedBody_stopsAtEndOfBlock() {
+        assertEquals("while (x) { " + TICK + " synchronized (lock) { i++; } } print(i);",
+                LoopInstrumenter.instrument("while (x) synchronized (lock) { i++; } print(i);"));
+    }
+
+    @Test
+    public void instrument_unbracedLabeledLoopBody_wrapsLabelAndLoop() {
+        assertEquals("for (;;) { " + TICK + " outer: for (;;) { " + TICK + " break outer; } } print(i);",
+                LoopInstrumenter.instrument("for (;;) outer: for (;;) break outer; print(i);"));
+    }
+
+    @Test
+    public void instrument_methodReferenceInBody_isNotALabel() {
+        assertEquals("while (x) { " + TICK + " s = Y::one; } print(i);",
+                LoopInstrumenter.instrument("while (x) s = Y::one; print(i);"));
+    }
+
+    @Test
+    public void instrument_loopKeywordsInLiteralsAndComments_untouched() {
+        String source = "String s = \"while (x) y();\"; // for (;;) z();";
+        assertEquals(source, LoopInstrumenter.instrument(source));
+    }
+
+    @Test
+    public void instrument_noNewlinesAdded() {
+        String source = "for (;;)\n  y();\ndo\n  x++;\nwhile (x < 3);";
+        String instrumented = LoopInstrumenter.instrument(source);
+        assertEquals(source.split("\n", -1).length, instrumented.split("\n", -1).length);
+    }
+
+    @Test
+    public void instrument_methodEndingInBracedDoWhileTrue_stillCompiles() throws IOException {
+        assertCompiles("static int f(int x) { do { if (x > 3) return x; x++; } while (true); }");
+    }
+
+    @Test
+    public void instrument_methodEndingInUnbracedForever_stillCompiles() throws IOException {
+        assertCompiles("static int f(int x) { for (;;) if (x++ > 3) return x; }");
+    }
+
+    @Test
+    public void instrument_methodEndingInUnbracedWhileTrue_stillCompiles() throws IOException {
+        assertCompiles("static int f(int x) { while (true) if (x++ > 3) return x; }");
+    }
+
+    @Test
+    public void instrument_nestedUnbracedLoops_stillCompile() throws IOException {
+        assertCompiles("static int f(int x) {"
+                + " for (int i = 0; i < 3; i++) do x++; while (x < 7);"
+                + " if (x > 0) while (x > 0) x--; else for (int i : new int[]{1}) x += i;"
+                + " return x; }");
+    }
+
+    @Test
+    public void instrument_blockStatementBodies_stillCompile() throws IOException {
+        assertCompiles("static int f(int i) throws Exception {"
+                + " for (; i < 3;) try { i++; } finally { }"
+                + " while (i < 6) try (java.io.StringReader r = new java.io.StringReader(\"x\")) { i++; }"
+                + " catch (RuntimeException e) { } catch (Exception e) { } finally { }"
+                + " while (i < 9) switch (i) { case 0: i++; break; default: i += 2; }"
+                + " while (i < 12) synchronized (UserCode.class) { i++; }"
+                + " for (int k = 0; k < 2; k++) outer: for (int j = 0; j < 5; j++) { if (j == 1) break outer; i++; }"
+                + " return i; }");
+    }
+
+    private void assertCompiles(String method) throws IOException {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", javac);
+
+        String source = "public class UserCode { " + method + " }";
+        File file = new File(folder.getRoot(), "UserCode.java");
+        Files.write(file.toPath(), LoopInstrumenter.instrument(source).getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = javac.run(null, null, errors,
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", folder.getRoot().getPath(), file.getPath());
+        assertEquals(errors.toString(), 0, status);
+    }
+}
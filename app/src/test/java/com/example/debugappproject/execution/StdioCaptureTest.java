@@ -0,0 +1,115 @@
+package com.example.debugappproject.execution;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for StdioCapture per-thread routing of System.out and System.in.
+ */
+public class StdioCaptureTest {
+
+    @Test
+    public void end_returnsOnlyThisThreadsOutput() throws Exception {
+        CountDownLatch bothCapturing = new CountDownLatch(2);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> a = threads.submit(printer("A", bothCapturing));
+            Future<String> b = threads.submit(printer("B", bothCapturing));
+
+            assertEquals(expectedLines("A"), a.get(10, TimeUnit.SECONDS));
+            assertEquals(expectedLines("B"), b.get(10, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void begin_leavesOtherThreadsStdoutAlone() throws Exception {
+        StdioCapture.begin(null, 1024);
+        StdioCapture.end();
+        PrintStream callerOut = System.out;
+
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> captured = threads.submit(printer("A", new CountDownLatch(0)));
+            System.out.println("caller");
+            assertFalse(captured.get(10, TimeUnit.SECONDS).contains("caller"));
+        } finally {
+            threads.shutdownNow();
+        }
+        assertSame(callerOut, System.out);
+    }
+
+    @Test
+    public void begin_givesEachThreadItsOwnStdin() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> a = threads.submit(reader("first"));
+            Future<String> b = threads.submit(reader("second"));
+
+            assertEquals("first", a.get(10, TimeUnit.SECONDS));
+            assertEquals("second", b.get(10, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void end_overLimit_reportsTruncation() {
+        StdioCapture.begin(null, 4);
+        System.out.print("abcdefgh");
+        StdioCapture.Captured captured = StdioCapture.end();
+
+        assertEquals("abcd", captured.output);
+        assertEquals(4, captured.droppedBytes);
+        assertTrue(captured.isTruncated());
+    }
+
+    private static Callable<String> printer(String prefix, CountDownLatch bothCapturing) {
+        return () -> {
+            StdioCapture.begin(null, 64 * 1024);
+            String output;
+            try {
+                bothCapturing.countDown();
+                bothCapturing.await(5, TimeUnit.SECONDS);
+                for (int i = 0; i < 500; i++) {
+                    System.out.println(prefix + i);
+                }
+            } finally {
+                output = StdioCapture.end().output;
+            }
+            return output;
+        };
+    }
+
+    private static Callable<String> reader(String stdin) {
+        return () -> {
+            StdioCapture.begin(stdin + "\n", 1024);
+            try {
+                return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+            } finally {
+                StdioCapture.end();
+            }
+        };
+    }
+
+    private static String expectedLines(String prefix) {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            expected.append(prefix).append(i).append(System.lineSeparator());
+        }
+        return expected.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.debugappproject.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SolveRewardTest {
+
+    @Test
+    public void withXp_rewardsByDifficulty() {
+        assertReward(SolveReward.withXp("Easy", false), 1, 0, 0, 10, 5);
+        assertReward(SolveReward.withXp("Medium", false), 0, 1, 0, 25, 10);
+        assertReward(SolveReward.withXp("Hard", false), 0, 0, 1, 50, 20);
+        assertReward(SolveReward.withXp("Expert", false), 0, 0, 1, 100, 40);
+    }
+
+    @Test
+    public void withXp_noHintsDoublesXpAndGivesHalfMoreGems() {
+        SolveReward reward = SolveReward.withXp("medium", true);
+
+        assertReward(reward, 0, 1, 0, 50, 15);
+        assertEquals(1, reward.getSolvedWithoutHints());
+        assertEquals(0, SolveReward.withXp("medium", false).getSolvedWithoutHints());
+    }
+
+    @Test
+    public void withXp_nullDifficultyCountsAsEasy() {
+        assertReward(SolveReward.withXp(null, false), 1, 0, 0, 10, 5);
+    }
+
+    @Test
+    public void withXp_unknownDifficultyGetsEasyRewardWithoutCounter() {
+        assertReward(SolveReward.withXp("Legendary", false), 0, 0, 0, 10, 5);
+    }
+
+    @Test
+    public void countOnly_countsDifficultyWithoutRewards() {
+        assertReward(SolveReward.countOnly("Easy"), 1, 0, 0, 0, 0);
+        assertReward(SolveReward.countOnly("Expert"), 0, 0, 1, 0, 0);
+        assertEquals(0, SolveReward.countOnly("Easy").getSolvedWithoutHints());
+    }
+
+    private static void assertReward(SolveReward reward, int easy, int medium, int hard, int xp, int gems) {
+        assertEquals(easy, reward.getEasySolved());
+        assertEquals(medium, reward.getMediumSolved());
+        assertEquals(hard, reward.getHardSolved());
+        assertEquals(xp, reward.getXp());
+        assertEquals(gems, reward.getGems());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.debugappproject.multiplayer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the in-memory battle transport and its simulated network.
+ */
+public class LoopbackBattleTransportTest {
+
+    private static final LoopbackBattleTransport.Conditions FIXED_50MS =
+            new LoopbackBattleTransport.Conditions(50, 0, 0, 0);
+
+    @Test
+    public void progressWrite_reachesOpponentAfterWriteAndEvent() {
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(FIXED_50MS, 1);
+        BattleTransport host = network.connect("host");
+        BattleTransport guest = network.connect("guest");
+        BattleRoom room = createRoom(network, host);
+
+        List<Long> seenAt = new ArrayList<>();
+        List<Integer> seenProgress = new ArrayList<>();
+        guest.listenToRoom(room.getRoomId(), listener(changed -> {
+            seenAt.add(network.now());
+            seenProgress.add(changed.getHostProgress());
+        }));
+        network.runUntilIdle();
+
+        long sentAt = network.now();
+        host.updateProgress(room.getRoomId(), true, 40);
+        network.runUntilIdle();
+
+        // Write up, event down
+        assertEquals(Integer.valueOf(40), seenProgress.get(seenProgress.size() - 1));
+        assertEquals(sentAt + 2 * 50, (long) seenAt.get(seenAt.size() - 1));
+    }
+
+    @Test
+    public void submitSolution_onlyFirstCorrectSubmissionWins() {
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(FIXED_50MS, 1);
+        BattleTransport host = network.connect("host");
+        BattleTransport guest = network.connect("guest");
+        BattleRoom room = createRoom(network, host);
+        guest.joinRoom(room.getRoomId(), "guest", "Guest", callback());
+        network.runUntilIdle();
+
+        guest.submitSolution(room.getRoomId(), "guest", false, "fixed", true, 1, callback());
+        network.schedule(10, () -> host.submitSolution(room.getRoomId(), "host", true, "fixed", true, 1, callback()));
+        network.runUntilIdle();
+
+        BattleRoom[] result = new BattleRoom[1];
+        host.fetchRoom(room.getRoomId(), callback(fetched -> result[0] = fetched));
+        network.runUntilIdle();
+        assertEquals(BattleRoom.RoomState.FINISHED, result[0].getState());
+        assertEquals("guest", result[0].getWinnerId());
+        assertTrue(result[0].isHostCorrect());
+    }
+
+    @Test
+    public void roomListener_getsChangedFieldsButNotSubmissions() {
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(FIXED_50MS, 1);
+        BattleTransport host = network.connect("host");
+        BattleTransport guest = network.connect("guest");
+        BattleRoom room = createRoom(network, host);
+        guest.joinRoom(room.getRoomId(), "guest", "Guest", callback());
+        network.runUntilIdle();
+
+        List<BattleRoom> seen = new ArrayList<>();
+        host.listenToRoom(room.getRoomId(), listener(seen::add));
+        network.runUntilIdle();
+        long bytesBefore = host.getRoomEventStats().getPayloadBytes();
+
+        StringBuilder code = new StringBuilder();
+        while (code.length() < 4000) {
+            code.append("int x = 1;\n");
+        }
+        guest.submitSolution(room.getRoomId(), "guest", false, code.toString(), true, 1, callback());
+        network.runUntilIdle();
+
+        BattleRoom last = seen.get(seen.size() - 1);
+        assertEquals("guest", last.getWinnerId());
+        assertEquals("Guest", last.getGuestName());
+        assertNull(last.getGuestSubmission());
+        assertTrue(host.getRoomEventStats().getPayloadBytes() - bytesBefore < 500);
+
+        // A one-off read still returns the code
+        BattleRoom[] fetched = new BattleRoom[1];
+        host.fetchRoom(room.getRoomId(), callback(result -> fetched[0] = result));
+        network.runUntilIdle();
+        assertEquals(code.toString(), fetched[0].getGuestSubmission());
+    }
+
+    @Test
+    public void sameSeed_givesSameDeliveryTimes() {
+        LoopbackBattleTransport.Conditions lossy = new LoopbackBattleTransport.Conditions(40, 30, 0.2, 1000);
+        assertEquals(progressDeliveryTimes(lossy, 7), progressDeliveryTimes(lossy, 7));
+        assertNotEquals(progressDeliveryTimes(lossy, 7), progressDeliveryTimes(lossy, 8));
+    }
+
+    private static List<Long> progressDeliveryTimes(LoopbackBattleTransport.Conditions conditions, long seed) {
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(conditions, seed);
+        BattleTransport host = network.connect("host");
+        BattleTransport guest = network.connect("guest");
+        BattleRoom room = createRoom(network, host);
+        List<Long> times = new ArrayList<>();
+        guest.listenToRoom(room.getRoomId(), listener(changed -> times.add(network.now())));
+        for (int i = 1; i <= 50; i++) {
+            int progress = i;
+            network.schedule(i * 100L, () -> host.updateProgress(room.getRoomId(), true, progress));
+        }
+        network.runUntilIdle();
+        return times;
+    }
+
+    private static BattleRoom createRoom(LoopbackBattleTransport.Network network, BattleTransport host) {
+        BattleRoom room = new BattleRoom(host.newRoomId(), "ABC123", "host", "Host", 1);
+        host.createRoom(room, callback());
+        network.runUntilIdle();
+        return room;
+    }
+
+    private static <T> BattleTransport.Callback<T> callback() {
+        return callback(result -> { });
+    }
+
+    private static <T> BattleTransport.Callback<T> callback(Consumer<T> onSuccess) {
+        return new BattleTransport.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                onSuccess.accept(result);
+            }
+
+            @Override
+            public void onError(String error) {
+                fail(error);
+            }
+        };
+    }
+
+    private static BattleTransport.RoomListener listener(Consumer<BattleRoom> onRoom) {
+        return new BattleTransport.RoomListener() {
+            @Override
+            public void onRoomChanged(BattleRoom room) {
+                if (room != null) {
+                    onRoom.accept(room);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                fail(error);
+            }
+        };
+    }
+}
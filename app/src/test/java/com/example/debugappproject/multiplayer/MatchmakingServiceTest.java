@@ -0,0 +1,170 @@
+package com.example.debugappproject.multiplayer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for bucketed, claim-based matchmaking over the loopback transport.
+ */
+public class MatchmakingServiceTest {
+
+    private LoopbackBattleTransport.Network network;
+    private MatchmakingStats stats;
+
+    @Before
+    public void setUp() {
+        network = new LoopbackBattleTransport.Network(new LoopbackBattleTransport.Conditions(50, 0, 0, 0), 1);
+        stats = new MatchmakingStats();
+    }
+
+    @Test
+    public void bucketsBetween_coversEveryTierInTheWindow() {
+        assertEquals(Arrays.asList("SILVER"), MatchmakingService.bucketsBetween(1250, 1350));
+        assertEquals(Arrays.asList("BRONZE", "SILVER", "GOLD"), MatchmakingService.bucketsBetween(1100, 1450));
+        assertEquals(Arrays.asList("UNRANKED", "BRONZE"), MatchmakingService.bucketsBetween(900, 1100));
+    }
+
+    @Test
+    public void twoSearchersForOneWaitingPlayer_onlyOneClaimsIt() {
+        Searcher waiting = new Searcher("waiting", 1300);
+        Searcher first = new Searcher("first", 1310);
+        Searcher second = new Searcher("second", 1290);
+        waiting.start();
+        network.schedule(1000, () -> {
+            first.start();
+            second.start();
+        });
+        // Well before anyone searches again
+        network.schedule(2000, () -> {
+            waiting.service.cancel();
+            first.service.cancel();
+            second.service.cancel();
+        });
+        network.runUntilIdle();
+
+        // One got the room; the other lost the claim and opened its own
+        assertTrue(waiting.queued);
+        assertTrue(first.opponent != null ^ second.opponent != null);
+        Searcher loser = first.opponent != null ? second : first;
+        assertTrue(loser.queued);
+        assertEquals("waiting", (first.opponent != null ? first : second).opponent.userId);
+        assertEquals(1, stats.getMatches());
+        assertEquals(1, stats.getClaimConflicts());
+    }
+
+    @Test
+    public void distantElo_matchesOnlyOnceTheWindowHasWidened() {
+        // 250 apart: outside the first ±100 window, inside after 60 s of waiting
+        Searcher low = new Searcher("low", 1200);
+        Searcher high = new Searcher("high", 1450);
+        low.start();
+        network.schedule(1000, high::start);
+        network.schedule(120_000, () -> {
+            low.service.cancel();
+            high.service.cancel();
+        });
+        network.runUntilIdle();
+
+        // The newer entry claims the older one
+        assertNotNull(high.opponent);
+        assertEquals("low", high.opponent.userId);
+        assertTrue(stats.getTimeToMatchPercentile(100) >= 50_000);
+        assertEquals(250, stats.getEloDeltaPercentile(100));
+    }
+
+    @Test
+    public void lostClaimWhileWaiting_requeuesWithOriginalTimestamp() {
+        Searcher waiting = new Searcher("waiting", 1300);
+        LoopbackBattleTransport other = network.connect("other");
+        long[] queuedAt = new long[2];
+        waiting.start();
+        network.schedule(1000, () -> {
+            readOwnTimestamp(other, queuedAt, 0);
+            // An older entry, found by the next search but taken before it is claimed
+            other.requeue("SILVER", new BattleTransport.QueueEntry("older", "older-room", 1, 1310,
+                    network.now() - 10_000));
+        });
+        network.schedule(MatchmakingService.SEARCH_INTERVAL_MS + 200, () ->
+                other.claimQueueEntry("SILVER", "older", ignoring()));
+        network.schedule(MatchmakingService.SEARCH_INTERVAL_MS + 2000, () -> readOwnTimestamp(other, queuedAt, 1));
+        network.schedule(MatchmakingService.SEARCH_INTERVAL_MS + 3000, waiting.service::cancel);
+        network.runUntilIdle();
+
+        assertEquals(1, stats.getClaimConflicts());
+        assertTrue(queuedAt[0] > 0);
+        assertEquals(queuedAt[0], queuedAt[1]);
+    }
+
+    private static void readOwnTimestamp(BattleTransport transport, long[] timestamps, int index) {
+        transport.findQueueEntries("SILVER", 1300, MatchmakingService.CANDIDATES_PER_BUCKET,
+                new BattleTransport.Callback<List<BattleTransport.QueueEntry>>() {
+            @Override
+            public void onSuccess(List<BattleTransport.QueueEntry> entries) {
+                for (BattleTransport.QueueEntry entry : entries) {
+                    if (entry.userId.equals("waiting")) {
+                        timestamps[index] = entry.timestamp;
+                    }
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                fail(error);
+            }
+        });
+    }
+
+    private static <T> BattleTransport.Callback<T> ignoring() {
+        return new BattleTransport.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+            }
+
+            @Override
+            public void onError(String error) {
+                fail(error);
+            }
+        };
+    }
+
+    /**
+     * A player searching on their own connection; queues a room if nobody fits.
+     */
+    private final class Searcher implements MatchmakingService.Listener {
+        final String id;
+        final MatchmakingService service;
+        BattleTransport.QueueEntry opponent;
+        boolean queued;
+
+        Searcher(String id, int elo) {
+            this.id = id;
+            service = new MatchmakingService(network.connect(id), id, elo,
+                    (action, delayMs) -> network.schedule(delayMs, action), network::now, stats, this);
+        }
+
+        void start() {
+            service.start();
+        }
+
+        @Override
+        public void onOpponentFound(BattleTransport.QueueEntry opponent) {
+            this.opponent = opponent;
+        }
+
+        @Override
+        public void onNoOpponent() {
+            queued = true;
+            service.enqueue(id + "-room", 1);
+        }
+
+        @Override
+        public void onError(String error) {
+            fail(error);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.debugappproject.multiplayer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for coalescing keystroke progress into throttled writes.
+ */
+public class ProgressWriteThrottleTest {
+
+    private long now;
+    private final PriorityQueue<long[]> timers = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private final List<Runnable> timerActions = new ArrayList<>();
+    private final List<Integer> written = new ArrayList<>();
+    private ProgressWriteThrottle throttle;
+
+    @Before
+    public void setUp() {
+        // 4 writes per second: one every 250 ms
+        throttle = new ProgressWriteThrottle(4, (action, delayMs) -> {
+            timers.add(new long[] {now + delayMs, timerActions.size()});
+            timerActions.add(action);
+        }, () -> now, written::add);
+    }
+
+    @Test
+    public void burstOfKeystrokes_writesFirstAndLastValueOnly() {
+        for (int progress = 1; progress <= 10; progress++) {
+            throttle.offer(progress);
+            advance(20);
+        }
+        advance(500);
+
+        assertEquals(Arrays.asList(1, 10), written);
+        assertEquals(8, throttle.getDroppedCount());
+    }
+
+    @Test
+    public void steadyTyping_writesAtMostOncePerInterval() {
+        for (int progress = 1; progress <= 100; progress++) {
+            throttle.offer(progress);
+            advance(50);
+        }
+        advance(500);
+
+        // 5 s of typing at 4 writes per second, plus the final value
+        assertTrue(written.size() <= 21);
+        assertEquals(Integer.valueOf(100), written.get(written.size() - 1));
+    }
+
+    @Test
+    public void unchangedValue_isNotWrittenAgain() {
+        throttle.offer(30);
+        advance(300);
+        throttle.offer(30);
+        advance(300);
+
+        assertEquals(Arrays.asList(30), written);
+    }
+
+    @Test
+    public void flush_writesPendingValueImmediately() {
+        throttle.offer(10);
+        throttle.offer(20);
+        throttle.flush();
+
+        assertEquals(Arrays.asList(10, 20), written);
+        advance(500);
+        assertEquals(2, written.size());
+    }
+
+    @Test
+    public void reset_dropsPendingValue() {
+        throttle.offer(10);
+        throttle.offer(20);
+        throttle.reset();
+        advance(500);
+
+        assertEquals(Arrays.asList(10), written);
+    }
+
+    private void advance(long ms) {
+        long until = now + ms;
+        while (!timers.isEmpty() && timers.peek()[0] <= until) {
+            long[] timer = timers.poll();
+            now = timer[0];
+            timerActions.get((int) timer[1]).run();
+        }
+        now = until;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.debugappproject.multiplayer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the min-round-trip server clock filter.
+ */
+public class ServerClockTest {
+
+    @Test
+    public void offset_comesFromTheSampleWithTheShortestRoundTrip() {
+        ServerClock clock = new ServerClock(null, (action, delayMs) -> { }, () -> 0L);
+
+        // Stamped at 1100 halfway through a 100 ms round trip sent at 0
+        clock.addSample(0, 1100, 100);
+        assertEquals(1050, clock.getOffsetMs());
+        assertEquals(100, clock.getRoundTripMs());
+
+        // A slow sample, e.g. after a retransmit, does not replace it
+        clock.addSample(1000, 2600, 1400);
+        assertEquals(1050, clock.getOffsetMs());
+
+        // Once it has aged out of the window, the best of the newer ones wins
+        for (int i = 2; i < ServerClock.WINDOW; i++) {
+            clock.addSample(2000, 3250 + i, 2200);
+        }
+        assertEquals(1050, clock.getOffsetMs());
+        clock.addSample(3000, 4250, 3150);
+        assertEquals(1175, clock.getOffsetMs());
+        assertEquals(150, clock.getRoundTripMs());
+    }
+
+    @Test
+    public void seed_isUsedOnlyUntilTheFirstSample() {
+        ServerClock clock = new ServerClock(null, (action, delayMs) -> { }, () -> 1000L);
+        assertFalse(clock.isSynced());
+
+        clock.seed(500);
+        assertTrue(clock.isSynced());
+        assertEquals(1500, clock.now());
+
+        clock.addSample(0, 80, 40);
+        clock.seed(500);
+        assertEquals(60, clock.getOffsetMs());
+    }
+
+    @Test
+    public void skewedLocalClock_tracksServerTimeWithinHalfTheRoundTrip() {
+        LoopbackBattleTransport.Network network =
+                new LoopbackBattleTransport.Network(new LoopbackBattleTransport.Conditions(40, 30, 0, 0), 7);
+        long skew = -7_000;
+        ServerClock clock = new ServerClock(network.connect("player"),
+                (action, delayMs) -> network.schedule(delayMs, action), () -> network.now() + skew);
+
+        clock.start();
+        network.schedule(60_000, clock::stop);
+        network.runUntilIdle();
+
+        assertTrue(clock.getRoundTripMs() >= 80);
+        assertTrue(Math.abs(clock.now() - network.now()) <= clock.getRoundTripMs() / 2);
+        assertEquals(-skew, clock.getOffsetMs(), clock.getRoundTripMs() / 2.0);
+    }
+}
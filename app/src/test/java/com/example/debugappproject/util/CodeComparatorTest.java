@@ -0,0 +1,138 @@
+package com.example.debugappproject.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CodeComparator's Levenshtein similarity and its
+ * threshold-bounded variant.
+ */
+public class CodeComparatorTest {
+
+    private static final double[] THRESHOLDS = {0.0, 0.5, 0.85, 0.95, 0.98, 1.0};
+
+    @Test
+    public void calculateSimilarity_identicalStrings_returnsOne() {
+        assertEquals(1.0, CodeComparator.calculateSimilarity("int x = 5;", "int x = 5;"), 0.0);
+    }
+
+    @Test
+    public void calculateSimilarity_oneEmptyString_returnsZero() {
+        assertEquals(0.0, CodeComparator.calculateSimilarity("", "int x = 5;"), 0.0);
+    }
+
+    @Test
+    public void calculateSimilarity_singleSubstitution() {
+        // printIn -> println: 1 edit over 7 characters
+        assertEquals(1.0 - 1.0 / 7, CodeComparator.calculateSimilarity("printIn", "println"), 1e-9);
+    }
+
+    @Test
+    public void calculateSimilarity_longStrings_usesRealDistance() {
+        String fixed = repeat("System.out.println(i);\n", 100);
+        String user = fixed.substring(0, 1000) + "X" + fixed.substring(1001);
+
+        double expected = 1.0 - 1.0 / fixed.length();
+        assertEquals(expected, CodeComparator.calculateSimilarity(user, fixed), 1e-9);
+    }
+
+    @Test
+    public void isSimilarAtLeast_matchesCalculateSimilarity_onRandomInputs() {
+        Random random = new Random(42);
+        for (int run = 0; run < 5000; run++) {
+            String a = randomCode(random, random.nextInt(30));
+            String b = random.nextBoolean()
+                    ? randomCode(random, random.nextInt(30))
+                    : mutate(random, a, random.nextInt(4));
+
+            double expected = CodeComparator.calculateSimilarity(a, b);
+            assertEquals(expected, referenceSimilarity(a, b), 1e-12);
+            for (double threshold : THRESHOLDS) {
+                assertEquals("'" + a + "' vs '" + b + "' at " + threshold,
+                        expected >= threshold, CodeComparator.isSimilarAtLeast(a, b, threshold));
+            }
+        }
+    }
+
+    @Test
+    public void isSimilarAtLeast_exactlyOnThreshold_passes() {
+        // 1 edit in 50 characters = exactly 98%
+        String fixed = repeat("a", 50);
+        String user = repeat("a", 49) + "b";
+
+        assertTrue(CodeComparator.isSimilarAtLeast(user, fixed, 0.98));
+        assertFalse(CodeComparator.isSimilarAtLeast(user + "b", fixed + "a", 0.98));
+    }
+
+    @Test
+    public void isSimilarAtLeast_lengthDifferenceOverBudget_returnsFalse() {
+        String fixed = repeat("x = x + 1;\n", 100);
+
+        assertFalse(CodeComparator.isSimilarAtLeast(fixed.substring(0, 900), fixed, 0.98));
+    }
+
+    @Test
+    public void isSimilarAtLeast_nullInput_returnsFalse() {
+        assertFalse(CodeComparator.isSimilarAtLeast(null, "x", 0.5));
+    }
+
+    // Plain full-matrix Levenshtein, as the comparator used to compute it
+    private static double referenceSimilarity(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            dp[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                dp[i][j] = Math.min(Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1), dp[i - 1][j - 1] + cost);
+            }
+        }
+        return 1.0 - (double) dp[a.length()][b.length()] / Math.max(a.length(), b.length());
+    }
+
+    private static String randomCode(Random random, int length) {
+        String alphabet = "ab;= ";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String s, int edits) {
+        StringBuilder sb = new StringBuilder(s);
+        for (int i = 0; i < edits; i++) {
+            int position = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            int op = random.nextInt(3);
+            if (op == 0 || sb.length() == 0) {
+                sb.insert(position, 'x');
+            } else if (op == 1) {
+                sb.deleteCharAt(position);
+            } else {
+                sb.setCharAt(position, 'y');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
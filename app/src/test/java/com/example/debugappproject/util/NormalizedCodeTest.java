@@ -0,0 +1,97 @@
+package com.example.debugappproject.util;
+
+import com.example.debugappproject.model.Bug;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the single-pass code normalizer.
+ */
+public class NormalizedCodeTest {
+
+    @Test
+    public void normalize_trimsCollapsesAndLowercases() {
+        String code = "  public  class Main {\n\n\tint   X = 5;  \r\n}\n";
+
+        assertEquals("public class main {\nint x = 5;\n}", NormalizedCode.normalize(code));
+    }
+
+    @Test
+    public void normalize_removesLineAndBlockComments() {
+        String code = "int a = 1; // first\n" +
+                "# python comment\n" +
+                "int b = /* inline */ 2;\n";
+
+        assertEquals("int a = 1;\nint b = 2;", NormalizedCode.normalize(code));
+    }
+
+    @Test
+    public void normalize_nullOrEmpty_returnsEmpty() {
+        assertEquals("", NormalizedCode.normalize(null));
+        assertEquals("", NormalizedCode.normalize(""));
+        assertEquals("", NormalizedCode.normalize("  \n // only a comment\n"));
+    }
+
+    @Test
+    public void coreFix_stripsClassAndMainWrappers() {
+        String code = "public class Main {\n" +
+                "    public static void main(String[] args) {\n" +
+                "        System.out.println(\"Hi\");\n" +
+                "    }\n" +
+                "}\n";
+
+        String core = NormalizedCode.of(code).getCoreFix();
+        assertTrue(core, core.startsWith("system.out.println(\"hi\");"));
+        assertFalse(core, core.contains("class"));
+        assertFalse(core, core.contains("main"));
+    }
+
+    @Test
+    public void keyFixText_keepsCommentsAndCollapsesWhitespace() {
+        NormalizedCode code = NormalizedCode.of("If (A ==\n\t B) // Note");
+
+        assertEquals("if (a == b) // note", code.getKeyFixText());
+    }
+
+    @Test
+    public void forReference_returnsCachedInstance() {
+        String fixedCode = "int total = a + b;";
+
+        assertSame(NormalizedCode.forReference(fixedCode), NormalizedCode.forReference(fixedCode));
+    }
+
+    @Test
+    public void fingerprint_equalForSameNormalizedCode() {
+        NormalizedCode a = NormalizedCode.of("int x = 5; // five");
+        NormalizedCode b = NormalizedCode.of("  INT   x = 5;");
+
+        assertEquals(a.getFingerprint(), b.getFingerprint());
+        assertTrue(a.sameNormalizedCode(b));
+        assertFalse(a.sameNormalizedCode(NormalizedCode.of("int x = 6;")));
+    }
+
+    @Test
+    public void forFixedCode_usesStoredForms() {
+        Bug bug = new Bug();
+        bug.setFixedCode("System.out.println(\"Hi\");");
+        NormalizedCode.storeFixedCodeForms(bug);
+
+        NormalizedCode fixed = NormalizedCode.forFixedCode(bug);
+        NormalizedCode fresh = NormalizedCode.of(bug.getFixedCode());
+
+        assertEquals(fresh.getNormalized(), fixed.getNormalized());
+        assertEquals(fresh.getCoreFix(), fixed.getCoreFix());
+        assertEquals(fresh.getFingerprint(), fixed.getFingerprint());
+        assertEquals(fresh.getKeyFixText(), fixed.getKeyFixText());
+    }
+
+    @Test
+    public void forFixedCode_withoutStoredForms_normalizes() {
+        Bug bug = new Bug();
+        bug.setFixedCode("int   Y = 2;");
+
+        assertEquals("int y = 2;", NormalizedCode.forFixedCode(bug).getNormalized());
+    }
+}
@@ -0,0 +1,588 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║           LOOPBACK BATTLE TRANSPORT                                          ║
+ * ║              In-memory battle rooms behind a simulated network               ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * A {@link Network} holds the "server" (rooms, codes, matchmaking queue)
+ * and a virtual clock; {@link Network#connect} gives one client's
+ * transport. Every request travels over the client's uplink and every
+ * response or room event over its downlink, each costing the configured
+ * latency plus jitter. A lost message is resent after the retransmit
+ * timeout, and like on the single socket a Firebase client uses, later
+ * messages on the same link wait behind it.
+ *
+ * Operations take as many round trips as their Firebase counterparts
+ * (e.g. a room code lookup and a room read to join by code), so latency
+ * found here carries over to the real backend. Room listeners get what a
+ * Firebase room listener downloads: the meta node when it changes and the
+ * live fields that changed, never the submissions.
+ *
+ * Nothing runs until {@link Network#runUntilIdle()}; callbacks then run on
+ * the calling thread in virtual time order. With the same seed a run is
+ * fully repeatable.
+ *
+ * Usage:
+ * <pre>
+ *     LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(
+ *             new LoopbackBattleTransport.Conditions(40, 20, 0.01, 1000), 42);
+ *     BattleTransport host = network.connect("host");
+ *     host.createRoom(room, callback);
+ *     network.runUntilIdle();
+ * </pre>
+ */
+public final class LoopbackBattleTransport implements BattleTransport {
+
+    /**
+     * One-way link conditions, the same for every link of a network.
+     */
+    public static final class Conditions {
+        public final long latencyMs;
+        public final long jitterMs;         // Extra delay, uniform in [0, jitterMs)
+        public final double lossRate;       // Chance that one send of a message is lost
+        public final long retransmitMs;     // Delay before a lost message is sent again
+
+        public Conditions(long latencyMs, long jitterMs, double lossRate, long retransmitMs) {
+            this.latencyMs = latencyMs;
+            this.jitterMs = jitterMs;
+            this.lossRate = lossRate;
+            this.retransmitMs = retransmitMs;
+        }
+
+        @Override
+        public String toString() {
+            return "latency " + latencyMs + "ms, jitter " + jitterMs + "ms, loss "
+                    + (lossRate * 100) + "%, retransmit " + retransmitMs + "ms";
+        }
+    }
+
+    /**
+     * The shared server state, virtual clock and event queue.
+     */
+    public static final class Network {
+
+        // Virtual clock start; a real-looking epoch so timestamps are never 0
+        private static final long START_TIME_MS = 1_700_000_000_000L;
+
+        private final Conditions conditions;
+        private final Random random;
+        private final PriorityQueue<Event> events = new PriorityQueue<>();
+        private long now = START_TIME_MS;
+        private long nextSequence;
+        private long messagesSent;
+        private long messagesLost;
+
+        // Server state
+        private final Map<String, BattleRoom> rooms = new LinkedHashMap<>();
+        private final Map<String, String> roomCodes = new LinkedHashMap<>();
+        private final Map<String, QueueBucket> queue = new LinkedHashMap<>();
+        private final Map<String, List<Subscriber>> subscribers = new LinkedHashMap<>();
+
+        public Network(Conditions conditions, long seed) {
+            this.conditions = conditions;
+            this.random = new Random(seed);
+        }
+
+        public LoopbackBattleTransport connect(String clientId) {
+            return new LoopbackBattleTransport(this, clientId);
+        }
+
+        /**
+         * Current virtual time, also the server time.
+         */
+        public long now() {
+            return now;
+        }
+
+        /**
+         * Runs an action on the network's clock, e.g. a simulated player's next keystroke.
+         */
+        public void schedule(long delayMs, Runnable action) {
+            events.add(new Event(now + Math.max(0, delayMs), nextSequence++, action));
+        }
+
+        /**
+         * Runs events in time order until none are left.
+         */
+        public void runUntilIdle() {
+            Event event;
+            while ((event = events.poll()) != null) {
+                now = event.time;
+                event.action.run();
+            }
+        }
+
+        public long getMessagesSent() {
+            return messagesSent;
+        }
+
+        public long getMessagesLost() {
+            return messagesLost;
+        }
+
+        public int getRoomCount() {
+            return rooms.size();
+        }
+
+        public int getQueuedCount() {
+            int queued = 0;
+            for (QueueBucket bucket : queue.values()) {
+                queued += bucket.byUser.size();
+            }
+            return queued;
+        }
+
+        private void at(long time, Runnable action) {
+            events.add(new Event(time, nextSequence++, action));
+        }
+
+        /**
+         * Delay of one message, including the retransmits of lost sends.
+         */
+        private long nextDelay() {
+            messagesSent++;
+            long delay = 0;
+            while (conditions.lossRate > 0 && random.nextDouble() < conditions.lossRate) {
+                messagesLost++;
+                delay += conditions.retransmitMs;
+            }
+            delay += conditions.latencyMs;
+            if (conditions.jitterMs > 0) {
+                delay += (long) (random.nextDouble() * conditions.jitterMs);
+            }
+            return delay;
+        }
+
+        // ───────────────────────────── server side ─────────────────────────────
+
+        /**
+         * Applies a change to a room and sends its listeners what changed:
+         * the meta node if any of it did, and the changed live fields.
+         */
+        private void updateRoom(String roomId, Consumer<BattleRoom> change) {
+            BattleRoom room = rooms.get(roomId);
+            if (room == null) {
+                return;
+            }
+            Map<String, Object> metaBefore = room.toMetaMap();
+            Map<String, Object> liveBefore = room.toLiveMap();
+            change.accept(room);
+            Map<String, Object> metaAfter = room.toMetaMap();
+            Map<String, Object> liveChanges = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : room.toLiveMap().entrySet()) {
+                if (!Objects.equals(liveBefore.get(field.getKey()), field.getValue())) {
+                    liveChanges.put(field.getKey(), field.getValue());
+                }
+            }
+            boolean metaChanged = !metaBefore.equals(metaAfter);
+            if (metaChanged || !liveChanges.isEmpty()) {
+                publish(roomId, metaChanged ? metaAfter : null, liveChanges);
+            }
+        }
+
+        private void publish(String roomId, @Nullable Map<String, Object> meta, Map<String, Object> live) {
+            List<Subscriber> roomSubscribers = subscribers.get(roomId);
+            if (roomSubscribers == null) {
+                return;
+            }
+            for (Subscriber subscriber : roomSubscribers) {
+                subscriber.send(meta, live);
+            }
+        }
+
+        private void publishRoom(String roomId) {
+            BattleRoom room = rooms.get(roomId);
+            publish(roomId, room.toMetaMap(), room.toLiveMap());
+        }
+
+        private void removeRoom(String roomId, @Nullable String roomCode) {
+            if (roomCode != null && !roomCode.isEmpty()) {
+                roomCodes.remove(roomCode);
+            }
+            if (rooms.remove(roomId) != null) {
+                List<Subscriber> roomSubscribers = subscribers.get(roomId);
+                if (roomSubscribers != null) {
+                    for (Subscriber subscriber : roomSubscribers) {
+                        subscriber.sendDeleted();
+                    }
+                }
+            }
+        }
+
+        private void submit(BattleRoom room, String userId, boolean isHost, String code, boolean isCorrect) {
+            if (room.getHostId() == null) {
+                return;
+            }
+            if (isHost) {
+                room.setHostSubmission(code);
+                room.setHostSubmitTime(now);
+                room.setHostProgress(isCorrect ? 100 : 75);
+                room.setHostCorrect(isCorrect);
+            } else {
+                room.setGuestSubmission(code);
+                room.setGuestSubmitTime(now);
+                room.setGuestProgress(isCorrect ? 100 : 75);
+                room.setGuestCorrect(isCorrect);
+            }
+            if (isCorrect &&
+                (room.getWinnerId() == null || room.getWinnerId().isEmpty()) &&
+                room.getState() != BattleRoom.RoomState.FINISHED) {
+                room.setWinnerId(userId);
+                room.setWinReason("Fixed the bug first!");
+                room.setState(BattleRoom.RoomState.FINISHED);
+            }
+        }
+
+        private QueueBucket queueBucket(String bucket) {
+            return queue.computeIfAbsent(bucket, key -> new QueueBucket());
+        }
+    }
+
+    /**
+     * One matchmaking bucket, indexed by user and, like a Firebase query
+     * ordered by elo, by rating then key.
+     */
+    private static final class QueueBucket {
+        final Map<String, QueueEntry> byUser = new HashMap<>();
+        final NavigableSet<QueueEntry> byElo = new TreeSet<>(
+                Comparator.comparingInt((QueueEntry entry) -> entry.elo).thenComparing(entry -> entry.userId));
+
+        void put(QueueEntry entry) {
+            remove(entry.userId);
+            byUser.put(entry.userId, entry);
+            byElo.add(entry);
+        }
+
+        @Nullable
+        QueueEntry remove(String userId) {
+            QueueEntry entry = byUser.remove(userId);
+            if (entry != null) {
+                byElo.remove(entry);
+            }
+            return entry;
+        }
+
+        /**
+         * Like Firebase's startAt(elo).limitToFirst(limit) and
+         * endAt(elo).limitToLast(limit), merged.
+         */
+        List<QueueEntry> nearest(int elo, int limit) {
+            Set<QueueEntry> nearest = new LinkedHashSet<>();
+            Iterator<QueueEntry> atOrAbove = byElo.tailSet(new QueueEntry("", null, 0, elo, 0), true).iterator();
+            for (int i = 0; i < limit && atOrAbove.hasNext(); i++) {
+                nearest.add(atOrAbove.next());
+            }
+            Iterator<QueueEntry> atOrBelow = byElo.headSet(new QueueEntry("\uffff", null, 0, elo, 0), true)
+                    .descendingIterator();
+            for (int i = 0; i < limit && atOrBelow.hasNext(); i++) {
+                nearest.add(atOrBelow.next());
+            }
+            return new ArrayList<>(nearest);
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long sequence;
+        final Runnable action;
+
+        Event(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * One direction of a client's connection. Delivery is in send order.
+     */
+    private static final class Link {
+        private final Network network;
+        private long lastDeliveryTime;
+
+        Link(Network network) {
+            this.network = network;
+        }
+
+        void send(Runnable onArrival) {
+            long deliveryTime = Math.max(network.now + network.nextDelay(), lastDeliveryTime);
+            lastDeliveryTime = deliveryTime;
+            network.at(deliveryTime, onArrival);
+        }
+    }
+
+    /**
+     * A room listener registered on the server. The client side keeps a
+     * copy of the room and applies each update to it, as the Firebase
+     * transport does.
+     */
+    private static final class Subscriber implements Subscription {
+        private final LoopbackBattleTransport client;
+        private final RoomListener listener;
+        private final BattleRoom room = new BattleRoom();
+        private boolean active = true;
+
+        Subscriber(LoopbackBattleTransport client, RoomListener listener) {
+            this.client = client;
+            this.listener = listener;
+        }
+
+        /**
+         * Sends one update: the whole meta node (or null if unchanged) and
+         * the changed live fields.
+         */
+        void send(@Nullable Map<String, Object> meta, Map<String, Object> live) {
+            Map<String, Object> metaCopy = meta != null ? new LinkedHashMap<>(meta) : null;
+            Map<String, Object> liveCopy = new LinkedHashMap<>(live);
+            client.downlink.send(() -> {
+                if (!active) {
+                    return;
+                }
+                long start = System.nanoTime();
+                long bytes = 0;
+                if (metaCopy != null) {
+                    bytes += RoomEventStats.sizeOf(metaCopy);
+                    for (Map.Entry<String, Object> field : metaCopy.entrySet()) {
+                        room.setMetaField(field.getKey(), field.getValue());
+                    }
+                }
+                for (Map.Entry<String, Object> field : liveCopy.entrySet()) {
+                    bytes += RoomEventStats.sizeOf(field.getKey()) + 1 + RoomEventStats.sizeOf(field.getValue());
+                    room.setLiveField(field.getKey(), field.getValue());
+                }
+                client.roomEventStats.record(bytes, System.nanoTime() - start);
+                listener.onRoomChanged(new BattleRoom(room));
+            });
+        }
+
+        void sendDeleted() {
+            client.downlink.send(() -> {
+                if (active) {
+                    listener.onRoomChanged(null);
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            // Stops delivery right away, like removing a Firebase listener
+            active = false;
+            client.uplink.send(() -> {
+                for (List<Subscriber> roomSubscribers : client.network.subscribers.values()) {
+                    roomSubscribers.remove(this);
+                }
+            });
+        }
+    }
+
+    private final Network network;
+    private final String clientId;
+    private final Link uplink;
+    private final Link downlink;
+    private final RoomEventStats roomEventStats = new RoomEventStats();
+    private int nextRoomNumber;
+
+    private LoopbackBattleTransport(Network network, String clientId) {
+        this.network = network;
+        this.clientId = clientId;
+        this.uplink = new Link(network);
+        this.downlink = new Link(network);
+    }
+
+    /**
+     * A request answered by the server: one message each way.
+     */
+    private <T> void call(Supplier<T> atServer, Callback<T> callback) {
+        uplink.send(() -> {
+            T result = atServer.get();
+            downlink.send(() -> callback.onSuccess(result));
+        });
+    }
+
+    /**
+     * A write nobody waits for: one message up.
+     */
+    private void write(Runnable atServer) {
+        uplink.send(atServer);
+    }
+
+    @Override
+    public String newRoomId() {
+        return clientId + "-room-" + (++nextRoomNumber);
+    }
+
+    @Override
+    public void createRoom(BattleRoom room, Callback<Void> callback) {
+        BattleRoom copy = new BattleRoom(room);
+        // Two writes in sequence, code first, as on Firebase
+        call(() -> network.roomCodes.put(copy.getRoomCode(), copy.getRoomId()), new Callback<String>() {
+            @Override
+            public void onSuccess(@Nullable String previous) {
+                call(() -> {
+                    network.rooms.put(copy.getRoomId(), copy);
+                    network.publishRoom(copy.getRoomId());
+                    return null;
+                }, callback);
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    @Override
+    public void findRoomId(String roomCode, Callback<String> callback) {
+        call(() -> network.roomCodes.get(roomCode), callback);
+    }
+
+    @Override
+    public void fetchRoom(String roomId, Callback<BattleRoom> callback) {
+        call(() -> {
+            BattleRoom room = network.rooms.get(roomId);
+            return room != null ? new BattleRoom(room) : null;
+        }, callback);
+    }
+
+    @Override
+    public void joinRoom(String roomId, String guestId, String guestName, Callback<Void> callback) {
+        call(() -> {
+            network.updateRoom(roomId, room -> {
+                room.setGuestId(guestId);
+                room.setGuestName(guestName);
+                room.setState(BattleRoom.RoomState.STARTING);
+                room.setStartedAt(network.now);
+            });
+            return null;
+        }, callback);
+    }
+
+    @Override
+    public void updateProgress(String roomId, boolean isHost, int progress) {
+        write(() -> network.updateRoom(roomId, room -> {
+            if (isHost) {
+                room.setHostProgress(progress);
+            } else {
+                room.setGuestProgress(progress);
+            }
+        }));
+    }
+
+    @Override
+    public void submitSolution(String roomId, String userId, boolean isHost, String code, boolean isCorrect,
+                               int attemptNumber, Callback<Void> callback) {
+        call(() -> {
+            network.updateRoom(roomId, room -> network.submit(room, userId, isHost, code, isCorrect));
+            return null;
+        }, callback);
+    }
+
+    @Override
+    public void startBattle(String roomId) {
+        write(() -> network.updateRoom(roomId, room -> {
+            room.setState(BattleRoom.RoomState.IN_PROGRESS);
+            room.setStartedAt(network.now);
+        }));
+    }
+
+    @Override
+    public void finishRoom(String roomId, String winnerId, String reason) {
+        write(() -> network.updateRoom(roomId, room -> {
+            room.setWinnerId(winnerId);
+            room.setWinReason(reason);
+            room.setState(BattleRoom.RoomState.FINISHED);
+        }));
+    }
+
+    @Override
+    public void deleteRoom(String roomId, @Nullable String roomCode) {
+        write(() -> network.removeRoom(roomId, roomCode));
+    }
+
+    @Override
+    public Subscription listenToRoom(String roomId, RoomListener listener) {
+        Subscriber subscriber = new Subscriber(this, listener);
+        uplink.send(() -> {
+            network.subscribers.computeIfAbsent(roomId, id -> new ArrayList<>()).add(subscriber);
+            // The current value comes first, as with addValueEventListener
+            BattleRoom room = network.rooms.get(roomId);
+            if (room != null) {
+                subscriber.send(room.toMetaMap(), room.toLiveMap());
+            } else {
+                subscriber.sendDeleted();
+            }
+        });
+        return subscriber;
+    }
+
+    @Override
+    public RoomEventStats getRoomEventStats() {
+        return roomEventStats;
+    }
+
+    @Override
+    public void findQueueEntries(String bucket, int nearElo, int limit, Callback<List<QueueEntry>> callback) {
+        // One message each way; Firebase sends both range reads together
+        call(() -> network.queueBucket(bucket).nearest(nearElo, limit), callback);
+    }
+
+    @Override
+    public void enqueue(String bucket, String userId, String roomId, int bugId, int elo) {
+        write(() -> network.queueBucket(bucket).put(new QueueEntry(userId, roomId, bugId, elo, network.now)));
+    }
+
+    @Override
+    public void requeue(String bucket, QueueEntry entry) {
+        write(() -> network.queueBucket(bucket).put(entry));
+    }
+
+    @Override
+    public void claimQueueEntry(String bucket, String userId, Callback<QueueEntry> callback) {
+        // The server applies requests one at a time, so the removal is atomic
+        call(() -> network.queueBucket(bucket).remove(userId), callback);
+    }
+
+    @Override
+    public void readServerTime(Callback<Long> callback) {
+        call(() -> network.now, callback);
+    }
+
+    @Override
+    public void deleteExpiredRooms(long now) {
+        write(() -> {
+            for (BattleRoom room : new ArrayList<>(network.rooms.values())) {
+                if (room.getExpiresAt() <= now) {
+                    network.removeRoom(room.getRoomId(), room.getRoomCode());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║              BATTLE SIMULATION (JVM, in-process)                             ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Plays many 1v1 battles over {@link LoopbackBattleTransport} and reports
+ * how long each event takes to reach the opponent, as percentiles:
+ * - join:     guest's join request until the host sees the opponent
+ * - progress: a keystroke until the opponent's bar shows its progress or a
+ *             later value that replaced it
+ * - submit:   a submission until the opponent sees it
+ * - finish:   the first correct submission until each player sees the result
+ *
+ * Players follow the app's flow: create, join by code, 3 s countdown,
+ * typing with a progress update per keystroke, then submissions until one
+ * is correct. Progress goes through {@link ProgressWriteThrottle} and events
+ * are derived by {@link BattleRoomEvents}, as in FirebaseMultiplayerManager;
+ * --progressRate=0 writes every keystroke instead. Time is virtual, so a run of hundreds of
+ * 3-minute battles takes seconds, and the same seed gives the same report.
+ *
+ * Submissions carry --codeSize characters of code. The report also sums
+ * the room updates the listeners received against what a listener on the
+ * whole room node (submissions included) would have downloaded.
+ *
+ * Usage: BattleSimulation [--matches=500] [--latency=40] [--jitter=30]
+ *        [--loss=0.01] [--retransmit=1000] [--keystroke=150]
+ *        [--progressRate=4] [--codeSize=1500] [--seed=42]
+ */
+public final class BattleSimulation {
+
+    private static final long MATCH_SPACING_MS = 250;
+    private static final long COUNTDOWN_MS = 3000;
+    private static final double FIRST_SUBMIT_CORRECT = 0.5;
+
+    private final LoopbackBattleTransport.Network network;
+    private final Random behavior;
+    private final long keystrokeMs;
+    private final int progressWritesPerSecond;
+    private final String submittedCode;
+    private int progressWrites;
+    private long roomUpdates;
+    private long roomUpdateBytes;
+    private long roomUpdateParseNanos;
+    private long wholeRoomBytes;
+    private final Map<String, List<Long>> latencies = new LinkedHashMap<>();
+
+    BattleSimulation(LoopbackBattleTransport.Network network, long seed, long keystrokeMs,
+                     int progressWritesPerSecond, int codeSize) {
+        this.network = network;
+        // Player behavior has its own random stream, so changing the network
+        // conditions does not change what the players do
+        this.behavior = new Random(~seed);
+        this.keystrokeMs = keystrokeMs;
+        this.progressWritesPerSecond = progressWritesPerSecond;
+        StringBuilder code = new StringBuilder(codeSize);
+        while (code.length() < codeSize) {
+            code.append("    int total = total + values[i]; // fixed\n");
+        }
+        this.submittedCode = code.substring(0, codeSize);
+        for (String event : new String[] {"join", "progress", "submit", "finish"}) {
+            latencies.put(event, new ArrayList<>());
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        int matches = Integer.parseInt(options.getOrDefault("matches", "500"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        LoopbackBattleTransport.Conditions conditions = new LoopbackBattleTransport.Conditions(
+                Long.parseLong(options.getOrDefault("latency", "40")),
+                Long.parseLong(options.getOrDefault("jitter", "30")),
+                Double.parseDouble(options.getOrDefault("loss", "0.01")),
+                Long.parseLong(options.getOrDefault("retransmit", "1000")));
+        long keystrokeMs = Long.parseLong(options.getOrDefault("keystroke", "150"));
+        int progressRate = Integer.parseInt(options.getOrDefault("progressRate", "4"));
+        int codeSize = Integer.parseInt(options.getOrDefault("codeSize", "1500"));
+
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(conditions, seed);
+        BattleSimulation simulation = new BattleSimulation(network, seed, keystrokeMs, progressRate, codeSize);
+        long wallStart = System.nanoTime();
+        long virtualStart = network.now();
+        simulation.run(matches);
+
+        System.out.println(matches + " matches, " + conditions + ", keystroke " + keystrokeMs
+                + "ms, progress writes " + (progressRate > 0 ? "<= " + progressRate + "/s" : "per keystroke")
+                + ", code " + codeSize + " chars, seed " + seed);
+        System.out.printf(Locale.US, "%d messages (%d progress writes), %d lost; %.1f s simulated in %.1f s%n",
+                network.getMessagesSent(), simulation.progressWrites, network.getMessagesLost(),
+                (network.now() - virtualStart) / 1000.0, (System.nanoTime() - wallStart) / 1e9);
+        System.out.print(simulation.report());
+    }
+
+    void run(int matches) {
+        for (int i = 0; i < matches; i++) {
+            int matchNumber = i;
+            network.schedule(i * MATCH_SPACING_MS, () -> new Match(matchNumber).start());
+        }
+        network.runUntilIdle();
+    }
+
+    Map<String, List<Long>> getLatencies() {
+        return latencies;
+    }
+
+    String report() {
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%-10s %8s %8s %8s %8s %8s %8s%n", "event", "count", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+            List<Long> sorted = new ArrayList<>(entry.getValue());
+            Collections.sort(sorted);
+            report.append(String.format(Locale.US, "%-10s %8d %8d %8d %8d %8d %8d%n",
+                    entry.getKey(), sorted.size(),
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 99.9), sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1)));
+        }
+        report.append("(latencies in ms)\n");
+        if (roomUpdates > 0) {
+            report.append(String.format(Locale.US,
+                    "room updates: %d, avg %d B, parse avg %.1f us; whole room would be avg %d B (%.1fx)%n",
+                    roomUpdates, roomUpdateBytes / roomUpdates, roomUpdateParseNanos / 1000.0 / roomUpdates,
+                    wholeRoomBytes / roomUpdates, (double) wholeRoomBytes / Math.max(1, roomUpdateBytes)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    static long percentile(List<Long> sorted, double percent) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private void record(String event, long sentAt) {
+        latencies.get(event).add(network.now() - sentAt);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return options;
+    }
+
+    /**
+     * One battle between a host and a guest, each on their own connection.
+     */
+    private final class Match {
+        private final Player host;
+        private final Player guest;
+        private final String roomCode;
+        private String roomId;
+        private long joinSentAt;
+        private long winningSubmitAt;
+
+        Match(int number) {
+            roomCode = String.format(Locale.US, "M%05d", number);
+            host = new Player("host-" + number, network.connect("host-" + number));
+            guest = new Player("guest-" + number, network.connect("guest-" + number));
+            host.opponent = guest;
+            guest.opponent = host;
+        }
+
+        void start() {
+            roomId = host.transport.newRoomId();
+            BattleRoom room = new BattleRoom(roomId, roomCode, host.id, host.id, 1);
+            host.transport.createRoom(room, new BattleTransport.Callback<Void>() {
+                @Override
+                public void onSuccess(@Nullable Void result) {
+                    host.listen();
+                    // The guest types in the code a little later
+                    network.schedule(500 + behavior.nextInt(1500), Match.this::joinByCode);
+                }
+
+                @Override
+                public void onError(String error) {
+                    throw new IllegalStateException("Create failed: " + error);
+                }
+            });
+        }
+
+        private void joinByCode() {
+            guest.transport.findRoomId(roomCode, new BattleTransport.Callback<String>() {
+                @Override
+                public void onSuccess(@Nullable String foundRoomId) {
+                    guest.transport.fetchRoom(foundRoomId, new BattleTransport.Callback<BattleRoom>() {
+                        @Override
+                        public void onSuccess(@Nullable BattleRoom room) {
+                            if (room == null || room.isFull() || room.getState() != BattleRoom.RoomState.WAITING) {
+                                throw new IllegalStateException("Room " + roomCode + " not joinable");
+                            }
+                            joinSentAt = network.now();
+                            guest.transport.joinRoom(roomId, guest.id, guest.id, new BattleTransport.Callback<Void>() {
+                                @Override
+                                public void onSuccess(@Nullable Void result) {
+                                    guest.listen();
+                                }
+
+                                @Override
+                                public void onError(String error) {
+                                    throw new IllegalStateException("Join failed: " + error);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            throw new IllegalStateException("Room read failed: " + error);
+                        }
+                    });
+                }
+
+                @Override
+                public void onError(String error) {
+                    throw new IllegalStateException("Code lookup failed: " + error);
+                }
+            });
+        }
+
+        /**
+         * A simulated player: types, reports progress and submits until
+         * somebody wins.
+         */
+        private final class Player implements BattleRoomEvents.Listener {
+            final String id;
+            final BattleTransport transport;
+            Player opponent;
+
+            private BattleTransport.Subscription subscription;
+            // {progress, keystroke time} not yet seen by the opponent, oldest first
+            private final Deque<long[]> unseenProgress = new ArrayDeque<>();
+            private ProgressWriteThrottle throttle;
+            private final int solvedAt = 60 + behavior.nextInt(36);
+            private int progress;
+            private int attempts;
+            private long lastSubmitAt;
+            private boolean typing;
+            private boolean finished;
+
+            Player(String id, BattleTransport transport) {
+                this.id = id;
+                this.transport = transport;
+                if (progressWritesPerSecond > 0) {
+                    throttle = new ProgressWriteThrottle(progressWritesPerSecond,
+                            (action, delayMs) -> network.schedule(delayMs, action), network::now,
+                            this::writeProgress);
+                }
+            }
+
+            void listen() {
+                BattleRoomEvents events = new BattleRoomEvents(id, this);
+                subscription = transport.listenToRoom(roomId, new BattleTransport.RoomListener() {
+                    @Override
+                    public void onRoomChanged(@Nullable BattleRoom room) {
+                        if (room != null) {
+                            wholeRoomBytes += wholeRoomSize(room);
+                            events.onRoomChanged(room);
+                        }
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        throw new IllegalStateException("Listener failed: " + error);
+                    }
+                });
+            }
+
+            @Override
+            public void onOpponentJoined(BattleRoom room) {
+                if (this == host) {
+                    record("join", joinSentAt);
+                }
+            }
+
+            @Override
+            public void onOpponentProgress(int opponentProgress) {
+                // Coalesced writes skip values: everything up to this one is now shown
+                Deque<long[]> unseen = opponent.unseenProgress;
+                boolean sent = false;
+                for (long[] keystroke : unseen) {
+                    if (keystroke[0] == opponentProgress) {
+                        sent = true;
+                        break;
+                    }
+                }
+                while (sent) {
+                    long[] keystroke = unseen.poll();
+                    record("progress", keystroke[1]);
+                    sent = keystroke[0] != opponentProgress;
+                }
+            }
+
+            @Override
+            public void onOpponentSubmitted(long submitTime, boolean isCorrect) {
+                record("submit", opponent.lastSubmitAt);
+            }
+
+            @Override
+            public void onStateChanged(BattleRoom room, @Nullable BattleRoom.RoomState previousState) {
+                if (room.getState() == BattleRoom.RoomState.STARTING && !typing) {
+                    typing = true;
+                    if (this == host) {
+                        network.schedule(COUNTDOWN_MS, () -> transport.startBattle(roomId));
+                    }
+                    network.schedule(COUNTDOWN_MS + nextKeystrokeDelay(), this::type);
+                } else if (room.getState() == BattleRoom.RoomState.FINISHED && !finished) {
+                    finished = true;
+                    record("finish", winningSubmitAt);
+                    subscription.cancel();
+                    RoomEventStats stats = transport.getRoomEventStats();
+                    roomUpdates += stats.getUpdates();
+                    roomUpdateBytes += stats.getPayloadBytes();
+                    roomUpdateParseNanos += stats.getParseNanos();
+                    if (this == host) {
+                        transport.deleteRoom(roomId, roomCode);
+                    }
+                }
+            }
+
+            private void type() {
+                if (finished) {
+                    return;
+                }
+                if (progress >= solvedAt) {
+                    submit();
+                    return;
+                }
+                progress = Math.min(solvedAt, progress + 1 + behavior.nextInt(3));
+                unseenProgress.add(new long[] {progress, network.now()});
+                if (throttle != null) {
+                    throttle.offer(progress);
+                } else {
+                    writeProgress(progress);
+                }
+                network.schedule(nextKeystrokeDelay(), this::type);
+            }
+
+            private void submit() {
+                attempts++;
+                boolean correct = attempts > 1 || behavior.nextDouble() < FIRST_SUBMIT_CORRECT;
+                lastSubmitAt = network.now();
+                if (correct && winningSubmitAt == 0) {
+                    winningSubmitAt = lastSubmitAt;
+                }
+                // The room shows 100 or 75 after a submission; time that like a keystroke
+                if (throttle != null) {
+                    throttle.flush();
+                }
+                unseenProgress.add(new long[] {correct ? 100 : 75, lastSubmitAt});
+                transport.submitSolution(roomId, id, this == host, submittedCode, correct, attempts, new BattleTransport.Callback<Void>() {
+                    @Override
+                    public void onSuccess(@Nullable Void result) {
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        throw new IllegalStateException("Submit failed: " + error);
+                    }
+                });
+                if (!correct) {
+                    // Fix it up for a few keystrokes, then submit again
+                    progress = solvedAt - 3;
+                    network.schedule(nextKeystrokeDelay(), this::type);
+                }
+            }
+
+            private void writeProgress(int value) {
+                progressWrites++;
+                transport.updateProgress(roomId, this == host, value);
+            }
+
+            /**
+             * Size of the room as one JSON object, with the code submitted so far.
+             */
+            private long wholeRoomSize(BattleRoom room) {
+                Map<String, Object> whole = new HashMap<>(room.toMetaMap());
+                whole.putAll(room.toLiveMap());
+                whole.put("hostSubmission", host.attempts > 0 ? submittedCode : null);
+                whole.put("guestSubmission", guest.attempts > 0 ? submittedCode : null);
+                return RoomEventStats.sizeOf(whole);
+            }
+
+            private long nextKeystrokeDelay() {
+                return keystrokeMs / 2 + behavior.nextInt((int) keystrokeMs + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.debugappproject.multiplayer;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║              MATCHMAKING SIMULATION (JVM, in-process)                        ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Sends thousands of quick-match players through {@link MatchmakingService}
+ * over {@link LoopbackBattleTransport} and reports how long they wait and
+ * how close their matches are. Players arrive at random (Poisson) times
+ * with a normally distributed Elo. Each one searches, opens and queues a
+ * room if nobody fits, and joins the claimed room the way
+ * FirebaseMultiplayerManager does: read it, check it is still open, join.
+ * A player who waits longer than --patience seconds gives up.
+ *
+ * A double join is a room that more than one player joined, i.e. two
+ * players who both think they have the same opponent. With transactional
+ * claims it must stay 0 however busy the queue is.
+ *
+ * Usage: MatchmakingSimulation [--players=5000] [--arrivalsPerSecond=25]
+ *        [--eloMean=1300] [--eloSpread=250] [--patience=180]
+ *        [--latency=40] [--jitter=30] [--loss=0.01] [--retransmit=1000] [--seed=42]
+ */
+public final class MatchmakingSimulation {
+
+    private static final long QUEUE_SAMPLE_INTERVAL_MS = 1000;
+
+    private final LoopbackBattleTransport.Network network;
+    private final Random behavior;
+    private final double arrivalsPerSecond;
+    private final int eloMean;
+    private final int eloSpread;
+    private final long patienceMs;
+    private final MatchmakingStats stats = new MatchmakingStats();
+    private final Map<String, Integer> joinsPerRoom = new HashMap<>();
+    private int players;
+    private int done;
+    private int matched;
+    private int gaveUp;
+    private int failedJoins;
+    private int peakQueued;
+
+    MatchmakingSimulation(LoopbackBattleTransport.Network network, long seed, double arrivalsPerSecond,
+                          int eloMean, int eloSpread, long patienceMs) {
+        this.network = network;
+        this.behavior = new Random(~seed);
+        this.arrivalsPerSecond = arrivalsPerSecond;
+        this.eloMean = eloMean;
+        this.eloSpread = eloSpread;
+        this.patienceMs = patienceMs;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        int players = Integer.parseInt(options.getOrDefault("players", "5000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double arrivalsPerSecond = Double.parseDouble(options.getOrDefault("arrivalsPerSecond", "25"));
+        int eloMean = Integer.parseInt(options.getOrDefault("eloMean", "1300"));
+        int eloSpread = Integer.parseInt(options.getOrDefault("eloSpread", "250"));
+        long patienceMs = Long.parseLong(options.getOrDefault("patience", "180")) * 1000;
+        LoopbackBattleTransport.Conditions conditions = new LoopbackBattleTransport.Conditions(
+                Long.parseLong(options.getOrDefault("latency", "40")),
+                Long.parseLong(options.getOrDefault("jitter", "30")),
+                Double.parseDouble(options.getOrDefault("loss", "0.01")),
+                Long.parseLong(options.getOrDefault("retransmit", "1000")));
+
+        LoopbackBattleTransport.Network network = new LoopbackBattleTransport.Network(conditions, seed);
+        MatchmakingSimulation simulation = new MatchmakingSimulation(network, seed, arrivalsPerSecond,
+                eloMean, eloSpread, patienceMs);
+        long wallStart = System.nanoTime();
+        long virtualStart = network.now();
+        simulation.run(players);
+
+        System.out.println(players + " players, " + arrivalsPerSecond + "/s, Elo " + eloMean + " +/- " + eloSpread
+                + ", patience " + patienceMs / 1000 + "s, " + conditions + ", seed " + seed);
+        System.out.printf(Locale.US, "%d messages, %d lost; %.1f s simulated in %.1f s%n",
+                network.getMessagesSent(), network.getMessagesLost(),
+                (network.now() - virtualStart) / 1000.0, (System.nanoTime() - wallStart) / 1e9);
+        System.out.print(simulation.report());
+    }
+
+    void run(int players) {
+        this.players = players;
+        long arrival = 0;
+        for (int i = 0; i < players; i++) {
+            // Exponential gaps between arrivals
+            arrival += (long) (-Math.log(1 - behavior.nextDouble()) / arrivalsPerSecond * 1000);
+            int elo = (int) Math.max(0, Math.round(eloMean + behavior.nextGaussian() * eloSpread));
+            Player player = new Player(i, elo);
+            network.schedule(arrival, player::arrive);
+        }
+        network.schedule(0, this::sampleQueue);
+        network.runUntilIdle();
+    }
+
+    MatchmakingStats getStats() {
+        return stats;
+    }
+
+    int getDoubleJoins() {
+        int doubleJoins = 0;
+        for (int joins : joinsPerRoom.values()) {
+            if (joins > 1) {
+                doubleJoins++;
+            }
+        }
+        return doubleJoins;
+    }
+
+    String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US,
+                "matched %d (%.1f%%), gave up %d, failed joins %d, double joins %d, peak queue %d%n",
+                matched, 100.0 * matched / Math.max(1, players), gaveUp, failedJoins, getDoubleJoins(),
+                peakQueued));
+        report.append(String.format(Locale.US, "%d searches, %d claim conflicts%n",
+                stats.getSearches(), stats.getClaimConflicts()));
+        report.append(String.format(Locale.US, "%-14s %8s %8s %8s %8s %8s%n",
+                "metric", "count", "p50", "p90", "p99", "max"));
+        report.append(String.format(Locale.US, "%-14s %8d %8d %8d %8d %8d%n", "time to match", matched,
+                stats.getTimeToMatchPercentile(50), stats.getTimeToMatchPercentile(90),
+                stats.getTimeToMatchPercentile(99), stats.getTimeToMatchPercentile(100)));
+        report.append(String.format(Locale.US, "%-14s %8d %8d %8d %8d %8d%n", "Elo delta", stats.getMatches(),
+                stats.getEloDeltaPercentile(50), stats.getEloDeltaPercentile(90),
+                stats.getEloDeltaPercentile(99), stats.getEloDeltaPercentile(100)));
+        report.append("(time to match in ms)\n");
+        return report.toString();
+    }
+
+    private void sampleQueue() {
+        peakQueued = Math.max(peakQueued, network.getQueuedCount());
+        if (done < players) {
+            network.schedule(QUEUE_SAMPLE_INTERVAL_MS, this::sampleQueue);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return options;
+    }
+
+    /**
+     * One quick-match player on their own connection.
+     */
+    private final class Player implements MatchmakingService.Listener {
+        private final String id;
+        private final int number;
+        private final int elo;
+        private BattleTransport transport;
+        private MatchmakingService matchmaking;
+        private BattleTransport.Subscription subscription;
+        private String ownRoomId;
+        private String ownRoomCode;
+        private boolean finished;
+
+        Player(int number, int elo) {
+            this.id = "player-" + number;
+            this.number = number;
+            this.elo = elo;
+        }
+
+        void arrive() {
+            transport = network.connect(id);
+            network.schedule(patienceMs, this::giveUp);
+            search();
+        }
+
+        private void search() {
+            matchmaking = new MatchmakingService(transport, id, elo,
+                    (action, delayMs) -> network.schedule(delayMs, action), network::now, stats, this);
+            matchmaking.start();
+        }
+
+        @Override
+        public void onOpponentFound(BattleTransport.QueueEntry opponent) {
+            closeOwnRoom();
+            transport.fetchRoom(opponent.roomId, new BattleTransport.Callback<BattleRoom>() {
+                @Override
+                public void onSuccess(@Nullable BattleRoom room) {
+                    if (room == null || room.isFull() || room.getState() != BattleRoom.RoomState.WAITING) {
+                        failedJoins++;
+                        if (!finished) {
+                            search();
+                        }
+                        return;
+                    }
+                    joinsPerRoom.merge(opponent.roomId, 1, Integer::sum);
+                    transport.joinRoom(opponent.roomId, id, id, callback(result -> finish(true)));
+                }
+
+                @Override
+                public void onError(String error) {
+                    throw new IllegalStateException("Room read failed: " + error);
+                }
+            });
+        }
+
+        @Override
+        public void onNoOpponent() {
+            ownRoomId = transport.newRoomId();
+            ownRoomCode = String.format(Locale.US, "Q%06d", number);
+            BattleRoom room = new BattleRoom(ownRoomId, ownRoomCode, id, id, 1);
+            transport.createRoom(room, callback(result -> {
+                subscription = transport.listenToRoom(ownRoomId, new BattleTransport.RoomListener() {
+                    @Override
+                    public void onRoomChanged(@Nullable BattleRoom changed) {
+                        if (changed != null && changed.isFull() && !finished) {
+                            matchmaking.onJoinedByOpponent();
+                            finish(true);
+                        }
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        throw new IllegalStateException("Listener failed: " + error);
+                    }
+                });
+                matchmaking.enqueue(ownRoomId, 1);
+            }));
+        }
+
+        @Override
+        public void onError(String error) {
+            throw new IllegalStateException("Matchmaking failed: " + error);
+        }
+
+        private void giveUp() {
+            if (finished) {
+                return;
+            }
+            matchmaking.cancel();
+            closeOwnRoom();
+            gaveUp++;
+            finish(false);
+        }
+
+        private void closeOwnRoom() {
+            if (subscription != null) {
+                subscription.cancel();
+                subscription = null;
+            }
+            if (ownRoomId != null) {
+                transport.deleteRoom(ownRoomId, ownRoomCode);
+                ownRoomId = null;
+            }
+        }
+
+        private void finish(boolean wasMatched) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            done++;
+            if (wasMatched) {
+                matched++;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        }
+
+        private <T> BattleTransport.Callback<T> callback(Consumer<T> onSuccess) {
+            return new BattleTransport.Callback<T>() {
+                @Override
+                public void onSuccess(@Nullable T result) {
+                    onSuccess.accept(result);
+                }
+
+                @Override
+                public void onError(String error) {
+                    throw new IllegalStateException(error);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import groovy.json.JsonSlurper
+
+// JVM-only JMH benchmarks for the pure-Java code on the submit path.
+//
+//   ./gradlew :benchmark:jmh                  run all benchmarks (ops/s + gc allocation rate)
+//   ./gradlew :benchmark:jmhSaveBaseline      run and store the results as the new baseline
+//   ./gradlew :benchmark:jmhCompareBaseline   run and fail on a throughput regression
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The benchmarked classes are compiled straight from the app's sources so the
+// numbers always reflect the current code. android.util.Log comes from :androidstubs.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/debugappproject/model/Bug.java",
+                "com/example/debugappproject/util/CodeComparator.java",
+                "com/example/debugappproject/util/NormalizedCode.java",
+                "com/example/debugappproject/execution/CodeExecutionEngine.java",
+                "com/example/debugappproject/execution/CodeExecutionResult.java",
+                "com/example/debugappproject/execution/CompiledClassCache.java",
+                "com/example/debugappproject/execution/ExecutionBudget.java",
+                "com/example/debugappproject/execution/LoopInstrumenter.java",
+                "com/example/debugappproject/execution/StdioCapture.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation(project(":androidstubs"))
+    implementation(libs.janino)
+    // Entity annotations on Bug are class-retention only
+    compileOnly(libs.room.common)
+    compileOnly(libs.androidx.annotation)
+    jmh(libs.gson)
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = layout.projectDirectory.file("baselines/jmh-baseline.json")
+val regressionThresholdPercent = (findProperty("jmh.regressionThreshold") as String?)?.toDouble() ?: 10.0
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+    jvmArgsAppend.add("-Dbugs.json=" + rootProject.file("app/src/main/assets/bugs.json").absolutePath)
+}
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    description = "Runs JMH and stores the results as the baseline."
+    dependsOn("jmh")
+    from(jmhResults)
+    into(layout.projectDirectory.dir("baselines"))
+    rename { "jmh-baseline.json" }
+}
+
+tasks.register("jmhCompareBaseline") {
+    group = "benchmark"
+    description = "Runs JMH and fails if any benchmark lost more than the threshold in throughput."
+    dependsOn("jmh")
+    doLast {
+        val baselineFile = jmhBaseline.asFile
+        if (!baselineFile.exists()) {
+            logger.lifecycle("No baseline yet; run :benchmark:jmhSaveBaseline first.")
+            return@doLast
+        }
+
+        // benchmark name -> (ops/s, bytes allocated per op)
+        fun scores(file: File): Map<String, Pair<Double, Double?>> =
+            (JsonSlurper().parse(file) as List<*>).associate { entry ->
+                val run = entry as Map<*, *>
+                val params = (run["params"] as Map<*, *>?)
+                    ?.entries?.joinToString(",", "[", "]") { "${it.key}=${it.value}" } ?: ""
+                val score = ((run["primaryMetric"] as Map<*, *>)["score"] as Number).toDouble()
+                val alloc = (run["secondaryMetrics"] as Map<*, *>?)
+                    ?.entries?.firstOrNull { it.key.toString().endsWith("gc.alloc.rate.norm") }
+                    ?.let { ((it.value as Map<*, *>)["score"] as Number).toDouble() }
+                "${run["benchmark"]}$params" to Pair(score, alloc)
+            }
+
+        val baseline = scores(baselineFile)
+        val current = scores(jmhResults.get().asFile)
+        val regressions = mutableListOf<String>()
+
+        current.forEach { (name, result) ->
+            val before = baseline[name] ?: return@forEach
+            val change = (result.first - before.first) / before.first * 100
+            val alloc = if (result.second != null && before.second != null)
+                String.format("  alloc %.0f -> %.0f B/op", before.second, result.second) else ""
+            logger.lifecycle(String.format("%-90s %12.1f -> %12.1f ops/s (%+.1f%%)%s",
+                name, before.first, result.first, change, alloc))
+            if (change < -regressionThresholdPercent) {
+                regressions += name
+            }
+        }
+
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Throughput regressed more than $regressionThresholdPercent%: " +
+                regressions.joinToString())
+        }
+    }
+}
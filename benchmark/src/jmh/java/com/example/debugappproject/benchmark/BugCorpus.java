@@ -0,0 +1,94 @@
+package com.example.debugappproject.benchmark;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BugCorpus - The shipped bug corpus (assets/bugs.json) as benchmark input.
+ *
+ * Each sample carries the broken code, the reference fix, and a "correct
+ * submission": the fix re-indented and re-spaced the way a player's editor
+ * tends to leave it, so codesMatch() goes through normalization rather than
+ * an equals() fast path.
+ */
+final class BugCorpus {
+
+    static final String PATH_PROPERTY = "bugs.json";
+
+    static final class Sample {
+        final String id;
+        final String brokenCode;
+        final String fixedCode;
+        final String correctSubmission;
+
+        Sample(String id, String brokenCode, String fixedCode) {
+            this.id = id;
+            this.brokenCode = brokenCode;
+            this.fixedCode = fixedCode;
+            this.correctSubmission = reformat(fixedCode);
+        }
+    }
+
+    // Field names match assets/bugs.json
+    private static final class Json {
+        List<JsonBug> bugs;
+    }
+
+    private static final class JsonBug {
+        String id;
+        String brokenCode;
+        String fixedCode;
+    }
+
+    private BugCorpus() {
+    }
+
+    /**
+     * Loads every bug that has both broken and fixed code.
+     */
+    static List<Sample> load() {
+        String path = System.getProperty(PATH_PROPERTY);
+        if (path == null) {
+            throw new IllegalStateException("-D" + PATH_PROPERTY + "=<path to assets/bugs.json> not set");
+        }
+
+        Json json;
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            json = new Gson().fromJson(reader, Json.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + path, e);
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        if (json != null && json.bugs != null) {
+            for (JsonBug bug : json.bugs) {
+                if (bug.brokenCode != null && bug.fixedCode != null) {
+                    samples.add(new Sample(bug.id, bug.brokenCode, bug.fixedCode));
+                }
+            }
+        }
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("No bugs with broken and fixed code in " + path);
+        }
+        return samples;
+    }
+
+    private static String reformat(String code) {
+        StringBuilder sb = new StringBuilder(code.length() + 64);
+        for (String line : code.split("\n", -1)) {
+            String trimmed = line.trim();
+            boolean indented = !trimmed.isEmpty() && Character.isWhitespace(line.charAt(0));
+            sb.append(indented ? "\t" : "")
+                    .append(trimmed.replace("=", " = ").replace(",", ", "))
+                    .append("  \n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.debugappproject.benchmark;
+
+import com.example.debugappproject.util.CodeComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CodeComparatorBenchmark - Submission checking against the real bug corpus.
+ *
+ * Each invocation takes the next bug in the corpus, so the score is an
+ * average over realistic code sizes rather than one hand-picked snippet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CodeComparatorBenchmark {
+
+    private List<BugCorpus.Sample> samples;
+    private BugCorpus.Sample sample;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadCorpus() {
+        samples = BugCorpus.load();
+    }
+
+    @Setup(Level.Invocation)
+    public void nextSample() {
+        sample = samples.get(next);
+        next = (next + 1) % samples.size();
+    }
+
+    @Benchmark
+    public String normalizeCode() {
+        return CodeComparator.normalizeCode(sample.correctSubmission);
+    }
+
+    @Benchmark
+    public String extractCoreFix() {
+        return CodeComparator.extractCoreFix(sample.correctSubmission);
+    }
+
+    @Benchmark
+    public double calculateSimilarity() {
+        return CodeComparator.calculateSimilarity(sample.brokenCode, sample.fixedCode);
+    }
+
+    @Benchmark
+    public boolean codesMatchCorrectSubmission() {
+        return CodeComparator.codesMatch(sample.correctSubmission, sample.fixedCode);
+    }
+
+    @Benchmark
+    public boolean codesMatchBrokenSubmission() {
+        return CodeComparator.codesMatch(sample.brokenCode, sample.fixedCode);
+    }
+}
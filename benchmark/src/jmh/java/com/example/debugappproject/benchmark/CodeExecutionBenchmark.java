@@ -0,0 +1,73 @@
+package com.example.debugappproject.benchmark;
+
+import com.example.debugappproject.execution.CodeExecutionEngine;
+import com.example.debugappproject.execution.CodeExecutionResult;
+import com.example.debugappproject.execution.CompiledClassCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CodeExecutionBenchmark - Janino compile + run, with and without a cache hit.
+ *
+ * coldCompileAndRun changes a comment on every call so the source hash never
+ * repeats and each call pays for a full compile. warmCacheHit runs the same
+ * source every time, which is what a player pressing Run again sees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CodeExecutionBenchmark {
+
+    // Loops, arrays and string building, like a typical mission
+    private static final String SNIPPET =
+            "int[] values = {5, 3, 8, 1, 9, 2};\n" +
+            "java.util.Arrays.sort(values);\n" +
+            "StringBuilder sb = new StringBuilder();\n" +
+            "for (int i = 0; i < values.length; i++) {\n" +
+            "    sb.append(values[i]).append(' ');\n" +
+            "}\n" +
+            "System.out.println(sb.toString().trim());";
+
+    private CodeExecutionEngine coldEngine;
+    private CodeExecutionEngine warmEngine;
+    private long run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        coldEngine = new CodeExecutionEngine(new CompiledClassCache(1));
+        warmEngine = new CodeExecutionEngine(new CompiledClassCache());
+        requireSuccess(warmEngine.execute(SNIPPET));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        coldEngine.shutdown();
+        warmEngine.shutdown();
+    }
+
+    @Benchmark
+    public CodeExecutionResult coldCompileAndRun() {
+        return coldEngine.execute("// run " + (run++) + "\n" + SNIPPET);
+    }
+
+    @Benchmark
+    public CodeExecutionResult warmCacheHit() {
+        return warmEngine.execute(SNIPPET);
+    }
+
+    private static void requireSuccess(CodeExecutionResult result) {
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("Benchmark snippet failed: " + result.getErrorMessage());
+        }
+    }
+}
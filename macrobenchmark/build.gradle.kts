@@ -0,0 +1,41 @@
+// Startup macrobenchmarks and startup-profile generation, run on a connected
+// device (API 28+) against the app's benchmark build.
+//
+//   ./gradlew :macrobenchmark:connectedBenchmarkReleaseAndroidTest   cold/warm/hot start timings
+//   ./gradlew :app:generateBaselineProfile                           regenerate baseline + startup profile
+//
+// Results (JSON and Perfetto traces with the app's "DM:" startup sections)
+// are written to build/outputs/connected_android_test_additional_output.
+
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.baselineprofile)
+}
+
+android {
+    namespace = "com.debugmaster.app.macrobenchmark"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 34
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+
+    targetProjectPath = ":app"
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
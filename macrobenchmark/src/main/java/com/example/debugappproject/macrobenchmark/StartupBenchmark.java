@@ -0,0 +1,100 @@
+package com.example.debugappproject.macrobenchmark;
+
+import androidx.annotation.OptIn;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.ExperimentalMetricApi;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Cold, warm and hot start of the app, with and without the baseline
+ * profile.
+ *
+ * StartupTimingMetric reports timeToInitialDisplayMs (first frame) and
+ * timeToFullDisplayMs (splash interactive, via reportFullyDrawn). The
+ * TraceSectionMetrics break the time down by the app's StartupTrace
+ * sections.
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    // StartupTrace sections on the launch path (see DebugMasterApplication,
+    // MainActivity and SplashFragment)
+    private static final String[] SECTIONS = {
+            "DM:App.hilt",
+            "DM:App.theme",
+            "DM:App.seedStart",
+            "DM:Main.superOnCreate",
+            "DM:Main.inflate",
+            "DM:Main.navigation",
+            "DM:Splash.managers",
+            "DM:Splash.views",
+            "DM:Splash.animations",
+            "DM:Seed.sync",
+    };
+
+    @Rule
+    public final MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(StartupMode startupMode, CompilationMode compilationMode) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "{0}-{1}")
+    public static List<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (StartupMode mode : StartupMode.values()) {
+            parameters.add(new Object[]{mode, new CompilationMode.None()});
+            parameters.add(new Object[]{mode, new CompilationMode.Partial()});
+        }
+        return parameters;
+    }
+
+    @Test
+    public void startup() {
+        benchmarkRule.measureRepeated(
+                StartupScenario.PACKAGE,
+                metrics(),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    StartupScenario.prepare(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    StartupScenario.launchUntilInteractive(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @OptIn(markerClass = ExperimentalMetricApi.class)
+    private static List<Metric> metrics() {
+        List<Metric> metrics = new ArrayList<>(Arrays.<Metric>asList(new StartupTimingMetric()));
+        for (String section : SECTIONS) {
+            metrics.add(new TraceSectionMetric(section));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.debugappproject.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the classes and methods used from launch to an interactive
+ * splash. Run through ./gradlew :app:generateBaselineProfile, which copies
+ * the baseline and startup profiles into the app's sources.
+ *
+ * The same rules go into the startup profile, which R8 uses to lay out
+ * the startup code in the primary dex.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupProfileGenerator {
+
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+
+    @Rule
+    public final BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                StartupScenario.PACKAGE,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                null,   // Default output file name
+                true,   // Include in the startup profile
+                scope -> {
+                    StartupScenario.prepare(scope);
+                    scope.pressHome();
+                    StartupScenario.launchUntilInteractive(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
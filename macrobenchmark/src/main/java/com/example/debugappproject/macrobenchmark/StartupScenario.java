@@ -0,0 +1,48 @@
+package com.example.debugappproject.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The app launch shared by the startup benchmark and profile generator:
+ * launcher intent to a usable START button on the splash.
+ */
+final class StartupScenario {
+
+    static final String PACKAGE = "com.debugmaster.app";
+
+    // Splash hint once START works (button shown and content ready)
+    private static final String INTERACTIVE_TEXT = "[ TAP TO START ]";
+    private static final long INTERACTIVE_TIMEOUT_MS = 15000;
+
+    private StartupScenario() {
+    }
+
+    /**
+     * Grants the notification permission so its dialog (Android 13+) doesn't
+     * cover the splash. Harmless on older versions.
+     */
+    static void prepare(MacrobenchmarkScope scope) {
+        try {
+            scope.getDevice().executeShellCommand(
+                    "pm grant " + PACKAGE + " android.permission.POST_NOTIFICATIONS");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Launches the app and waits until the splash is interactive, which is
+     * also when it calls reportFullyDrawn().
+     */
+    static void launchUntilInteractive(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        if (!scope.getDevice().wait(Until.hasObject(By.text(INTERACTIVE_TEXT)), INTERACTIVE_TIMEOUT_MS)) {
+            throw new AssertionError("Splash not interactive after " + INTERACTIVE_TIMEOUT_MS + "ms");
+        }
+    }
+}
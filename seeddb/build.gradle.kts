@@ -0,0 +1,43 @@
+// Build-time generator of the prebuilt database asset. The app's
+// generate<Variant>PrebuiltDatabase tasks run PrebuiltDatabaseGenerator with
+// bugs.json and the exported Room schema; see app/build.gradle.kts.
+
+plugins {
+    java
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The seed models, the fixed-code normalizer and the seeding helpers are
+// compiled straight from the app's sources, so the asset always matches
+// what DatabaseSeeder would write on the device.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/debugappproject/data/seeding/PrebuiltDatabaseGenerator.java",
+                "com/example/debugappproject/data/seeding/LearningPathCatalog.java",
+                "com/example/debugappproject/data/seeding/SeedJsonStreamer.java",
+                "com/example/debugappproject/data/seeding/SeedManifestDiff.java",
+                "com/example/debugappproject/model/Bug.java",
+                "com/example/debugappproject/model/BugInPath.java",
+                "com/example/debugappproject/model/Hint.java",
+                "com/example/debugappproject/model/LearningPath.java",
+                "com/example/debugappproject/model/SeedManifestEntry.java",
+                "com/example/debugappproject/util/NormalizedCode.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation(libs.gson)
+    implementation(libs.sqlite.jdbc)
+    // Entity annotations are class-retention only
+    compileOnly(libs.room.common)
+    compileOnly(libs.androidx.annotation)
+}
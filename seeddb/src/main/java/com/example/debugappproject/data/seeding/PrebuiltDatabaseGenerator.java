@@ -0,0 +1,280 @@
+package com.example.debugappproject.data.seeding;
+
+import com.example.debugappproject.model.Bug;
+import com.example.debugappproject.model.BugInPath;
+import com.example.debugappproject.model.Hint;
+import com.example.debugappproject.model.LearningPath;
+import com.example.debugappproject.model.SeedManifestEntry;
+import com.example.debugappproject.util.NormalizedCode;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════════╗
+ * ║              PREBUILT DATABASE GENERATOR (build time, JVM)                   ║
+ * ╚══════════════════════════════════════════════════════════════════════════════╝
+ *
+ * Writes the seed content into an SQLite file that ships in
+ * assets/databases. A fresh install opens it with Room's createFromAsset,
+ * so bugs, hints and learning paths exist before the first screen instead
+ * of after an on-device seed. Run by the generate*PrebuiltDatabase tasks
+ * in app/build.gradle.kts.
+ *
+ * Tables, indexes and the identity hash come from Room's exported schema,
+ * so Room accepts the file as its current version. The seed_manifest rows
+ * use the same keys and hashes as DatabaseSeeder, so the first sync on the
+ * device finds this content unchanged and only adds what is left out here
+ * (the progress row and achievements).
+ *
+ * Usage: PrebuiltDatabaseGenerator <bugs.json> <schema dir> <db version> <output .db>
+ */
+public final class PrebuiltDatabaseGenerator {
+
+    private static final int INSERT_BATCH_SIZE = 50;
+    private static final Gson GSON = new Gson();
+
+    private PrebuiltDatabaseGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("Usage: PrebuiltDatabaseGenerator <bugs.json> <schema dir> <db version> <output .db>");
+            System.exit(2);
+        }
+        File bugsJson = new File(args[0]);
+        JsonObject schema = readSchema(new File(args[1]), Integer.parseInt(args[2]));
+        File output = new File(args[3]);
+
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        Files.deleteIfExists(output.toPath());
+
+        try (Connection db = DriverManager.getConnection("jdbc:sqlite:" + output.getAbsolutePath())) {
+            db.setAutoCommit(false);
+            Map<String, JsonObject> entities = createTables(db, schema);
+            List<SeedManifestDiff> manifest = writeContent(db, entities, bugsJson);
+            try (TableWriter writer = new TableWriter(db, entities.get("seed_manifest"), SeedManifestEntry.class)) {
+                for (SeedManifestDiff diff : manifest) {
+                    for (SeedManifestEntry entry : diff.getChangedEntries()) {
+                        writer.write(entry);
+                    }
+                }
+            }
+            db.commit();
+
+            db.setAutoCommit(true);
+            try (Statement statement = db.createStatement()) {
+                statement.execute("PRAGMA user_version = " + schema.get("version").getAsInt());
+                statement.execute("VACUUM");
+            }
+        }
+        System.out.println("Prebuilt database v" + schema.get("version").getAsInt()
+                + " written to " + output + " (" + output.length() / 1024 + " KB)");
+    }
+
+    /**
+     * Reads the schema Room exported for exactly this database version. Any
+     * other file in the directory (e.g. left behind by another branch) would
+     * give the asset the wrong identity hash, and Room would reject it.
+     */
+    private static JsonObject readSchema(File schemaDir, int version) throws IOException {
+        File file = new File(schemaDir, version + ".json");
+        if (!file.isFile()) {
+            throw new IOException("No Room schema for version " + version + " in " + schemaDir
+                    + " (is room.schemaLocation set?)");
+        }
+        JsonObject schema;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            schema = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("database");
+        }
+        if (schema.get("version").getAsInt() != version) {
+            throw new IOException(file + " is for version " + schema.get("version").getAsInt()
+                    + ", expected " + version);
+        }
+        return schema;
+    }
+
+    /**
+     * Runs the schema's CREATE statements and Room's setup queries (the
+     * room_master_table identity hash). Returns the entities by table name.
+     */
+    private static Map<String, JsonObject> createTables(Connection db, JsonObject schema)
+            throws SQLException {
+        Map<String, JsonObject> entities = new HashMap<>();
+        try (Statement statement = db.createStatement()) {
+            for (JsonElement element : schema.getAsJsonArray("entities")) {
+                JsonObject entity = element.getAsJsonObject();
+                String table = entity.get("tableName").getAsString();
+                entities.put(table, entity);
+                statement.execute(withTableName(entity.get("createSql").getAsString(), table));
+                if (entity.has("indices")) {
+                    for (JsonElement index : entity.getAsJsonArray("indices")) {
+                        statement.execute(withTableName(
+                                index.getAsJsonObject().get("createSql").getAsString(), table));
+                    }
+                }
+            }
+            for (JsonElement query : schema.getAsJsonArray("setupQueries")) {
+                statement.execute(query.getAsString());
+            }
+        }
+        return entities;
+    }
+
+    private static String withTableName(String sql, String table) {
+        return sql.replace("${TABLE_NAME}", table);
+    }
+
+    /**
+     * Writes bugs, hints, learning paths and bug-path mappings the way a
+     * first DatabaseSeeder sync would, and returns their manifest entries.
+     */
+    private static List<SeedManifestDiff> writeContent(Connection db, Map<String, JsonObject> entities,
+                                                       File bugsJson) throws Exception {
+        SeedManifestDiff bugDiff = newDiff(SeedManifestEntry.KIND_BUG);
+        SeedManifestDiff hintDiff = newDiff(SeedManifestEntry.KIND_HINTS);
+        SeedManifestDiff pathDiff = newDiff(SeedManifestEntry.KIND_PATH);
+        SeedManifestDiff mappingDiff = newDiff(SeedManifestEntry.KIND_BUG_IN_PATH);
+
+        List<Bug> bugs = new ArrayList<>();
+        Map<Integer, List<Hint>> hintsByBug = new LinkedHashMap<>();
+        try (TableWriter bugWriter = new TableWriter(db, entities.get("bugs"), Bug.class);
+             Reader reader = Files.newBufferedReader(bugsJson.toPath(), StandardCharsets.UTF_8)) {
+            new SeedJsonStreamer(GSON, INSERT_BATCH_SIZE).stream(reader, batch -> {
+                for (Bug bug : batch) {
+                    // Hashed as parsed, before the derived fixed-code forms are filled in
+                    bugDiff.offer(String.valueOf(bug.getId()), SeedManifestDiff.hashRecord(bug));
+                    NormalizedCode.storeFixedCodeForms(bug);
+                    bugWriter.write(bug);
+                    bugs.add(bug);
+                }
+            }, batch -> {
+                for (Hint hint : batch) {
+                    hintsByBug.computeIfAbsent(hint.getBugId(), id -> new ArrayList<>()).add(hint);
+                }
+            });
+        }
+
+        try (TableWriter hintWriter = new TableWriter(db, entities.get("hints"), Hint.class)) {
+            for (Map.Entry<Integer, List<Hint>> entry : hintsByBug.entrySet()) {
+                hintDiff.offer(String.valueOf(entry.getKey()), SeedManifestDiff.hashRecord(entry.getValue()));
+                for (Hint hint : entry.getValue()) {
+                    hintWriter.write(hint);
+                }
+            }
+        }
+
+        // The bugs table has no triggers yet (the app adds them on open), so
+        // fill the search index in one pass like MIGRATION_14_15
+        try (Statement statement = db.createStatement()) {
+            statement.execute(
+                "INSERT INTO bugs_fts (rowid, title, description, category, language, hint, explanation) " +
+                "SELECT id, title, description, category, language, hint, explanation FROM bugs");
+        }
+
+        try (TableWriter pathWriter = new TableWriter(db, entities.get("learning_paths"), LearningPath.class)) {
+            for (LearningPath path : LearningPathCatalog.createPaths()) {
+                pathDiff.offer(String.valueOf(path.getId()), SeedManifestDiff.hashRecord(path));
+                pathWriter.write(path);
+            }
+        }
+        try (TableWriter mappingWriter = new TableWriter(db, entities.get("bug_in_path"), BugInPath.class)) {
+            for (BugInPath mapping : LearningPathCatalog.assignBugs(bugs)) {
+                mappingDiff.offer(SeedManifestEntry.keyOf(mapping), SeedManifestDiff.hashRecord(mapping));
+                mappingWriter.write(mapping);
+            }
+        }
+
+        List<SeedManifestDiff> diffs = new ArrayList<>();
+        Collections.addAll(diffs, bugDiff, hintDiff, pathDiff, mappingDiff);
+        return diffs;
+    }
+
+    private static SeedManifestDiff newDiff(String kind) {
+        return new SeedManifestDiff(kind, Collections.emptyList(), false);
+    }
+
+    /**
+     * Inserts entity objects into their table, reading each column from the
+     * field the schema maps it to. An autogenerated primary key is left to
+     * SQLite, as Room's @Insert does.
+     */
+    private static final class TableWriter implements AutoCloseable {
+        private final PreparedStatement insert;
+        private final List<Field> fields = new ArrayList<>();
+
+        TableWriter(Connection db, JsonObject entity, Class<?> type) throws Exception {
+            JsonObject primaryKey = entity.getAsJsonObject("primaryKey");
+            Set<String> generated = new HashSet<>();
+            if (primaryKey.get("autoGenerate").getAsBoolean()) {
+                for (JsonElement column : primaryKey.getAsJsonArray("columnNames")) {
+                    generated.add(column.getAsString());
+                }
+            }
+
+            List<String> columns = new ArrayList<>();
+            for (JsonElement element : entity.getAsJsonArray("fields")) {
+                JsonObject column = element.getAsJsonObject();
+                String columnName = column.get("columnName").getAsString();
+                if (generated.contains(columnName)) {
+                    continue;
+                }
+                Field field = type.getDeclaredField(column.get("fieldPath").getAsString());
+                field.setAccessible(true);
+                fields.add(field);
+                columns.add('`' + columnName + '`');
+            }
+
+            insert = db.prepareStatement("INSERT INTO `" + entity.get("tableName").getAsString() + "` ("
+                    + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")");
+        }
+
+        /**
+         * Unchecked so it can be called from SeedJsonStreamer's batch handlers.
+         */
+        void write(Object record) {
+            try {
+                for (int i = 0; i < fields.size(); i++) {
+                    Object value = fields.get(i).get(record);
+                    if (value instanceof Boolean) {
+                        value = (Boolean) value ? 1 : 0;
+                    }
+                    insert.setObject(i + 1, value);
+                }
+                insert.executeUpdate();
+            } catch (IllegalAccessException | SQLException e) {
+                throw new IllegalStateException("Cannot write " + record, e);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            insert.close();
+        }
+    }
+}
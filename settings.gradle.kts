@@ -21,4 +21,8 @@ dependencyResolutionManagement {
 
 rootProject.name = "DebugAppProject"
 include(":app")
- 
\ No newline at end of file
+include(":benchmark")
+include(":seeddb")
+include(":macrobenchmark")
+include(":battlesim")
+include(":androidstubs")